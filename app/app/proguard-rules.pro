@@ -18,4 +18,9 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# ScrollDispatcher 가 기존 스크롤 리스너를 이어서 호출하기 위해 읽는 필드
+-keepclassmembers class androidx.core.widget.NestedScrollView {
+    private androidx.core.widget.NestedScrollView$OnScrollChangeListener mOnScrollChangeListener;
+}
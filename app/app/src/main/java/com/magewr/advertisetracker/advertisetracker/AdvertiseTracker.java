@@ -1,62 +1,254 @@
 package com.magewr.advertisetracker.advertisetracker;
 
-
-import android.graphics.Rect;
-import android.view.View;
-import android.view.ViewGroup;
-
+import android.os.SystemClock;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.EventRecorder;
+import com.magewr.advertisetracker.advertisetracker.engine.AdClickDetector;
+import com.magewr.advertisetracker.advertisetracker.engine.AdClickListener;
+import com.magewr.advertisetracker.advertisetracker.engine.ExposureListener;
+import com.magewr.advertisetracker.advertisetracker.engine.ListInListHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.ListInScrollHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.Pager2InListHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.Pager2InScrollHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.ScrollDispatcher;
+import com.magewr.advertisetracker.advertisetracker.engine.PagerInListHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.PagerInScrollHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.PlacementHandler;
+import com.magewr.advertisetracker.advertisetracker.engine.VisibilityEngine;
+import com.magewr.advertisetracker.advertisetracker.engine.VisibilityListener;
 import com.magewr.advertisetracker.advertisetracker.enums.ADType;
 import com.magewr.advertisetracker.advertisetracker.enums.State;
-import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDataSource;
+import com.magewr.advertisetracker.advertisetracker.exposure.ExposureAccumulator;
 import com.magewr.advertisetracker.advertisetracker.interfaces.EventNameDataSource;
+import com.magewr.advertisetracker.advertisetracker.interfaces.PlacementEventNameDataSource;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+import com.magewr.advertisetracker.advertisetracker.scroll.ScrollIdleDetector;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.widget.NestedScrollView;
-import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager.widget.ViewPager;
-import io.reactivex.rxjava3.core.Observable;
+import androidx.viewpager2.widget.ViewPager2;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.Disposable;
-import io.reactivex.rxjava3.schedulers.Schedulers;
-import io.reactivex.rxjava3.subjects.PublishSubject;
 
+/**
+ * 화면(페이지) 단위 광고 트래커
+ * 페이지 이벤트(PV, C) 중복 체크와 화면의 광고 추적만 가지며 전송 큐, 세션 중복 체크, 노출 시간 집계는 TrackerRuntime 을 공유
+ * TrackerRuntime.getPage 로 화면마다 받아서 사용
+ * 페이지는 멈춘 상태로 만들어지며 bindLifecycle (또는 TrackerRuntime.newPage) 으로 시작해야 광고 추적과 요약 타이머가 동작함
+ */
 public class AdvertiseTracker {
-    // session Event 저장용 Set, 세션만료까지 유지이므로 static
-    private static Set<String> sessionEventSet = new HashSet<>();
-    // Page Event 저장용 Set, 필요시 초기화 가능
-    private Set<String> pageEventSet = new HashSet<>();
+    // 스크롤 상태를 알 수 없는 스크롤뷰에서 마지막 스크롤 이후 멈춤으로 판단하기까지의 시간
+    private static final long SCROLL_IDLE_TIMEOUT_MILLIS = 300;
 
-    // DataSource Interface
-    private EventNameDataSource eventNameDataSource;
-    private AdvertiseTrackerDataSource advertiseTrackerDataSource;
+    private final TrackerRuntime runtime;
+    // Page Event 중복 체크 및 전송, 필요시 초기화 가능
+    private final EventRecorder eventRecorder;
 
+    // DataSource Interface, EventNameDataSource 로 설정한 경우도 여기로 감싸서 보관
+    private PlacementEventNameDataSource eventNameDataSource;
+
+    AdvertiseTracker(TrackerRuntime runtime) {
+        this.runtime = runtime;
+        eventRecorder = new EventRecorder(runtime.getEventSession());
+        eventRecorder.setEventDispatcher(runtime.getEventDispatcher());
+    }
+
+    /**
+     * ADType 으로 이벤트명을 제공하는 데이터소스 설정, 설정 파일에서 읽은 플레이스먼트는 이벤트명이 없으므로 전송되지 않음
+     */
     public void setEventNameDataSource(EventNameDataSource eventNameDataSource) {
+        if (eventNameDataSource == null) {
+            this.eventNameDataSource = null;
+            return;
+        }
+
+        this.eventNameDataSource = (placement, position, bannerViewHolder) -> {
+            ADType type = placement.getType();
+            return type != null ? eventNameDataSource.getEventName(type, position, bannerViewHolder) : null;
+        };
+    }
+
+    /**
+     * 플레이스먼트로 이벤트명을 제공하는 데이터소스 설정, 설정 파일에서 읽은 플레이스먼트를 추적하는 경우 사용
+     */
+    public void setPlacementEventNameDataSource(PlacementEventNameDataSource eventNameDataSource) {
         this.eventNameDataSource = eventNameDataSource;
     }
 
-    public void setAdvertiseTrackerDataSource(AdvertiseTrackerDataSource advertiseTrackerDataSource) {
-        this.advertiseTrackerDataSource = advertiseTrackerDataSource;
+    // 아이템별 이벤트명 캐시, enableEventNameCache 전에는 null
+    private EventNameCache eventNameCache;
+
+    /**
+     * 이벤트명 캐시 사용 시작, 이미 본 배너는 가시성 계산마다 EventNameDataSource 를 다시 호출하지 않음
+     * 어댑터 데이터가 바뀌면 자동으로 무효화되며 (EventNameCache 참고) 화면 종료시 해제됨
+     * 이벤트명이 위치나 아이템 id 가 아닌 다른 상태에 따라 바뀌는 경우에는 사용하지 말 것
+     *
+     * @param maxSize 기억할 최대 이벤트명 수
+     */
+    public void enableEventNameCache(int maxSize) {
+        if (eventNameCache == null)
+            eventNameCache = new EventNameCache(maxSize);
     }
 
-    // 스크롤 리스너 래핑용 인터페이스
-    private interface ScrollListener {
-        void onScroll();
+    // 자동 클릭 추적 사용 여부, enableClickTracking 이후 추가한 광고 추적부터 적용
+    private boolean isClickTrackingEnabled;
+
+    /**
+     * 자동 클릭 추적 사용 시작, 이후 추가하는 광고 추적은 광고 뷰홀더나 페이지를 탭하면 sendClickEvent 와 같은 경로로 클릭 이벤트 전송
+     * 이벤트명은 노출과 같은 EventNameDataSource 에서 받아오며, 리스트마다 탭 디텍터 하나만 붙이므로 아이템 바인딩에는 비용이 없음
+     * 터치를 가로채지 않으므로 앱의 클릭 처리는 그대로 동작하며, 이미 직접 sendClickEvent 를 호출하는 화면은 중복 전송되지 않도록 둘 중 하나만 사용
+     * 스크롤뷰 안의 ViewPager (addAdTrackingTypePagerInScroll) 는 터치 리스너를 여럿 붙일 수 없으므로 지원하지 않음
+     */
+    public void enableClickTracking() {
+        isClickTrackingEnabled = true;
     }
-    // 부모 스크롤뷰에 여러개의 리스너가 달려야 하므로 스크롤 리스너를 래핑
-    private List<ScrollListener> scrollListenerList = new ArrayList<>();
-    private NestedScrollView.OnScrollChangeListener parentScrollViewScrollListener = (v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
-        for (ScrollListener listener : scrollListenerList) {
-            listener.onScroll();
+
+    // 엔진의 핸들러가 광고뷰가 전부 보인다고 판단한 경우 이벤트명을 받아와서 전송
+    private final VisibilityListener visibilityListener = (placement, position, viewHolder) -> {
+        sendViewEvent(placement, getEventName(placement, position, viewHolder));
+    };
+
+    // 탭 디텍터가 찾은 광고의 이벤트명을 받아와서 클릭으로 전송
+    private final AdClickListener clickListener = (placement, position, viewHolder) -> {
+        sendClickEvent(placement, getEventName(placement, position, viewHolder));
+    };
+
+    // 추가된 광고 추적, 화면이 보이는 동안(isStarted)에만 동작
+    private final List<PlacementTracking> trackingList = new ArrayList<>();
+    // 시작된 페이지만 TrackerRuntime 의 보이는 페이지 수에 포함됨
+    private boolean isStarted;
+    // bindLifecycle 로 연결한 생명주기, release 시 옵저버 해제용
+    private Lifecycle boundLifecycle;
+    private boolean isReleased;
+
+    // bindLifecycle 로 연결한 화면 생명주기에 맞춰 추적을 멈추고 재개
+    private final LifecycleEventObserver lifecycleObserver = new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            switch (event) {
+                case ON_START:
+                    setStarted(true);
+                    break;
+                case ON_STOP:
+                    setStarted(false);
+                    break;
+                case ON_DESTROY:
+                    release();
+                    break;
+            }
         }
     };
 
+    // 플레이스먼트 하나의 노출 시간 집계 - 계산마다 보이는 후보의 이벤트명을 받아와서 누적기에 전달
+    private class PlacementExposure implements ExposureListener {
+        private final ExposureAccumulator exposureAccumulator;
+        private final int scope;
+        private int pass;
+        private long passTimeMillis;
+
+        PlacementExposure(ExposureAccumulator exposureAccumulator) {
+            this.exposureAccumulator = exposureAccumulator;
+            this.scope = exposureAccumulator.newScope();
+        }
+
+        @Override
+        public void onExposurePassStart(long timeMillis) {
+            pass = exposureAccumulator.beginPass();
+            passTimeMillis = timeMillis;
+        }
+
+        @Override
+        public void onInView(Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder) {
+            exposureAccumulator.onInView(scope, pass, placement, getEventName(placement, position, viewHolder), passTimeMillis);
+        }
+
+        @Override
+        public void onExposurePassEnd(long timeMillis) {
+            exposureAccumulator.endPass(scope, pass, timeMillis);
+        }
+
+        void close() {
+            exposureAccumulator.closeScope(scope, SystemClock.uptimeMillis());
+        }
+    }
+
+    // 플레이스먼트 하나의 추적 - 시작하면 엔진에 등록하고 리스너를 붙이며, 멈추면 모두 떼어내서 아무 작업도 하지 않음
+    private class PlacementTracking implements Disposable {
+        private final VisibilityEngine engine;
+        private final PlacementHandler handler;
+        private final PlacementExposure exposure;
+        private final Runnable addListeners;
+        private final Runnable removeListeners;
+        // 자동 클릭 추적을 켠 경우 탭을 받는 리스트 (ViewPager2 만 단독으로 쓰는 경우는 뷰페이저)
+        private RecyclerView clickListView;
+        private ViewPager2 clickViewPager;
+
+        private boolean isTracking;
+        private boolean isDisposed;
+
+        PlacementTracking(VisibilityEngine engine, PlacementHandler handler, @Nullable PlacementExposure exposure, Runnable addListeners, Runnable removeListeners) {
+            this.engine = engine;
+            this.handler = handler;
+            this.exposure = exposure;
+            this.addListeners = addListeners;
+            this.removeListeners = removeListeners;
+        }
+
+        // 등록 직후 1회 계산되므로 화면이 다시 보이면 바로 재계산됨
+        void start() {
+            if (isTracking || isDisposed)
+                return;
+
+            isTracking = true;
+            engine.register(handler);
+            addListeners.run();
+            if (clickListView != null)
+                AdClickDetector.register(clickListView, handler);
+            if (clickViewPager != null)
+                AdClickDetector.register(clickViewPager, handler);
+        }
+
+        void stop() {
+            if (!isTracking)
+                return;
+
+            isTracking = false;
+            if (clickListView != null)
+                AdClickDetector.unregister(clickListView, handler);
+            if (clickViewPager != null)
+                AdClickDetector.unregister(clickViewPager, handler);
+            removeListeners.run();
+            engine.unregister(handler);
+            if (exposure != null)
+                exposure.close();
+        }
+
+        @Override
+        public void dispose() {
+            if (isDisposed)
+                return;
+
+            stop();
+            isDisposed = true;
+            trackingList.remove(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return isDisposed;
+        }
+    }
+
     ///////////////////////////////////////////////////
     // 광고 추적 public method
     ///////////////////////////////////////////////////
@@ -68,48 +260,47 @@ public class AdvertiseTracker {
      * @param type ADType
      * @param adListView 스크롤 주체가 되는 부모 RecyclerView
      * @param adViewHolderClass 광고 컨텐츠가 있는 뷰홀더 클래스
-     * @return Observable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Observable로 리턴
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
     public Disposable addAdTrackingTypeListInScroll(ADType type, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
-        // 스크롤이벤트 발행하는 서브젝트
-        PublishSubject<State> scrollSubject = PublishSubject.create();
+        return addAdTrackingTypeListInScroll(type.getPlacement(), adListView, adViewHolderClass);
+    }
+
+    /**
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
+     */
+    public Disposable addAdTrackingTypeListInScroll(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
+
+        // 가시성 계산은 윈도우 공유 엔진에서 프레임당 1회로 모아서 처리, 등록 직후 최초 1회 계산됨
+        VisibilityEngine engine = VisibilityEngine.of(adListView);
+        ListInListHandler handler = new ListInListHandler(placement, adListView, adViewHolderClass, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
 
-        // 스크롤 이벤트를 rx로 발행 (rxbinding에서 연속된 이벤트에서 누락이 있어서 수동으로 발행)
         RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
 
             // RecyclerView가 스크롤 주체일 경우 ScrollState로 판별 가능하므로 IDLE만 추적
             @Override
             public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                handler.setScrolling(newState != RecyclerView.SCROLL_STATE_IDLE);
                 if (newState == RecyclerView.SCROLL_STATE_IDLE)
-                    scrollSubject.onNext(State.Idle);
+                    handler.requestPass();
+            }
+
+            // 스크롤 중에도 노출을 인정하는 기준인 경우만 계산 요청됨
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                handler.onScroll();
             }
         };
-        adListView.addOnScrollListener(scrollListener);
-
-        // resume되었을 경우 최초 1회 발행하기 위한 observable : 이벤트 구독된 이후에는 발행안됨
-        final Observable<State> startTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject);
-
-        return scrollSubject
-                .subscribeOn(Schedulers.io())   // 백그라운드 쓰레드에서 작업
-                .mergeWith(startTimer)          // resume된경우 최초 1회 발행
-                .flatMap(state -> getBannerViewHolder(adListView, adViewHolderClass))
-                .doOnDispose(() -> scrollListenerList.remove(scrollListener)) // dispose시 리스너 해제
-                .subscribe(viewHolder -> {
-                            Rect scrollBounds = new Rect();
-                            adListView.getHitRect(scrollBounds);
-
-                            if (!viewHolder.itemView.getLocalVisibleRect(scrollBounds) || scrollBounds.height() < viewHolder.itemView.getHeight()) {
-                                // 뷰가 부분적으로 보일 경우
-                            } else {
-                                // 뷰가 전부 보일 경우
-                                String eventName = eventNameDataSource.getEventName(type, viewHolder.getAdapterPosition(), viewHolder);
-                                sendViewEvent(type, eventName);
-                            }
-                        }, error -> {
-                        }
-                );
+
+        // 화면이 보이는 동안에만 리스너를 붙여둠
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                () -> adListView.addOnScrollListener(scrollListener),
+                () -> adListView.removeOnScrollListener(scrollListener)), adListView, null);
     }
 
     /**
@@ -119,86 +310,47 @@ public class AdvertiseTracker {
      * @param type ADType
      * @param adListView 스크롤 주체가 되는 부모 RecyclerView
      * @param adViewHolderClass 광고 ViewPager 가 있는 뷰홀더 클래스
-     * @return Observable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Observable로 리턴
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
     public Disposable addAdTrackingPagerInList(ADType type, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
-        // 스크롤이벤트 발행하는 서브젝트
-        PublishSubject<State> scrollSubject = PublishSubject.create();
+        return addAdTrackingPagerInList(type.getPlacement(), adListView, adViewHolderClass);
+    }
+
+    /**
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
+     */
+    public Disposable addAdTrackingPagerInList(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
 
-        List<ViewPager> adViewPagerList = new ArrayList<>();
+        // 뷰페이저 탐색과 페이지 변경 리스너는 핸들러에서 관리
+        VisibilityEngine engine = VisibilityEngine.of(adListView);
+        PagerInListHandler handler = new PagerInListHandler(placement, adListView, adViewHolderClass, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
 
-        // 스크롤 이벤트를 rx로 발행 (rxbinding에서 연속된 이벤트에서 누락이 있어서 수동으로 발행)
         RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
 
             // RecyclerView가 스크롤 주체일 경우 ScrollState로 판별 가능하므로 IDLE만 추적
             @Override
             public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                handler.setScrolling(newState != RecyclerView.SCROLL_STATE_IDLE);
                 if (newState == RecyclerView.SCROLL_STATE_IDLE)
-                    scrollSubject.onNext(State.Idle);
+                    handler.requestPass();
             }
-        };
-        adListView.addOnScrollListener(scrollListener);
 
-        // 리사이클러뷰 안의 뷰페이저는 나중에 그려지므로 리스너만 미리 만들어둠
-        ViewPager.OnPageChangeListener pagerScrollListener = new ViewPager.OnPageChangeListener() {
+            // 스크롤 중에도 노출을 인정하는 기준인 경우만 계산 요청됨
             @Override
-            public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-
-            }
-
-            @Override
-            public void onPageSelected(int position) {
-
-            }
-
-            @Override
-            public void onPageScrollStateChanged(int state) {
-                if (state == RecyclerView.SCROLL_STATE_IDLE)
-                    scrollSubject.onNext(State.Idle);
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                handler.onScroll();
             }
         };
 
-        // resume되었을 경우 최초 1회 발행하기 위한 observable : 이벤트 구독된 이후에는 발행안됨
-        final Observable<State> startTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject);
-
-        return scrollSubject.throttleFirst(100, TimeUnit.MILLISECONDS)
-                .subscribeOn(Schedulers.io())   // 백그라운드 쓰레드에서 작업
-                .mergeWith(startTimer)          // resume된경우 최초 1회 발행
-                .flatMap(state -> getBannerViewHolder(adListView, adViewHolderClass))   // 배너가 있는 뷰홀더 가져옴
-                .flatMap(viewHolder -> getBannerViewPager((ViewGroup) viewHolder.itemView)) // 뷰홀더에서 배너 ViewPager 가져옴
-                .map(viewPager -> {
-                    // 리스너 등록, 추후 리스너 삭제 위해서 리스트에 담아둠
-                    if (!adViewPagerList.contains(viewPager)) {
-                        viewPager.addOnPageChangeListener(pagerScrollListener);
-                        adViewPagerList.add(viewPager);
-                    }
-                    return viewPager;
-                })
-                .doOnDispose(() -> {
-                    // 리스너 일괄 해제
-                    scrollListenerList.remove(scrollListener);
-                    for (ViewPager viewPager : adViewPagerList) {
-                        if (viewPager != null)
-                            viewPager.removeOnPageChangeListener(pagerScrollListener);
-                    }
-
-                })
-                .subscribe(viewPager -> {
-                            Rect scrollBounds = new Rect();
-                            adListView.getHitRect(scrollBounds);
-
-                            if (!viewPager.getLocalVisibleRect(scrollBounds) || scrollBounds.height() < viewPager.getHeight()) {
-                                // 뷰가 부분적으로 보일 경우
-                            } else {
-                                // 뷰가 전부 보일 경우
-                                String eventName = eventNameDataSource.getEventName(type, viewPager.getCurrentItem(), null);
-                                sendViewEvent(type, eventName);
-                            }
-                        }, error -> {
-                        }
-                );
+        // 뷰페이저 리스너는 핸들러 해제시 정리됨
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                () -> adListView.addOnScrollListener(scrollListener),
+                () -> adListView.removeOnScrollListener(scrollListener)), adListView, null);
     }
 
     /**
@@ -208,71 +360,49 @@ public class AdvertiseTracker {
      * @param parentScrollView 부모 스크롤뷰
      * @param adListView 실제 광고가 있는 리싸이클러뷰
      * @param adViewHolderClass 리싸이클러뷰에서 광고가 담기는 뷰홀더 클래스
-     * @return Observable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Observable로 리턴
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
     public Disposable addAdTrackingTypeListInScroll(ADType type, NestedScrollView parentScrollView, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
-        // 스크롤 주체가 NestedScrollView의 경우에는 ScrollState로 판별이 불가능하므로
-        // onScroll에서 처리, 이 경우에는 Scroll이 멈춘 상태를 인지할 수 없으므로
-        // 추가로 타이머 설정 - 이벤트 발행 후 타이머 틱 발생 전까지 이벤트가 발행되지 않은 경우 스탑으로 인지
-
+        return addAdTrackingTypeListInScroll(type.getPlacement(), parentScrollView, adListView, adViewHolderClass);
+    }
 
-        // 스크롤 도중일경우의 플래그
-        AtomicBoolean isScroll = new AtomicBoolean(true);
-        PublishSubject<State> scrollSubject = PublishSubject.create();
+    /**
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
+     */
+    public Disposable addAdTrackingTypeListInScroll(Placement placement, NestedScrollView parentScrollView, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
 
-        // 스크롤이 발생하면 스크롤 이벤트 발행행
-        // 스크롤 멈춤을 인지못하므로 여기서는 항상 스크롤 이벤트 발행
-        ScrollListener scrollListener = () -> {
-            isScroll.set(true);
-            scrollSubject.onNext(State.Scroll);
-        };
-        scrollListenerList.add(scrollListener);
-        parentScrollView.setOnScrollChangeListener(parentScrollViewScrollListener);
-
-
-        // resume 체크용 타이머
-        final Observable<State> startTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject);
-
-        // 스크롤 스톱 인지용 타이머
-        final Observable<State> scrollTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject)
-                .repeat();
-
-        return scrollSubject
-                .subscribeOn(Schedulers.io())   // 백그라운드 쓰레드에서 작업
-                .throttleFirst(100, TimeUnit.MILLISECONDS)
-                .mergeWith(startTimer)
-                .mergeWith(scrollTimer)
-                .filter(state -> isScroll.get() && state == State.Idle)
-                // 위 필터에 걸린 경우는 스크롤중이었는데 300ms마다 발행되는 Idle 이벤트가 가장 마지막으로 찍힌 경우이므로 스크롤이 진행하다 멈춘 것으로 판단
-                .map(state -> {
-                    isScroll.set(false);
-                    return state;
-                })
-                .flatMap(state -> getCreatedChildViewFromRecyclerView(adListView))
-                // 스크롤이 멈춘 상태이므로 현재 보여지는 자식뷰들을 가져와서 처리
-                .doOnDispose(() -> scrollListenerList.remove(scrollListener)) // dispose시 리스너 해제
-                .subscribe(viewHolder -> {
-                            // 실제 광고가 담겨있는 뷰홀더일 경우만 처리
-                            if (viewHolder.getClass() == adViewHolderClass) {
-                                Rect scrollBounds = new Rect();
-                                parentScrollView.getHitRect(scrollBounds);
-
-                                if (!viewHolder.itemView.getLocalVisibleRect(scrollBounds) || scrollBounds.height() < viewHolder.itemView.getHeight()) {
-                                    // 뷰가 부분적으로 보일 경우
-                                } else {
-                                    // 뷰가 전부 보일 경우
-                                    String eventName = eventNameDataSource.getEventName(type, adListView.getChildAdapterPosition(viewHolder.itemView), viewHolder);
-                                    sendViewEvent(type, eventName);
-                                }
-                            }
-                        }, error -> {
-
-                        }
-                );
+        // 스크롤 주체가 NestedScrollView의 경우에는 ScrollState로 판별이 불가능하므로
+        // onScroll에서 처리, 이 경우에는 Scroll이 멈춘 상태를 인지할 수 없으므로
+        // 마지막 스크롤 이후 일정시간 스크롤이 없으면 스탑으로 인지 - 스크롤 구간마다 마감 작업 하나만 예약
+
+        VisibilityEngine engine = VisibilityEngine.of(parentScrollView);
+        ListInScrollHandler handler = new ListInScrollHandler(placement, adListView, adViewHolderClass, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
+
+        ScrollIdleDetector scrollIdleDetector = new ScrollIdleDetector(SCROLL_IDLE_TIMEOUT_MILLIS, AndroidSchedulers.mainThread(), () -> {
+            handler.setScrolling(false);
+            handler.requestPass();
+        });
+
+        // 스크롤 멈춤을 인지못하므로 여기서는 항상 디텍터에 스크롤 전달
+        // 스크롤뷰마다 디스패처가 하나씩 있으므로 이 스크롤뷰가 스크롤될때만 호출됨
+        ScrollDispatcher.Registration scrollRegistration = ScrollDispatcher.of(parentScrollView).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+            scrollIdleDetector.onScroll();
+            handler.setScrolling(true);
+            handler.onScroll();
+        });
+
+        // 화면이 보이는 동안에만 리스너를 붙여둠, 멈추면 예약된 멈춤 판단도 취소
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                scrollRegistration::add,
+                () -> {
+                    scrollRegistration.remove();
+                    scrollIdleDetector.reset();
+                }), adListView, null);
     }
 
     /**
@@ -280,32 +410,49 @@ public class AdvertiseTracker {
      *
      * @param type ADType : 광고 타입
      * @param parent 부모가 되는 스크롤뷰
-     * @param adViewPager 실제 광고가 보이는 뷰페이저 (주의! ViewPager2 아님)
-     * @return Observable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Observable로 리턴
+     * @param adViewPager 실제 광고가 보이는 뷰페이저 (ViewPager2 는 addAdTrackingTypePager2InScroll 사용)
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
     public Disposable addAdTrackingTypePagerInScroll(ADType type, NestedScrollView parent, ViewPager adViewPager) {
+        return addAdTrackingTypePagerInScroll(type.getPlacement(), parent, adViewPager);
+    }
+
+    /**
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
+     */
+    public Disposable addAdTrackingTypePagerInScroll(Placement placement, NestedScrollView parent, ViewPager adViewPager) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
+
         // 스크롤뷰와 롤링배너 뷰페이저 모두 스크롤이 끝날 때 광고 추적
 
-        // 스크롤뷰 스크롤 상태 체크용 플래그 - Default : true (최초 이벤트 발행 시 필터에 걸리기 위해)
-        AtomicBoolean isScrollViewScroll = new AtomicBoolean(true);
+        VisibilityEngine engine = VisibilityEngine.of(parent);
+        PagerInScrollHandler handler = new PagerInScrollHandler(placement, adViewPager, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
+
         // 뷰페이저 스크롤 상태 체크용 플래그 - Default : false
         AtomicBoolean isPagerScroll = new AtomicBoolean(false);
 
-        PublishSubject<State> scrollSubject = PublishSubject.create();
-
-        ScrollListener scrollListener = () -> {
-            isScrollViewScroll.set(true);
-            scrollSubject.onNext(State.Scroll);
-        };
-        scrollListenerList.add(scrollListener);
-        parent.setOnScrollChangeListener(parentScrollViewScrollListener);
+        // 스크롤뷰가 멈췄을때 뷰페이저도 멈춰있을 경우에만 계산
+        ScrollIdleDetector scrollIdleDetector = new ScrollIdleDetector(SCROLL_IDLE_TIMEOUT_MILLIS, AndroidSchedulers.mainThread(), () -> {
+            if (!isPagerScroll.get()) {
+                handler.setScrolling(false);
+                handler.requestPass();
+            }
+        });
 
-        PublishSubject<State> pagerScrollSubject = PublishSubject.create();
+        ScrollDispatcher.Registration scrollRegistration = ScrollDispatcher.of(parent).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+            scrollIdleDetector.onScroll();
+            handler.setScrolling(true);
+            handler.onScroll();
+        });
 
         ViewPager.OnPageChangeListener pagerListener = new ViewPager.OnPageChangeListener() {
             @Override
             public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-
+                handler.onScroll();
             }
 
             @Override
@@ -317,251 +464,302 @@ public class AdvertiseTracker {
             public void onPageScrollStateChanged(int state) {
                 if (state == ViewPager.SCROLL_STATE_IDLE) {
                     isPagerScroll.set(false);
-                    pagerScrollSubject.onNext(State.Idle);
+                    // 뷰페이저가 멈췄을때 스크롤뷰도 멈춰있을 경우에만 계산
+                    if (scrollIdleDetector.getState() == State.Idle) {
+                        handler.setScrolling(false);
+                        handler.requestPass();
+                    }
                 }
                 else {
                     isPagerScroll.set(true);
-                    pagerScrollSubject.onNext(State.Scroll);
+                    handler.setScrolling(true);
                 }
             }
         };
-        adViewPager.addOnPageChangeListener(pagerListener);
-
-        final Observable<State> startTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject);
-
-        final Observable<State> scrollTimer = Observable.interval(300, TimeUnit.MILLISECONDS)
-                .map(x -> State.Idle)
-                .takeUntil(scrollSubject)
-                .repeat();
-
-        Observable<Boolean> scrollObservable = scrollSubject.subscribeOn(Schedulers.io())
-                .throttleFirst(100, TimeUnit.MILLISECONDS)
-                .mergeWith(scrollTimer)
-                .filter(state -> isScrollViewScroll.get() && state == State.Idle)
-                .map(state -> {
-                    isScrollViewScroll.set(false);
-                    return isScrollViewScroll.get();
-                });
-
-        return Observable.combineLatest(
-                scrollObservable,
-                pagerScrollSubject.mergeWith(startTimer).subscribeOn(Schedulers.io()),
-                (isScroll, isPagerState) -> {
-                    // 스크롤뷰, 뷰페이저 모두 스크롤이 멈춰있을 경우에만 발행
-                    if (!isScrollViewScroll.get() && !isPagerScroll.get())
-                        return adViewPager.getCurrentItem();
-                    else
-                        return -1;
-                })
-                .filter(position -> position >= 0)
-                .doOnDispose(() -> {
-                    scrollListenerList.remove(scrollListener);
-                    adViewPager.removeOnPageChangeListener(pagerListener);
-                })
-                .subscribe(position -> {
-                    Rect scrollBounds = new Rect();
-                    parent.getHitRect(scrollBounds);
-                    if (!adViewPager.getLocalVisibleRect(scrollBounds) || scrollBounds.height() < adViewPager.getHeight()) {
-                        // 뷰가 부분적으로 보일 경우
-                    } else {
-                        // 뷰가 전부 보일 경우
-                        String eventName = eventNameDataSource.getEventName(type, position, null);
-                        sendViewEvent(type, eventName);
-                    }
-                }, error -> {
 
-                });
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                () -> {
+                    scrollRegistration.add();
+                    adViewPager.addOnPageChangeListener(pagerListener);
+                },
+                () -> {
+                    scrollRegistration.remove();
+                    adViewPager.removeOnPageChangeListener(pagerListener);
+                    scrollIdleDetector.reset();
+                    isPagerScroll.set(false);
+                }));
     }
 
     /**
-     * 화면전환 시 PV클리어 위한 메소드
+     * 스크롤 주체가 RecyclerView 이고 광고가 ViewPager2 로 제공될 경우 사용하는 메소드 - Nested 가능
+     * 페이지별로 가시성을 판단하며 EventNameDataSource 에는 페이지 위치와 페이지 뷰홀더가 전달됨
+     *
+     * @param type ADType
+     * @param adListView 스크롤 주체가 되는 부모 RecyclerView
+     * @param adViewHolderClass 광고 ViewPager2 가 있는 뷰홀더 클래스
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
-    public void clearPageEventCount() {
-        pageEventSet.clear();
+    public Disposable addAdTrackingPager2InList(ADType type, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
+        return addAdTrackingPager2InList(type.getPlacement(), adListView, adViewHolderClass);
     }
 
     /**
-     * 세션만료 상황일 경우 세션 이벤트 클리어
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
      */
-    public void clearSession() {
-        sessionEventSet.clear();
-    }
+    public Disposable addAdTrackingPager2InList(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
 
+        // 뷰페이저 탐색과 페이지 변경 콜백은 핸들러에서 관리
+        VisibilityEngine engine = VisibilityEngine.of(adListView);
+        Pager2InListHandler handler = new Pager2InListHandler(placement, adListView, adViewHolderClass, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
 
+        RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+
+            // RecyclerView가 스크롤 주체일 경우 ScrollState로 판별 가능하므로 IDLE만 추적
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                handler.setScrolling(newState != RecyclerView.SCROLL_STATE_IDLE);
+                if (newState == RecyclerView.SCROLL_STATE_IDLE)
+                    handler.requestPass();
+            }
 
+            // 스크롤 중에도 노출을 인정하는 기준인 경우만 계산 요청됨
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                handler.onScroll();
+            }
+        };
 
-    ///////////////////////////////////////////////////
-    // 내부 로직 private method
-    ///////////////////////////////////////////////////
+        // 뷰페이저 콜백은 핸들러 해제시 정리됨
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                () -> adListView.addOnScrollListener(scrollListener),
+                () -> adListView.removeOnScrollListener(scrollListener)), adListView, null);
+    }
 
     /**
-     * 리싸이클러뷰에서 현재 그려져있는 뷰홀더 리스트를 가져오는 메소드
-     * @param adListView RecyclerView
-     * @return ViewHolderObservable
+     * 스크롤 주체가 NestedScrollView 이고 자식 ViewPager2 안에 광고가 있는 경우
+     * 페이지별로 가시성을 판단하며 EventNameDataSource 에는 페이지 위치와 페이지 뷰홀더가 전달됨
+     *
+     * @param type ADType : 광고 타입
+     * @param parent 부모가 되는 스크롤뷰
+     * @param adViewPager 실제 광고가 보이는 ViewPager2
+     * @return Disposable - 프래그먼트나 액티비티에서 트래킹 생명주기를 관리하기 위해 Disposable로 리턴
      */
-    private Observable<RecyclerView.ViewHolder> getCreatedChildViewFromRecyclerView(RecyclerView adListView) {
-        LinearLayoutManager lm = (LinearLayoutManager)adListView.getLayoutManager();
-        int start = lm.findFirstVisibleItemPosition();
-        int end = lm.findLastVisibleItemPosition();
-
-        // 화면에 다 안그려졌을 경우 예외처리
-        if (start == -1 || end == -1)
-            return Observable.never();
-
-        List<RecyclerView.ViewHolder> viewHolderList = new ArrayList<>();
-        for (int i = start; i <= end ; i++) {
-            RecyclerView.ViewHolder child = adListView.findViewHolderForAdapterPosition(i);
-            if (child != null)
-                viewHolderList.add(child);
-        }
-
-        if (viewHolderList.isEmpty())
-            return Observable.never();
-
-        return Observable.fromIterable(viewHolderList);
+    public Disposable addAdTrackingTypePager2InScroll(ADType type, NestedScrollView parent, ViewPager2 adViewPager) {
+        return addAdTrackingTypePager2InScroll(type.getPlacement(), parent, adViewPager);
     }
 
     /**
-     * 부모 RecyclerView 와 모든 자식 RecyclerView 에서 광고가 있는 타겟 ViewHolder 를 모두 찾아 Observable 로 제공하는 메소드
-     * @param parent 부모 RecyclerView
-     * @param listViewHolderClass 광고 타겟 ViewHolder 클래스
-     * @return 필터링된 Observable
+     * 설정 파일에서 읽은 플레이스먼트용, ADType 대신 Placement 를 받는 것 외에는 위와 같음
+     * 플레이스먼트의 추적 비율에 들지 않은 경우 아무것도 하지 않고 해제된 Disposable 을 리턴
      */
-    private Observable<RecyclerView.ViewHolder> getBannerViewHolder(RecyclerView parent, Class<? extends RecyclerView.ViewHolder> listViewHolderClass) {
-        List<RecyclerView.ViewHolder> viewHolderList = getViewHolderList(parent, listViewHolderClass);
+    public Disposable addAdTrackingTypePager2InScroll(Placement placement, NestedScrollView parent, ViewPager2 adViewPager) {
+        if (!runtime.isSampled(placement))
+            return Disposable.disposed();
 
-        if (viewHolderList.isEmpty())
-            return Observable.never();
+        // 스크롤뷰와 롤링배너 뷰페이저 모두 스크롤이 끝날 때 광고 추적
 
-        return Observable.fromIterable(viewHolderList);
-    }
+        VisibilityEngine engine = VisibilityEngine.of(parent);
+        Pager2InScrollHandler handler = new Pager2InScrollHandler(placement, adViewPager, visibilityListener);
+        handler.setViewabilityPolicy(runtime.getViewabilityPolicy(placement));
+        PlacementExposure exposure = createPlacementExposure(handler);
 
-    /**
-     * RecyclerView 에서 광고가 있는 타겟 ViewHolder 리스트로 받아오는 메소드, 재귀함수
-     * @param parent 뷰홀더를 찾을 RecyclerView
-     * @param listViewHolderClass 광고 타겟 ViewHolder 클래스
-     * @return 타겟 ViewHolder List
-     */
-    private List<RecyclerView.ViewHolder> getViewHolderList(RecyclerView parent, Class<? extends RecyclerView.ViewHolder> listViewHolderClass) {
-        LinearLayoutManager lm = (LinearLayoutManager)parent.getLayoutManager();
-        List<RecyclerView.ViewHolder> viewHolderList = new ArrayList<>();
-        List<RecyclerView> childRecyclerViewList;
-
-        int start = lm.findFirstVisibleItemPosition();
-        int end = lm.findLastVisibleItemPosition();
-
-        // 화면에 다 안그려졌을 경우 예외처리
-        if (start == -1 || end == -1)
-            return viewHolderList;
-
-        for (int i = start ; i <= end ; i++) {
-            RecyclerView.ViewHolder holder = parent.findViewHolderForAdapterPosition(i);
-            if (holder != null) {
-                if (holder.getClass() == listViewHolderClass)
-                    viewHolderList.add(holder);
-
-                if (holder.itemView instanceof ViewGroup) {
-                    ChildViewFinder<RecyclerView> recyclerViewFinder = new ChildViewFinder<>(RecyclerView.class);
-                    childRecyclerViewList = recyclerViewFinder.findChildView((ViewGroup) holder.itemView);
-
-                    for (RecyclerView childRecyclerView : childRecyclerViewList) {
-                        viewHolderList.addAll(getViewHolderList(childRecyclerView, listViewHolderClass));
+        // 스크롤뷰가 멈췄을때 뷰페이저도 멈춰있을 경우에만 계산 - ViewPager2 는 스크롤 상태를 직접 조회 가능
+        ScrollIdleDetector scrollIdleDetector = new ScrollIdleDetector(SCROLL_IDLE_TIMEOUT_MILLIS, AndroidSchedulers.mainThread(), () -> {
+            if (adViewPager.getScrollState() == ViewPager2.SCROLL_STATE_IDLE) {
+                handler.setScrolling(false);
+                handler.requestPass();
+            }
+        });
+
+        ScrollDispatcher.Registration scrollRegistration = ScrollDispatcher.of(parent).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+            scrollIdleDetector.onScroll();
+            handler.setScrolling(true);
+            handler.onScroll();
+        });
+
+        ViewPager2.OnPageChangeCallback pageChangeCallback = new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+                handler.onScroll();
+            }
+
+            @Override
+            public void onPageScrollStateChanged(int state) {
+                if (state == ViewPager2.SCROLL_STATE_IDLE) {
+                    // 뷰페이저가 멈췄을때 스크롤뷰도 멈춰있을 경우에만 계산
+                    if (scrollIdleDetector.getState() == State.Idle) {
+                        handler.setScrolling(false);
+                        handler.requestPass();
                     }
                 }
-
+                else {
+                    handler.setScrolling(true);
+                }
             }
-        }
+        };
 
-        return viewHolderList;
+        return startTracking(new PlacementTracking(engine, handler, exposure,
+                () -> {
+                    scrollRegistration.add();
+                    adViewPager.registerOnPageChangeCallback(pageChangeCallback);
+                },
+                () -> {
+                    scrollRegistration.remove();
+                    adViewPager.unregisterOnPageChangeCallback(pageChangeCallback);
+                    scrollIdleDetector.reset();
+                }), null, adViewPager);
     }
 
     /**
-     * ViewGroup 모든 자식에 있는 ViewPager 리스트를 가져옴
-     * @param parent ViewGroup
-     * @return ViewPager Observable
+     * 화면 생명주기에 맞춰 광고 추적을 자동으로 멈추고 재개, 광고 추적 추가 전 화면 생성시 1회 호출
+     * onStop 이후에는 엔진 등록, 스크롤 리스너, 요약 타이머가 모두 해제되어 백스택에 쌓인 화면은 아무 작업도 하지 않으며
+     * onStart 시 다시 붙이면서 바로 1회 재계산, onDestroy 시 모든 광고 추적을 해제하고 쌓인 이벤트를 전송
+     *
+     * @param lifecycleOwner 액티비티, 프래그먼트는 getViewLifecycleOwner() 사용
      */
-    private Observable<ViewPager> getBannerViewPager(ViewGroup parent) {
-        ChildViewFinder<ViewPager> viewPagerFinder = new ChildViewFinder<>(ViewPager.class);
-        List<ViewPager> viewPagerList = viewPagerFinder.findChildView(parent);
-
-        if (viewPagerList.isEmpty())
-            return Observable.never();
+    public void bindLifecycle(LifecycleOwner lifecycleOwner) {
+        Lifecycle lifecycle = lifecycleOwner.getLifecycle();
+        if (isReleased || lifecycle.getCurrentState() == Lifecycle.State.DESTROYED)
+            return;
 
-        return Observable.fromIterable(viewPagerList);
+        if (boundLifecycle != null)
+            boundLifecycle.removeObserver(lifecycleObserver);
+        boundLifecycle = lifecycle;
+        setStarted(lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED));
+        lifecycle.addObserver(lifecycleObserver);
     }
 
     /**
-     * FA Event 전송 메소드
-     * @param type ADType
-     * @param eventName EventName
+     * 페이지 종료, 남은 광고 추적을 모두 해제하고 쌓인 이벤트 전송
+     * bindLifecycle 로 연결한 페이지는 onDestroy 시 자동으로 호출되며, TrackerRuntime.newPage 로 만든 페이지는 화면 종료시 직접 호출해야 함
+     * 호출하지 않으면 보이는 페이지로 계속 남아 노출 시간 요약 타이머가 멈추지 않음
      */
-    public void sendViewEvent(ADType type, String eventName) {
-        if (eventName == null || eventName.isEmpty())
+    public void release() {
+        if (isReleased)
             return;
 
-        String uvEventString = type.getViewEventFullString(eventName, true);
-        if (!sessionEventSet.contains(uvEventString)) {
-            sessionEventSet.add(uvEventString);
-            advertiseTrackerDataSource.getAdvertiseTracker().sendAdvertiseEvent(uvEventString);
+        isReleased = true;
+        if (boundLifecycle != null) {
+            boundLifecycle.removeObserver(lifecycleObserver);
+            boundLifecycle = null;
         }
-        String pvEventString = type.getViewEventFullString(eventName, false);
-        if (!pageEventSet.contains(pvEventString)) {
-            pageEventSet.add(pvEventString);
-            advertiseTrackerDataSource.getAdvertiseTracker().sendAdvertiseEvent(pvEventString);
+        setStarted(false);
+        while (!trackingList.isEmpty()) {
+            trackingList.get(trackingList.size() - 1).dispose();
         }
+        if (eventNameCache != null)
+            eventNameCache.release();
+        flush();
     }
 
-    public void sendClickEvent(ADType type, String eventName) {
-        if (eventName == null || eventName.isEmpty())
+    /**
+     * 화면전환 시 PV클리어 위한 메소드
+     */
+    public void clearPageEventCount() {
+        runtime.sendExposureSummary();
+        eventRecorder.clearPage();
+    }
+
+    /**
+     * 쌓여있는 이벤트를 바로 전송, 화면 종료시 호출 - 전송 큐는 모든 화면이 공유
+     */
+    public void flush() {
+        runtime.flush();
+    }
+
+    /**
+     * 세션만료 상황일 경우 세션 이벤트 클리어
+     */
+    public void clearSession() {
+        runtime.clearSession();
+    }
+
+
+
+
+    ///////////////////////////////////////////////////
+    // 내부 로직 private method
+    ///////////////////////////////////////////////////
+
+    // 캐시를 사용하면 캐시에서, 아니면 데이터소스에서 이벤트명을 받아옴
+    private String getEventName(Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder) {
+        if (eventNameCache != null)
+            return eventNameCache.getEventName(eventNameDataSource, placement, position, viewHolder);
+        return eventNameDataSource.getEventName(placement, position, viewHolder);
+    }
+
+    // 자동 클릭 추적을 켠 경우 탭을 받을 리스트를 연결하고 추적 시작
+    private Disposable startTracking(PlacementTracking tracking, @Nullable RecyclerView clickListView, @Nullable ViewPager2 clickViewPager) {
+        if (isClickTrackingEnabled) {
+            tracking.handler.setClickListener(clickListener);
+            tracking.clickListView = clickListView;
+            tracking.clickViewPager = clickViewPager;
+        }
+        return startTracking(tracking);
+    }
+
+    private Disposable startTracking(PlacementTracking tracking) {
+        trackingList.add(tracking);
+        if (isStarted)
+            tracking.start();
+        return tracking;
+    }
+
+    // 화면이 보이거나 가려질때 모든 광고 추적과 요약 타이머를 함께 재개/정지, 종료된 페이지는 다시 시작하지 않음
+    void setStarted(boolean isStarted) {
+        if (this.isStarted == isStarted || (isStarted && isReleased))
             return;
 
-        String uvEventString = type.getClickEventFullString(eventName, true);
-        if (!sessionEventSet.contains(uvEventString)) {
-            sessionEventSet.add(uvEventString);
-            advertiseTrackerDataSource.getAdvertiseTracker().sendAdvertiseEvent(uvEventString);
+        this.isStarted = isStarted;
+        for (int i = 0; i < trackingList.size(); i++) {
+            if (isStarted)
+                trackingList.get(i).start();
+            else
+                trackingList.get(i).stop();
+        }
+
+        if (isStarted) {
+            runtime.onPageStarted();
         }
-        String pvEventString = type.getClickEventFullString(eventName, false);
-        if (!pageEventSet.contains(pvEventString)) {
-            pageEventSet.add(pvEventString);
-            advertiseTrackerDataSource.getAdvertiseTracker().sendAdvertiseEvent(pvEventString);
+        else {
+            runtime.onPageStopped();
+            runtime.sendExposureSummary();
         }
     }
 
+    private PlacementExposure createPlacementExposure(PlacementHandler handler) {
+        ExposureAccumulator exposureAccumulator = runtime.getExposureAccumulator();
+        if (exposureAccumulator == null)
+            return null;
 
-
+        PlacementExposure exposure = new PlacementExposure(exposureAccumulator);
+        handler.setExposureListener(exposure);
+        return exposure;
+    }
 
     /**
-     * 자식 전체에서 특정 클래스의 View 를 찾아주는 파인더 클래스
-     * @param <T> 찾을 View
+     * FA Event 전송 메소드, 중복 체크는 EventRecorder 에서 하고 실제 전송은 디스패처에서 모아서 처리
+     * @param type ADType
+     * @param eventName EventName
      */
-    private class ChildViewFinder<T extends View> {
-        private Class<T> clazz;
-
-        // instanceof 사용하기 위해서 생성시 T 클래스를 파라미터로 받아야 함
-        private ChildViewFinder(Class<T> clazz) {
-            this.clazz = clazz;
-        }
+    public void sendViewEvent(ADType type, String eventName) {
+        sendViewEvent(type.getPlacement(), eventName);
+    }
 
-        // 재귀로 하이라키 트리에서 해당 클래스의 자식을 모두 추출하는 메소드
-        private List<T> findChildView(ViewGroup viewGroup) {
-            List<T> viewList = new ArrayList<>();
+    public void sendClickEvent(ADType type, String eventName) {
+        sendClickEvent(type.getPlacement(), eventName);
+    }
 
-            int childCount = viewGroup.getChildCount();
-            for (int i = 0 ; i < childCount ; i++) {
-                View childView = viewGroup.getChildAt(i);
-                // 찾는 클래스의 경우 담고
-                if (childView.getClass() == clazz) {
-                    viewList.add((T) childView);
-                }
-                // 뷰그룹일 경우 재귀 호출
-                if (childView instanceof ViewGroup) {
-                    viewList.addAll(findChildView((ViewGroup) childView));
-                }
-            }
+    public void sendViewEvent(Placement placement, String eventName) {
+        eventRecorder.record(placement, eventName, false);
+    }
 
-            return viewList;
-        }
+    public void sendClickEvent(Placement placement, String eventName) {
+        eventRecorder.record(placement, eventName, true);
     }
 }
@@ -0,0 +1,184 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import com.magewr.advertisetracker.advertisetracker.interfaces.PlacementEventNameDataSource;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 이벤트명 데이터소스 결과를 아이템 단위로 기억하는 LRU 캐시
+ * 키는 (플레이스먼트 id, 어댑터, 어댑터가 stable id 를 쓰면 아이템 id 아니면 위치) 이며
+ * 어댑터마다 AdapterDataObserver 를 붙여서 데이터가 바뀌면 그 어댑터의 세대를 올리는 방식으로 한번에 무효화
+ * stable id 를 쓰는 어댑터는 추가/삭제/이동에는 무효화하지 않고 아이템 내용이 바뀔때만 무효화
+ *
+ * 어댑터를 알 수 없는 경우(뷰홀더가 없는 ViewPager 등)나 이벤트명이 비어있는 경우는 캐시하지 않고 매번 데이터소스 호출
+ * 메인 쓰레드에서만 사용
+ */
+class EventNameCache {
+
+    private final int maxSize;
+    private final Map<CacheKey, String> cacheMap;
+    // 어댑터별 세대 관리 옵저버, 어댑터가 사라지면 함께 정리
+    private final Map<RecyclerView.Adapter<?>, AdapterObserver> adapterObserverMap = new WeakHashMap<>();
+    private int nextAdapterId;
+
+    // 조회용 키 - 조회마다 객체를 만들지 않도록 재사용
+    private final CacheKey lookupKey = new CacheKey();
+
+    /**
+     * @param maxSize 기억할 최대 이벤트명 수, 넘으면 가장 오래 사용하지 않은 것부터 버림
+     */
+    EventNameCache(int maxSize) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be positive");
+
+        this.maxSize = maxSize;
+        this.cacheMap = new LinkedHashMap<CacheKey, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+                return size() > EventNameCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 캐시된 이벤트명을 돌려주고 없으면 데이터소스에서 받아와서 기억
+     */
+    String getEventName(PlacementEventNameDataSource eventNameDataSource, Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder) {
+        AdapterObserver adapterObserver = viewHolder != null ? obtainAdapterObserver(viewHolder) : null;
+        if (adapterObserver == null)
+            return eventNameDataSource.getEventName(placement, position, viewHolder);
+
+        long itemKey = adapterObserver.hasStableIds ? viewHolder.getItemId() : position;
+        lookupKey.set(placement.getId(), adapterObserver.adapterId, adapterObserver.generation, itemKey);
+        String eventName = cacheMap.get(lookupKey);
+        if (eventName != null)
+            return eventName;
+
+        eventName = eventNameDataSource.getEventName(placement, position, viewHolder);
+        if (eventName != null && !eventName.isEmpty()) {
+            CacheKey key = new CacheKey();
+            key.set(placement.getId(), adapterObserver.adapterId, adapterObserver.generation, itemKey);
+            cacheMap.put(key, eventName);
+        }
+        return eventName;
+    }
+
+    int size() {
+        return cacheMap.size();
+    }
+
+    /**
+     * 캐시를 비우고 어댑터 옵저버 해제
+     */
+    void release() {
+        for (Map.Entry<RecyclerView.Adapter<?>, AdapterObserver> entry : adapterObserverMap.entrySet()) {
+            entry.getKey().unregisterAdapterDataObserver(entry.getValue());
+        }
+        adapterObserverMap.clear();
+        cacheMap.clear();
+    }
+
+    // 뷰홀더가 붙어있는 리스트의 어댑터 옵저버, 처음 보는 어댑터면 옵저버를 붙임
+    private AdapterObserver obtainAdapterObserver(RecyclerView.ViewHolder viewHolder) {
+        if (!(viewHolder.itemView.getParent() instanceof RecyclerView))
+            return null;
+
+        RecyclerView.Adapter<?> adapter = ((RecyclerView) viewHolder.itemView.getParent()).getAdapter();
+        if (adapter == null)
+            return null;
+
+        AdapterObserver adapterObserver = adapterObserverMap.get(adapter);
+        if (adapterObserver == null) {
+            adapterObserver = new AdapterObserver(++nextAdapterId, adapter.hasStableIds());
+            adapter.registerAdapterDataObserver(adapterObserver);
+            adapterObserverMap.put(adapter, adapterObserver);
+        }
+        return adapterObserver;
+    }
+
+    // 데이터가 바뀌면 세대를 올려서 이전 세대 키를 모두 무효화, 남은 항목은 LRU 로 밀려남
+    private static class AdapterObserver extends RecyclerView.AdapterDataObserver {
+        final int adapterId;
+        final boolean hasStableIds;
+        int generation;
+
+        AdapterObserver(int adapterId, boolean hasStableIds) {
+            this.adapterId = adapterId;
+            this.hasStableIds = hasStableIds;
+        }
+
+        @Override
+        public void onChanged() {
+            generation++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            generation++;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
+            generation++;
+        }
+
+        // 위치가 바뀌는 변경은 위치를 키로 쓰는 경우만 무효화
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            if (!hasStableIds)
+                generation++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            if (!hasStableIds)
+                generation++;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            if (!hasStableIds)
+                generation++;
+        }
+    }
+
+    private static final class CacheKey {
+        int placementId;
+        int adapterId;
+        int generation;
+        long itemKey;
+
+        void set(int placementId, int adapterId, int generation, long itemKey) {
+            this.placementId = placementId;
+            this.adapterId = adapterId;
+            this.generation = generation;
+            this.itemKey = itemKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof CacheKey))
+                return false;
+
+            CacheKey other = (CacheKey) o;
+            return placementId == other.placementId && adapterId == other.adapterId && generation == other.generation && itemKey == other.itemKey;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = placementId;
+            hash = 31 * hash + adapterId;
+            hash = 31 * hash + generation;
+            hash = 31 * hash + (int) (itemKey ^ (itemKey >>> 32));
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.util.Log;
+
+import com.magewr.advertisetracker.advertisetracker.metrics.MetricsSink;
+import com.magewr.advertisetracker.advertisetracker.metrics.MetricsSnapshot;
+
+/**
+ * 측정값을 로그캣에 출력하는 MetricsSink, 디버그 빌드용
+ */
+public class LogcatMetricsSink implements MetricsSink {
+    private static final String TAG = "AdvertiseTracker";
+
+    @Override
+    public void onMetricsReport(MetricsSnapshot snapshot) {
+        Log.d(TAG, "metrics\n" + snapshot);
+    }
+}
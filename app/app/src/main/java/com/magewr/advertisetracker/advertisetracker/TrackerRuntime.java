@@ -0,0 +1,486 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.os.SystemClock;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.EventSession;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventJournal;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.exposure.ExposureAccumulator;
+import com.magewr.advertisetracker.advertisetracker.engine.VisibilityEngine;
+import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDataSource;
+import com.magewr.advertisetracker.advertisetracker.metrics.MetricsSink;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+import com.magewr.advertisetracker.advertisetracker.placement.PlacementRegistry;
+import com.magewr.advertisetracker.advertisetracker.session.SessionManager;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.ProcessLifecycleOwner;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * 앱 전체에서 하나만 사용하는 광고 트래커 런타임
+ * 세션 이벤트 중복 체크, 전송 큐(디스패처), 노출 시간 집계, 플레이스먼트 목록과 노출 기준을 모든 화면이 공유하며
+ * 화면마다는 페이지 이벤트 중복 체크와 광고 추적만 가진 가벼운 AdvertiseTracker(페이지)를 받아서 사용
+ * 화면을 새로 열어도 쓰레드, 타이머, 애널리틱스 트래커 인스턴스가 새로 생기지 않음
+ *
+ * Application.onCreate 에서 init 으로 1회 초기화, 페이지 관련 메소드는 메인 쓰레드에서 호출
+ */
+public class TrackerRuntime {
+    private static final String JOURNAL_FILE_NAME = "advertise_tracker/event_journal";
+    private static final String PLACEMENT_FILE_NAME = "advertise_tracker/placements";
+
+    private static volatile TrackerRuntime instance;
+
+    // 세션 Event 중복 체크 상태와 저널, 세션만료까지 유지
+    private final EventSession eventSession = new EventSession();
+    // 모든 페이지가 공유하는 전송 큐
+    private final EventDispatcher eventDispatcher;
+
+    // ADType 별 노출 기준, 설정하지 않은 타입은 플레이스먼트 설정 또는 ViewabilityPolicy.FULLY_VISIBLE_ON_IDLE
+    private final Map<ADType, ViewabilityPolicy> viewabilityPolicyMap = new EnumMap<>(ADType.class);
+
+    // 플레이스먼트 목록, 설정 파일을 로드하기 전에는 내장 플레이스먼트만 있음
+    private volatile PlacementRegistry placementRegistry = PlacementRegistry.builtIn();
+    // 플레이스먼트 추적 비율 추첨 기준값, 프로세스 동안 같은 플레이스먼트는 항상 같은 결과
+    private final long samplingSeed = new Random().nextLong();
+
+    // 광고 소재별 노출 시간 집계, enableExposureTracking 전에는 null
+    private volatile ExposureAccumulator exposureAccumulator;
+    private long exposureSummaryIntervalMillis;
+    private Disposable exposureSummaryTimer;
+    // 보이고 있는 페이지 수, 보이는 페이지가 있는 동안에만 요약, 측정값 전달 타이머 동작
+    private int startedPageCount;
+
+    // 세션 자동 만료, enableSessionExpiry 전에는 null
+    private SessionManager sessionManager;
+    private Disposable sessionExpiryTimer;
+    // enableSessionExpiry 전에 저널에서 이어받은 세션의 백그라운드 시각, enableSessionExpiry 에서 만료 판단
+    private long restoredBackgroundSinceMillis = EventJournal.NOT_IN_BACKGROUND;
+
+    // 내부 동작 측정, enableMetrics 전에는 null
+    private volatile TrackerMetrics metrics;
+    private MetricsSink metricsSink;
+    private long metricsReportIntervalMillis;
+    private Disposable metricsReportTimer;
+
+    // 화면(LifecycleOwner)별 페이지, 프래그먼트는 호스트 액티비티로 조회하면 같은 페이지를 공유
+    private final Map<LifecycleOwner, AdvertiseTracker> pageMap = new WeakHashMap<>();
+
+    TrackerRuntime(AdvertiseTrackerDataSource advertiseTrackerDataSource, Scheduler deliveryScheduler) {
+        eventDispatcher = new EventDispatcher(advertiseTrackerDataSource, deliveryScheduler);
+        eventSession.attach(eventDispatcher);
+    }
+
+    /**
+     * 런타임 초기화, Application.onCreate 에서 1회 호출
+     * 이미 초기화된 경우 기존 런타임을 그대로 돌려줌 - 같은 프로세스에서 Application 이 다시 만들어지는 테스트 환경 등
+     *
+     * @param advertiseTrackerDataSource 전송 시점에 애널리틱스 트래커를 제공할 데이터소스
+     * @return 초기화된 런타임
+     */
+    public static synchronized TrackerRuntime init(AdvertiseTrackerDataSource advertiseTrackerDataSource) {
+        if (instance == null)
+            instance = new TrackerRuntime(advertiseTrackerDataSource, Schedulers.single());
+        return instance;
+    }
+
+    /**
+     * @return init 으로 초기화된 런타임
+     */
+    public static TrackerRuntime get() {
+        TrackerRuntime runtime = instance;
+        if (runtime == null)
+            throw new IllegalStateException("TrackerRuntime.init must be called in Application.onCreate");
+        return runtime;
+    }
+
+    /**
+     * 화면의 페이지를 가져오는 메소드, 없으면 만들어서 화면 생명주기에 연결 (AdvertiseTracker.bindLifecycle 참고)
+     * 화면이 종료되면 페이지도 해제되며 같은 화면에서는 항상 같은 페이지를 돌려줌
+     *
+     * @param lifecycleOwner 액티비티 - 프래그먼트에서 호스트와 페이지를 공유하려면 requireActivity() 사용
+     * @return 화면의 페이지, 이미 종료된 화면이면 null
+     */
+    @Nullable
+    public AdvertiseTracker getPage(LifecycleOwner lifecycleOwner) {
+        AdvertiseTracker page = pageMap.get(lifecycleOwner);
+        if (page != null)
+            return page;
+
+        // 종료된 화면은 생명주기로 해제될 수 없으므로 페이지를 만들지 않음
+        if (lifecycleOwner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED)
+            return null;
+
+        page = new AdvertiseTracker(this);
+        pageMap.put(lifecycleOwner, page);
+        page.bindLifecycle(lifecycleOwner);
+        lifecycleOwner.getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+            if (event == Lifecycle.Event.ON_DESTROY)
+                pageMap.remove(source);
+        });
+        return page;
+    }
+
+    /**
+     * 생명주기 없이 직접 관리하는 페이지 생성, 시작된 상태로 돌려줌
+     * 화면 종료시 AdvertiseTracker.release 를 직접 호출해야 함 - 호출하지 않으면 노출 시간 요약 타이머가 멈추지 않음
+     * @return 새 페이지
+     */
+    public AdvertiseTracker newPage() {
+        AdvertiseTracker page = new AdvertiseTracker(this);
+        page.setStarted(true);
+        return page;
+    }
+
+    /**
+     * 세션 이벤트 중복 체크에 쓰는 메모리 상한 설정, 트래킹 시작 전 앱 시작시 1회 호출
+     * 상한을 넘으면 근사 모드로 전환되어 일부 세션 이벤트가 전송되지 않을 수 있음 - 중복 전송은 없음 (DedupStore 참고)
+     *
+     * @param maxKeys 정확히 기억할 최대 세션 이벤트 수, DedupStore.UNBOUNDED 면 제한 없음
+     */
+    public void setSessionEventLimit(int maxKeys) {
+        eventSession.setEventLimit(maxKeys);
+    }
+
+    /**
+     * ADType 별 노출 기준 설정, 이후에 추가되는 광고 추적부터 적용
+     * 예) 50% 이상 1초 연속 - setViewabilityPolicy(type, new ViewabilityPolicy(50, 1000, false))
+     *
+     * @param type ADType
+     * @param viewabilityPolicy 노출 기준
+     */
+    public void setViewabilityPolicy(ADType type, ViewabilityPolicy viewabilityPolicy) {
+        synchronized (viewabilityPolicyMap) {
+            viewabilityPolicyMap.put(type, viewabilityPolicy);
+        }
+    }
+
+    // ADType 별로 설정한 기준이 우선, 없으면 플레이스먼트 설정 기준
+    ViewabilityPolicy getViewabilityPolicy(Placement placement) {
+        ViewabilityPolicy viewabilityPolicy = null;
+        if (placement.getType() != null) {
+            synchronized (viewabilityPolicyMap) {
+                viewabilityPolicy = viewabilityPolicyMap.get(placement.getType());
+            }
+        }
+        if (viewabilityPolicy == null)
+            viewabilityPolicy = placement.getViewabilityPolicy();
+        return viewabilityPolicy != null ? viewabilityPolicy : ViewabilityPolicy.FULLY_VISIBLE_ON_IDLE;
+    }
+
+    /**
+     * 캐시된 플레이스먼트 설정 파일 로드, 트래킹 시작 전 앱 시작시 1회 호출
+     * 파일은 앱이 서버에서 받아서 저장해두며 다음 실행부터 적용됨 - 형식은 PlacementRegistry 참고
+     * 파일은 메모리 매핑하고 플레이스먼트는 처음 조회할때 파싱하므로 앱 시작 비용이 거의 없음
+     *
+     * @param directory 설정 파일이 있는 디렉토리 - Context.getFilesDir() 등
+     * @return 로드했으면 true, 파일이 없거나 잘못된 경우 false - 내장 플레이스먼트만 사용
+     */
+    public boolean loadPlacementRegistry(File directory) {
+        File file = new File(directory, PLACEMENT_FILE_NAME);
+        if (!file.isFile())
+            return false;
+
+        try {
+            setPlacementRegistry(PlacementRegistry.load(file));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 플레이스먼트 목록 설정, 번들된 설정 등 직접 로드한 경우 사용 - 트래킹 시작 전 앱 시작시 1회 호출
+     * @param placementRegistry 플레이스먼트 목록
+     */
+    public void setPlacementRegistry(PlacementRegistry placementRegistry) {
+        this.placementRegistry = placementRegistry;
+    }
+
+    public PlacementRegistry getPlacementRegistry() {
+        return placementRegistry;
+    }
+
+    /**
+     * @param placementId 플레이스먼트 id
+     * @return 플레이스먼트, 목록에 없는 id 면 null
+     */
+    public Placement getPlacement(int placementId) {
+        return placementRegistry.get(placementId);
+    }
+
+    // 이번 프로세스에서 추적할 플레이스먼트인지 여부
+    boolean isSampled(Placement placement) {
+        return placement.isSampled(samplingSeed);
+    }
+
+    /**
+     * 이벤트 저널 사용 시작, 최초 1회만 적용됨
+     * 이전 프로세스에서 남긴 세션 이벤트와 미전송 이벤트를 백그라운드에서 복원하며, 미전송 이벤트는 공유 디스패처로 재전송
+     *
+     * @param directory 저널 파일을 둘 디렉토리 - Context.getFilesDir() 등
+     */
+    public void enableJournal(File directory) {
+        eventSession.setRestoreListener(this::onSessionRestored);
+        eventSession.enableJournal(new File(directory, JOURNAL_FILE_NAME), Schedulers.io(), AndroidSchedulers.mainThread(), eventDispatcher);
+    }
+
+    /**
+     * 광고 소재별 노출 시간 집계 시작, 이후에 추가되는 광고 추적부터 적용
+     * 요약은 보이는 화면이 있는 동안 주기마다, 그리고 화면전환(clearPageEventCount), 화면이 가려질때, 세션만료(clearSession) 시
+     * 애널리틱스 트래커가 ExposureTrackerDelegate 를 구현한 경우에만 전송됨
+     *
+     * @param summaryIntervalMillis 요약 전송 주기, 0 이면 주기 전송 없음
+     */
+    public void enableExposureTracking(long summaryIntervalMillis) {
+        if (exposureAccumulator != null)
+            return;
+
+        exposureSummaryIntervalMillis = summaryIntervalMillis;
+        exposureAccumulator = new ExposureAccumulator();
+        if (startedPageCount > 0)
+            startExposureSummaryTimer();
+    }
+
+    /**
+     * 세션 자동 만료 사용 시작, 앱 시작시 1회 호출 - 메인 쓰레드
+     * 앱이 백그라운드에 inactivityTimeout 이상 있다가 돌아오거나 세션 시작 후 maxSessionLength 가 지나면 clearSession 과 같이 새 세션 시작
+     * 포그라운드에 있는 동안에만 최대 길이 타이머가 하나 예약되며 백그라운드로 가면 취소되고 쌓인 이벤트를 전송
+     * 저널 사용시 백그라운드 이동 시각도 기록하므로 백그라운드에서 프로세스가 종료된 경우에도 다음 실행시 비활성 만료가 적용됨
+     *
+     * @param inactivityTimeoutMillis 백그라운드 유지 시간 제한, SessionManager.NO_LIMIT 이면 사용하지 않음
+     * @param maxSessionLengthMillis 세션 최대 길이, SessionManager.NO_LIMIT 이면 사용하지 않음
+     */
+    public void enableSessionExpiry(long inactivityTimeoutMillis, long maxSessionLengthMillis) {
+        if (sessionManager != null)
+            return;
+
+        // 저널에서 이미 이어받은 세션이면 그 시작 시각부터 최대 길이를 계산
+        sessionManager = new SessionManager(inactivityTimeoutMillis, maxSessionLengthMillis,
+                toElapsedRealtime(eventSession.getSessionStartMillis()), this::clearSession);
+        if (restoredBackgroundSinceMillis != EventJournal.NOT_IN_BACKGROUND) {
+            sessionManager.restoreSession(toElapsedRealtime(eventSession.getSessionStartMillis()),
+                    toElapsedRealtime(restoredBackgroundSinceMillis), SystemClock.elapsedRealtime());
+            restoredBackgroundSinceMillis = EventJournal.NOT_IN_BACKGROUND;
+        }
+        ProcessLifecycleOwner.get().getLifecycle().addObserver((LifecycleEventObserver) (source, event) -> {
+            if (event == Lifecycle.Event.ON_START) {
+                sessionManager.onForeground(SystemClock.elapsedRealtime());
+                eventSession.setBackgroundSince(EventJournal.NOT_IN_BACKGROUND);
+                scheduleSessionExpiry();
+            }
+            else if (event == Lifecycle.Event.ON_STOP) {
+                sessionManager.onBackground(SystemClock.elapsedRealtime());
+                eventSession.setBackgroundSince(System.currentTimeMillis());
+                cancelSessionExpiry();
+                flush();
+            }
+        });
+    }
+
+    /**
+     * 내부 동작 측정 시작, 앱 시작시 1회 호출 - 메인 쓰레드
+     * 가시성 계산 시간, 계산당 후보 수, 플레이스먼트별 전송/중복 제거 수, 애널리틱스 트래커 호출 시간, 전송 큐 깊이, 무시한 오류 수를 기록하고
+     * 보이는 화면이 있는 동안 주기마다 측정값을 sink 로 전달 (TrackerMetrics 참고)
+     *
+     * @param metricsSink 측정값을 전달받을 곳 - 디버그 빌드에서는 LogcatMetricsSink 등
+     * @param reportIntervalMillis 전달 주기, 0 이면 reportMetrics 를 호출할때만 전달
+     */
+    public void enableMetrics(MetricsSink metricsSink, long reportIntervalMillis) {
+        if (metrics != null)
+            return;
+
+        // 플레이스먼트 목록을 먼저 로드해야 설정 파일의 플레이스먼트도 구분해서 기록됨
+        TrackerMetrics trackerMetrics = new TrackerMetrics(placementRegistry.getIdCapacity());
+        this.metricsSink = metricsSink;
+        eventSession.setMetrics(trackerMetrics);
+        eventDispatcher.setMetrics(trackerMetrics);
+        VisibilityEngine.setMetrics(trackerMetrics);
+        metrics = trackerMetrics;
+
+        metricsReportIntervalMillis = reportIntervalMillis;
+        if (startedPageCount > 0)
+            startMetricsReportTimer();
+    }
+
+    /**
+     * 내부 동작 측정 중지, 전달 타이머를 멈추고 측정값 기록도 멈춤 - 메인 쓰레드
+     * 이후 enableMetrics 로 새 측정값부터 다시 시작할 수 있음
+     */
+    public void disableMetrics() {
+        if (metrics == null)
+            return;
+
+        stopMetricsReportTimer();
+        eventSession.setMetrics(null);
+        eventDispatcher.setMetrics(null);
+        VisibilityEngine.setMetrics(null);
+        metrics = null;
+        metricsSink = null;
+    }
+
+    /**
+     * 현재 측정값을 sink 로 전달, 측정을 사용하지 않으면 아무것도 하지 않음
+     */
+    public void reportMetrics() {
+        TrackerMetrics trackerMetrics = metrics;
+        if (trackerMetrics != null)
+            metricsSink.onMetricsReport(trackerMetrics.snapshot());
+    }
+
+    /**
+     * @return 측정값, enableMetrics 전에는 null
+     */
+    public TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 쌓여있는 이벤트를 바로 전송
+     */
+    public void flush() {
+        sendExposureSummary();
+        eventDispatcher.flush();
+    }
+
+    /**
+     * 세션만료 상황일 경우 세션 이벤트 클리어, 세션 저장소를 교체하므로 쌓인 키 수와 상관없이 O(1)
+     * enableSessionExpiry 사용시 자동으로 호출됨
+     */
+    public void clearSession() {
+        sendExposureSummary();
+        eventSession.clear();
+    }
+
+    EventSession getEventSession() {
+        return eventSession;
+    }
+
+    EventDispatcher getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    ExposureAccumulator getExposureAccumulator() {
+        return exposureAccumulator;
+    }
+
+    // 누적된 노출 시간 요약 전송, 이벤트와 같은 디스패처 워커에서 순서대로 전송됨
+    void sendExposureSummary() {
+        ExposureAccumulator accumulator = exposureAccumulator;
+        if (accumulator == null)
+            return;
+
+        eventDispatcher.sendExposureSummary(accumulator.drain(SystemClock.uptimeMillis()));
+    }
+
+    // 시작된 페이지 수, 테스트용
+    int getStartedPageCount() {
+        return startedPageCount;
+    }
+
+    void onPageStarted() {
+        if (startedPageCount++ == 0) {
+            startExposureSummaryTimer();
+            startMetricsReportTimer();
+        }
+    }
+
+    void onPageStopped() {
+        if (--startedPageCount == 0) {
+            stopExposureSummaryTimer();
+            stopMetricsReportTimer();
+        }
+    }
+
+    // 저널에서 이전 프로세스의 세션을 이어받음, 메인 쓰레드
+    // 백그라운드에서 비활성 시간을 넘겨 종료된 세션이면 여기서 만료되어 복원된 키는 버려지고, 아니면 최대 길이 타이머를 이어받은 시작 시각 기준으로 다시 예약
+    private void onSessionRestored(long sessionStartMillis, long backgroundSinceMillis) {
+        if (sessionManager == null) {
+            restoredBackgroundSinceMillis = backgroundSinceMillis;
+            return;
+        }
+
+        long restoredBackgroundSince = backgroundSinceMillis == EventJournal.NOT_IN_BACKGROUND ? SessionManager.NOT_IN_BACKGROUND : toElapsedRealtime(backgroundSinceMillis);
+        sessionManager.restoreSession(toElapsedRealtime(sessionStartMillis), restoredBackgroundSince, SystemClock.elapsedRealtime());
+        if (sessionExpiryTimer != null)
+            scheduleSessionExpiry();
+    }
+
+    // 세션 시작 시각(System.currentTimeMillis)을 SessionManager 가 쓰는 elapsedRealtime 기준으로 변환, 시계가 뒤로 간 경우는 지금 시작한 것으로 봄
+    private static long toElapsedRealtime(long currentTimeMillis) {
+        long ageMillis = Math.max(0, System.currentTimeMillis() - currentTimeMillis);
+        return SystemClock.elapsedRealtime() - ageMillis;
+    }
+
+    // 포그라운드에 있는 동안 세션 최대 길이 시각에 만료 확인, 만료되면 다음 최대 길이로 다시 예약
+    private void scheduleSessionExpiry() {
+        cancelSessionExpiry();
+        long nextExpiry = sessionManager.getNextExpiry();
+        if (nextExpiry == SessionManager.NO_EXPIRY)
+            return;
+
+        long delayMillis = Math.max(0, nextExpiry - SystemClock.elapsedRealtime());
+        sessionExpiryTimer = AndroidSchedulers.mainThread().scheduleDirect(() -> {
+            sessionExpiryTimer = null;
+            sessionManager.checkExpiry(SystemClock.elapsedRealtime());
+            scheduleSessionExpiry();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelSessionExpiry() {
+        if (sessionExpiryTimer == null)
+            return;
+
+        sessionExpiryTimer.dispose();
+        sessionExpiryTimer = null;
+    }
+
+    private void startExposureSummaryTimer() {
+        if (exposureAccumulator == null || exposureSummaryIntervalMillis <= 0 || exposureSummaryTimer != null)
+            return;
+
+        exposureSummaryTimer = AndroidSchedulers.mainThread().schedulePeriodicallyDirect(this::sendExposureSummary,
+                exposureSummaryIntervalMillis, exposureSummaryIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopExposureSummaryTimer() {
+        if (exposureSummaryTimer == null)
+            return;
+
+        exposureSummaryTimer.dispose();
+        exposureSummaryTimer = null;
+    }
+
+    private void startMetricsReportTimer() {
+        if (metrics == null || metricsReportIntervalMillis <= 0 || metricsReportTimer != null)
+            return;
+
+        metricsReportTimer = AndroidSchedulers.mainThread().schedulePeriodicallyDirect(this::reportMetrics,
+                metricsReportIntervalMillis, metricsReportIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopMetricsReportTimer() {
+        if (metricsReportTimer == null)
+            return;
+
+        metricsReportTimer.dispose();
+        metricsReportTimer = null;
+    }
+}
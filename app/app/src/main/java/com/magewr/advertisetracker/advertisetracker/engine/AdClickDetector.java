@@ -0,0 +1,120 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+
+import com.magewr.advertisetracker.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * 자동 클릭 추적용 탭 디텍터, 리스트마다 OnItemTouchListener 하나와 GestureDetector 하나만 붙이고 그 리스트의 플레이스먼트가 공유
+ * 아이템마다 클릭 리스너를 달지 않으므로 바인딩되는 아이템 수와 상관없이 비용이 없으며
+ * 탭이 들어오면 등록된 핸들러가 가시성 계산과 같은 후보(광고 인덱스)에서 탭된 광고를 찾음
+ *
+ * 터치는 가로채지 않으므로 앱의 클릭 처리는 그대로 동작함, 리스트는 태그로 디텍터를 기억하며 메인 쓰레드에서만 사용
+ */
+@MainThread
+public final class AdClickDetector implements RecyclerView.OnItemTouchListener {
+    private final RecyclerView listView;
+    private final GestureDetector gestureDetector;
+    // 이 리스트의 탭을 받는 핸들러
+    private final List<PlacementHandler> handlerList = new ArrayList<>();
+    // 리스트 화면 좌표 버퍼 - 재사용
+    private final int[] location = new int[2];
+
+    private AdClickDetector(RecyclerView listView) {
+        this.listView = listView;
+        this.gestureDetector = new GestureDetector(listView.getContext(), new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onSingleTapUp(MotionEvent e) {
+                dispatchClick(e);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * 리스트의 탭을 핸들러에 전달하도록 등록, 리스트에 디텍터가 없으면 붙임
+     * @param listView 광고가 있는 리스트 - 중첩 리스트의 탭도 부모 리스트를 거치므로 스크롤 주체 리스트를 넘기면 됨
+     * @param handler 클릭 리스너가 설정된 핸들러
+     */
+    public static void register(RecyclerView listView, PlacementHandler handler) {
+        Object detector = listView.getTag(R.id.advertise_tracker_click_detector);
+        AdClickDetector clickDetector;
+        if (detector instanceof AdClickDetector) {
+            clickDetector = (AdClickDetector) detector;
+        }
+        else {
+            clickDetector = new AdClickDetector(listView);
+            listView.setTag(R.id.advertise_tracker_click_detector, clickDetector);
+            listView.addOnItemTouchListener(clickDetector);
+        }
+
+        if (!clickDetector.handlerList.contains(handler))
+            clickDetector.handlerList.add(handler);
+    }
+
+    /**
+     * ViewPager2 의 페이지 탭을 핸들러에 전달하도록 등록, 페이지를 담는 내부 리스트에 디텍터를 붙임
+     */
+    public static void register(ViewPager2 viewPager, PlacementHandler handler) {
+        RecyclerView pageListView = ViewPager2Pages.getPageListView(viewPager);
+        if (pageListView != null)
+            register(pageListView, handler);
+    }
+
+    /**
+     * 등록 해제, 리스트에 남은 핸들러가 없으면 디텍터도 떼어냄
+     */
+    public static void unregister(RecyclerView listView, PlacementHandler handler) {
+        Object detector = listView.getTag(R.id.advertise_tracker_click_detector);
+        if (!(detector instanceof AdClickDetector))
+            return;
+
+        AdClickDetector clickDetector = (AdClickDetector) detector;
+        clickDetector.handlerList.remove(handler);
+        if (clickDetector.handlerList.isEmpty()) {
+            listView.removeOnItemTouchListener(clickDetector);
+            listView.setTag(R.id.advertise_tracker_click_detector, null);
+        }
+    }
+
+    public static void unregister(ViewPager2 viewPager, PlacementHandler handler) {
+        RecyclerView pageListView = ViewPager2Pages.getPageListView(viewPager);
+        if (pageListView != null)
+            unregister(pageListView, handler);
+    }
+
+    // 탭 좌표를 화면 좌표로 바꿔서 광고를 찾을때까지 핸들러에 전달
+    private void dispatchClick(MotionEvent e) {
+        listView.getLocationOnScreen(location);
+        int screenX = location[0] + (int) e.getX();
+        int screenY = location[1] + (int) e.getY();
+        for (int i = 0; i < handlerList.size(); i++) {
+            if (handlerList.get(i).dispatchClick(screenX, screenY))
+                return;
+        }
+    }
+
+    // 탭 판별만 하고 가로채지 않음
+    @Override
+    public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        gestureDetector.onTouchEvent(e);
+        return false;
+    }
+
+    @Override
+    public void onTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+// 자동 클릭 추적에서 탭된 광고를 전달받는 인터페이스, 메인 쓰레드에서 호출
+// 위치와 뷰홀더는 가시성 결과(VisibilityListener)와 같은 기준이므로 같은 EventNameDataSource 로 이벤트명을 얻을 수 있음
+public interface AdClickListener {
+    void onAdClick(Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder);
+}
@@ -0,0 +1,232 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * RecyclerView 에 현재 붙어있는 광고 뷰홀더와 중첩 리스트를 attach/detach 콜백으로 유지하는 인덱스
+ * 자식뷰의 서브트리 탐색은 자식이 붙는 시점에 1회만 하므로
+ * 스크롤이 멈췄을때는 전체 뷰 트리를 다시 탐색하지 않고 이미 알고있는 광고 뷰홀더만 검사하면 됨
+ *
+ * 레이아웃매니저의 첫/마지막 위치를 쓰지 않고 실제로 붙어있는 자식만 보므로
+ * Linear, Grid, StaggeredGrid 나 직접 만든 레이아웃매니저 모두 같은 방식으로 동작하며 보이는 위치가 연속되지 않아도 됨
+ *
+ * 같은 리스트를 추적하는 핸들러들이 엔진을 통해 공유하며 메인 쓰레드에서만 사용
+ */
+class AdViewIndex {
+    private final RecyclerView rootListView;
+
+    // 추적중인 광고 뷰홀더 클래스
+    private final List<Class<? extends RecyclerView.ViewHolder>> adViewHolderClassList = new ArrayList<>();
+    // 현재 붙어있는 광고 뷰홀더 - 부모 리스트와 중첩 리스트 모두 포함
+    private final List<RecyclerView.ViewHolder> adViewHolderList = new ArrayList<>();
+    // 광고 뷰홀더의 adViewHolderList 위치 - 붙고 떨어질때 리스트를 훑지 않도록 유지
+    private final Map<RecyclerView.ViewHolder, Integer> adViewHolderIndexMap = new IdentityHashMap<>();
+    // 광고 뷰홀더가 붙고 떨어지는 것을 알려줄 리스너
+    private final List<AdViewHolderListener> listenerList = new ArrayList<>();
+
+    // 리스너를 붙인 리스트 (루트 포함)
+    private final Map<RecyclerView, ListObserver> listObserverMap = new IdentityHashMap<>();
+    // 자식뷰 안에서 발견한 중첩 리스트, 자식뷰가 떨어질때 함께 정리
+    private final Map<View, List<RecyclerView>> nestedListMap = new IdentityHashMap<>();
+    private final ChildViewFinder<RecyclerView> recyclerViewFinder = new ChildViewFinder<>(RecyclerView.class);
+    // 중첩 리스트 탐색 결과 버퍼 - 재사용
+    private final List<RecyclerView> foundListViews = new ArrayList<>();
+    // 중첩 리스트 안의 광고까지 추적하는 핸들러가 있는지 여부, 없으면 자식이 붙을때 서브트리를 탐색하지 않음
+    private boolean isNestedListTracked;
+
+    // 인덱스를 공유하는 핸들러 수
+    int refCount;
+
+    AdViewIndex(RecyclerView rootListView) {
+        this.rootListView = rootListView;
+        observe(rootListView);
+    }
+
+    /**
+     * 추적할 광고 뷰홀더 클래스 추가, 새 클래스거나 중첩 리스트 추적이 새로 필요하면 이미 붙어있는 뷰홀더도 다시 반영
+     * @param adViewHolderClass 광고 뷰홀더 클래스
+     * @param isNestedListTracked 자식뷰 안의 중첩 리스트에 있는 광고 뷰홀더까지 추적할지 여부
+     */
+    void addAdViewHolderClass(Class<? extends RecyclerView.ViewHolder> adViewHolderClass, boolean isNestedListTracked) {
+        boolean isNewClass = !adViewHolderClassList.contains(adViewHolderClass);
+        if (!isNewClass && (!isNestedListTracked || this.isNestedListTracked))
+            return;
+
+        if (isNewClass)
+            adViewHolderClassList.add(adViewHolderClass);
+        this.isNestedListTracked |= isNestedListTracked;
+        release();
+        observe(rootListView);
+    }
+
+    /**
+     * 현재 붙어있는 광고 뷰홀더 리스트, 인덱스 소유이므로 수정하지 말 것
+     */
+    List<RecyclerView.ViewHolder> getAdViewHolders() {
+        return adViewHolderList;
+    }
+
+    /**
+     * 광고 뷰홀더 attach/detach 리스너 등록, 이미 붙어있는 뷰홀더는 바로 attach 로 알림
+     * @param listener 리스너
+     */
+    void addListener(AdViewHolderListener listener) {
+        if (listenerList.contains(listener))
+            return;
+
+        listenerList.add(listener);
+        for (int i = 0; i < adViewHolderList.size(); i++) {
+            listener.onAdViewHolderAttached(adViewHolderList.get(i));
+        }
+    }
+
+    /**
+     * 리스너 해제, 해제 이후에는 detach 도 알리지 않으므로 리스너 쪽에서 직접 정리해야 함
+     * @param listener 리스너
+     */
+    void removeListener(AdViewHolderListener listener) {
+        listenerList.remove(listener);
+    }
+
+    /**
+     * 붙여둔 리스너를 모두 해제
+     */
+    void release() {
+        for (int i = 0; i < adViewHolderList.size(); i++) {
+            notifyDetached(adViewHolderList.get(i));
+        }
+        for (Map.Entry<RecyclerView, ListObserver> entry : listObserverMap.entrySet()) {
+            entry.getKey().removeOnChildAttachStateChangeListener(entry.getValue());
+        }
+        listObserverMap.clear();
+        nestedListMap.clear();
+        adViewHolderList.clear();
+        adViewHolderIndexMap.clear();
+    }
+
+    // 리스트에 attach 리스너를 붙이고 이미 붙어있는 자식을 반영
+    private void observe(RecyclerView listView) {
+        if (listObserverMap.containsKey(listView))
+            return;
+
+        ListObserver observer = new ListObserver(listView);
+        listObserverMap.put(listView, observer);
+        listView.addOnChildAttachStateChangeListener(observer);
+
+        int childCount = listView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            onChildAttached(listView, listView.getChildAt(i));
+        }
+    }
+
+    // 리스트가 화면에서 떨어진 경우 리스너와 자식을 정리
+    private void unobserve(RecyclerView listView) {
+        ListObserver observer = listObserverMap.remove(listView);
+        if (observer == null)
+            return;
+
+        listView.removeOnChildAttachStateChangeListener(observer);
+
+        int childCount = listView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            onChildDetached(listView, listView.getChildAt(i));
+        }
+    }
+
+    private void onChildAttached(RecyclerView listView, View child) {
+        RecyclerView.ViewHolder holder = listView.getChildViewHolder(child);
+        if (holder != null && adViewHolderClassList.contains(holder.getClass()) && !adViewHolderIndexMap.containsKey(holder)) {
+            adViewHolderIndexMap.put(holder, adViewHolderList.size());
+            adViewHolderList.add(holder);
+            for (int i = 0; i < listenerList.size(); i++) {
+                listenerList.get(i).onAdViewHolderAttached(holder);
+            }
+        }
+
+        // 자식 안의 중첩 리스트는 붙는 시점에 한번만 찾아서 리스너를 붙여둠
+        if (isNestedListTracked && child instanceof ViewGroup) {
+            recyclerViewFinder.findChildView((ViewGroup) child, foundListViews);
+            if (foundListViews.isEmpty())
+                return;
+
+            // 중첩 리스트를 observe 하면서 버퍼를 다시 쓰므로 찾은 경우에만 복사해서 보관
+            List<RecyclerView> nestedListViews = new ArrayList<>(foundListViews);
+            foundListViews.clear();
+            nestedListMap.put(child, nestedListViews);
+            for (int i = 0; i < nestedListViews.size(); i++) {
+                observe(nestedListViews.get(i));
+            }
+        }
+    }
+
+    private void onChildDetached(RecyclerView listView, View child) {
+        RecyclerView.ViewHolder holder = listView.getChildViewHolder(child);
+        if (holder != null && removeAdViewHolder(holder))
+            notifyDetached(holder);
+
+        List<RecyclerView> nestedListViews = nestedListMap.remove(child);
+        if (nestedListViews != null) {
+            for (int i = 0; i < nestedListViews.size(); i++) {
+                unobserve(nestedListViews.get(i));
+            }
+        }
+    }
+
+    // 마지막 뷰홀더를 빈 자리로 옮겨서 O(1) 로 삭제, 순서는 유지하지 않음
+    private boolean removeAdViewHolder(RecyclerView.ViewHolder holder) {
+        Integer index = adViewHolderIndexMap.remove(holder);
+        if (index == null)
+            return false;
+
+        RecyclerView.ViewHolder lastHolder = adViewHolderList.remove(adViewHolderList.size() - 1);
+        if (lastHolder != holder) {
+            adViewHolderList.set(index, lastHolder);
+            adViewHolderIndexMap.put(lastHolder, index);
+        }
+        return true;
+    }
+
+    private void notifyDetached(RecyclerView.ViewHolder holder) {
+        for (int i = 0; i < listenerList.size(); i++) {
+            listenerList.get(i).onAdViewHolderDetached(holder);
+        }
+    }
+
+    /**
+     * 광고 뷰홀더가 리스트에 붙고 떨어질때 호출되는 리스너
+     * 뷰홀더 안의 자식뷰(뷰페이저 등)를 붙어있는 동안만 기억하고 싶을때 사용
+     */
+    interface AdViewHolderListener {
+        void onAdViewHolderAttached(RecyclerView.ViewHolder holder);
+
+        void onAdViewHolderDetached(RecyclerView.ViewHolder holder);
+    }
+
+    // 리스트별 attach 리스너
+    private class ListObserver implements RecyclerView.OnChildAttachStateChangeListener {
+        private final RecyclerView listView;
+
+        private ListObserver(RecyclerView listView) {
+            this.listView = listView;
+        }
+
+        @Override
+        public void onChildViewAttachedToWindow(@NonNull View view) {
+            onChildAttached(listView, view);
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(@NonNull View view) {
+            onChildDetached(listView, view);
+        }
+    }
+}
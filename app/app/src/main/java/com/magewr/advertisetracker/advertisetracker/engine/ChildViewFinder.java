@@ -0,0 +1,36 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * 자식 전체에서 특정 클래스의 View 를 찾아주는 파인더 클래스
+ * @param <T> 찾을 View
+ */
+class ChildViewFinder<T extends View> {
+    private final Class<T> clazz;
+
+    // instanceof 사용하기 위해서 생성시 T 클래스를 파라미터로 받아야 함
+    ChildViewFinder(Class<T> clazz) {
+        this.clazz = clazz;
+    }
+
+    // 재귀로 하이라키 트리에서 해당 클래스의 자식을 모두 추출하는 메소드
+    // 호출하는 쪽에서 재사용하는 결과 리스트에 바로 담으므로 탐색중에 할당이 없음
+    void findChildView(ViewGroup viewGroup, List<T> out) {
+        int childCount = viewGroup.getChildCount();
+        for (int i = 0 ; i < childCount ; i++) {
+            View childView = viewGroup.getChildAt(i);
+            // 찾는 클래스의 경우 담고
+            if (childView.getClass() == clazz) {
+                out.add((T) childView);
+            }
+            // 뷰그룹일 경우 재귀 호출
+            if (childView instanceof ViewGroup) {
+                findChildView((ViewGroup) childView, out);
+            }
+        }
+    }
+}
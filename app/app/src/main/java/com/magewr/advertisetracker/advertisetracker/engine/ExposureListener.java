@@ -0,0 +1,16 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+// 가시성 계산마다 노출 기준 면적 이상 보이는 후보 전체를 전달받는 인터페이스 - 노출 시간 집계용, 메인 쓰레드에서 호출
+// onExposurePassStart → 보이는 후보마다 onInView → onExposurePassEnd 순서로 호출되며 보이는 후보가 없어도 시작/끝은 호출됨
+public interface ExposureListener {
+    void onExposurePassStart(long timeMillis);
+
+    void onInView(Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder);
+
+    void onExposurePassEnd(long timeMillis);
+}
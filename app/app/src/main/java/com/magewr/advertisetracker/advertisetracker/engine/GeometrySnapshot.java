@@ -0,0 +1,159 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityTracker;
+
+/**
+ * 한 프레임에 메인 쓰레드에서 수집한 광고 후보들의 위치/크기 스냅샷
+ * 백그라운드 평가는 이 값만 사용하며 뷰에는 접근하지 않음 - token 은 결과를 메인 쓰레드에서 전달할때만 사용
+ * 핸들러의 노출 기준과 트래커도 수집할때 복사해두므로 평가 쓰레드는 핸들러 필드를 읽지 않음
+ *
+ * 엔진마다 몇개를 만들어두고 재사용 (FREE → 메인 쓰레드 수집 → EVALUATING → 백그라운드 평가 → EVALUATED → 메인 쓰레드 결과 전달 → FREE)
+ * 상태가 바뀌는 시점에만 소유 쓰레드가 바뀌므로 배열 자체는 동기화하지 않음
+ */
+final class GeometrySnapshot {
+    static final int STATE_FREE = 0;
+    static final int STATE_EVALUATING = 1;
+    static final int STATE_EVALUATED = 2;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    final VisibilityEngine engine;
+    volatile int state = STATE_FREE;
+
+    // 수집 시점 (SystemClock.uptimeMillis) - 연속 노출 시간 계산용 단조 시계
+    long captureTimeMillis;
+
+    // 핸들러별 수집 구간, 후보가 하나도 없던 핸들러도 포함 - 후보가 사라진 것도 평가에 반영하기 위함
+    int passCount;
+    PlacementHandler[] passHandlers = new PlacementHandler[INITIAL_CAPACITY];
+    int[] passStarts = new int[INITIAL_CAPACITY];
+    int[] passEnds = new int[INITIAL_CAPACITY];
+    boolean[] passScrolling = new boolean[INITIAL_CAPACITY];
+    // 수집 시점의 노출 기준과 트래커 - 결과 전달시 트래커가 바뀌었으면 (해제/재설정) 결과를 버림
+    ViewabilityPolicy[] passPolicies = new ViewabilityPolicy[INITIAL_CAPACITY];
+    ViewabilityTracker[] passTrackers = new ViewabilityTracker[INITIAL_CAPACITY];
+    // 백그라운드 평가 결과 - 핸들러별 다음 재계산 시각, 없으면 ViewabilityTracker.NO_DEADLINE
+    long[] passDeadlines = new long[INITIAL_CAPACITY];
+
+    int size;
+    PlacementHandler[] handlers = new PlacementHandler[INITIAL_CAPACITY];
+    int[] positions = new int[INITIAL_CAPACITY];
+    // 연속 노출 추적용 후보 키 - 담고 있는 리스트/뷰페이저와 위치로 만들므로 같은 위치의 다른 광고와 구분됨
+    long[] candidateKeys = new long[INITIAL_CAPACITY];
+    // 결과 전달시 후보가 아직 유효한지 확인하는 용도 - 뷰홀더 또는 뷰페이저
+    Object[] tokens = new Object[INITIAL_CAPACITY];
+    // 화면에 보이지 않으면 -1
+    int[] visibleWidths = new int[INITIAL_CAPACITY];
+    int[] visibleHeights = new int[INITIAL_CAPACITY];
+    int[] viewWidths = new int[INITIAL_CAPACITY];
+    int[] viewHeights = new int[INITIAL_CAPACITY];
+
+    // 백그라운드 평가 결과 - 노출로 인정된 후보와 노출 기준 면적 이상 보이는 후보
+    boolean[] isVisible = new boolean[INITIAL_CAPACITY];
+    boolean[] isInView = new boolean[INITIAL_CAPACITY];
+
+    GeometrySnapshot(VisibilityEngine engine) {
+        this.engine = engine;
+    }
+
+    void beginPass(PlacementHandler handler, boolean isScrolling) {
+        if (passCount == passStarts.length)
+            growPasses();
+
+        passHandlers[passCount] = handler;
+        passStarts[passCount] = size;
+        passEnds[passCount] = size;
+        passScrolling[passCount] = isScrolling;
+        passPolicies[passCount] = handler.viewabilityPolicy;
+        passTrackers[passCount] = handler.viewabilityTracker;
+        passDeadlines[passCount] = ViewabilityTracker.NO_DEADLINE;
+    }
+
+    void endPass() {
+        passEnds[passCount] = size;
+        passCount++;
+    }
+
+    void add(PlacementHandler handler, int position, Object token, long candidateKey, int visibleWidth, int visibleHeight, int viewWidth, int viewHeight) {
+        if (size == positions.length)
+            grow();
+
+        handlers[size] = handler;
+        positions[size] = position;
+        candidateKeys[size] = candidateKey;
+        tokens[size] = token;
+        visibleWidths[size] = visibleWidth;
+        visibleHeights[size] = visibleHeight;
+        viewWidths[size] = viewWidth;
+        viewHeights[size] = viewHeight;
+        isVisible[size] = false;
+        isInView[size] = false;
+        size++;
+    }
+
+    // 뷰 참조를 잡고 있지 않도록 비움
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            handlers[i] = null;
+            tokens[i] = null;
+        }
+        for (int i = 0; i < passCount; i++) {
+            passHandlers[i] = null;
+            passPolicies[i] = null;
+            passTrackers[i] = null;
+        }
+        size = 0;
+        passCount = 0;
+    }
+
+    // 후보가 가장 많았던 프레임 크기까지만 늘어남
+    private void grow() {
+        int capacity = positions.length << 1;
+        PlacementHandler[] newHandlers = new PlacementHandler[capacity];
+        System.arraycopy(handlers, 0, newHandlers, 0, size);
+        handlers = newHandlers;
+        Object[] newTokens = new Object[capacity];
+        System.arraycopy(tokens, 0, newTokens, 0, size);
+        tokens = newTokens;
+        positions = copyOf(positions, capacity);
+        long[] newCandidateKeys = new long[capacity];
+        System.arraycopy(candidateKeys, 0, newCandidateKeys, 0, size);
+        candidateKeys = newCandidateKeys;
+        visibleWidths = copyOf(visibleWidths, capacity);
+        visibleHeights = copyOf(visibleHeights, capacity);
+        viewWidths = copyOf(viewWidths, capacity);
+        viewHeights = copyOf(viewHeights, capacity);
+        isVisible = new boolean[capacity];
+        isInView = new boolean[capacity];
+    }
+
+    private void growPasses() {
+        int capacity = passStarts.length << 1;
+        PlacementHandler[] newPassHandlers = new PlacementHandler[capacity];
+        System.arraycopy(passHandlers, 0, newPassHandlers, 0, passCount);
+        passHandlers = newPassHandlers;
+        passStarts = copyOf(passStarts, capacity, passCount);
+        passEnds = copyOf(passEnds, capacity, passCount);
+        boolean[] newPassScrolling = new boolean[capacity];
+        System.arraycopy(passScrolling, 0, newPassScrolling, 0, passCount);
+        passScrolling = newPassScrolling;
+        ViewabilityPolicy[] newPassPolicies = new ViewabilityPolicy[capacity];
+        System.arraycopy(passPolicies, 0, newPassPolicies, 0, passCount);
+        passPolicies = newPassPolicies;
+        ViewabilityTracker[] newPassTrackers = new ViewabilityTracker[capacity];
+        System.arraycopy(passTrackers, 0, newPassTrackers, 0, passCount);
+        passTrackers = newPassTrackers;
+        passDeadlines = new long[capacity];
+    }
+
+    private int[] copyOf(int[] source, int capacity) {
+        return copyOf(source, capacity, size);
+    }
+
+    private static int[] copyOf(int[] source, int capacity, int length) {
+        int[] result = new int[capacity];
+        System.arraycopy(source, 0, result, 0, length);
+        return result;
+    }
+}
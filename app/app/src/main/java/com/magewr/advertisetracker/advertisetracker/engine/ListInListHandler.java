@@ -0,0 +1,70 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.List;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 스크롤 주체가 RecyclerView 이고 광고가 부모 또는 중첩된 자식 RecyclerView 의 뷰홀더로 제공되는 플레이스먼트
+ */
+public class ListInListHandler extends PlacementHandler {
+    private final RecyclerView adListView;
+    private final Class<? extends RecyclerView.ViewHolder> adViewHolderClass;
+    private AdViewIndex adViewIndex;
+
+    public ListInListHandler(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adListView = adListView;
+        this.adViewHolderClass = adViewHolderClass;
+    }
+
+    @Override
+    protected void onRegister(VisibilityEngine engine) {
+        adViewIndex = engine.obtainAdViewIndex(adListView, adViewHolderClass, true);
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            RecyclerView.ViewHolder viewHolder = viewHolderList.get(i);
+            if (viewHolder.getClass() != adViewHolderClass)
+                continue;
+
+            // 삭제 애니메이션 중이거나 아직 레이아웃되지 않은 뷰홀더는 위치가 없으므로 제외
+            int position = viewHolder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION)
+                engine.capture(this, position, viewHolder, viewHolder.itemView);
+        }
+
+        // 리스트에 아직 아무것도 그려지지 않은 경우
+        return adListView.getChildCount() > 0;
+    }
+
+    @Override
+    protected boolean onClick(int screenX, int screenY) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            RecyclerView.ViewHolder viewHolder = viewHolderList.get(i);
+            if (viewHolder.getClass() != adViewHolderClass)
+                continue;
+
+            int position = viewHolder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && clickIfHit(position, viewHolder, viewHolder.itemView, screenX, screenY))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        return ((RecyclerView.ViewHolder) token).getAdapterPosition() == position;
+    }
+
+    @Override
+    protected void release(VisibilityEngine engine) {
+        engine.releaseAdViewIndex(adListView);
+    }
+}
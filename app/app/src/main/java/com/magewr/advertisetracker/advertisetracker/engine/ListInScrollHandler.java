@@ -0,0 +1,74 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.View;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.List;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 스크롤 주체가 NestedScrollView 이고 자식 RecyclerView 안에 광고 뷰홀더가 존재하는 플레이스먼트
+ */
+public class ListInScrollHandler extends PlacementHandler {
+    private final RecyclerView adListView;
+    private final Class<? extends RecyclerView.ViewHolder> adViewHolderClass;
+    private AdViewIndex adViewIndex;
+
+    public ListInScrollHandler(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adListView = adListView;
+        this.adViewHolderClass = adViewHolderClass;
+    }
+
+    @Override
+    protected void onRegister(VisibilityEngine engine) {
+        adViewIndex = engine.obtainAdViewIndex(adListView, adViewHolderClass, false);
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            RecyclerView.ViewHolder viewHolder = viewHolderList.get(i);
+            // 이 리스트의 직계 자식 중 실제 광고가 담겨있는 뷰홀더만 수집
+            if (viewHolder.getClass() != adViewHolderClass || viewHolder.itemView.getParent() != adListView)
+                continue;
+
+            // 삭제 애니메이션 중이거나 아직 레이아웃되지 않은 뷰홀더는 위치가 없으므로 제외
+            int position = adListView.getChildAdapterPosition(viewHolder.itemView);
+            if (position != RecyclerView.NO_POSITION)
+                engine.capture(this, position, viewHolder, viewHolder.itemView);
+        }
+
+        // 리스트에 아직 아무것도 그려지지 않은 경우
+        return adListView.getChildCount() > 0;
+    }
+
+    @Override
+    protected boolean onClick(int screenX, int screenY) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            RecyclerView.ViewHolder viewHolder = viewHolderList.get(i);
+            if (viewHolder.getClass() != adViewHolderClass || viewHolder.itemView.getParent() != adListView)
+                continue;
+
+            int position = adListView.getChildAdapterPosition(viewHolder.itemView);
+            if (position != RecyclerView.NO_POSITION && clickIfHit(position, viewHolder, viewHolder.itemView, screenX, screenY))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        View itemView = ((RecyclerView.ViewHolder) token).itemView;
+        return itemView.getParent() == adListView && adListView.getChildAdapterPosition(itemView) == position;
+    }
+
+    @Override
+    protected void release(VisibilityEngine engine) {
+        engine.releaseAdViewIndex(adListView);
+    }
+}
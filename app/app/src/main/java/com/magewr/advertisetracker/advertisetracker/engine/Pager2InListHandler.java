@@ -0,0 +1,171 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * 스크롤 주체가 RecyclerView 이고 자식 ViewHolder 안의 ViewPager2 로 광고가 제공되는 플레이스먼트
+ * 광고 뷰홀더는 부모 RecyclerView 또는 중첩된 자식 RecyclerView 에 있을 수 있음
+ * ViewPager2 는 광고 뷰홀더가 붙을때 찾아서 콜백을 달고 떨어질때 바로 떼어내며, 페이지별로 가시성을 판단
+ * 리스너에는 페이지 위치와 페이지 뷰홀더가 전달됨
+ */
+public class Pager2InListHandler extends PlacementHandler {
+    private final RecyclerView adListView;
+    private final Class<? extends RecyclerView.ViewHolder> adViewHolderClass;
+    private AdViewIndex adViewIndex;
+
+    // 붙어있는 광고 뷰홀더별로 ViewPager2 에 등록한 콜백 - 뷰홀더가 떨어지면 콜백과 함께 삭제
+    private final Map<RecyclerView.ViewHolder, PagerScrollCallback> pagerCallbackMap = new IdentityHashMap<>();
+
+    private final ChildViewFinder<ViewPager2> viewPagerFinder = new ChildViewFinder<>(ViewPager2.class);
+    private final List<ViewPager2> foundViewPagers = new ArrayList<>();
+
+    // 스크롤 중인 뷰페이저 수 - 리스트 스크롤과 별개로 뷰페이저마다 마지막 상태 변경 기준으로 추적
+    private int scrollingPagerCount;
+
+    // ViewPager2 하나에 등록하는 콜백, 뷰페이저별 스크롤 상태를 가짐
+    private final class PagerScrollCallback extends ViewPager2.OnPageChangeCallback {
+        final ViewPager2 viewPager;
+        boolean isScrolling;
+
+        PagerScrollCallback(ViewPager2 viewPager) {
+            this.viewPager = viewPager;
+        }
+
+        @Override
+        public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+            onScroll();
+        }
+
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            setScrolling(state != ViewPager2.SCROLL_STATE_IDLE);
+            if (state == ViewPager2.SCROLL_STATE_IDLE || viewabilityTracker != null || exposureListener != null)
+                requestPass();
+        }
+
+        void setScrolling(boolean isScrolling) {
+            if (this.isScrolling == isScrolling)
+                return;
+
+            this.isScrolling = isScrolling;
+            scrollingPagerCount += isScrolling ? 1 : -1;
+        }
+
+        // 스크롤 도중 떨어진 뷰페이저는 IDLE 을 받지 못하므로 스크롤 중인 수에서 직접 뺌
+        void unregister() {
+            viewPager.unregisterOnPageChangeCallback(this);
+            setScrolling(false);
+        }
+    }
+
+    // 광고 뷰홀더가 붙고 떨어질때 뷰페이저 콜백도 함께 등록/해제
+    private final AdViewIndex.AdViewHolderListener adViewHolderListener = new AdViewIndex.AdViewHolderListener() {
+        @Override
+        public void onAdViewHolderAttached(RecyclerView.ViewHolder holder) {
+            if (holder.getClass() != adViewHolderClass || pagerCallbackMap.containsKey(holder))
+                return;
+
+            ViewPager2 viewPager = findViewPager(holder);
+            if (viewPager != null) {
+                PagerScrollCallback pagerCallback = new PagerScrollCallback(viewPager);
+                viewPager.registerOnPageChangeCallback(pagerCallback);
+                pagerCallbackMap.put(holder, pagerCallback);
+            }
+        }
+
+        @Override
+        public void onAdViewHolderDetached(RecyclerView.ViewHolder holder) {
+            PagerScrollCallback pagerCallback = pagerCallbackMap.remove(holder);
+            if (pagerCallback != null)
+                pagerCallback.unregister();
+        }
+    };
+
+    public Pager2InListHandler(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adListView = adListView;
+        this.adViewHolderClass = adViewHolderClass;
+    }
+
+    @Override
+    protected void onRegister(VisibilityEngine engine) {
+        adViewIndex = engine.obtainAdViewIndex(adListView, adViewHolderClass, true);
+        adViewIndex.addListener(adViewHolderListener);
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            PagerScrollCallback pagerCallback = pagerCallbackMap.get(viewHolderList.get(i));
+            if (pagerCallback != null)
+                ViewPager2Pages.capture(this, engine, pagerCallback.viewPager);
+        }
+
+        // 리스트에 아직 아무것도 그려지지 않은 경우
+        return adListView.getChildCount() > 0;
+    }
+
+    @Override
+    protected boolean isScrolling() {
+        return super.isScrolling() || scrollingPagerCount > 0;
+    }
+
+    @Override
+    protected boolean onClick(int screenX, int screenY) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            PagerScrollCallback pagerCallback = pagerCallbackMap.get(viewHolderList.get(i));
+            if (pagerCallback != null && ViewPager2Pages.click(this, pagerCallback.viewPager, screenX, screenY))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        return ViewPager2Pages.isCurrent(position, token);
+    }
+
+    @Override
+    protected void release(VisibilityEngine engine) {
+        adViewIndex.removeListener(adViewHolderListener);
+        engine.releaseAdViewIndex(adListView);
+
+        // 콜백 일괄 해제
+        for (PagerScrollCallback pagerCallback : pagerCallbackMap.values()) {
+            pagerCallback.unregister();
+        }
+        pagerCallbackMap.clear();
+    }
+
+    // 스크롤 중인 뷰페이저 수, 테스트용
+    int getScrollingPagerCount() {
+        return scrollingPagerCount;
+    }
+
+    // 뷰홀더가 붙을때 한번만 하이라키를 탐색
+    private ViewPager2 findViewPager(RecyclerView.ViewHolder viewHolder) {
+        ViewPager2 viewPager = null;
+        if (viewHolder.itemView instanceof ViewPager2) {
+            viewPager = (ViewPager2) viewHolder.itemView;
+        }
+        else if (viewHolder.itemView instanceof ViewGroup) {
+            viewPagerFinder.findChildView((ViewGroup) viewHolder.itemView, foundViewPagers);
+            if (!foundViewPagers.isEmpty())
+                viewPager = foundViewPagers.get(0);
+            foundViewPagers.clear();
+        }
+        return viewPager;
+    }
+}
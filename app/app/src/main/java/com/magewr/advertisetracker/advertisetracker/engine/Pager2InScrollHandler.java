@@ -0,0 +1,33 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * 스크롤 주체가 NestedScrollView 이고 자식 ViewPager2 안에 광고가 있는 플레이스먼트
+ * 페이지별로 가시성을 판단하며 리스너에는 페이지 위치와 페이지 뷰홀더가 전달됨
+ */
+public class Pager2InScrollHandler extends PlacementHandler {
+    private final ViewPager2 adViewPager;
+
+    public Pager2InScrollHandler(Placement placement, ViewPager2 adViewPager, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adViewPager = adViewPager;
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        return ViewPager2Pages.capture(this, engine, adViewPager);
+    }
+
+    @Override
+    protected boolean onClick(int screenX, int screenY) {
+        return ViewPager2Pages.click(this, adViewPager, screenX, screenY);
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        return ViewPager2Pages.isCurrent(position, token);
+    }
+}
@@ -0,0 +1,202 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager.widget.ViewPager;
+
+/**
+ * 스크롤 주체가 RecyclerView 이고 자식 ViewHolder 안의 ViewPager 로 광고가 제공되는 플레이스먼트
+ * 뷰페이저는 광고 뷰홀더가 붙을때 찾아서 리스너를 달고 떨어질때 바로 떼어내므로
+ * 긴 피드를 스크롤해도 기억하는 뷰페이저는 현재 붙어있는 광고 뷰홀더 만큼만 유지됨
+ */
+public class PagerInListHandler extends PlacementHandler {
+    private final RecyclerView adListView;
+    private final Class<? extends RecyclerView.ViewHolder> adViewHolderClass;
+    private AdViewIndex adViewIndex;
+
+    // 붙어있는 광고 뷰홀더별로 뷰페이저에 등록한 리스너 - 뷰홀더가 떨어지면 리스너와 함께 삭제
+    private final Map<RecyclerView.ViewHolder, List<PagerScrollListener>> pagerListenerMap = new IdentityHashMap<>();
+
+    // 뷰홀더에서 배너 ViewPager 찾는 파인더와 결과 버퍼 - 재사용
+    private final ChildViewFinder<ViewPager> viewPagerFinder = new ChildViewFinder<>(ViewPager.class);
+    private final List<ViewPager> foundViewPagers = new ArrayList<>();
+
+    // 스크롤 중인 뷰페이저 수 - 리스트 스크롤과 별개로 뷰페이저마다 마지막 상태 변경 기준으로 추적
+    private int scrollingPagerCount;
+
+    // 뷰페이저 하나에 등록하는 리스너, 뷰페이저별 스크롤 상태를 가짐
+    private final class PagerScrollListener implements ViewPager.OnPageChangeListener {
+        final ViewPager viewPager;
+        boolean isScrolling;
+
+        PagerScrollListener(ViewPager viewPager) {
+            this.viewPager = viewPager;
+        }
+
+        @Override
+        public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+            onScroll();
+        }
+
+        @Override
+        public void onPageSelected(int position) {
+
+        }
+
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            setScrolling(state != ViewPager.SCROLL_STATE_IDLE);
+            if (state == ViewPager.SCROLL_STATE_IDLE || viewabilityTracker != null || exposureListener != null)
+                requestPass();
+        }
+
+        void setScrolling(boolean isScrolling) {
+            if (this.isScrolling == isScrolling)
+                return;
+
+            this.isScrolling = isScrolling;
+            scrollingPagerCount += isScrolling ? 1 : -1;
+        }
+
+        void remove() {
+            viewPager.removeOnPageChangeListener(this);
+            setScrolling(false);
+        }
+    }
+
+    // 광고 뷰홀더가 붙고 떨어질때 뷰페이저 리스너도 함께 등록/해제
+    private final AdViewIndex.AdViewHolderListener adViewHolderListener = new AdViewIndex.AdViewHolderListener() {
+        @Override
+        public void onAdViewHolderAttached(RecyclerView.ViewHolder holder) {
+            PagerInListHandler.this.onAdViewHolderAttached(holder);
+        }
+
+        @Override
+        public void onAdViewHolderDetached(RecyclerView.ViewHolder holder) {
+            PagerInListHandler.this.onAdViewHolderDetached(holder);
+        }
+    };
+
+    public PagerInListHandler(Placement placement, RecyclerView adListView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adListView = adListView;
+        this.adViewHolderClass = adViewHolderClass;
+    }
+
+    @Override
+    protected void onRegister(VisibilityEngine engine) {
+        adViewIndex = engine.obtainAdViewIndex(adListView, adViewHolderClass, true);
+        adViewIndex.addListener(adViewHolderListener);
+    }
+
+    private void onAdViewHolderAttached(RecyclerView.ViewHolder holder) {
+        if (holder.getClass() != adViewHolderClass || !(holder.itemView instanceof ViewGroup) || pagerListenerMap.containsKey(holder))
+            return;
+
+        // 뷰홀더에서 배너 ViewPager 가져와서 리스너 등록
+        viewPagerFinder.findChildView((ViewGroup) holder.itemView, foundViewPagers);
+        if (!foundViewPagers.isEmpty()) {
+            List<PagerScrollListener> pagerListeners = new ArrayList<>(foundViewPagers.size());
+            for (int i = 0; i < foundViewPagers.size(); i++) {
+                PagerScrollListener pagerListener = new PagerScrollListener(foundViewPagers.get(i));
+                pagerListener.viewPager.addOnPageChangeListener(pagerListener);
+                pagerListeners.add(pagerListener);
+            }
+            pagerListenerMap.put(holder, pagerListeners);
+        }
+        foundViewPagers.clear();
+    }
+
+    private void onAdViewHolderDetached(RecyclerView.ViewHolder holder) {
+        List<PagerScrollListener> pagerListeners = pagerListenerMap.remove(holder);
+        if (pagerListeners != null)
+            removePagerListeners(pagerListeners);
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            List<PagerScrollListener> pagerListeners = pagerListenerMap.get(viewHolderList.get(i));
+            if (pagerListeners == null)
+                continue;
+
+            for (int j = 0; j < pagerListeners.size(); j++) {
+                ViewPager viewPager = pagerListeners.get(j).viewPager;
+                engine.capture(this, viewPager.getCurrentItem(), viewPager, viewPager);
+            }
+        }
+
+        // 리스트에 아직 아무것도 그려지지 않은 경우
+        return adListView.getChildCount() > 0;
+    }
+
+    @Override
+    protected boolean isScrolling() {
+        return super.isScrolling() || scrollingPagerCount > 0;
+    }
+
+    // 뷰페이저 영역의 탭은 현재 페이지 클릭
+    @Override
+    protected boolean onClick(int screenX, int screenY) {
+        List<RecyclerView.ViewHolder> viewHolderList = adViewIndex.getAdViewHolders();
+        for (int i = 0; i < viewHolderList.size(); i++) {
+            List<PagerScrollListener> pagerListeners = pagerListenerMap.get(viewHolderList.get(i));
+            if (pagerListeners == null)
+                continue;
+
+            for (int j = 0; j < pagerListeners.size(); j++) {
+                ViewPager viewPager = pagerListeners.get(j).viewPager;
+                if (clickIfHit(viewPager.getCurrentItem(), viewPager, viewPager, screenX, screenY))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        return ((ViewPager) token).getCurrentItem() == position;
+    }
+
+    @Override
+    protected void release(VisibilityEngine engine) {
+        adViewIndex.removeListener(adViewHolderListener);
+        engine.releaseAdViewIndex(adListView);
+
+        // 리스너 일괄 해제
+        for (List<PagerScrollListener> pagerListeners : pagerListenerMap.values()) {
+            removePagerListeners(pagerListeners);
+        }
+        pagerListenerMap.clear();
+    }
+
+    // 리스너를 등록해둔 뷰페이저 수, 테스트용
+    int getTrackedViewPagerCount() {
+        int count = 0;
+        for (List<PagerScrollListener> pagerListeners : pagerListenerMap.values()) {
+            count += pagerListeners.size();
+        }
+        return count;
+    }
+
+    // 스크롤 중인 뷰페이저 수, 테스트용
+    int getScrollingPagerCount() {
+        return scrollingPagerCount;
+    }
+
+    // 스크롤 도중 떨어진 뷰페이저는 IDLE 을 받지 못하므로 스크롤 중인 수에서 직접 뺌
+    private void removePagerListeners(List<PagerScrollListener> pagerListeners) {
+        for (int i = 0; i < pagerListeners.size(); i++) {
+            pagerListeners.get(i).remove();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.viewpager.widget.ViewPager;
+
+/**
+ * 스크롤 주체가 NestedScrollView 이고 자식 ViewPager 안에 광고가 있는 플레이스먼트
+ * 스크롤뷰와 뷰페이저가 모두 멈춘 시점에만 계산이 요청됨
+ */
+public class PagerInScrollHandler extends PlacementHandler {
+    private final ViewPager adViewPager;
+
+    public PagerInScrollHandler(Placement placement, ViewPager adViewPager, VisibilityListener visibilityListener) {
+        super(placement, visibilityListener);
+        this.adViewPager = adViewPager;
+    }
+
+    @Override
+    protected boolean onVisibilityPass(VisibilityEngine engine) {
+        // 페이지가 아직 그려지지 않은 경우
+        if (adViewPager.getChildCount() == 0)
+            return false;
+
+        engine.capture(this, adViewPager.getCurrentItem(), adViewPager, adViewPager);
+        return true;
+    }
+
+    @Override
+    protected boolean isCandidateCurrent(int position, Object token) {
+        return adViewPager.getCurrentItem() == position;
+    }
+}
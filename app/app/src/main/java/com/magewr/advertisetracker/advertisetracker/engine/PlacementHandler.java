@@ -0,0 +1,202 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.View;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityTracker;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 광고 플레이스먼트 하나의 가시성 판별을 담당하는 핸들러
+ * 스크롤 멈춤 등 계산이 필요한 시점에 requestPass 로 요청하면 엔진이 다음 프레임에 onVisibilityPass 를 호출
+ * onVisibilityPass 에서는 후보 광고뷰를 engine.capture 로 수집만 하고, 가시성 평가가 끝나면 엔진이 dispatchVisible 로 결과를 돌려줌
+ */
+public abstract class PlacementHandler {
+    protected final Placement placement;
+    protected final VisibilityListener visibilityListener;
+
+    // 노출 기준과 후보별 연속 노출 상태 - 필드는 메인 쓰레드에서만 접근, 평가 쓰레드는 수집할때 스냅샷에 복사된 값을 사용
+    ViewabilityPolicy viewabilityPolicy = ViewabilityPolicy.FULLY_VISIBLE_ON_IDLE;
+    ViewabilityTracker viewabilityTracker;
+
+    // 스크롤 중 여부, 수집할때 스냅샷에 같이 기록
+    private boolean isScrolling;
+
+    // 노출 시간 집계용 리스너, 사용하지 않으면 null
+    ExposureListener exposureListener;
+
+    // 자동 클릭 추적용 리스너, 사용하지 않으면 null
+    AdClickListener clickListener;
+    // 클릭 위치 확인용 버퍼 - 재사용
+    private final int[] location = new int[2];
+
+    // 엔진에서 관리하는 상태
+    VisibilityEngine engine;
+    boolean isPassPending;
+    boolean isWaitingForContent;
+    // 연속 노출 시간을 채우는지 다시 확인해야 하는 시각, 없으면 ViewabilityTracker.NO_DEADLINE
+    long dwellDeadlineMillis = ViewabilityTracker.NO_DEADLINE;
+
+    protected PlacementHandler(Placement placement, VisibilityListener visibilityListener) {
+        this.placement = placement;
+        this.visibilityListener = visibilityListener;
+    }
+
+    /**
+     * 가시성 계산 요청, 메인 쓰레드에서 호출해야 함
+     */
+    public void requestPass() {
+        if (engine != null)
+            engine.requestPass(this);
+    }
+
+    /**
+     * 노출 기준 설정, 엔진에 등록하기 전에 호출해야 함
+     * @param viewabilityPolicy 노출 기준
+     */
+    public void setViewabilityPolicy(ViewabilityPolicy viewabilityPolicy) {
+        this.viewabilityPolicy = viewabilityPolicy;
+        this.viewabilityTracker = viewabilityPolicy.isTracked() ? new ViewabilityTracker(viewabilityPolicy) : null;
+    }
+
+    // 연속 노출 상태 초기화, 엔진에서 해제될때 호출
+    // 이전 트래커를 쓰는 스냅샷이 평가중일 수 있으므로 재사용하지 않고 새로 만듦 - 이전 트래커의 결과는 엔진에서 버림
+    void resetViewability() {
+        if (viewabilityTracker != null)
+            viewabilityTracker = new ViewabilityTracker(viewabilityPolicy);
+        isScrolling = false;
+    }
+
+    /**
+     * 노출 시간 집계용 리스너 설정, 엔진에 등록하기 전에 호출해야 함
+     * 설정하면 스크롤 중에도 프레임마다 계산되어 보이는 구간이 정확히 집계됨
+     * @param exposureListener 리스너
+     */
+    public void setExposureListener(ExposureListener exposureListener) {
+        this.exposureListener = exposureListener;
+    }
+
+    /**
+     * 자동 클릭 추적용 리스너 설정, AdClickDetector 에 등록하기 전에 호출해야 함
+     * @param clickListener 리스너
+     */
+    public void setClickListener(AdClickListener clickListener) {
+        this.clickListener = clickListener;
+    }
+
+    /**
+     * 스크롤 상태 변경 알림, 메인 쓰레드에서 호출
+     * 연속 노출 시간을 재는 중이면 스크롤 시작/종료도 계산에 반영되도록 재계산 요청
+     * @param isScrolling 스크롤 중 여부
+     */
+    public void setScrolling(boolean isScrolling) {
+        if (this.isScrolling == isScrolling)
+            return;
+
+        this.isScrolling = isScrolling;
+        if (viewabilityTracker != null || exposureListener != null)
+            requestPass();
+    }
+
+    /**
+     * 스크롤 이벤트 알림, 메인 쓰레드에서 호출
+     * 스크롤 중에도 노출을 인정하는 기준이거나 노출 시간을 집계하는 경우 재계산 요청 - 엔진에서 프레임당 1회로 모아짐
+     */
+    public void onScroll() {
+        if (!viewabilityPolicy.isRequireScrollIdle() || exposureListener != null)
+            requestPass();
+    }
+
+    /**
+     * 수집 시점의 스크롤 중 여부, 핸들러가 직접 추적하는 스크롤(뷰페이저 등)이 있으면 재정의
+     */
+    protected boolean isScrolling() {
+        return isScrolling;
+    }
+
+    /**
+     * 엔진이 프레임마다 요청된 핸들러에 대해 호출하는 후보 수집 메소드, 후보 광고뷰마다 engine.capture 호출
+     * @param engine 프레임 공유 계산을 제공하는 엔진
+     * @return 광고 컨텐츠가 아직 그려지지 않아 판단할 수 없으면 false - 다음에 그려질때 다시 호출됨
+     */
+    protected abstract boolean onVisibilityPass(VisibilityEngine engine);
+
+    /**
+     * 평가가 끝난 시점에 수집했던 후보가 아직 같은 위치에 있는지 여부, 메인 쓰레드에서 호출
+     * @param position 수집 당시 위치
+     * @param token 수집 당시 넘긴 객체
+     * @return 그 사이 스크롤이나 페이지 전환으로 다른 광고로 바뀌었으면 false
+     */
+    protected abstract boolean isCandidateCurrent(int position, Object token);
+
+    // 전부 보인다고 평가된 후보를 리스너로 전달, 수집 이후 바뀐 후보는 제외
+    void dispatchVisible(int position, Object token) {
+        if (!isCandidateCurrent(position, token))
+            return;
+
+        visibilityListener.onFullyVisible(placement, position, asViewHolder(token));
+    }
+
+    // 한 계산에서 노출 기준 면적 이상 보인 후보를 노출 시간 리스너로 전달, 수집 이후 바뀐 후보는 제외
+    void dispatchExposure(GeometrySnapshot snapshot, int start, int end) {
+        exposureListener.onExposurePassStart(snapshot.captureTimeMillis);
+        for (int i = start; i < end; i++) {
+            if (snapshot.isInView[i] && isCandidateCurrent(snapshot.positions[i], snapshot.tokens[i]))
+                exposureListener.onInView(placement, snapshot.positions[i], asViewHolder(snapshot.tokens[i]));
+        }
+        exposureListener.onExposurePassEnd(snapshot.captureTimeMillis);
+    }
+
+    // 탭된 화면 좌표의 광고를 찾아서 클릭 리스너로 전달, 클릭 디텍터에서 메인 쓰레드로 호출
+    boolean dispatchClick(int screenX, int screenY) {
+        return clickListener != null && engine != null && onClick(screenX, screenY);
+    }
+
+    /**
+     * 탭된 화면 좌표에 있는 광고를 찾는 메소드, 후보는 onVisibilityPass 와 같은 방식으로 찾아서 후보마다 clickIfHit 호출
+     * 자동 클릭 추적을 지원하지 않는 핸들러는 재정의하지 않음
+     * @return 광고를 찾아서 클릭을 전달했으면 true
+     */
+    protected boolean onClick(int screenX, int screenY) {
+        return false;
+    }
+
+    /**
+     * 후보 광고뷰가 화면 좌표를 포함하면 클릭 리스너로 전달
+     * @param position 후보 위치
+     * @param token 후보 객체 - 뷰홀더면 리스너에 같이 전달
+     * @param view 후보 광고뷰
+     * @return 클릭을 전달했으면 true
+     */
+    protected final boolean clickIfHit(int position, Object token, View view, int screenX, int screenY) {
+        if (!view.isShown())
+            return false;
+
+        view.getLocationOnScreen(location);
+        if (screenX < location[0] || screenY < location[1] || screenX >= location[0] + view.getWidth() || screenY >= location[1] + view.getHeight())
+            return false;
+
+        clickListener.onAdClick(placement, position, asViewHolder(token));
+        return true;
+    }
+
+    private static RecyclerView.ViewHolder asViewHolder(Object token) {
+        return token instanceof RecyclerView.ViewHolder ? (RecyclerView.ViewHolder) token : null;
+    }
+
+    /**
+     * 엔진에 등록될 때 호출, 엔진에서 공유하는 인덱스 등이 필요하면 여기서 가져옴
+     * @param engine 등록된 엔진
+     */
+    protected void onRegister(VisibilityEngine engine) {
+    }
+
+    /**
+     * 엔진에서 해제될 때 호출, 핸들러가 직접 등록한 리스너나 공유 인덱스가 있으면 여기서 정리
+     * @param engine 등록되어 있던 엔진
+     */
+    protected void release(VisibilityEngine engine) {
+    }
+}
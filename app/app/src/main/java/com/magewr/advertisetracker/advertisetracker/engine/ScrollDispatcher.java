@@ -0,0 +1,241 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.util.Log;
+
+import com.magewr.advertisetracker.R;
+
+import java.lang.reflect.Field;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.core.widget.NestedScrollView;
+
+/**
+ * NestedScrollView 하나의 스크롤 이벤트를 여러 리스너에 나눠주는 디스패처, 스크롤뷰에 태그로 붙여서 스크롤뷰당 하나만 사용
+ * NestedScrollView 는 OnScrollChangeListener 를 하나만 가질 수 있으므로 디스패처가 그 자리를 차지하고
+ * 이미 붙어있던 앱의 리스너는 가장 먼저 그대로 호출
+ *
+ * 앱에서 스크롤 리스너를 붙일때는 setOnScrollChangeListener 대신 반드시 {@link #add} 를 사용해야 함
+ * setOnScrollChangeListener 로 디스패처를 덮어쓰면 다음 등록(add)때까지 추적이 멈춤
+ * 기존 리스너는 NestedScrollView 의 private 필드를 읽어서 찾으므로 R8 난독화시 proguard-rules.pro 의 keep 규칙 필요,
+ * 필드를 읽을 수 없으면 경고 로그를 남기고 기존 리스너를 이어서 호출하지 않음
+ *
+ * 스크롤 이벤트는 그 스크롤뷰에 등록된 리스너에만 전달되며 등록/해제는 O(1)
+ * 호출 중에 등록한 리스너는 다음 스크롤부터, 호출 중에 해제한 리스너는 아직 호출 전이면 바로 호출되지 않음
+ * 메인 쓰레드에서만 사용
+ */
+@MainThread
+public final class ScrollDispatcher implements NestedScrollView.OnScrollChangeListener {
+    private static final String TAG = "AdvertiseTracker";
+
+    // NestedScrollView 의 리스너 필드, 처음 필요할때 한번 찾고 찾지 못하면 null
+    private static Field listenerField;
+    private static boolean isListenerFieldResolved;
+
+    private final NestedScrollView scrollView;
+
+    // 디스패처를 붙이기 전에 스크롤뷰에 있던 리스너, 나중에 앱이 디스패처를 덮어쓴 경우 그 리스너로 바뀜
+    private NestedScrollView.OnScrollChangeListener chainedListener;
+
+    // 등록된 리스너, 해제시 마지막 항목을 빈 자리로 옮겨서 O(1)
+    // 호출 중에는 순서를 바꾸지 않도록 빈 자리(null)로 두었다가 호출이 끝난 뒤 한번에 정리
+    private Registration[] registrations = new Registration[4];
+    private int size;
+    private int dispatchDepth;
+    private int removedDuringDispatchCount;
+
+    private ScrollDispatcher(NestedScrollView scrollView) {
+        this.scrollView = scrollView;
+        this.chainedListener = readScrollChangeListener(scrollView);
+    }
+
+    /**
+     * 스크롤뷰의 디스패처를 가져오는 메소드, 없으면 생성해서 스크롤뷰의 리스너 자리에 붙임
+     * @param scrollView 스크롤뷰
+     * @return 스크롤뷰 전용 디스패처
+     */
+    public static ScrollDispatcher of(NestedScrollView scrollView) {
+        Object dispatcher = scrollView.getTag(R.id.advertise_tracker_scroll_dispatcher);
+        if (dispatcher instanceof ScrollDispatcher)
+            return (ScrollDispatcher) dispatcher;
+
+        ScrollDispatcher newDispatcher = new ScrollDispatcher(scrollView);
+        scrollView.setTag(R.id.advertise_tracker_scroll_dispatcher, newDispatcher);
+        scrollView.setOnScrollChangeListener(newDispatcher);
+        return newDispatcher;
+    }
+
+    /**
+     * 앱의 스크롤 리스너를 등록하는 메소드, 트래커와 같은 스크롤뷰를 쓰는 경우 setOnScrollChangeListener 대신 사용
+     * @param scrollView 스크롤뷰
+     * @param listener 앱의 스크롤 리스너
+     * @return 등록된 등록 정보, 해제시 remove 호출
+     */
+    public static Registration add(NestedScrollView scrollView, NestedScrollView.OnScrollChangeListener listener) {
+        Registration registration = of(scrollView).newRegistration(listener);
+        registration.add();
+        return registration;
+    }
+
+    /**
+     * 리스너의 등록 정보 생성, add/remove 로 여러번 붙였다 뗄 수 있음
+     * @param listener 스크롤 리스너
+     * @return 아직 등록되지 않은 등록 정보
+     */
+    public Registration newRegistration(NestedScrollView.OnScrollChangeListener listener) {
+        return new Registration(this, listener);
+    }
+
+    /**
+     * @return 등록된 리스너 수, 이전부터 있던 리스너는 제외
+     */
+    public int getListenerCount() {
+        return size - removedDuringDispatchCount;
+    }
+
+    @Override
+    public void onScrollChange(@NonNull NestedScrollView v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
+        if (chainedListener != null)
+            chainedListener.onScrollChange(v, scrollX, scrollY, oldScrollX, oldScrollY);
+
+        // 호출 시작때의 리스너까지만 호출 - 호출 중에 해제된 자리는 null 이라 건너뜀
+        int count = size;
+        dispatchDepth++;
+        try {
+            for (int i = 0; i < count; i++) {
+                Registration registration = registrations[i];
+                if (registration != null)
+                    registration.listener.onScrollChange(v, scrollX, scrollY, oldScrollX, oldScrollY);
+            }
+        } finally {
+            if (--dispatchDepth == 0 && removedDuringDispatchCount > 0)
+                compact();
+        }
+    }
+
+    private void add(Registration registration) {
+        reattachIfReplaced();
+        if (size == registrations.length) {
+            Registration[] grown = new Registration[size * 2];
+            System.arraycopy(registrations, 0, grown, 0, size);
+            registrations = grown;
+        }
+        registration.index = size;
+        registrations[size++] = registration;
+    }
+
+    private void remove(Registration registration) {
+        int index = registration.index;
+        if (dispatchDepth > 0) {
+            registrations[index] = null;
+            registration.index = Registration.NOT_ADDED;
+            removedDuringDispatchCount++;
+            return;
+        }
+
+        Registration last = registrations[--size];
+        registrations[index] = last;
+        last.index = index;
+        registrations[size] = null;
+        registration.index = Registration.NOT_ADDED;
+    }
+
+    // 호출 중에 해제되어 비어있는 자리를 순서대로 당겨서 정리
+    private void compact() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Registration registration = registrations[i];
+            if (registration == null)
+                continue;
+
+            registration.index = count;
+            registrations[count++] = registration;
+        }
+        for (int i = count; i < size; i++) {
+            registrations[i] = null;
+        }
+        size = count;
+        removedDuringDispatchCount = 0;
+    }
+
+    // 앱이 setOnScrollChangeListener 로 디스패처를 덮어썼으면 그 리스너를 이어받고 다시 붙임
+    // 등록할때(화면 시작, 재개)마다 확인하므로 덮어쓴 뒤 다음 등록부터 추적이 복구됨
+    private void reattachIfReplaced() {
+        Field field = getListenerField();
+        if (field == null)
+            return;
+
+        Object listener;
+        try {
+            listener = field.get(scrollView);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return;
+        }
+        if (listener == this)
+            return;
+
+        Log.w(TAG, "NestedScrollView listener was replaced by setOnScrollChangeListener, use ScrollDispatcher.add instead");
+        chainedListener = listener instanceof NestedScrollView.OnScrollChangeListener ? (NestedScrollView.OnScrollChangeListener) listener : null;
+        scrollView.setOnScrollChangeListener(this);
+    }
+
+    // NestedScrollView 는 리스너 getter 가 없으므로 필드에서 읽음, 읽을 수 없으면 이어서 호출하지 않음
+    private static NestedScrollView.OnScrollChangeListener readScrollChangeListener(NestedScrollView scrollView) {
+        Field field = getListenerField();
+        if (field == null)
+            return null;
+
+        try {
+            Object listener = field.get(scrollView);
+            return listener instanceof NestedScrollView.OnScrollChangeListener ? (NestedScrollView.OnScrollChangeListener) listener : null;
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Field getListenerField() {
+        if (isListenerFieldResolved)
+            return listenerField;
+
+        isListenerFieldResolved = true;
+        try {
+            Field field = NestedScrollView.class.getDeclaredField("mOnScrollChangeListener");
+            field.setAccessible(true);
+            listenerField = field;
+        } catch (NoSuchFieldException | RuntimeException e) {
+            // R8 에서 필드명이 바뀌었거나 androidx 버전이 달라진 경우
+            Log.w(TAG, "NestedScrollView.mOnScrollChangeListener not found, existing scroll listeners will not be chained", e);
+        }
+        return listenerField;
+    }
+
+    /**
+     * 디스패처에 등록하는 리스너 하나, 자기 위치를 기억하므로 해제가 O(1)
+     */
+    public static final class Registration {
+        private static final int NOT_ADDED = -1;
+
+        private final ScrollDispatcher dispatcher;
+        private final NestedScrollView.OnScrollChangeListener listener;
+        private int index = NOT_ADDED;
+
+        private Registration(ScrollDispatcher dispatcher, NestedScrollView.OnScrollChangeListener listener) {
+            this.dispatcher = dispatcher;
+            this.listener = listener;
+        }
+
+        public void add() {
+            if (index == NOT_ADDED)
+                dispatcher.add(this);
+        }
+
+        public void remove() {
+            if (index != NOT_ADDED)
+                dispatcher.remove(this);
+        }
+
+        public boolean isAdded() {
+            return index != NOT_ADDED;
+        }
+    }
+}
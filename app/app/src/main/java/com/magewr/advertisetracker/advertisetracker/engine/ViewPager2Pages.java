@@ -0,0 +1,74 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * ViewPager2 페이지 수집 - ViewPager2 는 내부 RecyclerView 의 자식으로 페이지를 붙이므로
+ * 하이라키를 탐색하지 않고 내부 리스트에 붙어있는 페이지(오프스크린 페이지 포함)만 페이지별로 수집
+ * 화면 밖에 미리 붙어있는 오프스크린 페이지는 가시 영역이 없으므로 평가에서 걸러짐
+ */
+final class ViewPager2Pages {
+
+    private ViewPager2Pages() {
+    }
+
+    /**
+     * 붙어있는 페이지를 모두 수집, 토큰은 페이지 뷰홀더
+     * @return 페이지가 아직 그려지지 않았으면 false
+     */
+    static boolean capture(PlacementHandler handler, VisibilityEngine engine, ViewPager2 viewPager) {
+        RecyclerView pageListView = getPageListView(viewPager);
+        if (pageListView == null || pageListView.getChildCount() == 0)
+            return false;
+
+        int childCount = pageListView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View page = pageListView.getChildAt(i);
+            RecyclerView.ViewHolder pageHolder = pageListView.getChildViewHolder(page);
+            int position = pageHolder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION)
+                engine.capture(handler, position, pageHolder, page);
+        }
+        return true;
+    }
+
+    /**
+     * 탭된 화면 좌표의 페이지를 찾아서 클릭 전달, 오프스크린 페이지는 화면에 없으므로 현재 보이는 페이지만 맞음
+     * @return 페이지를 찾아서 클릭을 전달했으면 true
+     */
+    static boolean click(PlacementHandler handler, ViewPager2 viewPager, int screenX, int screenY) {
+        RecyclerView pageListView = getPageListView(viewPager);
+        if (pageListView == null)
+            return false;
+
+        int childCount = pageListView.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            View page = pageListView.getChildAt(i);
+            RecyclerView.ViewHolder pageHolder = pageListView.getChildViewHolder(page);
+            int position = pageHolder.getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && handler.clickIfHit(position, pageHolder, page, screenX, screenY))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * 수집했던 페이지가 아직 같은 위치로 붙어있는지 여부
+     */
+    static boolean isCurrent(int position, Object token) {
+        RecyclerView.ViewHolder pageHolder = (RecyclerView.ViewHolder) token;
+        return pageHolder.itemView.getParent() instanceof RecyclerView && pageHolder.getAdapterPosition() == position;
+    }
+
+    // ViewPager2 의 첫번째 자식이 페이지를 담는 내부 RecyclerView - 자동 클릭 추적의 터치 디텍터도 여기에 붙임
+    static RecyclerView getPageListView(ViewPager2 viewPager) {
+        if (viewPager.getChildCount() == 0)
+            return null;
+
+        View child = viewPager.getChildAt(0);
+        return child instanceof RecyclerView ? (RecyclerView) child : null;
+    }
+}
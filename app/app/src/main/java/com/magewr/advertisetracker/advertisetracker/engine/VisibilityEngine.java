@@ -0,0 +1,494 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+
+import com.magewr.advertisetracker.R;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityTracker;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 윈도우(루트뷰) 단위로 공유되는 광고 가시성 엔진
+ * 화면에 등록된 모든 플레이스먼트의 가시성 계산 요청을 모아두었다가 프레임당 1회만 처리하며
+ * 리스트의 광고 뷰홀더는 attach/detach 콜백으로 유지되는 인덱스를 모든 핸들러가 공유하므로
+ * 플레이스먼트 수가 늘어나도 스크롤이 멈출때마다 뷰 트리를 순회하지 않음
+ *
+ * 등록 직후 첫 프레임에 1회 계산하며, 아직 컨텐츠가 그려지지 않은 핸들러는 이후 그려지는 프레임마다 다시 계산
+ * 타이머를 쓰지 않으므로 화면에 변화가 없는 동안에는 아무 작업도 하지 않음
+ *
+ * 계산은 두 단계로 나뉨
+ * 1. 메인 쓰레드 - 프레임당 1회 후보 광고뷰의 위치/크기만 GeometrySnapshot 에 수집, 프레임당 수집 시간은 CAPTURE_BUDGET_NANOS 로 제한
+ * 2. 백그라운드 쓰레드 - VisibilityEvaluator 가 스냅샷만으로 가시성 규칙 평가
+ * 평가 결과는 메인 쓰레드로 돌아와 후보가 아직 같은 위치에 있는 경우만 VisibilityListener 로 전달
+ * 연속 노출 시간이 필요한 노출 기준은 기준 시간을 채우는 가장 빠른 시각에 메시지 하나만 예약해서 재계산
+ *
+ * 모든 메소드는 메인 쓰레드에서 호출되어야 함
+ */
+@MainThread
+public class VisibilityEngine implements ViewTreeObserver.OnPreDrawListener, Choreographer.FrameCallback {
+
+    // 프레임당 메인 쓰레드 수집 시간 상한, 넘으면 남은 핸들러는 다음 프레임에 수집
+    static final long CAPTURE_BUDGET_NANOS = 2_000_000L;
+
+    private final View rootView;
+    private final List<PlacementHandler> handlerList = new ArrayList<>();
+
+    // 계산 요청이 들어온 핸들러가 있는지 여부
+    private boolean isPassRequested;
+    // 그려질 프레임이 없는 경우를 위해 예약한 프레임 콜백 여부
+    private boolean isFrameCallbackPosted;
+    // 컨텐츠가 그려지길 기다리는 핸들러 수
+    private int waitingHandlerCount;
+
+    // 가시 영역 계산용 Rect, 메인 쓰레드에서만 쓰이므로 공유
+    private final Rect scratchRect = new Rect();
+
+    // 리스트별 광고 뷰홀더 인덱스 - 같은 리스트를 여러 플레이스먼트가 추적해도 인덱스는 하나
+    private final Map<RecyclerView, AdViewIndex> adViewIndexMap = new IdentityHashMap<>();
+
+    // 평가중인 스냅샷이 있어도 다음 프레임을 수집할 수 있도록 2개를 번갈아 사용
+    private final GeometrySnapshot[] snapshots = { new GeometrySnapshot(this), new GeometrySnapshot(this) };
+    // 수집중인 스냅샷, runPass 안에서만 null 이 아님
+    private GeometrySnapshot capturingSnapshot;
+    // 다음 수집을 시작할 핸들러 위치 - 수집 시간 상한에 걸려도 뒤쪽 핸들러가 계속 밀리지 않도록 돌아가며 시작
+    private int nextCaptureIndex;
+
+    // 모든 엔진과 평가 쓰레드가 공유하는 측정값, 사용하지 않으면 null
+    private static volatile TrackerMetrics metrics;
+    // 연속 노출 후보 키에 쓰는 다음 컨테이너 번호, 모든 엔진이 공유 - 메인 쓰레드에서만 접근
+    private static int nextContainerId;
+
+    private static final int MSG_RESULTS_READY = 1;
+    private static final int MSG_DWELL_DEADLINE = 2;
+
+    // 평가 완료 알림과 연속 노출 재계산 예약을 처리하는 메인 쓰레드 핸들러, 결과가 여러개 쌓여도 알림은 1개만 보냄
+    private final Handler resultHandler = new Handler(Looper.getMainLooper(), message -> {
+        if (message.what == MSG_RESULTS_READY)
+            onResultsReady();
+        else if (message.what == MSG_DWELL_DEADLINE)
+            onDwellDeadline();
+        return true;
+    });
+    private final AtomicBoolean isResultNotified = new AtomicBoolean();
+    // 예약된 연속 노출 재계산 시각
+    private long scheduledDwellDeadline = ViewabilityTracker.NO_DEADLINE;
+
+    // 메인 쓰레드 수집 시간 측정값
+    private long lastCaptureNanos;
+    private long maxCaptureNanos;
+
+    private VisibilityEngine(View rootView) {
+        this.rootView = rootView;
+    }
+
+    /**
+     * 뷰가 속한 윈도우의 엔진을 가져오는 메소드, 없으면 생성해서 루트뷰에 태그로 붙여둠
+     * @param view 윈도우에 포함된 아무 뷰
+     * @return 윈도우 공유 엔진
+     */
+    public static VisibilityEngine of(View view) {
+        View rootView = view.getRootView();
+        Object engine = rootView.getTag(R.id.advertise_tracker_visibility_engine);
+        if (engine instanceof VisibilityEngine)
+            return (VisibilityEngine) engine;
+
+        VisibilityEngine newEngine = new VisibilityEngine(rootView);
+        rootView.setTag(R.id.advertise_tracker_visibility_engine, newEngine);
+        return newEngine;
+    }
+
+    /**
+     * 수집/평가 시간, 계산당 후보 수, 무시한 리스너 오류를 기록할 측정값 설정 - 모든 엔진에 적용
+     * @param trackerMetrics 측정값, null 이면 기록하지 않음
+     */
+    public static void setMetrics(TrackerMetrics trackerMetrics) {
+        metrics = trackerMetrics;
+    }
+
+    static TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 플레이스먼트 핸들러 등록, 최초 등록시 PreDraw 리스너를 붙임
+     * @param handler 등록할 핸들러
+     */
+    public void register(PlacementHandler handler) {
+        if (handlerList.contains(handler))
+            return;
+
+        if (handlerList.isEmpty())
+            rootView.getViewTreeObserver().addOnPreDrawListener(this);
+
+        handler.engine = this;
+        handlerList.add(handler);
+        handler.onRegister(this);
+
+        // 화면이 처음 그려지거나 resume 된 경우를 위해 등록 직후 1회 계산
+        requestPass(handler);
+    }
+
+    /**
+     * 플레이스먼트 핸들러 해제, 마지막 핸들러가 해제되면 엔진도 리스너를 정리
+     * @param handler 해제할 핸들러
+     */
+    public void unregister(PlacementHandler handler) {
+        if (!handlerList.remove(handler))
+            return;
+
+        setWaitingForContent(handler, false);
+        handler.isPassPending = false;
+        handler.dwellDeadlineMillis = ViewabilityTracker.NO_DEADLINE;
+        // 다시 등록되는 경우 해제 전의 연속 노출은 이어지지 않음 - 평가중인 스냅샷은 이전 트래커를 그대로 사용
+        handler.resetViewability();
+        handler.release(this);
+        handler.engine = null;
+
+        if (handlerList.isEmpty()) {
+            rootView.getViewTreeObserver().removeOnPreDrawListener(this);
+            if (isFrameCallbackPosted) {
+                Choreographer.getInstance().removeFrameCallback(this);
+                isFrameCallbackPosted = false;
+            }
+            isPassRequested = false;
+            resultHandler.removeMessages(MSG_DWELL_DEADLINE);
+            scheduledDwellDeadline = ViewabilityTracker.NO_DEADLINE;
+        }
+    }
+
+    /**
+     * 핸들러의 가시성 계산 요청, 실제 계산은 다음 프레임에서 요청된 핸들러를 모아 한번에 처리
+     * @param handler 요청한 핸들러
+     */
+    void requestPass(PlacementHandler handler) {
+        handler.isPassPending = true;
+        if (!isPassRequested)
+            requestNextFrame();
+    }
+
+    @Override
+    public boolean onPreDraw() {
+        consumeResults();
+        // 컨텐츠를 기다리는 핸들러는 다시 그려질때마다 재시도
+        if (isPassRequested || waitingHandlerCount > 0)
+            runPass();
+        return true;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameCallbackPosted = false;
+        consumeResults();
+        if (isPassRequested)
+            runPass();
+    }
+
+    // 요청된 핸들러와 컨텐츠를 기다리는 핸들러만 골라서 메인 쓰레드에서 위치/크기를 수집한 뒤 백그라운드 평가로 넘김
+    private void runPass() {
+        GeometrySnapshot snapshot = obtainFreeSnapshot();
+        // 두 스냅샷 모두 평가중이면 요청을 유지하고 평가가 끝난 뒤 다시 수집
+        if (snapshot == null)
+            return;
+
+        isPassRequested = false;
+        capturingSnapshot = snapshot;
+        snapshot.captureTimeMillis = SystemClock.uptimeMillis();
+
+        TrackerMetrics currentMetrics = metrics;
+        long startNanos = System.nanoTime();
+        int handlerCount = handlerList.size();
+        int startIndex = nextCaptureIndex < handlerCount ? nextCaptureIndex : 0;
+        for (int n = 0; n < handlerCount; n++) {
+            int index = (startIndex + n) % handlerCount;
+            PlacementHandler handler = handlerList.get(index);
+            if (!handler.isPassPending && !handler.isWaitingForContent)
+                continue;
+
+            // 시간 상한을 넘으면 남은 핸들러는 요청 상태로 두고 다음 프레임에 이어서 수집
+            if (System.nanoTime() - startNanos > CAPTURE_BUDGET_NANOS) {
+                nextCaptureIndex = index;
+                requestNextFrame();
+                break;
+            }
+
+            handler.isPassPending = false;
+            boolean isContentReady = true;
+            snapshot.beginPass(handler, handler.isScrolling());
+            try {
+                isContentReady = handler.onVisibilityPass(this);
+            } catch (RuntimeException e) {
+                // 한 플레이스먼트의 오류로 다른 플레이스먼트나 화면 그리기가 중단되지 않도록 무시
+                if (currentMetrics != null)
+                    currentMetrics.recordSwallowedError(TrackerMetrics.ErrorSource.VisibilityPass);
+            }
+            snapshot.endPass();
+            setWaitingForContent(handler, !isContentReady);
+        }
+
+        capturingSnapshot = null;
+        lastCaptureNanos = System.nanoTime() - startNanos;
+        if (lastCaptureNanos > maxCaptureNanos)
+            maxCaptureNanos = lastCaptureNanos;
+        if (currentMetrics != null && snapshot.passCount > 0) {
+            currentMetrics.recordCaptureNanos(lastCaptureNanos);
+            currentMetrics.recordCandidates(snapshot.size);
+        }
+
+        // 후보가 없어도 연속 노출이 끊긴 것을 반영해야 하므로 수집한 핸들러가 있으면 평가
+        if (snapshot.passCount > 0) {
+            snapshot.state = GeometrySnapshot.STATE_EVALUATING;
+            VisibilityEvaluator.post(snapshot);
+        }
+    }
+
+    private GeometrySnapshot obtainFreeSnapshot() {
+        for (GeometrySnapshot snapshot : snapshots) {
+            if (snapshot.state == GeometrySnapshot.STATE_FREE)
+                return snapshot;
+        }
+        return null;
+    }
+
+    // 스크롤이 멈춘 뒤에는 다시 그려질 프레임이 없을 수 있으므로 프레임 콜백도 예약
+    private void requestNextFrame() {
+        isPassRequested = true;
+        if (!isFrameCallbackPosted) {
+            Choreographer.getInstance().postFrameCallback(this);
+            isFrameCallbackPosted = true;
+        }
+    }
+
+    /**
+     * 평가가 끝난 스냅샷을 돌려받는 메소드, 평가 쓰레드에서 호출
+     * @param snapshot 평가가 끝난 스냅샷
+     */
+    void onSnapshotEvaluated(GeometrySnapshot snapshot) {
+        snapshot.state = GeometrySnapshot.STATE_EVALUATED;
+        if (isResultNotified.compareAndSet(false, true))
+            resultHandler.sendEmptyMessage(MSG_RESULTS_READY);
+    }
+
+    private void onResultsReady() {
+        isResultNotified.set(false);
+        consumeResults();
+        // 스냅샷이 모자라 수집하지 못한 요청이 남아있으면 다음 프레임에 수집
+        if (isPassRequested && !handlerList.isEmpty())
+            requestNextFrame();
+    }
+
+    // 평가가 끝난 스냅샷의 결과를 리스너로 전달하고 스냅샷 반환
+    private void consumeResults() {
+        for (GeometrySnapshot snapshot : snapshots) {
+            if (snapshot.state != GeometrySnapshot.STATE_EVALUATED)
+                continue;
+
+            for (int p = 0; p < snapshot.passCount; p++) {
+                PlacementHandler handler = snapshot.passHandlers[p];
+                // 평가중에 해제되었거나 트래커가 바뀐 핸들러의 결과는 제외
+                if (!isCurrentPass(snapshot, p))
+                    continue;
+
+                for (int i = snapshot.passStarts[p]; i < snapshot.passEnds[p]; i++) {
+                    if (!snapshot.isVisible[i])
+                        continue;
+
+                    try {
+                        handler.dispatchVisible(snapshot.positions[i], snapshot.tokens[i]);
+                    } catch (RuntimeException e) {
+                        // 한 플레이스먼트의 오류로 다른 플레이스먼트나 화면 그리기가 중단되지 않도록 무시
+                        recordDispatchError();
+                    }
+                }
+            }
+
+            boolean isDeadlineChanged = false;
+            for (int p = 0; p < snapshot.passCount; p++) {
+                PlacementHandler handler = snapshot.passHandlers[p];
+                if (!isCurrentPass(snapshot, p))
+                    continue;
+
+                if (handler.exposureListener != null) {
+                    try {
+                        handler.dispatchExposure(snapshot, snapshot.passStarts[p], snapshot.passEnds[p]);
+                    } catch (RuntimeException e) {
+                        // 한 플레이스먼트의 오류로 다른 플레이스먼트나 화면 그리기가 중단되지 않도록 무시
+                        recordDispatchError();
+                    }
+                }
+                if (handler.viewabilityTracker != null) {
+                    handler.dwellDeadlineMillis = snapshot.passDeadlines[p];
+                    isDeadlineChanged = true;
+                }
+            }
+            snapshot.clear();
+            snapshot.state = GeometrySnapshot.STATE_FREE;
+
+            if (isDeadlineChanged)
+                scheduleDwellDeadline();
+        }
+    }
+
+    // 수집 이후 핸들러가 해제되었거나 (재등록 포함) 노출 기준이 다시 설정되었으면 이전 트래커로 평가된 결과이므로 무효
+    private boolean isCurrentPass(GeometrySnapshot snapshot, int pass) {
+        PlacementHandler handler = snapshot.passHandlers[pass];
+        return handler.engine == this && handler.viewabilityTracker == snapshot.passTrackers[pass];
+    }
+
+    private static void recordDispatchError() {
+        TrackerMetrics currentMetrics = metrics;
+        if (currentMetrics != null)
+            currentMetrics.recordSwallowedError(TrackerMetrics.ErrorSource.VisibilityDispatch);
+    }
+
+    // 핸들러들의 연속 노출 재계산 시각 중 가장 빠른 시각에 메시지 하나만 예약
+    private void scheduleDwellDeadline() {
+        long deadline = ViewabilityTracker.NO_DEADLINE;
+        for (int i = 0; i < handlerList.size(); i++) {
+            deadline = Math.min(deadline, handlerList.get(i).dwellDeadlineMillis);
+        }
+        if (deadline == scheduledDwellDeadline)
+            return;
+
+        resultHandler.removeMessages(MSG_DWELL_DEADLINE);
+        scheduledDwellDeadline = deadline;
+        if (deadline != ViewabilityTracker.NO_DEADLINE)
+            resultHandler.sendEmptyMessageAtTime(MSG_DWELL_DEADLINE, deadline);
+    }
+
+    // 기준 시간이 된 핸들러만 재계산 요청, 계속 보이고 있으면 이번 계산에서 노출로 인정됨
+    private void onDwellDeadline() {
+        scheduledDwellDeadline = ViewabilityTracker.NO_DEADLINE;
+        long now = SystemClock.uptimeMillis();
+        for (int i = 0; i < handlerList.size(); i++) {
+            PlacementHandler handler = handlerList.get(i);
+            if (handler.dwellDeadlineMillis > now)
+                continue;
+
+            handler.dwellDeadlineMillis = ViewabilityTracker.NO_DEADLINE;
+            requestPass(handler);
+        }
+        scheduleDwellDeadline();
+    }
+
+    private void setWaitingForContent(PlacementHandler handler, boolean isWaiting) {
+        if (handler.isWaitingForContent == isWaiting)
+            return;
+
+        handler.isWaitingForContent = isWaiting;
+        waitingHandlerCount += isWaiting ? 1 : -1;
+    }
+
+    ///////////////////////////////////////////////////
+    // 핸들러에서 사용하는 프레임 공유 계산 메소드
+    ///////////////////////////////////////////////////
+
+    /**
+     * 후보 광고뷰의 현재 위치/크기를 스냅샷에 수집, onVisibilityPass 안에서만 호출
+     * @param handler 후보를 찾은 핸들러
+     * @param position 후보의 어댑터 위치 또는 페이지 위치
+     * @param token 결과 전달시 후보가 그대로인지 확인할 객체 - PlacementHandler.isCandidateCurrent 로 전달됨
+     * @param view 가시성을 판단할 뷰
+     */
+    void capture(PlacementHandler handler, int position, Object token, View view) {
+        boolean isShown = view.getLocalVisibleRect(scratchRect);
+        capturingSnapshot.add(handler, position, token, candidateKey(position, token),
+                isShown ? scratchRect.width() : -1, isShown ? scratchRect.height() : -1,
+                view.getWidth(), view.getHeight());
+    }
+
+    // 연속 노출 추적용 후보 키, 같은 위치라도 담고 있는 리스트나 뷰페이저가 다르면 다른 후보
+    // 뷰홀더는 붙어있는 리스트 기준이므로 재활용으로 뷰홀더가 바뀌어도 같은 위치면 연속 노출이 이어짐
+    // 토큰은 뷰홀더 또는 뷰, 메인 쓰레드
+    static long candidateKey(int position, Object token) {
+        View container;
+        if (token instanceof RecyclerView.ViewHolder) {
+            View itemView = ((RecyclerView.ViewHolder) token).itemView;
+            ViewParent parent = itemView.getParent();
+            container = parent instanceof View ? (View) parent : itemView;
+        }
+        else {
+            container = (View) token;
+        }
+        return ((long) containerId(container) << 32) | (position & 0xffffffffL);
+    }
+
+    // 컨테이너 뷰마다 처음 볼때 번호를 붙여서 태그로 보관 - identityHashCode 와 달리 살아있는 컨테이너끼리 겹치지 않음
+    private static int containerId(View container) {
+        Object containerId = container.getTag(R.id.advertise_tracker_container_id);
+        if (containerId instanceof Integer)
+            return (Integer) containerId;
+
+        int newContainerId = nextContainerId++;
+        container.setTag(R.id.advertise_tracker_container_id, newContainerId);
+        return newContainerId;
+    }
+
+    /**
+     * 리스트의 광고 뷰홀더 인덱스를 가져옴, 같은 리스트를 추적하는 핸들러끼리 공유
+     * @param listView 스크롤 주체 RecyclerView
+     * @param adViewHolderClass 핸들러가 추적할 광고 뷰홀더 클래스
+     * @param isNestedListTracked 자식뷰 안의 중첩 리스트에 있는 광고 뷰홀더까지 추적할지 여부
+     * @return 공유 인덱스
+     */
+    AdViewIndex obtainAdViewIndex(RecyclerView listView, Class<? extends RecyclerView.ViewHolder> adViewHolderClass, boolean isNestedListTracked) {
+        AdViewIndex adViewIndex = adViewIndexMap.get(listView);
+        if (adViewIndex == null) {
+            adViewIndex = new AdViewIndex(listView);
+            adViewIndexMap.put(listView, adViewIndex);
+        }
+        adViewIndex.refCount++;
+        adViewIndex.addAdViewHolderClass(adViewHolderClass, isNestedListTracked);
+        return adViewIndex;
+    }
+
+    /**
+     * 인덱스 사용 해제, 공유하는 핸들러가 없으면 리스너까지 정리
+     * @param listView 스크롤 주체 RecyclerView
+     */
+    void releaseAdViewIndex(RecyclerView listView) {
+        AdViewIndex adViewIndex = adViewIndexMap.get(listView);
+        if (adViewIndex == null || --adViewIndex.refCount > 0)
+            return;
+
+        adViewIndexMap.remove(listView);
+        adViewIndex.release();
+    }
+
+    /**
+     * @return 마지막 프레임의 메인 쓰레드 수집 시간 (ns)
+     */
+    public long getLastCaptureNanos() {
+        return lastCaptureNanos;
+    }
+
+    /**
+     * @return 엔진 생성 이후 가장 길었던 프레임의 메인 쓰레드 수집 시간 (ns)
+     */
+    public long getMaxCaptureNanos() {
+        return maxCaptureNanos;
+    }
+
+    // 백그라운드 평가중인 스냅샷이 있는지 여부, 테스트용
+    boolean isEvaluating() {
+        for (GeometrySnapshot snapshot : snapshots) {
+            if (snapshot.state == GeometrySnapshot.STATE_EVALUATING)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityTracker;
+
+/**
+ * 스냅샷의 후보별 노출 기준(ViewabilityPolicy)을 백그라운드 쓰레드에서 평가
+ * 모든 엔진이 프로세스당 하나의 쓰레드를 공유하며, 메시지는 풀에서 가져오므로 평가 요청마다 할당이 없음
+ */
+final class VisibilityEvaluator {
+    private static final int MSG_EVALUATE = 1;
+
+    private static Handler evaluationHandler;
+
+    private VisibilityEvaluator() {
+    }
+
+    /**
+     * 스냅샷 평가 요청, 메인 쓰레드에서 호출
+     * @param snapshot 수집이 끝난 스냅샷 - 평가가 끝나면 엔진으로 돌려줌
+     */
+    static void post(GeometrySnapshot snapshot) {
+        Handler handler = getEvaluationHandler();
+        handler.sendMessage(handler.obtainMessage(MSG_EVALUATE, snapshot));
+    }
+
+    private static synchronized Handler getEvaluationHandler() {
+        if (evaluationHandler == null) {
+            HandlerThread thread = new HandlerThread("AdvertiseTracker-Visibility", Process.THREAD_PRIORITY_BACKGROUND);
+            thread.start();
+            evaluationHandler = new Handler(thread.getLooper(), message -> {
+                if (message.what != MSG_EVALUATE)
+                    return false;
+
+                GeometrySnapshot snapshot = (GeometrySnapshot) message.obj;
+                TrackerMetrics metrics = VisibilityEngine.getMetrics();
+                long startNanos = metrics != null ? System.nanoTime() : 0;
+                evaluate(snapshot);
+                long evaluationNanos = metrics != null ? System.nanoTime() - startNanos : 0;
+                snapshot.engine.onSnapshotEvaluated(snapshot);
+                // 결과 알림을 보낸 뒤에 기록 - 평가 횟수가 수집 횟수와 같으면 모든 결과가 메인 쓰레드에 도착해 있음
+                if (metrics != null)
+                    metrics.recordEvaluationNanos(evaluationNanos);
+                return true;
+            });
+        }
+        return evaluationHandler;
+    }
+
+    // 수집 시점의 노출 기준으로 평가, 연속 노출 시간이 필요한 기준이면 수집 시점의 트래커에 이번 결과를 반영
+    // 핸들러 필드는 메인 쓰레드에서 바뀔 수 있으므로 스냅샷에 복사된 값만 사용
+    static void evaluate(GeometrySnapshot snapshot) {
+        for (int p = 0; p < snapshot.passCount; p++) {
+            ViewabilityPolicy policy = snapshot.passPolicies[p];
+            ViewabilityTracker tracker = snapshot.passTrackers[p];
+            boolean isBlockedByScroll = policy.isRequireScrollIdle() && snapshot.passScrolling[p];
+
+            if (tracker != null)
+                tracker.beginPass();
+            for (int i = snapshot.passStarts[p]; i < snapshot.passEnds[p]; i++) {
+                // 노출 시간 집계는 스크롤 중에도 보이는 시간을 모두 포함
+                snapshot.isInView[i] = policy.isInView(snapshot.visibleWidths[i], snapshot.visibleHeights[i],
+                        snapshot.viewWidths[i], snapshot.viewHeights[i]);
+                boolean isInView = !isBlockedByScroll && snapshot.isInView[i];
+                if (tracker == null)
+                    snapshot.isVisible[i] = isInView;
+                else
+                    snapshot.isVisible[i] = isInView && tracker.onInView(snapshot.candidateKeys[i], snapshot.captureTimeMillis);
+            }
+            if (tracker != null) {
+                tracker.endPass();
+                snapshot.passDeadlines[p] = tracker.getNextDeadline();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+// 핸들러가 광고뷰가 전부 보인다고 판단했을때 결과를 전달받는 인터페이스
+// 가시성은 백그라운드에서 평가되지만 결과는 항상 메인 쓰레드에서 전달되므로 뷰홀더에 바로 접근해도 됨
+public interface VisibilityListener {
+    void onFullyVisible(Placement placement, int position, @Nullable RecyclerView.ViewHolder viewHolder);
+}
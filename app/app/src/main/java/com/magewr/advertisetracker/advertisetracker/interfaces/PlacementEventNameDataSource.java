@@ -0,0 +1,12 @@
+package com.magewr.advertisetracker.advertisetracker.interfaces;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+// 이벤트명 제공받는 인터페이스, 설정 파일에서 읽은 플레이스먼트까지 구분해야 하는 경우 사용
+// 내장 플레이스먼트는 placement.getType() 으로 ADType 을 얻을 수 있음
+public interface PlacementEventNameDataSource {
+    String getEventName(Placement placement, int position, @Nullable RecyclerView.ViewHolder bannerViewHolder);
+}
@@ -0,0 +1,287 @@
+package com.magewr.advertisetracker.advertisetracker.trace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 스크롤/플링/페이저 전환 순서와 그 결과 위치를 담은 트레이스, 성능/정확도 회귀 테스트에서 같은 조작을 재현하는 용도
+ * ScrollTraceRecorder 로 기기에서 기록하거나 직접 만들어서 테스트 리소스로 두고 재생
+ *
+ * 파일은 한 줄에 레코드 하나인 텍스트이며 시간은 이전 레코드로부터의 간격(ms)
+ *   adtrace 1
+ *   viewport <width px> <height px> <densityDpi>
+ *   meta <key> <value>              재생 화면 구성값 (행 수 등)
+ *   M <dt> <d|m|u|c> <x> <y>        터치 이벤트 - 루트뷰 기준 좌표
+ *   P <dt> <pagerIndex> <page>      터치 없이 바뀐 페이저 페이지 - 화면에 붙어있는 페이저 중 순서
+ *   G <dt> <position> <offset>      스크롤이 멈춘 시점의 위치 - 리스트는 첫 아이템 위치와 top, 스크롤뷰는 0 과 scrollY
+ * # 으로 시작하는 줄은 주석
+ */
+public final class ScrollTrace {
+    private static final String MAGIC = "adtrace";
+    private static final int VERSION = 1;
+
+    public static final char TYPE_MOTION = 'M';
+    public static final char TYPE_PAGER = 'P';
+    public static final char TYPE_GEOMETRY = 'G';
+
+    // MotionEvent 의 액션 값과 같음
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MOVE = 2;
+    public static final int ACTION_CANCEL = 3;
+
+    private final int viewportWidth;
+    private final int viewportHeight;
+    private final int densityDpi;
+    private final Map<String, String> metaMap;
+    private final List<Record> recordList;
+
+    public ScrollTrace(int viewportWidth, int viewportHeight, int densityDpi, Map<String, String> metaMap, List<Record> recordList) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.densityDpi = densityDpi;
+        this.metaMap = Collections.unmodifiableMap(new LinkedHashMap<>(metaMap));
+        this.recordList = Collections.unmodifiableList(new ArrayList<>(recordList));
+    }
+
+    public int getViewportWidth() {
+        return viewportWidth;
+    }
+
+    public int getViewportHeight() {
+        return viewportHeight;
+    }
+
+    public int getDensityDpi() {
+        return densityDpi;
+    }
+
+    public int getMeta(String key, int defaultValue) {
+        String value = metaMap.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public Map<String, String> getMetaMap() {
+        return metaMap;
+    }
+
+    public List<Record> getRecordList() {
+        return recordList;
+    }
+
+    /**
+     * @return 트레이스 길이 (ms), 마지막 레코드 시각
+     */
+    public long getDurationMillis() {
+        return recordList.isEmpty() ? 0 : recordList.get(recordList.size() - 1).getTimeMillis();
+    }
+
+    public void write(Writer writer) throws IOException {
+        writer.write(MAGIC + " " + VERSION + "\n");
+        writer.write("viewport " + viewportWidth + " " + viewportHeight + " " + densityDpi + "\n");
+        for (Map.Entry<String, String> entry : metaMap.entrySet()) {
+            writer.write("meta " + entry.getKey() + " " + entry.getValue() + "\n");
+        }
+
+        long lastTimeMillis = 0;
+        for (Record record : recordList) {
+            long dt = record.timeMillis - lastTimeMillis;
+            lastTimeMillis = record.timeMillis;
+            if (record.type == TYPE_MOTION)
+                writer.write(record.type + " " + dt + " " + actionToChar(record.first) + " " + record.second + " " + record.third + "\n");
+            else
+                writer.write(record.type + " " + dt + " " + record.first + " " + record.second + "\n");
+        }
+        writer.flush();
+    }
+
+    public static ScrollTrace read(Reader reader) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        int viewportWidth = 0;
+        int viewportHeight = 0;
+        int densityDpi = 160;
+        Map<String, String> metaMap = new LinkedHashMap<>();
+        List<Record> recordList = new ArrayList<>();
+
+        long timeMillis = 0;
+        int lineNumber = 0;
+        boolean hasHeader = false;
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] tokens = line.split("\\s+");
+            try {
+                if (!hasHeader) {
+                    if (!MAGIC.equals(tokens[0]) || Integer.parseInt(tokens[1]) != VERSION)
+                        throw new IOException("not a scroll trace (line " + lineNumber + ")");
+                    hasHeader = true;
+                    continue;
+                }
+
+                switch (tokens[0]) {
+                    case "viewport":
+                        viewportWidth = Integer.parseInt(tokens[1]);
+                        viewportHeight = Integer.parseInt(tokens[2]);
+                        densityDpi = Integer.parseInt(tokens[3]);
+                        break;
+                    case "meta":
+                        metaMap.put(tokens[1], tokens[2]);
+                        break;
+                    case "M":
+                        timeMillis += Long.parseLong(tokens[1]);
+                        recordList.add(Record.motion(timeMillis, charToAction(tokens[2]), Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4])));
+                        break;
+                    case "P":
+                        timeMillis += Long.parseLong(tokens[1]);
+                        recordList.add(Record.pager(timeMillis, Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3])));
+                        break;
+                    case "G":
+                        timeMillis += Long.parseLong(tokens[1]);
+                        recordList.add(Record.geometry(timeMillis, Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3])));
+                        break;
+                    default:
+                        throw new IOException("unknown record '" + tokens[0] + "' (line " + lineNumber + ")");
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("malformed trace line " + lineNumber + ": " + line, e);
+            }
+        }
+        if (!hasHeader)
+            throw new IOException("empty scroll trace");
+
+        return new ScrollTrace(viewportWidth, viewportHeight, densityDpi, metaMap, recordList);
+    }
+
+    private static char actionToChar(int action) {
+        switch (action) {
+            case ACTION_DOWN:
+                return 'd';
+            case ACTION_UP:
+                return 'u';
+            case ACTION_MOVE:
+                return 'm';
+            default:
+                return 'c';
+        }
+    }
+
+    private static int charToAction(String token) throws IOException {
+        switch (token) {
+            case "d":
+                return ACTION_DOWN;
+            case "u":
+                return ACTION_UP;
+            case "m":
+                return ACTION_MOVE;
+            case "c":
+                return ACTION_CANCEL;
+            default:
+                throw new IOException("unknown motion action '" + token + "'");
+        }
+    }
+
+    /**
+     * 트레이스 레코드 하나, 시간은 트레이스 시작 기준 (ms)
+     */
+    public static final class Record {
+        private final char type;
+        private final long timeMillis;
+        // 터치 - 액션, x, y / 페이저 - 페이저 순서, 페이지 / 위치 - 아이템 위치, 오프셋
+        private final int first;
+        private final int second;
+        private final int third;
+
+        private Record(char type, long timeMillis, int first, int second, int third) {
+            this.type = type;
+            this.timeMillis = timeMillis;
+            this.first = first;
+            this.second = second;
+            this.third = third;
+        }
+
+        public static Record motion(long timeMillis, int action, int x, int y) {
+            return new Record(TYPE_MOTION, timeMillis, action, x, y);
+        }
+
+        public static Record pager(long timeMillis, int pagerIndex, int page) {
+            return new Record(TYPE_PAGER, timeMillis, pagerIndex, page, 0);
+        }
+
+        public static Record geometry(long timeMillis, int position, int offset) {
+            return new Record(TYPE_GEOMETRY, timeMillis, position, offset, 0);
+        }
+
+        public char getType() {
+            return type;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public int getAction() {
+            return first;
+        }
+
+        public int getX() {
+            return second;
+        }
+
+        public int getY() {
+            return third;
+        }
+
+        public int getPagerIndex() {
+            return first;
+        }
+
+        public int getPage() {
+            return second;
+        }
+
+        public int getPosition() {
+            return first;
+        }
+
+        public int getOffset() {
+            return second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Record))
+                return false;
+
+            Record other = (Record) o;
+            return type == other.type && timeMillis == other.timeMillis && first == other.first && second == other.second && third == other.third;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type;
+            hash = 31 * hash + (int) (timeMillis ^ (timeMillis >>> 32));
+            hash = 31 * hash + first;
+            hash = 31 * hash + second;
+            hash = 31 * hash + third;
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return type + "@" + timeMillis + "(" + first + ", " + second + ", " + third + ")";
+        }
+    }
+}
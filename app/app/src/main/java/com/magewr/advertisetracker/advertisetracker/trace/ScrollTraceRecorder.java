@@ -0,0 +1,145 @@
+package com.magewr.advertisetracker.advertisetracker.trace;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager.widget.ViewPager;
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * 기기에서 실제 조작을 ScrollTrace 로 기록하는 디버그용 레코더
+ * 액티비티의 dispatchTouchEvent 에서 onTouchEvent 를 호출하고, 터치 없이 페이지가 바뀌는 페이저(자동 롤링 배너 등)는 watchPager 로 등록
+ * 스크롤 주체가 RecyclerView 면 스크롤이 멈출때마다, 그 외에는 손을 뗄때마다 위치를 함께 기록
+ *
+ * 메인 쓰레드에서만 사용
+ */
+public class ScrollTraceRecorder {
+
+    private final View rootView;
+    private final View scrollContainer;
+    private final Map<String, String> metaMap = new LinkedHashMap<>();
+    private final List<ScrollTrace.Record> recordList = new ArrayList<>();
+    private final List<View> pagerList = new ArrayList<>();
+    private final List<Runnable> releaseList = new ArrayList<>();
+
+    private long startMillis = -1;
+    private boolean isTouching;
+
+    /**
+     * @param rootView 터치 좌표 기준이 되는 루트뷰 - 보통 window.getDecorView()
+     * @param scrollContainer 스크롤 주체 (RecyclerView 또는 NestedScrollView)
+     */
+    public ScrollTraceRecorder(View rootView, View scrollContainer) {
+        this.rootView = rootView;
+        this.scrollContainer = scrollContainer;
+
+        if (scrollContainer instanceof RecyclerView) {
+            RecyclerView listView = (RecyclerView) scrollContainer;
+            RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE)
+                        recordGeometry(SystemClock.uptimeMillis());
+                }
+            };
+            listView.addOnScrollListener(scrollListener);
+            releaseList.add(() -> listView.removeOnScrollListener(scrollListener));
+        }
+    }
+
+    /**
+     * 재생할 화면 구성값 기록 - 행 수 등
+     */
+    public void putMeta(String key, int value) {
+        metaMap.put(key, String.valueOf(value));
+    }
+
+    /**
+     * 터치 이벤트 기록, Activity.dispatchTouchEvent 에서 호출
+     */
+    public void onTouchEvent(MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action != MotionEvent.ACTION_DOWN && action != MotionEvent.ACTION_MOVE
+                && action != MotionEvent.ACTION_UP && action != MotionEvent.ACTION_CANCEL)
+            return;
+
+        long timeMillis = toTraceTime(event.getEventTime());
+        recordList.add(ScrollTrace.Record.motion(timeMillis, action, Math.round(event.getX()), Math.round(event.getY())));
+        isTouching = action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_MOVE;
+        if (!isTouching && !(scrollContainer instanceof RecyclerView))
+            recordGeometry(event.getEventTime());
+    }
+
+    /**
+     * 터치 없이 바뀐 페이지를 기록할 페이저 등록
+     */
+    public void watchPager(ViewPager viewPager) {
+        ViewPager.OnPageChangeListener listener = new ViewPager.SimpleOnPageChangeListener() {
+            @Override
+            public void onPageSelected(int position) {
+                recordPage(viewPager, position);
+            }
+        };
+        viewPager.addOnPageChangeListener(listener);
+        releaseList.add(() -> viewPager.removeOnPageChangeListener(listener));
+    }
+
+    /**
+     * 터치 없이 바뀐 페이지를 기록할 페이저 등록
+     */
+    public void watchPager(ViewPager2 viewPager) {
+        ViewPager2.OnPageChangeCallback callback = new ViewPager2.OnPageChangeCallback() {
+            @Override
+            public void onPageSelected(int position) {
+                recordPage(viewPager, position);
+            }
+        };
+        viewPager.registerOnPageChangeCallback(callback);
+        releaseList.add(() -> viewPager.unregisterOnPageChangeCallback(callback));
+    }
+
+    /**
+     * 기록 종료, 등록한 리스너를 모두 해제하고 트레이스를 돌려줌
+     */
+    public ScrollTrace stop() {
+        for (Runnable release : releaseList) {
+            release.run();
+        }
+        releaseList.clear();
+        return new ScrollTrace(rootView.getWidth(), rootView.getHeight(), rootView.getResources().getDisplayMetrics().densityDpi,
+                metaMap, recordList);
+    }
+
+    // 손으로 넘긴 페이지는 터치 이벤트 재생으로 재현되므로 기록하지 않음
+    void recordPage(View pager, int page) {
+        if (isTouching || startMillis < 0)
+            return;
+
+        int pagerIndex = TraceViews.indexOfPager(rootView, pager, pagerList);
+        if (pagerIndex >= 0)
+            recordList.add(ScrollTrace.Record.pager(toTraceTime(SystemClock.uptimeMillis()), pagerIndex, page));
+    }
+
+    private void recordGeometry(long uptimeMillis) {
+        if (startMillis < 0)
+            return;
+
+        recordList.add(ScrollTrace.Record.geometry(toTraceTime(uptimeMillis),
+                TraceViews.getScrollPosition(scrollContainer), TraceViews.getScrollOffset(scrollContainer)));
+    }
+
+    // 첫 터치가 트레이스 시작
+    private long toTraceTime(long uptimeMillis) {
+        if (startMillis < 0)
+            startMillis = uptimeMillis;
+        return Math.max(0, uptimeMillis - startMillis);
+    }
+}
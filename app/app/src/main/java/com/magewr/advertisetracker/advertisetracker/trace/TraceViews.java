@@ -0,0 +1,75 @@
+package com.magewr.advertisetracker.advertisetracker.trace;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager.widget.ViewPager;
+import androidx.viewpager2.widget.ViewPager2;
+
+/**
+ * 기록과 재생이 같은 기준으로 뷰를 찾고 위치를 읽도록 모아둔 유틸
+ */
+final class TraceViews {
+
+    private TraceViews() {
+    }
+
+    /**
+     * 루트 아래 화면에 붙어있는 페이저(ViewPager, ViewPager2)를 뷰 트리 순서대로 수집
+     */
+    static void collectPagers(View view, List<View> pagerList) {
+        if (view.getVisibility() != View.VISIBLE)
+            return;
+
+        if (view instanceof ViewPager || view instanceof ViewPager2) {
+            pagerList.add(view);
+            return;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                collectPagers(viewGroup.getChildAt(i), pagerList);
+            }
+        }
+    }
+
+    static int indexOfPager(View rootView, View pager, List<View> pagerList) {
+        pagerList.clear();
+        collectPagers(rootView, pagerList);
+        return pagerList.indexOf(pager);
+    }
+
+    static void setCurrentPage(View pager, int page) {
+        if (pager instanceof ViewPager)
+            ((ViewPager) pager).setCurrentItem(page, true);
+        else if (pager instanceof ViewPager2)
+            ((ViewPager2) pager).setCurrentItem(page, true);
+    }
+
+    /**
+     * @return 리스트는 첫번째로 붙어있는 아이템 위치, 그 외에는 0
+     */
+    static int getScrollPosition(View scrollContainer) {
+        if (scrollContainer instanceof RecyclerView) {
+            RecyclerView listView = (RecyclerView) scrollContainer;
+            if (listView.getChildCount() == 0)
+                return RecyclerView.NO_POSITION;
+            return listView.getChildAdapterPosition(listView.getChildAt(0));
+        }
+        return 0;
+    }
+
+    /**
+     * @return 리스트는 첫번째로 붙어있는 아이템의 top, 그 외에는 scrollY
+     */
+    static int getScrollOffset(View scrollContainer) {
+        if (scrollContainer instanceof RecyclerView) {
+            RecyclerView listView = (RecyclerView) scrollContainer;
+            return listView.getChildCount() == 0 ? 0 : listView.getChildAt(0).getTop();
+        }
+        return scrollContainer.getScrollY();
+    }
+}
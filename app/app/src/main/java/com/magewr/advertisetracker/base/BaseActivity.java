@@ -3,17 +3,15 @@ package com.magewr.advertisetracker.base;
 import android.os.Bundle;
 
 import com.magewr.advertisetracker.advertisetracker.AdvertiseTracker;
-import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDataSource;
-import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDelegate;
-import com.magewr.advertisetracker.analytics.DummyAnalytics;
+import com.magewr.advertisetracker.advertisetracker.TrackerRuntime;
+import com.magewr.advertisetracker.advertisetracker.interfaces.EventNameDataSource;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 
-public class BaseActivity extends AppCompatActivity implements AdvertiseTrackerDataSource {
+public class BaseActivity extends AppCompatActivity {
 
-    protected DummyAnalytics eventTracker;
     protected AdvertiseTracker advertiseTracker;
     protected CompositeDisposable disposeBag = new CompositeDisposable();
 
@@ -21,21 +19,18 @@ public class BaseActivity extends AppCompatActivity implements AdvertiseTrackerD
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        eventTracker = new DummyAnalytics();
-        advertiseTracker = new AdvertiseTracker();
-    }
-
-    @Override
-    public AdvertiseTrackerDelegate getAdvertiseTracker() {
-        return eventTracker;
+        // 화면 페이지는 생명주기에 연결되어 가려지면 광고 추적을 멈추고 다시 보이면 재개, 종료시 쌓인 이벤트 전송까지 처리
+        // 프래그먼트는 TrackerRuntime.get().getPage(requireActivity()) 로 같은 페이지를 공유
+        advertiseTracker = TrackerRuntime.get().getPage(this);
+        if (this instanceof EventNameDataSource)
+            advertiseTracker.setEventNameDataSource((EventNameDataSource) this);
     }
 
     @Override
     protected void onDestroy() {
-        eventTracker = null;
-        advertiseTracker = null;
         if (!disposeBag.isDisposed())
             disposeBag.dispose();
+        advertiseTracker = null;
         super.onDestroy();
     }
 }
@@ -0,0 +1,32 @@
+package com.magewr.advertisetracker.base;
+
+import android.app.Application;
+
+import com.magewr.advertisetracker.BuildConfig;
+import com.magewr.advertisetracker.advertisetracker.LogcatMetricsSink;
+import com.magewr.advertisetracker.advertisetracker.TrackerRuntime;
+import com.magewr.advertisetracker.analytics.DummyAnalytics;
+
+import java.util.concurrent.TimeUnit;
+
+public class BaseApplication extends Application {
+
+    // 모든 화면이 공유하는 애널리틱스 트래커
+    private final DummyAnalytics eventTracker = new DummyAnalytics();
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // 광고 트래커 런타임은 앱 전체에서 하나, 화면은 TrackerRuntime.getPage 로 페이지만 받아서 사용
+        TrackerRuntime runtime = TrackerRuntime.init(() -> eventTracker);
+        runtime.enableJournal(getFilesDir());
+        // 서버에서 받아둔 플레이스먼트 설정이 있으면 로드, 없으면 ADType 내장 플레이스먼트만 사용
+        runtime.loadPlacementRegistry(getFilesDir());
+        // 백그라운드 30분 또는 세션 시작 후 24시간이 지나면 새 세션
+        runtime.enableSessionExpiry(TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(24));
+        // 디버그 빌드에서는 1분마다 트래커 측정값을 로그캣에 출력
+        if (BuildConfig.DEBUG)
+            runtime.enableMetrics(new LogcatMetricsSink(), TimeUnit.MINUTES.toMillis(1));
+    }
+}
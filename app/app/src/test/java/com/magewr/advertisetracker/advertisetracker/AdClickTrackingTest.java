@@ -0,0 +1,156 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AdClickTrackingTest {
+
+    private static final int ITEM_HEIGHT = 100;
+
+    private RecyclerView listView;
+    private TrackerRuntime runtime;
+    private TestScheduler scheduler;
+    private final List<String> sentEvents = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new FeedAdapter());
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        scheduler = new TestScheduler();
+        runtime = new TrackerRuntime(() -> sentEvents::add, scheduler);
+    }
+
+    @Test
+    public void tapOnAdViewHolder_sendsClickEventWithDataSourceName() {
+        AdvertiseTracker advertiseTracker = newPage();
+        advertiseTracker.enableClickTracking();
+        Disposable tracking = advertiseTracker.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, listView, AdViewHolder.class);
+
+        // 짝수 위치만 광고, 홀수 위치의 탭은 무시됨
+        tap(2);
+        tap(3);
+        assertEquals(1, countClicks("banner_2"));
+        assertEquals(0, countClicks("banner_3"));
+
+        // 같은 페이지에서 다시 탭하면 페이지 중복 체크로 한번만 전송
+        tap(2);
+        assertEquals(1, countClicks("banner_2"));
+
+        // 추적을 해제하면 디텍터도 떨어짐
+        tracking.dispose();
+        tap(4);
+        assertEquals(0, countClicks("banner_4"));
+    }
+
+    @Test
+    public void withoutOptIn_tapsAreNotTracked() {
+        AdvertiseTracker advertiseTracker = newPage();
+        advertiseTracker.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, listView, AdViewHolder.class);
+
+        tap(2);
+        assertEquals(0, countClicks("banner_2"));
+    }
+
+    private AdvertiseTracker newPage() {
+        AdvertiseTracker advertiseTracker = runtime.newPage();
+        advertiseTracker.setEventNameDataSource((type, position, bannerViewHolder) -> "banner_" + position);
+        return advertiseTracker;
+    }
+
+    // 아이템 가운데를 탭
+    private void tap(int position) {
+        float x = listView.getWidth() / 2f;
+        float y = position * ITEM_HEIGHT + ITEM_HEIGHT / 2f;
+        long downTime = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(downTime, downTime + 50, MotionEvent.ACTION_UP, x, y, 0);
+        listView.dispatchTouchEvent(down);
+        listView.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    // 전송된 페이지 클릭 이벤트 수
+    private int countClicks(String eventName) {
+        runtime.flush();
+        scheduler.triggerActions();
+        String clickEvent = ADType.HomeBigBanner.getClickEventFullString(eventName, false);
+        int count = 0;
+        for (String sentEvent : sentEvents) {
+            if (sentEvent.equals(clickEvent))
+                count++;
+        }
+        assertTrue(count <= 1);
+        return count;
+    }
+
+    static class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @Override
+        public int getItemViewType(int position) {
+            return position % 2;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return viewType == 0 ? new AdViewHolder(view) : new ContentViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 50;
+        }
+    }
+
+    static class AdViewHolder extends RecyclerView.ViewHolder {
+        AdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class ContentViewHolder extends RecyclerView.ViewHolder {
+        ContentViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
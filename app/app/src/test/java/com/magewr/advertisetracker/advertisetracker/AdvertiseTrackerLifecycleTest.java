@@ -0,0 +1,147 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.engine.VisibilityEngine;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AdvertiseTrackerLifecycleTest {
+
+    private static final int FRAME_COUNT = 20;
+
+    private RecyclerView listView;
+    private AdvertiseTracker advertiseTracker;
+    private LifecycleRegistry lifecycleRegistry;
+    private int evaluatedCount;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new AdAdapter());
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        advertiseTracker = new TrackerRuntime(() -> advertiseName -> { }, Schedulers.single()).newPage();
+        advertiseTracker.setEventNameDataSource((type, position, bannerViewHolder) -> {
+            evaluatedCount++;
+            return "banner_" + position;
+        });
+
+        LifecycleOwner lifecycleOwner = new LifecycleOwner() {
+            @NonNull
+            @Override
+            public Lifecycle getLifecycle() {
+                return lifecycleRegistry;
+            }
+        };
+        lifecycleRegistry = new LifecycleRegistry(lifecycleOwner);
+        lifecycleRegistry.setCurrentState(Lifecycle.State.CREATED);
+        advertiseTracker.bindLifecycle(lifecycleOwner);
+    }
+
+    @Test
+    public void tracking_runsOnlyWhileStarted() {
+        Disposable tracking = advertiseTracker.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, listView, AdViewHolder.class);
+        runFrames();
+        assertEquals("not started yet", 0, evaluatedCount);
+
+        lifecycleRegistry.setCurrentState(Lifecycle.State.RESUMED);
+        runFrames();
+        assertTrue(evaluatedCount > 0);
+
+        // 가려진 동안에는 스크롤해도 아무 작업도 하지 않음
+        lifecycleRegistry.setCurrentState(Lifecycle.State.CREATED);
+        evaluatedCount = 0;
+        listView.scrollBy(0, 500);
+        runFrames();
+        assertEquals(0, evaluatedCount);
+
+        // 다시 보이면 스크롤 없이 바로 재계산
+        lifecycleRegistry.setCurrentState(Lifecycle.State.STARTED);
+        runFrames();
+        assertTrue(evaluatedCount > 0);
+
+        lifecycleRegistry.setCurrentState(Lifecycle.State.DESTROYED);
+        assertTrue(tracking.isDisposed());
+    }
+
+    @Test
+    public void dispose_whileStopped_keepsTrackingStopped() {
+        lifecycleRegistry.setCurrentState(Lifecycle.State.STARTED);
+        Disposable tracking = advertiseTracker.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, listView, AdViewHolder.class);
+        lifecycleRegistry.setCurrentState(Lifecycle.State.CREATED);
+        tracking.dispose();
+
+        lifecycleRegistry.setCurrentState(Lifecycle.State.STARTED);
+        evaluatedCount = 0;
+        runFrames();
+        assertEquals(0, evaluatedCount);
+    }
+
+    // 프레임마다 수집하고 백그라운드 평가 결과가 메인 쓰레드로 돌아올때까지 대기
+    private void runFrames() {
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            engine.onPreDraw();
+            try {
+                Thread.sleep(2);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    static class AdAdapter extends RecyclerView.Adapter<AdViewHolder> {
+        @NonNull
+        @Override
+        public AdViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+            return new AdViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull AdViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 50;
+        }
+    }
+
+    static class AdViewHolder extends RecyclerView.ViewHolder {
+        AdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.interfaces.PlacementEventNameDataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class EventNameCacheTest {
+
+    private int lookupCount;
+    private final PlacementEventNameDataSource eventNameDataSource = (placement, position, bannerViewHolder) -> {
+        lookupCount++;
+        return "banner_" + (bannerViewHolder != null ? bannerViewHolder.getItemId() : position);
+    };
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void repeatedLookups_skipDataSourceUntilAdapterChanges() {
+        BannerAdapter adapter = new BannerAdapter(false);
+        RecyclerView listView = createList(adapter);
+        EventNameCache cache = new EventNameCache(100);
+        RecyclerView.ViewHolder holder = listView.findViewHolderForAdapterPosition(1);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("banner_1", cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 1, holder));
+        }
+        assertEquals(1, lookupCount);
+
+        // 위치 기준 키는 아이템이 추가되면 무효화
+        adapter.notifyItemInserted(0);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 1, holder);
+        assertEquals(2, lookupCount);
+        cache.release();
+    }
+
+    @Test
+    public void stableIds_surviveInsertButNotContentChange() {
+        BannerAdapter adapter = new BannerAdapter(true);
+        RecyclerView listView = createList(adapter);
+        EventNameCache cache = new EventNameCache(100);
+        RecyclerView.ViewHolder holder = listView.findViewHolderForAdapterPosition(1);
+
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 1, holder);
+        adapter.notifyItemInserted(0);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 2, holder);
+        assertEquals(1, lookupCount);
+
+        adapter.notifyItemChanged(2);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 2, holder);
+        assertEquals(2, lookupCount);
+        cache.release();
+    }
+
+    @Test
+    public void leastRecentlyUsed_isEvictedOverMaxSize() {
+        RecyclerView listView = createList(new BannerAdapter(false));
+        EventNameCache cache = new EventNameCache(2);
+        RecyclerView.ViewHolder first = listView.findViewHolderForAdapterPosition(0);
+        RecyclerView.ViewHolder second = listView.findViewHolderForAdapterPosition(1);
+        RecyclerView.ViewHolder third = listView.findViewHolderForAdapterPosition(2);
+
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 0, first);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 1, second);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 0, first);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 2, third);
+        assertEquals(2, cache.size());
+        assertEquals(3, lookupCount);
+
+        // 가장 오래 사용하지 않은 1번만 버려짐
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 0, first);
+        assertEquals(3, lookupCount);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 1, second);
+        assertEquals(4, lookupCount);
+        cache.release();
+    }
+
+    @Test
+    public void withoutViewHolder_alwaysAsksDataSource() {
+        EventNameCache cache = new EventNameCache(100);
+
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 0, null);
+        cache.getEventName(eventNameDataSource, ADType.HomeBigBanner.getPlacement(), 0, null);
+        assertEquals(2, lookupCount);
+    }
+
+    private RecyclerView createList(BannerAdapter adapter) {
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(adapter);
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+        return listView;
+    }
+
+    static class BannerAdapter extends RecyclerView.Adapter<BannerViewHolder> {
+        BannerAdapter(boolean hasStableIds) {
+            setHasStableIds(hasStableIds);
+        }
+
+        @NonNull
+        @Override
+        public BannerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 100));
+            return new BannerViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull BannerViewHolder holder, int position) {
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return 1_000 + position;
+        }
+
+        @Override
+        public int getItemCount() {
+            return 20;
+        }
+    }
+
+    static class BannerViewHolder extends RecyclerView.ViewHolder {
+        BannerViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
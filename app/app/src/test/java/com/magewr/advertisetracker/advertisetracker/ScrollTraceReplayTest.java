@@ -0,0 +1,323 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+
+import com.magewr.advertisetracker.advertisetracker.engine.VisibilityEngine;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.trace.ScrollTrace;
+import com.magewr.advertisetracker.advertisetracker.trace.ScrollTraceReplayer;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.core.widget.NestedScrollView;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager.widget.PagerAdapter;
+import androidx.viewpager.widget.ViewPager;
+import io.reactivex.rxjava3.android.plugins.RxAndroidPlugins;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 트레이스 코퍼스를 4가지 광고 추적 방식에 재생해서 결과가 재현되는지 확인하고 재생 1초당 비용을 출력
+ * 코퍼스는 MainActivity 와 같은 리스트 + 중첩 뷰페이저 구성을 기준 50행의 10배, 100배로 재생
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ScrollTraceReplayTest {
+
+    private static final String TRACE_10X = "traces/feed_10x.trace";
+    private static final String TRACE_100X = "traces/feed_100x.trace";
+    // NestedScrollView 안의 리스트는 모든 행을 한번에 붙이므로 스크롤뷰 방식은 이 행 수까지만 구성
+    private static final int NESTED_ROW_LIMIT = 500;
+
+    private enum Mode {
+        ListInList, PagerInList, ListInScroll, PagerInScroll
+    }
+
+    @After
+    public void tearDown() {
+        VisibilityEngine.setMetrics(null);
+        RxAndroidPlugins.reset();
+    }
+
+    @Test
+    public void corpus10x_replaysIdenticallyInEveryMode() throws IOException {
+        ScrollTrace trace = load(TRACE_10X);
+        for (Mode mode : Mode.values()) {
+            Replay first = replay(trace, mode);
+            Replay second = replay(trace, mode);
+
+            System.out.println(TRACE_10X + " " + mode + " " + first.report);
+            assertTrue(mode + " emitted no events", first.report.getEmittedCount() > 0);
+            assertTrue(mode + " ran no passes", first.report.getPassCount() > 0);
+            assertEquals(mode.name(), first.sentEvents, second.sentEvents);
+            assertEquals(mode.name(), first.report.getPassCount(), second.report.getPassCount());
+            assertEquals(mode.name(), first.report.getGeometryList(), second.report.getGeometryList());
+            assertRecordedGeometryMatches(trace, first.report);
+        }
+    }
+
+    @Test
+    public void corpus100x_replaysInEveryMode() throws IOException {
+        ScrollTrace trace = load(TRACE_100X);
+        for (Mode mode : Mode.values()) {
+            Replay replay = replay(trace, mode);
+
+            System.out.println(TRACE_100X + " " + mode + " " + replay.report);
+            assertTrue(mode + " emitted no events", replay.report.getEmittedCount() > 0);
+            assertRecordedGeometryMatches(trace, replay.report);
+        }
+    }
+
+    @Test
+    public void resultTrace_replaysToSameGeometry() throws IOException {
+        ScrollTrace trace = load(TRACE_10X);
+        ScrollTrace resultTrace = replay(trace, Mode.ListInList).report.getResultTrace();
+
+        // 재생하면서 기록한 트레이스에는 위치가 들어있으므로 다시 재생하면 같은 위치에 멈춰야 함
+        Replay replay = replay(resultTrace, Mode.ListInList);
+        assertRecordedGeometryMatches(resultTrace, replay.report);
+    }
+
+    // 트레이스에 위치가 기록되어 있으면 재생 결과와 순서대로 같아야 함
+    private static void assertRecordedGeometryMatches(ScrollTrace trace, ScrollTraceReplayer.ReplayReport report) {
+        List<String> expected = new ArrayList<>();
+        for (ScrollTrace.Record record : trace.getRecordList()) {
+            if (record.getType() == ScrollTrace.TYPE_GEOMETRY)
+                expected.add(record.getPosition() + ":" + record.getOffset());
+        }
+        if (!expected.isEmpty())
+            assertEquals(expected, report.getGeometryList());
+    }
+
+    private static ScrollTrace load(String name) throws IOException {
+        InputStream inputStream = ScrollTraceReplayTest.class.getClassLoader().getResourceAsStream(name);
+        assertNotNull(name, inputStream);
+        try {
+            return ScrollTrace.read(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    // 매번 새 런타임과 화면으로 재생 - 세션 중복 체크가 이전 재생에 영향받지 않도록
+    private static Replay replay(ScrollTrace trace, Mode mode) {
+        int density = trace.getDensityDpi();
+        RuntimeEnvironment.setQualifiers("w" + trace.getViewportWidth() * 160 / density + "dp-h"
+                + trace.getViewportHeight() * 160 / density + "dp-" + density + "dpi");
+
+        TestScheduler scheduler = new TestScheduler();
+        RxAndroidPlugins.setMainThreadSchedulerHandler(mainThread -> scheduler);
+        List<String> sentEvents = new ArrayList<>();
+        TrackerRuntime runtime = new TrackerRuntime(() -> sentEvents::add, scheduler);
+        runtime.enableMetrics(snapshot -> { }, 0);
+        AdvertiseTracker page = runtime.newPage();
+        page.setEventNameDataSource((type, position, viewHolder) -> type.name() + "_" + position);
+
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FeedFixture fixture = new FeedFixture(activity, trace, mode);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Disposable tracking;
+        switch (mode) {
+            case ListInList:
+                tracking = page.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, fixture.listView, AdViewHolder.class);
+                break;
+            case PagerInList:
+                tracking = page.addAdTrackingPagerInList(ADType.HomeSmallBanner, fixture.listView, CarouselViewHolder.class);
+                break;
+            case ListInScroll:
+                tracking = page.addAdTrackingTypeListInScroll(ADType.HomeBigBanner, fixture.scrollView, fixture.listView, AdViewHolder.class);
+                break;
+            default:
+                tracking = page.addAdTrackingTypePagerInScroll(ADType.HomeSmallBanner, fixture.scrollView, fixture.headerPager);
+                break;
+        }
+
+        ScrollTraceReplayer replayer = new ScrollTraceReplayer(activity.getWindow().getDecorView(), fixture.scrollContainer,
+                scheduler, runtime.getMetrics());
+        ScrollTraceReplayer.ReplayReport report = replayer.replay(trace);
+
+        tracking.dispose();
+        runtime.flush();
+        scheduler.triggerActions();
+        return new Replay(report, sentEvents);
+    }
+
+    private static final class Replay {
+        final ScrollTraceReplayer.ReplayReport report;
+        final List<String> sentEvents;
+
+        Replay(ScrollTraceReplayer.ReplayReport report, List<String> sentEvents) {
+            this.report = report;
+            this.sentEvents = sentEvents;
+        }
+    }
+
+    /**
+     * 트레이스 meta 값으로 만드는 피드 화면
+     * 리스트 방식 - RecyclerView 하나, 스크롤뷰 방식 - NestedScrollView 안에 헤더 뷰페이저와 전체 높이 RecyclerView
+     * 행은 기본 60px, adInterval 마다 광고(100px), carouselInterval 마다 뷰페이저 캐러셀(120px)
+     */
+    private static final class FeedFixture {
+        final RecyclerView listView;
+        final View scrollContainer;
+        NestedScrollView scrollView;
+        ViewPager headerPager;
+
+        FeedFixture(Activity activity, ScrollTrace trace, Mode mode) {
+            int rowCount = trace.getMeta("rows", 500);
+            int adInterval = trace.getMeta("adInterval", 5);
+            int carouselInterval = trace.getMeta("carouselInterval", 10);
+            int pageCount = trace.getMeta("pages", 3);
+
+            listView = new RecyclerView(activity);
+            listView.setLayoutManager(new LinearLayoutManager(activity));
+            if (mode == Mode.ListInList || mode == Mode.PagerInList) {
+                listView.setAdapter(new FeedAdapter(rowCount, adInterval, carouselInterval, pageCount));
+                activity.setContentView(listView);
+                scrollContainer = listView;
+                return;
+            }
+
+            listView.setAdapter(new FeedAdapter(Math.min(rowCount, NESTED_ROW_LIMIT), adInterval, carouselInterval, pageCount));
+            listView.setNestedScrollingEnabled(false);
+            headerPager = new ViewPager(activity);
+            headerPager.setAdapter(new PageAdapter(pageCount));
+
+            LinearLayout content = new LinearLayout(activity);
+            content.setOrientation(LinearLayout.VERTICAL);
+            content.addView(headerPager, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 120));
+            content.addView(listView, new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            scrollView = new NestedScrollView(activity);
+            scrollView.addView(content, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+            activity.setContentView(scrollView);
+            scrollContainer = scrollView;
+        }
+    }
+
+    static class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private static final int TYPE_CONTENT = 0;
+        private static final int TYPE_AD = 1;
+        private static final int TYPE_CAROUSEL = 2;
+
+        private final int rowCount;
+        private final int adInterval;
+        private final int carouselInterval;
+        private final int pageCount;
+
+        FeedAdapter(int rowCount, int adInterval, int carouselInterval, int pageCount) {
+            this.rowCount = rowCount;
+            this.adInterval = adInterval;
+            this.carouselInterval = carouselInterval;
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            if (position % carouselInterval == carouselInterval / 2)
+                return TYPE_CAROUSEL;
+            return position % adInterval == 0 ? TYPE_AD : TYPE_CONTENT;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            if (viewType == TYPE_CAROUSEL) {
+                FrameLayout container = new FrameLayout(parent.getContext());
+                container.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 120));
+                ViewPager viewPager = new ViewPager(parent.getContext());
+                viewPager.setAdapter(new PageAdapter(pageCount));
+                container.addView(viewPager, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                return new CarouselViewHolder(container);
+            }
+
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, viewType == TYPE_AD ? 100 : 60));
+            return viewType == TYPE_AD ? new AdViewHolder(view) : new ContentViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return rowCount;
+        }
+    }
+
+    static class PageAdapter extends PagerAdapter {
+        private final int pageCount;
+
+        PageAdapter(int pageCount) {
+            this.pageCount = pageCount;
+        }
+
+        @NonNull
+        @Override
+        public Object instantiateItem(@NonNull ViewGroup container, int position) {
+            View page = new View(container.getContext());
+            container.addView(page);
+            return page;
+        }
+
+        @Override
+        public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+            container.removeView((View) object);
+        }
+
+        @Override
+        public int getCount() {
+            return pageCount;
+        }
+
+        @Override
+        public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+            return view == object;
+        }
+    }
+
+    static class AdViewHolder extends RecyclerView.ViewHolder {
+        AdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class CarouselViewHolder extends RecyclerView.ViewHolder {
+        CarouselViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class ContentViewHolder extends RecyclerView.ViewHolder {
+        ContentViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
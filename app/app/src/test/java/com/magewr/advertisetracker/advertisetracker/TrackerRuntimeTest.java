@@ -0,0 +1,134 @@
+package com.magewr.advertisetracker.advertisetracker;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import io.reactivex.rxjava3.android.plugins.RxAndroidPlugins;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class TrackerRuntimeTest {
+
+    @Test
+    public void getPage_returnsSamePageUntilOwnerIsDestroyed() {
+        TrackerRuntime runtime = new TrackerRuntime(() -> advertiseName -> { }, Schedulers.single());
+        TestOwner owner = new TestOwner();
+        owner.registry.setCurrentState(Lifecycle.State.RESUMED);
+
+        AdvertiseTracker page = runtime.getPage(owner);
+        assertSame(page, runtime.getPage(owner));
+
+        owner.registry.setCurrentState(Lifecycle.State.DESTROYED);
+        TestOwner nextOwner = new TestOwner();
+        nextOwner.registry.setCurrentState(Lifecycle.State.RESUMED);
+        assertNotSame(page, runtime.getPage(nextOwner));
+
+        // 이미 종료된 화면은 페이지를 만들지 않음
+        assertNull(runtime.getPage(owner));
+    }
+
+    @Test
+    public void startedPageCount_followsLifecycleAndRelease() {
+        TrackerRuntime runtime = new TrackerRuntime(() -> advertiseName -> { }, Schedulers.single());
+        TestOwner owner = new TestOwner();
+        owner.registry.setCurrentState(Lifecycle.State.CREATED);
+
+        // 생명주기에 연결된 페이지는 onStart 부터 포함
+        runtime.getPage(owner);
+        assertEquals(0, runtime.getStartedPageCount());
+        owner.registry.setCurrentState(Lifecycle.State.RESUMED);
+        assertEquals(1, runtime.getStartedPageCount());
+
+        // 직접 관리하는 페이지는 release 할때까지 포함
+        AdvertiseTracker page = runtime.newPage();
+        assertEquals(2, runtime.getStartedPageCount());
+        page.release();
+        page.release();
+        assertEquals(1, runtime.getStartedPageCount());
+
+        owner.registry.setCurrentState(Lifecycle.State.DESTROYED);
+        assertEquals(0, runtime.getStartedPageCount());
+    }
+
+    @Test
+    public void pages_shareSessionDedupAndDeliveryQueue() {
+        List<String> sentEvents = new ArrayList<>();
+        TestScheduler deliveryScheduler = new TestScheduler();
+        TrackerRuntime runtime = new TrackerRuntime(() -> sentEvents::add, deliveryScheduler);
+        AdvertiseTracker firstPage = runtime.newPage();
+        AdvertiseTracker secondPage = runtime.newPage();
+
+        firstPage.sendViewEvent(ADType.HomeBigBanner, "banner");
+        secondPage.sendViewEvent(ADType.HomeBigBanner, "banner");
+        runtime.flush();
+        deliveryScheduler.triggerActions();
+
+        // 세션 이벤트는 한번, 페이지 이벤트는 페이지마다 한번
+        List<String> expected = new ArrayList<>();
+        expected.add(ADType.HomeBigBanner.getViewEventFullString("banner", true));
+        expected.add(ADType.HomeBigBanner.getViewEventFullString("banner", false));
+        expected.add(ADType.HomeBigBanner.getViewEventFullString("banner", false));
+        assertEquals(expected, sentEvents);
+    }
+
+    @Test
+    public void metricsReport_runsOnlyWhilePagesAreStarted() {
+        TestScheduler mainScheduler = new TestScheduler();
+        RxAndroidPlugins.setMainThreadSchedulerHandler(mainThread -> mainScheduler);
+        try {
+            TrackerRuntime runtime = new TrackerRuntime(() -> advertiseName -> { }, Schedulers.single());
+            int[] reportCount = new int[1];
+            runtime.enableMetrics(snapshot -> reportCount[0]++, 1000);
+
+            // 보이는 화면이 없으면 메인 쓰레드를 깨우지 않음
+            mainScheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+            assertEquals(0, reportCount[0]);
+
+            AdvertiseTracker page = runtime.newPage();
+            mainScheduler.advanceTimeBy(2, TimeUnit.SECONDS);
+            assertEquals(2, reportCount[0]);
+            page.release();
+            mainScheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+            assertEquals(2, reportCount[0]);
+
+            // 측정 중지 후에는 보이는 화면이 있어도 전달하지 않음
+            AdvertiseTracker nextPage = runtime.newPage();
+            runtime.disableMetrics();
+            assertNull(runtime.getMetrics());
+            mainScheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+            assertEquals(2, reportCount[0]);
+            nextPage.release();
+        } finally {
+            RxAndroidPlugins.reset();
+        }
+    }
+
+    private static class TestOwner implements LifecycleOwner {
+        final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LayoutManagerCoverageTest {
+
+    private static final int ITEM_COUNT = 2_000;
+    private static final int SCROLL_POSITION = 1_000;
+    private static final int WARM_UP_PASSES = 500;
+    private static final int MEASURED_PASSES = 2_000;
+    // 백그라운드 판단을 기다리는 최대 시간, 넘으면 멈춘 것으로 보고 실패
+    private static final long EVALUATION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void gridLayouts_reportSameAdsAsAttachedChildren() {
+        assertReportsVisibleAds(new GridLayoutManager(null, 3));
+        assertReportsVisibleAds(new StaggeredGridLayoutManager(3, StaggeredGridLayoutManager.VERTICAL));
+    }
+
+    @Test
+    public void staggeredGrid_captureCostIsReported() {
+        long linearNanos = measureCaptureNanos(new LinearLayoutManager(null));
+        long staggeredNanos = measureCaptureNanos(new StaggeredGridLayoutManager(3, StaggeredGridLayoutManager.VERTICAL));
+
+        // 스태거드 그리드는 한 화면에 붙어있는 광고가 더 많으므로 광고 하나당 비용으로 비교
+        // 실행 시간은 CI 장비 부하에 따라 달라지므로 비율을 검사하지 않고 출력만 함
+        System.out.println("capture cost - linear " + linearNanos + "ns/ad, staggered " + staggeredNanos + "ns/ad");
+    }
+
+    // 엔진이 노출로 판단한 광고와 붙어있는 자식을 직접 검사한 결과가 같은지 확인
+    private static void assertReportsVisibleAds(RecyclerView.LayoutManager layoutManager) {
+        RecyclerView listView = createList(layoutManager);
+        Set<Integer> reported = new TreeSet<>();
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        engine.register(new ListInListHandler(ADType.HomeSmallBanner.getPlacement(), listView, AdViewHolder.class, (placement, position, viewHolder) -> {
+            assertEquals(position, viewHolder.getAdapterPosition());
+            reported.add(position);
+        }));
+        engine.onPreDraw();
+        awaitResults(engine);
+
+        Set<Integer> expected = new TreeSet<>();
+        Rect rect = new Rect();
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            View child = listView.getChildAt(i);
+            RecyclerView.ViewHolder holder = listView.getChildViewHolder(child);
+            if (holder instanceof AdViewHolder && child.getLocalVisibleRect(rect)
+                    && rect.width() >= child.getWidth() && rect.height() >= child.getHeight())
+                expected.add(holder.getAdapterPosition());
+        }
+
+        assertFalse(layoutManager.getClass().getSimpleName() + " has no visible ad", expected.isEmpty());
+        assertEquals(layoutManager.getClass().getSimpleName(), expected, reported);
+    }
+
+    // 스크롤 멈춤마다 메인 쓰레드 수집 시간의 광고 하나당 평균
+    private static long measureCaptureNanos(RecyclerView.LayoutManager layoutManager) {
+        RecyclerView listView = createList(layoutManager);
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        PlacementHandler handler = new ListInListHandler(ADType.HomeSmallBanner.getPlacement(), listView, AdViewHolder.class, (placement, position, viewHolder) -> { });
+        engine.register(handler);
+
+        int adCount = 0;
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            if (listView.getChildViewHolder(listView.getChildAt(i)) instanceof AdViewHolder)
+                adCount++;
+        }
+        assertTrue(adCount > 0);
+
+        long totalNanos = 0;
+        for (int i = 0; i < WARM_UP_PASSES + MEASURED_PASSES; i++) {
+            handler.requestPass();
+            engine.onPreDraw();
+            if (i >= WARM_UP_PASSES)
+                totalNanos += engine.getLastCaptureNanos();
+            awaitEvaluation(engine);
+        }
+        engine.unregister(handler);
+        return totalNanos / MEASURED_PASSES / adCount;
+    }
+
+    // 중간까지 스크롤해서 보이는 위치가 연속되지 않는 상태로 만듦
+    private static RecyclerView createList(RecyclerView.LayoutManager layoutManager) {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(layoutManager);
+        listView.setAdapter(new GridAdapter());
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        listView.scrollToPosition(SCROLL_POSITION);
+        shadowOf(Looper.getMainLooper()).idle();
+        return listView;
+    }
+
+    private static void awaitResults(VisibilityEngine engine) {
+        awaitEvaluation(engine);
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static void awaitEvaluation(VisibilityEngine engine) {
+        long deadline = System.nanoTime() + EVALUATION_TIMEOUT_NANOS;
+        while (engine.isEvaluating()) {
+            if (System.nanoTime() - deadline > 0)
+                fail("background evaluation did not finish");
+            Thread.yield();
+        }
+    }
+
+    // 4칸마다 광고, 높이가 제각각인 셀
+    static class GridAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private static final int TYPE_AD = 0;
+        private static final int TYPE_CONTENT = 1;
+
+        @Override
+        public int getItemViewType(int position) {
+            return position % 4 == 0 ? TYPE_AD : TYPE_CONTENT;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 60));
+            return viewType == TYPE_AD ? new AdViewHolder(view) : new ContentViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            holder.itemView.getLayoutParams().height = 60 + (position * 37) % 90;
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+    }
+
+    static class AdViewHolder extends RecyclerView.ViewHolder {
+        AdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class ContentViewHolder extends RecyclerView.ViewHolder {
+        ContentViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
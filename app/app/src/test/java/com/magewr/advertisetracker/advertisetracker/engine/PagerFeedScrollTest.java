@@ -0,0 +1,284 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager.widget.PagerAdapter;
+import androidx.viewpager.widget.ViewPager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class PagerFeedScrollTest {
+
+    private static final int ROW_COUNT = 5_000;
+    private static final int CAROUSEL_INTERVAL = 10;
+    private static final int SCROLL_STEP_PX = 150;
+    private static final int SAMPLE_PASSES = 100;
+
+    @Test
+    public void longFeed_keepsOnlyAttachedPagersAtConstantCost() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new FeedAdapter());
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        PagerInListHandler handler = new PagerInListHandler(ADType.HomeBigBanner.getPlacement(), listView, CarouselViewHolder.class, (placement, position, viewHolder) -> { });
+        engine.register(handler);
+
+        int maxTrackedPagers = 0;
+        long firstNanos = 0;
+        long lastNanos = 0;
+        int passCount = 0;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) listView.getLayoutManager();
+        while (layoutManager.findLastVisibleItemPosition() < ROW_COUNT - 1) {
+            listView.scrollBy(0, SCROLL_STEP_PX);
+            shadowOf(Looper.getMainLooper()).idle();
+            handler.requestPass();
+            engine.onPreDraw();
+            while (engine.isEvaluating()) {
+                Thread.yield();
+            }
+
+            // 기억하는 뷰페이저는 현재 붙어있는 캐러셀 뿐이어야 함
+            int attachedPagers = countAttachedPagers(listView);
+            assertEquals(attachedPagers, handler.getTrackedViewPagerCount());
+            assertEquals(attachedPagers, CountingViewPager.activeListenerCount);
+            maxTrackedPagers = Math.max(maxTrackedPagers, handler.getTrackedViewPagerCount());
+
+            passCount++;
+            if (passCount <= SAMPLE_PASSES)
+                firstNanos += engine.getLastCaptureNanos();
+            else
+                lastNanos = lastNanos * (SAMPLE_PASSES - 1) / SAMPLE_PASSES + engine.getLastCaptureNanos();
+        }
+        assertTrue(passCount > SAMPLE_PASSES * 2);
+        assertTrue(maxTrackedPagers <= listView.getChildCount());
+
+        // 피드 끝에서의 수집 비용이 처음과 같은 수준인지 - 최근 SAMPLE_PASSES 회의 지수 평균과 비교
+        assertTrue("first " + firstNanos + "ns, last " + lastNanos + "ns", lastNanos <= firstNanos * 3);
+
+        engine.unregister(handler);
+        assertEquals(0, CountingViewPager.activeListenerCount);
+    }
+
+    @Test
+    public void dwellPolicy_tracksPagersOnTheSameItemSeparately() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FrameLayout rootView = new FrameLayout(activity);
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        // 캐러셀만 있는 피드, 처음 두개만 보이는 높이
+        listView.setAdapter(new FeedAdapter(10, 1));
+        rootView.addView(listView, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 250));
+        activity.setContentView(rootView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        int[] visibleCount = new int[1];
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        PagerInListHandler handler = new PagerInListHandler(ADType.HomeBigBanner.getPlacement(), listView, CarouselViewHolder.class,
+                (placement, position, viewHolder) -> {
+                    assertEquals(0, position);
+                    visibleCount[0]++;
+                });
+        handler.setViewabilityPolicy(new ViewabilityPolicy(50, 1000, true));
+        engine.register(handler);
+
+        engine.onPreDraw();
+        awaitResults(engine);
+        assertEquals(0, visibleCount[0]);
+
+        // 두 뷰페이저 모두 0번 페이지지만 각각 연속 노출을 채운 후보
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1100));
+        awaitResults(engine);
+        assertEquals(2, visibleCount[0]);
+
+        engine.unregister(handler);
+    }
+
+    @Test
+    public void pagerScrolling_isCountedPerPager() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FrameLayout rootView = new FrameLayout(activity);
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new FeedAdapter(10, 1));
+        rootView.addView(listView, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 250));
+        activity.setContentView(rootView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        PagerInListHandler handler = new PagerInListHandler(ADType.HomeBigBanner.getPlacement(), listView, CarouselViewHolder.class, (placement, position, viewHolder) -> { });
+        engine.register(handler);
+        engine.onPreDraw();
+        awaitResults(engine);
+
+        ViewPager first = findPager(listView, 0);
+        ViewPager second = findPager(listView, 1);
+        assertTrue(first.beginFakeDrag());
+        assertTrue(second.beginFakeDrag());
+        assertEquals(2, handler.getScrollingPagerCount());
+
+        // 한 뷰페이저가 멈춰도 다른 뷰페이저가 드래그 중이면 계속 스크롤 중
+        second.endFakeDrag();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1, handler.getScrollingPagerCount());
+        assertTrue(handler.isScrolling());
+
+        // 드래그 도중 해제된 뷰페이저는 스크롤 중인 수에 남지 않음
+        engine.unregister(handler);
+        assertEquals(0, handler.getScrollingPagerCount());
+        first.endFakeDrag();
+    }
+
+    private static ViewPager findPager(RecyclerView listView, int childIndex) {
+        return (ViewPager) ((ViewGroup) listView.getChildAt(childIndex)).getChildAt(0);
+    }
+
+    private static void awaitResults(VisibilityEngine engine) {
+        while (engine.isEvaluating()) {
+            Thread.yield();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    private static int countAttachedPagers(RecyclerView listView) {
+        int count = 0;
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            if (listView.getChildViewHolder(listView.getChildAt(i)) instanceof CarouselViewHolder)
+                count++;
+        }
+        return count;
+    }
+
+    // 리스너 등록/해제를 세는 뷰페이저
+    static class CountingViewPager extends ViewPager {
+        static int activeListenerCount;
+
+        CountingViewPager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void addOnPageChangeListener(@NonNull OnPageChangeListener listener) {
+            super.addOnPageChangeListener(listener);
+            activeListenerCount++;
+        }
+
+        @Override
+        public void removeOnPageChangeListener(@NonNull OnPageChangeListener listener) {
+            super.removeOnPageChangeListener(listener);
+            activeListenerCount--;
+        }
+    }
+
+    static class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private static final int TYPE_CAROUSEL = 0;
+        private static final int TYPE_CONTENT = 1;
+
+        private final int rowCount;
+        private final int carouselInterval;
+
+        FeedAdapter() {
+            this(ROW_COUNT, CAROUSEL_INTERVAL);
+        }
+
+        FeedAdapter(int rowCount, int carouselInterval) {
+            this.rowCount = rowCount;
+            this.carouselInterval = carouselInterval;
+            CountingViewPager.activeListenerCount = 0;
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return position % carouselInterval == 0 ? TYPE_CAROUSEL : TYPE_CONTENT;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            if (viewType == TYPE_CONTENT) {
+                View view = new View(parent.getContext());
+                view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 60));
+                return new ContentViewHolder(view);
+            }
+
+            FrameLayout container = new FrameLayout(parent.getContext());
+            container.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 120));
+            CountingViewPager viewPager = new CountingViewPager(parent.getContext());
+            viewPager.setAdapter(new PageAdapter());
+            container.addView(viewPager, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            return new CarouselViewHolder(container);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return rowCount;
+        }
+    }
+
+    static class PageAdapter extends PagerAdapter {
+        @NonNull
+        @Override
+        public Object instantiateItem(@NonNull ViewGroup container, int position) {
+            View page = new View(container.getContext());
+            container.addView(page);
+            return page;
+        }
+
+        @Override
+        public void destroyItem(@NonNull ViewGroup container, int position, @NonNull Object object) {
+            container.removeView((View) object);
+        }
+
+        @Override
+        public int getCount() {
+            return 3;
+        }
+
+        @Override
+        public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+            return view == object;
+        }
+    }
+
+    static class CarouselViewHolder extends RecyclerView.ViewHolder {
+        CarouselViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class ContentViewHolder extends RecyclerView.ViewHolder {
+        ContentViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.core.widget.NestedScrollView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ScrollDispatcherTest {
+
+    @Test
+    public void existingAppListener_isStillCalled() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        NestedScrollView scrollView = new NestedScrollView(activity);
+        List<String> calls = new ArrayList<>();
+        scrollView.setOnScrollChangeListener((NestedScrollView.OnScrollChangeListener) (v, scrollX, scrollY, oldScrollX, oldScrollY) -> calls.add("app " + scrollY));
+
+        ScrollDispatcher dispatcher = ScrollDispatcher.of(scrollView);
+        dispatcher.newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> calls.add("tracker " + scrollY)).add();
+        dispatcher.onScrollChange(scrollView, 0, 10, 0, 0);
+
+        assertEquals(2, calls.size());
+        assertEquals("app 10", calls.get(0));
+        assertEquals("tracker 10", calls.get(1));
+        // 같은 스크롤뷰는 같은 디스패처
+        assertSame(dispatcher, ScrollDispatcher.of(scrollView));
+    }
+
+    @Test
+    public void replacedDispatcher_isReattachedOnNextAdd() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        NestedScrollView scrollView = new NestedScrollView(activity);
+        List<String> calls = new ArrayList<>();
+        ScrollDispatcher.Registration tracker = ScrollDispatcher.of(scrollView).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> calls.add("tracker " + scrollY));
+        tracker.add();
+
+        // 앱이 디스패처를 덮어쓰면 다음 등록때 그 리스너를 이어받고 다시 붙음
+        scrollView.setOnScrollChangeListener((NestedScrollView.OnScrollChangeListener) (v, scrollX, scrollY, oldScrollX, oldScrollY) -> calls.add("app " + scrollY));
+        tracker.remove();
+        tracker.add();
+        // 앱의 리스너는 디스패처에 등록하는 방식
+        ScrollDispatcher.add(scrollView, (v, scrollX, scrollY, oldScrollX, oldScrollY) -> calls.add("added " + scrollY));
+        ScrollDispatcher.of(scrollView).onScrollChange(scrollView, 0, 10, 0, 0);
+
+        assertEquals(3, calls.size());
+        assertEquals("app 10", calls.get(0));
+        assertTrue(calls.contains("tracker 10"));
+        assertTrue(calls.contains("added 10"));
+        assertEquals(2, ScrollDispatcher.of(scrollView).getListenerCount());
+    }
+
+    @Test
+    public void scroll_isDeliveredOnlyToItsOwnScrollView() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        NestedScrollView first = new NestedScrollView(activity);
+        NestedScrollView second = new NestedScrollView(activity);
+        int[] firstCount = new int[1];
+        int[] secondCount = new int[1];
+        ScrollDispatcher.of(first).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> firstCount[0]++).add();
+        ScrollDispatcher.of(second).newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> secondCount[0]++).add();
+
+        ScrollDispatcher.of(first).onScrollChange(first, 0, 10, 0, 0);
+        ScrollDispatcher.of(first).onScrollChange(first, 0, 20, 0, 10);
+
+        assertEquals(2, firstCount[0]);
+        assertEquals(0, secondCount[0]);
+    }
+
+    @Test
+    public void removeDuringDispatch_keepsRemainingListeners() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        NestedScrollView scrollView = new NestedScrollView(activity);
+        ScrollDispatcher dispatcher = ScrollDispatcher.of(scrollView);
+        int[] counts = new int[3];
+        List<ScrollDispatcher.Registration> registrationList = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            int index = i;
+            registrationList.add(dispatcher.newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+                counts[index]++;
+                // 첫번째 리스너는 호출되면 스스로 해제
+                if (index == 0)
+                    registrationList.get(0).remove();
+            }));
+        }
+        for (ScrollDispatcher.Registration registration : registrationList) {
+            registration.add();
+        }
+        // 중복 등록은 무시
+        registrationList.get(1).add();
+        assertEquals(3, dispatcher.getListenerCount());
+
+        dispatcher.onScrollChange(scrollView, 0, 10, 0, 0);
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[2]);
+        assertFalse(registrationList.get(0).isAdded());
+        assertEquals(2, dispatcher.getListenerCount());
+
+        dispatcher.onScrollChange(scrollView, 0, 20, 0, 10);
+        assertEquals(1, counts[0]);
+        assertEquals(2, counts[1]);
+        assertEquals(2, counts[2]);
+
+        // 다시 붙였다 떼어도 등록 정보는 재사용 가능
+        registrationList.get(0).add();
+        assertTrue(registrationList.get(0).isAdded());
+        registrationList.get(2).remove();
+        dispatcher.onScrollChange(scrollView, 0, 30, 0, 20);
+        assertEquals(2, counts[0]);
+        assertEquals(3, counts[1]);
+        assertEquals(2, counts[2]);
+    }
+
+    @Test
+    public void removingOtherListenersDuringDispatch_callsEachListenerAtMostOnce() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        NestedScrollView scrollView = new NestedScrollView(activity);
+        ScrollDispatcher dispatcher = ScrollDispatcher.of(scrollView);
+        int[] counts = new int[4];
+        List<ScrollDispatcher.Registration> registrationList = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            int index = i;
+            registrationList.add(dispatcher.newRegistration((v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+                counts[index]++;
+                // 두번째 리스너는 처음 호출될때 이미 호출된 첫번째와 아직 호출 전인 마지막 리스너를 해제
+                if (index == 1 && counts[1] == 1) {
+                    registrationList.get(0).remove();
+                    registrationList.get(3).remove();
+                }
+            }));
+        }
+        for (ScrollDispatcher.Registration registration : registrationList) {
+            registration.add();
+        }
+
+        dispatcher.onScrollChange(scrollView, 0, 10, 0, 0);
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[2]);
+        assertEquals(0, counts[3]);
+        assertEquals(2, dispatcher.getListenerCount());
+
+        // 정리된 뒤에도 남은 리스너만 한번씩 호출
+        dispatcher.onScrollChange(scrollView, 0, 20, 0, 10);
+        assertEquals(1, counts[0]);
+        assertEquals(2, counts[1]);
+        assertEquals(2, counts[2]);
+        assertEquals(0, counts[3]);
+
+        // 해제된 등록 정보도 다시 붙일 수 있음
+        registrationList.get(3).add();
+        dispatcher.onScrollChange(scrollView, 0, 30, 0, 20);
+        assertEquals(3, counts[2]);
+        assertEquals(1, counts[3]);
+        assertEquals(3, dispatcher.getListenerCount());
+    }
+}
@@ -0,0 +1,177 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.viewpager2.widget.ViewPager2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ViewPager2TrackingTest {
+
+    @Test
+    public void currentPage_isReportedWithPageHolder() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        ViewPager2 pager = new ViewPager2(activity);
+        pager.setAdapter(new PageAdapter());
+        activity.setContentView(pager);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        List<Integer> reported = new ArrayList<>();
+        VisibilityEngine engine = VisibilityEngine.of(pager);
+        PlacementHandler handler = new Pager2InScrollHandler(ADType.HomeBigBanner.getPlacement(), pager, (placement, position, viewHolder) -> {
+            assertNotNull(viewHolder);
+            assertEquals(position, viewHolder.getAdapterPosition());
+            reported.add(position);
+        });
+        engine.register(handler);
+        engine.onPreDraw();
+        awaitResults(engine);
+        assertEquals(0, (int) reported.get(reported.size() - 1));
+
+        // 페이지 전환 후에는 새 페이지만 보임
+        reported.clear();
+        pager.setCurrentItem(2, false);
+        shadowOf(Looper.getMainLooper()).idle();
+        handler.requestPass();
+        engine.onPreDraw();
+        awaitResults(engine);
+        assertEquals(1, reported.size());
+        assertEquals(2, (int) reported.get(0));
+        engine.unregister(handler);
+    }
+
+    @Test
+    public void pagerInNestedList_isTracked() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new RowAdapter());
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        List<Integer> reported = new ArrayList<>();
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        Pager2InListHandler handler = new Pager2InListHandler(ADType.HomeBigBanner.getPlacement(), listView, Pager2ViewHolder.class, (placement, position, viewHolder) -> {
+            assertTrue(viewHolder instanceof PageViewHolder);
+            reported.add(position);
+        });
+        engine.register(handler);
+        handler.requestPass();
+        engine.onPreDraw();
+        awaitResults(engine);
+
+        // 자식 가로 리스트 안의 ViewPager2 도 찾아서 현재 페이지를 보고
+        assertFalse(reported.isEmpty());
+        assertEquals(0, (int) reported.get(0));
+        engine.unregister(handler);
+    }
+
+    private static void awaitResults(VisibilityEngine engine) {
+        while (engine.isEvaluating()) {
+            Thread.yield();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    static class PageAdapter extends RecyclerView.Adapter<PageViewHolder> {
+        @NonNull
+        @Override
+        public PageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            return new PageViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull PageViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 5;
+        }
+    }
+
+    // 세로 리스트의 행마다 ViewPager2 가 들어있는 가로 리스트
+    static class RowAdapter extends RecyclerView.Adapter<RowViewHolder> {
+        @NonNull
+        @Override
+        public RowViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            RecyclerView rowListView = new RecyclerView(parent.getContext());
+            rowListView.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 200));
+            rowListView.setLayoutManager(new LinearLayoutManager(parent.getContext(), RecyclerView.HORIZONTAL, false));
+            rowListView.setAdapter(new Pager2Adapter());
+            return new RowViewHolder(rowListView);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RowViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 3;
+        }
+    }
+
+    static class Pager2Adapter extends RecyclerView.Adapter<Pager2ViewHolder> {
+        @NonNull
+        @Override
+        public Pager2ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            ViewPager2 pager = new ViewPager2(parent.getContext());
+            pager.setLayoutParams(new RecyclerView.LayoutParams(300, ViewGroup.LayoutParams.MATCH_PARENT));
+            pager.setAdapter(new PageAdapter());
+            return new Pager2ViewHolder(pager);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull Pager2ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 2;
+        }
+    }
+
+    static class RowViewHolder extends RecyclerView.ViewHolder {
+        RowViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class Pager2ViewHolder extends RecyclerView.ViewHolder {
+        Pager2ViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class PageViewHolder extends RecyclerView.ViewHolder {
+        PageViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
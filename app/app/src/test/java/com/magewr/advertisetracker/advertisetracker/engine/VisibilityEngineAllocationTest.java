@@ -0,0 +1,205 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class VisibilityEngineAllocationTest {
+
+    private static final int WARM_UP_SCROLL_STOPS = 1_000;
+    private static final int SCROLL_STOPS = 10_000;
+    private static final int SCROLL_STEP_PX = 130;
+    // 측정 구간(5,000회) 전체의 허용치, 스크롤 멈춤마다 Rect 하나(약 32바이트)만 만들어도 넘는 값
+    private static final long WINDOW_ALLOCATION_BUDGET_BYTES = 32 * 1024;
+
+    private int visibleCount;
+    private final VisibilityListener countingListener = (placement, position, viewHolder) -> visibleCount++;
+
+    // 피드 끝에 닿으면 바뀌는 스크롤 방향과 바뀐 횟수
+    private int scrollDirection = 1;
+    private int reversalCount;
+
+    @Test
+    public void scrollStops_allocateNothingAfterWarmUp() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new FeedAdapter(100));
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        // 같은 리스트에 부모 리스트 광고와 중첩 리스트 광고 플레이스먼트를 함께 등록
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        PlacementHandler bannerHandler = new ListInListHandler(ADType.HomeBigBanner.getPlacement(), listView, AdViewHolder.class, countingListener);
+        PlacementHandler nestedBannerHandler = new ListInListHandler(ADType.HomeSmallBanner.getPlacement(), listView, NestedAdViewHolder.class, countingListener);
+        engine.register(bannerHandler);
+        engine.register(nestedBannerHandler);
+
+        runScrollStops(listView, engine, bannerHandler, nestedBannerHandler, WARM_UP_SCROLL_STOPS);
+        assertTrue("no ad was evaluated as visible", visibleCount > 0);
+        // 피드 끝까지 스크롤되어 뷰홀더가 재활용되고 있는지
+        assertTrue("list did not reach the end of the feed", reversalCount > 0);
+
+        long firstWindowBytes = runScrollStops(listView, engine, bannerHandler, nestedBannerHandler, SCROLL_STOPS / 2);
+        long secondWindowBytes = runScrollStops(listView, engine, bannerHandler, nestedBannerHandler, SCROLL_STOPS / 2);
+
+        assertTrue("first window allocated " + firstWindowBytes + " bytes", firstWindowBytes < WINDOW_ALLOCATION_BUDGET_BYTES);
+        assertTrue("second window allocated " + secondWindowBytes + " bytes", secondWindowBytes < WINDOW_ALLOCATION_BUDGET_BYTES);
+    }
+
+    // 스크롤 멈춤 1회 = 리스트를 실제로 스크롤(뷰홀더 재활용, 인덱스 attach/detach)한 뒤 플레이스먼트들의 계산 요청과 다음 프레임의 PreDraw
+    // 백그라운드 평가가 끝날때까지 기다리며, 결과는 다음 PreDraw 에서 전달됨
+    // 할당량은 엔진이 하는 계산 요청, 결과 전달, 수집, 평가 대기 구간만 합산 - 스크롤과 레이아웃은 RecyclerView/Robolectric 할당이 섞이므로 제외
+    private long runScrollStops(RecyclerView listView, VisibilityEngine engine, PlacementHandler first, PlacementHandler second, int scrollStops) {
+        long measurementBytes = measurementOverheadBytes();
+        long allocatedBytes = 0;
+        for (int i = 0; i < scrollStops; i++) {
+            if (!listView.canScrollVertically(scrollDirection)) {
+                scrollDirection = -scrollDirection;
+                reversalCount++;
+            }
+            listView.scrollBy(0, scrollDirection * SCROLL_STEP_PX);
+
+            long before = currentThreadAllocatedBytes();
+            first.requestPass();
+            second.requestPass();
+            engine.onPreDraw();
+            while (engine.isEvaluating()) {
+                Thread.yield();
+            }
+            allocatedBytes += currentThreadAllocatedBytes() - before - measurementBytes;
+        }
+        return allocatedBytes;
+    }
+
+    // 스크롤 멈춤마다 나눠서 재므로 할당량 조회 자체의 할당(JDK 에 따라 배열)은 빼고 합산
+    private static long measurementOverheadBytes() {
+        long overheadBytes = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long before = currentThreadAllocatedBytes();
+            overheadBytes = Math.min(overheadBytes, currentThreadAllocatedBytes() - before);
+        }
+        return overheadBytes;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    ///////////////////////////////////////////////////
+    // 테스트용 피드 - 광고 행, 중첩 광고 리스트 행, 일반 행 반복
+    ///////////////////////////////////////////////////
+
+    static class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private static final int TYPE_AD = 0;
+        private static final int TYPE_NESTED_LIST = 1;
+        private static final int TYPE_CONTENT = 2;
+
+        private final int itemCount;
+
+        FeedAdapter(int itemCount) {
+            this.itemCount = itemCount;
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return position % 3;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            Context context = parent.getContext();
+            switch (viewType) {
+                case TYPE_AD:
+                    return new AdViewHolder(createRow(context, 200));
+                case TYPE_NESTED_LIST:
+                    RecyclerView nestedListView = new RecyclerView(context);
+                    nestedListView.setLayoutManager(new LinearLayoutManager(context, LinearLayoutManager.HORIZONTAL, false));
+                    nestedListView.setAdapter(new NestedAdapter());
+                    nestedListView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 150));
+                    FrameLayout container = new FrameLayout(context);
+                    container.addView(nestedListView);
+                    container.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 150));
+                    return new ContentViewHolder(container);
+                default:
+                    return new ContentViewHolder(createRow(context, 100));
+            }
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCount;
+        }
+    }
+
+    static class NestedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new ViewGroup.LayoutParams(120, 150));
+            return new NestedAdViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 20;
+        }
+    }
+
+    private static View createRow(Context context, int height) {
+        View view = new View(context);
+        view.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, height));
+        return view;
+    }
+
+    static class AdViewHolder extends RecyclerView.ViewHolder {
+        AdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class NestedAdViewHolder extends RecyclerView.ViewHolder {
+        NestedAdViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    static class ContentViewHolder extends RecyclerView.ViewHolder {
+        ContentViewHolder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.magewr.advertisetracker.advertisetracker.engine;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class VisibilityEnginePipelineTest {
+
+    private static final int SLOW_HANDLER_COUNT = 6;
+    // 핸들러 2개면 수집 시간 상한을 넘는 시간
+    private static final long SLOW_PASS_NANOS = VisibilityEngine.CAPTURE_BUDGET_NANOS * 3 / 4;
+
+    @Test
+    public void visibleAds_areDeliveredOnMainThreadAfterBackgroundEvaluation() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new VisibilityEngineAllocationTest.FeedAdapter(30));
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Thread mainThread = Thread.currentThread();
+        Thread[] listenerThread = new Thread[1];
+        int[] visibleCount = new int[1];
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        engine.register(new ListInListHandler(ADType.HomeBigBanner.getPlacement(), listView, VisibilityEngineAllocationTest.AdViewHolder.class, (placement, position, viewHolder) -> {
+            listenerThread[0] = Thread.currentThread();
+            assertTrue(viewHolder instanceof VisibilityEngineAllocationTest.AdViewHolder);
+            visibleCount[0]++;
+        }));
+
+        engine.onPreDraw();
+        assertEquals("result must not be delivered before evaluation", 0, visibleCount[0]);
+        while (engine.isEvaluating()) {
+            Thread.yield();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(visibleCount[0] > 0);
+        assertSame(mainThread, listenerThread[0]);
+    }
+
+    @Test
+    public void dwellPolicy_reportsOnlyAfterContinuousVisibility() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        RecyclerView listView = new RecyclerView(activity);
+        listView.setLayoutManager(new LinearLayoutManager(activity));
+        listView.setAdapter(new VisibilityEngineAllocationTest.FeedAdapter(30));
+        activity.setContentView(listView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        int[] visibleCount = new int[1];
+        VisibilityEngine engine = VisibilityEngine.of(listView);
+        ListInListHandler handler = new ListInListHandler(ADType.HomeBigBanner.getPlacement(), listView, VisibilityEngineAllocationTest.AdViewHolder.class,
+                (placement, position, viewHolder) -> visibleCount[0]++);
+        handler.setViewabilityPolicy(new ViewabilityPolicy(50, 1000, true));
+        engine.register(handler);
+
+        engine.onPreDraw();
+        awaitResults(engine);
+        assertEquals("dwell time not reached yet", 0, visibleCount[0]);
+
+        // 예약된 재계산 시각까지 시간을 보내면 다음 프레임에 다시 수집됨
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1100));
+        awaitResults(engine);
+        int reportedCount = visibleCount[0];
+        assertTrue(reportedCount > 0);
+
+        // 계속 보이고 있는 광고는 다시 노출되지 않음
+        handler.requestPass();
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1100));
+        awaitResults(engine);
+        assertEquals(reportedCount, visibleCount[0]);
+    }
+
+    @Test
+    public void slowHandlers_areSpreadOverFrames() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        FrameLayout rootView = new FrameLayout(activity);
+        activity.setContentView(rootView);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        VisibilityEngine engine = VisibilityEngine.of(rootView);
+        SlowHandler[] handlers = new SlowHandler[SLOW_HANDLER_COUNT];
+        for (int i = 0; i < SLOW_HANDLER_COUNT; i++) {
+            handlers[i] = new SlowHandler();
+            engine.register(handlers[i]);
+        }
+
+        engine.onPreDraw();
+        assertTrue("first frame should stop at the capture budget", passCount(handlers) < SLOW_HANDLER_COUNT);
+
+        for (int frame = 0; frame < SLOW_HANDLER_COUNT && passCount(handlers) < SLOW_HANDLER_COUNT; frame++) {
+            // 두 스냅샷이 모두 평가중이면 수집을 건너뛰므로 평가가 끝난 뒤 다음 프레임 진행
+            while (engine.isEvaluating()) {
+                Thread.yield();
+            }
+            engine.onPreDraw();
+        }
+        // 프레임 수집 시간은 장비 부하에 따라 달라지므로 검사하지 않고 모든 핸들러가 한번씩 수집됐는지만 확인
+        for (SlowHandler handler : handlers) {
+            assertEquals(1, handler.passCount);
+        }
+    }
+
+    private static void awaitResults(VisibilityEngine engine) {
+        while (engine.isEvaluating()) {
+            Thread.yield();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    @Test
+    public void candidateKeys_areUniquePerLiveContainer() {
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        Set<Long> keys = new HashSet<>();
+        List<View> containers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            View container = new View(activity);
+            containers.add(container);
+            assertTrue(keys.add(VisibilityEngine.candidateKey(0, container)));
+        }
+        // 같은 컨테이너는 항상 같은 키
+        assertEquals(VisibilityEngine.candidateKey(3, containers.get(0)), VisibilityEngine.candidateKey(3, containers.get(0)));
+    }
+
+    private static int passCount(SlowHandler[] handlers) {
+        int count = 0;
+        for (SlowHandler handler : handlers) {
+            count += handler.passCount;
+        }
+        return count;
+    }
+
+    // 수집에 시간이 오래 걸리는 핸들러
+    private static class SlowHandler extends PlacementHandler {
+        int passCount;
+
+        SlowHandler() {
+            super(ADType.HomeBigBanner.getPlacement(), (placement, position, viewHolder) -> { });
+        }
+
+        @Override
+        protected boolean onVisibilityPass(VisibilityEngine engine) {
+            long startNanos = System.nanoTime();
+            while (System.nanoTime() - startNanos < SLOW_PASS_NANOS) {
+                Thread.yield();
+            }
+            passCount++;
+            return true;
+        }
+
+        @Override
+        protected boolean isCandidateCurrent(int position, Object token) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.magewr.advertisetracker.advertisetracker.trace;
+
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.metrics.MetricsSnapshot;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * ScrollTrace 를 Robolectric 화면에 그대로 재생하는 하네스
+ * 메인 루퍼와 RxJava TestScheduler 를 프레임 단위로 같이 진행시키고, 프레임마다 백그라운드 가시성 평가가 끝날때까지 기다리므로
+ * 같은 트레이스는 항상 같은 결과를 냄
+ *
+ * 재생 중의 조작과 위치는 ScrollTraceRecorder 로 다시 기록해서 결과 트레이스로 돌려줌
+ */
+public class ScrollTraceReplayer {
+    private static final long FRAME_MILLIS = 16;
+    // 마지막 조작 이후 플링과 스크롤 멈춤 판정이 끝날때까지 진행하는 시간
+    private static final long SETTLE_MILLIS = 2_000;
+    private static final String EVALUATOR_THREAD_NAME = "AdvertiseTracker-Visibility";
+
+    private final View rootView;
+    private final View scrollContainer;
+    private final TestScheduler scheduler;
+    private final TrackerMetrics metrics;
+    private final List<View> pagerList = new ArrayList<>();
+
+    /**
+     * @param rootView 터치 이벤트를 전달할 루트뷰 - window.getDecorView()
+     * @param scrollContainer 스크롤 주체
+     * @param scheduler 트래커가 쓰는 RxJava 스케줄러 - 메인 루퍼와 같이 진행됨
+     * @param metrics 트래커 런타임의 측정값
+     */
+    public ScrollTraceReplayer(View rootView, View scrollContainer, TestScheduler scheduler, TrackerMetrics metrics) {
+        this.rootView = rootView;
+        this.scrollContainer = scrollContainer;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+    }
+
+    public ReplayReport replay(ScrollTrace trace) {
+        MetricsSnapshot before = metrics.snapshot();
+        long mainCpuBefore = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+        long mainAllocatedBefore = allocatedBytes(Thread.currentThread());
+        Thread evaluatorThread = findEvaluatorThread();
+        long evaluatorCpuBefore = cpuNanos(evaluatorThread);
+
+        ScrollTraceRecorder recorder = new ScrollTraceRecorder(rootView, scrollContainer);
+        long startMillis = SystemClock.uptimeMillis();
+        long downTime = startMillis;
+        for (ScrollTrace.Record record : trace.getRecordList()) {
+            advanceTo(startMillis + record.getTimeMillis());
+            switch (record.getType()) {
+                case ScrollTrace.TYPE_MOTION:
+                    long eventTime = SystemClock.uptimeMillis();
+                    if (record.getAction() == ScrollTrace.ACTION_DOWN)
+                        downTime = eventTime;
+                    MotionEvent event = MotionEvent.obtain(downTime, eventTime, record.getAction(), record.getX(), record.getY(), 0);
+                    recorder.onTouchEvent(event);
+                    rootView.dispatchTouchEvent(event);
+                    event.recycle();
+                    break;
+                case ScrollTrace.TYPE_PAGER:
+                    pagerList.clear();
+                    TraceViews.collectPagers(rootView, pagerList);
+                    if (record.getPagerIndex() < pagerList.size()) {
+                        View pager = pagerList.get(record.getPagerIndex());
+                        TraceViews.setCurrentPage(pager, record.getPage());
+                        recorder.recordPage(pager, record.getPage());
+                    }
+                    break;
+                default:
+                    // 위치는 재생 결과 트레이스에서 비교
+                    break;
+            }
+            awaitEvaluations();
+        }
+        advanceTo(startMillis + trace.getDurationMillis() + SETTLE_MILLIS);
+        long replayedMillis = SystemClock.uptimeMillis() - startMillis;
+
+        long mainCpuNanos = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime() - mainCpuBefore;
+        long allocatedBytes = allocatedBytes(Thread.currentThread()) - mainAllocatedBefore;
+        if (evaluatorThread == null)
+            evaluatorThread = findEvaluatorThread();
+        long evaluatorCpuNanos = cpuNanos(evaluatorThread) - evaluatorCpuBefore;
+
+        MetricsSnapshot after = metrics.snapshot();
+        long emittedCount = 0;
+        for (ADType type : ADType.values()) {
+            emittedCount += after.getEmittedCount(type, true) - before.getEmittedCount(type, true);
+            emittedCount += after.getEmittedCount(type, false) - before.getEmittedCount(type, false);
+        }
+        long passCount = after.getCaptureNanos().getCount() - before.getCaptureNanos().getCount();
+        return new ReplayReport(recorder.stop(), replayedMillis, emittedCount, passCount, mainCpuNanos, evaluatorCpuNanos, allocatedBytes);
+    }
+
+    // 메인 루퍼와 스케줄러를 프레임 단위로 진행
+    private void advanceTo(long uptimeMillis) {
+        while (SystemClock.uptimeMillis() < uptimeMillis) {
+            long step = Math.min(FRAME_MILLIS, uptimeMillis - SystemClock.uptimeMillis());
+            shadowOf(Looper.getMainLooper()).idleFor(step, TimeUnit.MILLISECONDS);
+            scheduler.advanceTimeBy(step, TimeUnit.MILLISECONDS);
+            awaitEvaluations();
+        }
+    }
+
+    // 평가 쓰레드로 넘긴 계산이 모두 돌아올때까지 기다린 뒤 결과를 메인 쓰레드에서 처리
+    private void awaitEvaluations() {
+        while (true) {
+            while (metrics.getEvaluatedPassCount() < metrics.getCapturedPassCount()) {
+                Thread.yield();
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            scheduler.triggerActions();
+            if (metrics.getEvaluatedPassCount() == metrics.getCapturedPassCount())
+                return;
+        }
+    }
+
+    private static Thread findEvaluatorThread() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (EVALUATOR_THREAD_NAME.equals(thread.getName()))
+                return thread;
+        }
+        return null;
+    }
+
+    private static long cpuNanos(Thread thread) {
+        if (thread == null)
+            return 0;
+        return Math.max(0, ManagementFactory.getThreadMXBean().getThreadCpuTime(thread.getId()));
+    }
+
+    private static long allocatedBytes(Thread thread) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(thread.getId());
+    }
+
+    /**
+     * 재생 결과, 비용은 재생한 화면 시간 1초당 값으로도 제공
+     */
+    public static final class ReplayReport {
+        private final ScrollTrace resultTrace;
+        private final long replayedMillis;
+        private final long emittedCount;
+        private final long passCount;
+        private final long mainCpuNanos;
+        private final long evaluatorCpuNanos;
+        private final long allocatedBytes;
+
+        ReplayReport(ScrollTrace resultTrace, long replayedMillis, long emittedCount, long passCount,
+                     long mainCpuNanos, long evaluatorCpuNanos, long allocatedBytes) {
+            this.resultTrace = resultTrace;
+            this.replayedMillis = replayedMillis;
+            this.emittedCount = emittedCount;
+            this.passCount = passCount;
+            this.mainCpuNanos = mainCpuNanos;
+            this.evaluatorCpuNanos = evaluatorCpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * @return 재생 중 다시 기록한 트레이스 - 조작과 스크롤이 멈춘 위치(G 레코드)
+         */
+        public ScrollTrace getResultTrace() {
+            return resultTrace;
+        }
+
+        /**
+         * @return 재생 결과의 위치 레코드, 시간은 제외하고 위치만 비교할 수 있도록 (position, offset) 쌍
+         */
+        public List<String> getGeometryList() {
+            List<String> geometryList = new ArrayList<>();
+            for (ScrollTrace.Record record : resultTrace.getRecordList()) {
+                if (record.getType() == ScrollTrace.TYPE_GEOMETRY)
+                    geometryList.add(record.getPosition() + ":" + record.getOffset());
+            }
+            return geometryList;
+        }
+
+        public long getReplayedMillis() {
+            return replayedMillis;
+        }
+
+        public long getEmittedCount() {
+            return emittedCount;
+        }
+
+        public long getPassCount() {
+            return passCount;
+        }
+
+        public long getMainCpuNanos() {
+            return mainCpuNanos;
+        }
+
+        public long getEvaluatorCpuNanos() {
+            return evaluatorCpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        private double perSecond(long value) {
+            return replayedMillis == 0 ? 0 : value * 1000.0 / replayedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1fs replayed: events %d (%.1f/s), passes %d (%.1f/s), main cpu %.2fms/s, evaluator cpu %.2fms/s, alloc %.1fKB/s",
+                    replayedMillis / 1000.0, emittedCount, perSecond(emittedCount), passCount, perSecond(passCount),
+                    perSecond(mainCpuNanos) / 1_000_000.0, perSecond(evaluatorCpuNanos) / 1_000_000.0, perSecond(allocatedBytes) / 1024.0);
+        }
+    }
+}
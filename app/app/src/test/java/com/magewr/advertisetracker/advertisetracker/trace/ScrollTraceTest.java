@@ -0,0 +1,61 @@
+package com.magewr.advertisetracker.advertisetracker.trace;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ScrollTraceTest {
+
+    @Test
+    public void writeThenRead_keepsAllRecords() throws IOException {
+        Map<String, String> metaMap = new LinkedHashMap<>();
+        metaMap.put("rows", "500");
+        List<ScrollTrace.Record> recordList = new ArrayList<>();
+        recordList.add(ScrollTrace.Record.motion(0, ScrollTrace.ACTION_DOWN, 160, 400));
+        recordList.add(ScrollTrace.Record.motion(16, ScrollTrace.ACTION_MOVE, 160, 360));
+        recordList.add(ScrollTrace.Record.motion(32, ScrollTrace.ACTION_UP, 160, 320));
+        recordList.add(ScrollTrace.Record.pager(500, 1, 2));
+        recordList.add(ScrollTrace.Record.geometry(1_200, 14, -37));
+        ScrollTrace trace = new ScrollTrace(320, 470, 160, metaMap, recordList);
+
+        StringWriter writer = new StringWriter();
+        trace.write(writer);
+        ScrollTrace readTrace = ScrollTrace.read(new StringReader(writer.toString()));
+
+        assertEquals(recordList, readTrace.getRecordList());
+        assertEquals(320, readTrace.getViewportWidth());
+        assertEquals(470, readTrace.getViewportHeight());
+        assertEquals(160, readTrace.getDensityDpi());
+        assertEquals(500, readTrace.getMeta("rows", 0));
+        assertEquals(3, readTrace.getMeta("pages", 3));
+        assertEquals(1_200, readTrace.getDurationMillis());
+        // 시간은 이전 레코드와의 간격으로 저장
+        assertEquals("M 16 m 160 360", writer.toString().split("\n")[4]);
+    }
+
+    @Test
+    public void read_rejectsMalformedLines() {
+        assertMalformed("not a trace\n");
+        assertMalformed("adtrace 1\nM 16 x 0 0\n");
+        assertMalformed("adtrace 1\nM 16 d 0\n");
+        assertMalformed("adtrace 1\nZ 16 0 0\n");
+    }
+
+    private static void assertMalformed(String text) {
+        try {
+            ScrollTrace.read(new StringReader(text));
+            fail("accepted " + text);
+        } catch (IOException expected) {
+            // 예상된 오류
+        }
+    }
+}
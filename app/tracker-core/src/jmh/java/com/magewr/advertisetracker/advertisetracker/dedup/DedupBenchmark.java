@@ -0,0 +1,107 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 중복 체크 비교 - 이벤트 스트링 HashSet (기존) vs EventKey + DedupStore
+ *
+ * lookup* : 10만개 키가 쌓인 상태에서 이미 본 이벤트 1건을 중복 체크하는 비용
+ * memory100kUniqueImpressions* : 10만건의 서로 다른 노출을 세션/페이지 저장소에 기록하는 비용
+ *   gc 프로파일러의 gc.alloc.rate.norm 이 10만건 기록시 할당량 - 저장소가 유지하는 메모리의 상한
+ *
+ * 실행 : ./gradlew :tracker-core:jmh -Pjmh.include=DedupBenchmark
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class DedupBenchmark {
+    private static final int IMPRESSION_COUNT = 100_000;
+
+    private String[] eventNames;
+    private Set<String> legacySet;
+    private DedupStore dedupStore;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        eventNames = new String[IMPRESSION_COUNT];
+        legacySet = new HashSet<>();
+        dedupStore = new DedupStore();
+        for (int i = 0; i < IMPRESSION_COUNT; i++) {
+            eventNames[i] = "main banner " + i;
+            legacySet.add(legacyEventString(eventNames[i], true));
+            dedupStore.add(EventKey.of(ADType.HomeBigBanner, false, true, eventNames[i]));
+        }
+    }
+
+    private static String legacyEventString(String eventName, boolean isUnique) {
+        return String.format("%s_%s_%s", "홈_메인배너", isUnique ? "SV" : "PV", eventName).replace(" ", "_");
+    }
+
+    private String nextEventName() {
+        index = (index + 1) % IMPRESSION_COUNT;
+        return eventNames[index];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean lookupLegacyStringSet() {
+        return legacySet.add(legacyEventString(nextEventName(), true));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean lookupDedupStore() {
+        return dedupStore.add(EventKey.of(ADType.HomeBigBanner, false, true, nextEventName()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object memory100kUniqueImpressionsLegacy() {
+        Set<String> sessionSet = new HashSet<>();
+        Set<String> pageSet = new HashSet<>();
+        for (int i = 0; i < IMPRESSION_COUNT; i++) {
+            sessionSet.add(legacyEventString(eventNames[i], true));
+            pageSet.add(legacyEventString(eventNames[i], false));
+        }
+        return new Object[]{sessionSet, pageSet};
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object memory100kUniqueImpressionsDedupStore() {
+        DedupStore sessionStore = new DedupStore();
+        DedupStore pageStore = new DedupStore();
+        for (int i = 0; i < IMPRESSION_COUNT; i++) {
+            sessionStore.add(EventKey.of(ADType.HomeBigBanner, false, true, eventNames[i]));
+            pageStore.add(EventKey.of(ADType.HomeBigBanner, false, false, eventNames[i]));
+        }
+        return new Object[]{sessionStore, pageStore};
+    }
+}
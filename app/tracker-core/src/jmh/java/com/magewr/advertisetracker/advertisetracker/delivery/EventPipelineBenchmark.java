@@ -0,0 +1,95 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.EventRecorder;
+import com.magewr.advertisetracker.advertisetracker.dedup.EventSession;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.interfaces.BatchAdvertiseTrackerDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * 노출 이벤트 처리량 (events/sec) - 중복 체크, 이벤트 스트링 생성, 디스패처 큐 추가까지
+ * 전송은 별도 워커 쓰레드에서 이루어지므로 호출 쓰레드(UI 쓰레드) 비용만 측정
+ *
+ * recordUniqueImpression : 매번 새로운 노출 - SV, PV 두 이벤트가 모두 큐에 들어감
+ * recordDuplicateImpression : 화면에 계속 보이는 배너 - 중복 체크만 하고 버려짐
+ *
+ * 실행 : ./gradlew :tracker-core:jmh -Pjmh.include=EventPipelineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPipelineBenchmark {
+    private static final int UNIQUE_NAME_COUNT = 1 << 20;
+    private static final int VISIBLE_BANNER_COUNT = 8;
+
+    private EventSession eventSession;
+    private EventRecorder eventRecorder;
+    private EventDispatcher eventDispatcher;
+
+    private String[] eventNames;
+    private int uniqueIndex;
+    private int duplicateIndex;
+
+    @Setup
+    public void setUp() {
+        BatchAdvertiseTrackerDelegate delegate = new BatchAdvertiseTrackerDelegate() {
+            @Override
+            public void sendAdvertiseEvents(List<String> advertiseNames) {
+            }
+
+            @Override
+            public void sendAdvertiseEvent(String advertiseName) {
+            }
+        };
+        eventDispatcher = new EventDispatcher(() -> delegate, Schedulers.single());
+        eventSession = new EventSession();
+        eventRecorder = new EventRecorder(eventSession);
+        eventRecorder.setEventDispatcher(eventDispatcher);
+
+        eventNames = new String[UNIQUE_NAME_COUNT];
+        for (int i = 0; i < UNIQUE_NAME_COUNT; i++) {
+            eventNames[i] = "main banner " + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventDispatcher.dispose();
+    }
+
+    @Benchmark
+    public void recordUniqueImpression() {
+        if (++uniqueIndex == UNIQUE_NAME_COUNT) {
+            // 이름을 다 쓰면 세션을 새로 시작해서 계속 새로운 노출이 되도록 함
+            uniqueIndex = 0;
+            eventSession.clear();
+            eventRecorder.clearPage();
+        }
+        eventRecorder.record(ADType.HomeBigBanner, eventNames[uniqueIndex], false);
+    }
+
+    @Benchmark
+    public void recordDuplicateImpression() {
+        duplicateIndex = (duplicateIndex + 1) % VISIBLE_BANNER_COUNT;
+        eventRecorder.record(ADType.HomeSmallBanner, eventNames[duplicateIndex], false);
+    }
+}
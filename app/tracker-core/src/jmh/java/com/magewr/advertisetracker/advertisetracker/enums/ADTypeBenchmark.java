@@ -0,0 +1,61 @@
+package com.magewr.advertisetracker.advertisetracker.enums;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이벤트 스트링 생성 비교 - String.format + replace (기존) vs 미리 만든 접두어 + 이벤트명 캐시
+ * 스크롤이 멈출때마다 같은 배너 이름이 반복해서 들어오는 상황을 가정
+ *
+ * 실행 : ./gradlew :tracker-core:jmh -Pjmh.include=ADTypeBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ADTypeBenchmark {
+
+    // 화면에 반복해서 보이는 배너 수
+    @Param({"4", "32"})
+    public int bannerCount;
+
+    private String[] eventNames;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        eventNames = new String[bannerCount];
+        for (int i = 0; i < bannerCount; i++) {
+            eventNames[i] = "main banner " + i;
+        }
+    }
+
+    private String nextEventName() {
+        index = (index + 1) % bannerCount;
+        return eventNames[index];
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        String eventString = String.format("%s_%s_%s", "홈_메인배너", "SV", nextEventName());
+        return eventString.replace(" ", "_");
+    }
+
+    @Benchmark
+    public String template() {
+        return ADType.HomeBigBanner.getViewEventFullString(nextEventName(), true);
+    }
+}
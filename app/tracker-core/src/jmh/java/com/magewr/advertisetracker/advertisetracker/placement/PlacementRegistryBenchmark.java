@@ -0,0 +1,73 @@
+package com.magewr.advertisetracker.advertisetracker.placement;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 설정 파일 로드 시간 - 앱 시작때 한번 읽는 파일이라 플레이스먼트 수에 따라 얼마나 걸리는지 확인
+ * load 는 줄 위치만 인덱싱, loadAndGetLast 는 조회시 한 줄 파싱까지 포함
+ *
+ * 실행 : ./gradlew :tracker-core:jmh -Pjmh.include=PlacementRegistryBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementRegistryBenchmark {
+
+    // 설정 파일의 플레이스먼트 수
+    @Param({"50", "500"})
+    public int placementCount;
+
+    private File file;
+    private int lastId;
+
+    @Setup
+    public void setUp() throws IOException {
+        StringBuilder config = new StringBuilder("adplacements 1\n");
+        for (int i = 0; i < placementCount; i++) {
+            int id = ADType.values().length + i;
+            config.append(id).append("\tPlacement").append(id).append("\t홈_배너_").append(i).append("\t50/1000/idle\t100\n");
+        }
+        file = File.createTempFile("placements", null);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(config.toString().getBytes(Charset.forName("UTF-8")));
+        }
+        lastId = ADType.values().length + placementCount - 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public PlacementRegistry load() throws IOException {
+        return PlacementRegistry.load(file);
+    }
+
+    @Benchmark
+    public Placement loadAndGetLast() throws IOException {
+        return PlacementRegistry.load(file).get(lastId);
+    }
+}
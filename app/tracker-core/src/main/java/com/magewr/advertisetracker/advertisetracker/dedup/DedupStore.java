@@ -0,0 +1,166 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+/**
+ * 이벤트 키 중복 체크 저장소
+ *
+ * 기본은 정확한 셋(LongHashSet)으로 동작하며 키 수 제한을 주면 메모리 상한을 넘지 않도록
+ * 제한을 넘는 키부터는 고정 크기 블룸 필터에 기록하는 근사 모드로 전환됨
+ *
+ * 근사 모드에서는 처음 보는 키를 이미 본 키로 잘못 판단할 수 있음(false positive)
+ * 이 경우 이벤트가 전송되지 않을 뿐 같은 이벤트가 두번 전송되는 일은 없음
+ * 블룸 필터는 키당 10bit, 해시 7개로 제한 개수만큼 들어갔을 때 오판율 약 1% - 그 이상 쌓이면 오판율이 점점 올라감
+ *
+ * 쓰레드 안전 - 키 해시로 나눈 스트라이프별로 락을 잡으므로 여러 화면, 여러 쓰레드에서 동시에 호출해도 서로 막히는 일이 드묾
+ * add 는 확인과 기록을 한번에 하는 test-and-set 이므로 같은 키로 동시에 호출해도 true 는 한번만 리턴됨
+ */
+public class DedupStore {
+    public static final int UNBOUNDED = 0;
+
+    // 스트라이프 수, 2의 제곱수
+    private static final int STRIPE_COUNT = 16;
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final int BLOOM_HASH_COUNT = 7;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public DedupStore() {
+        this(UNBOUNDED);
+    }
+
+    /**
+     * @param maxExactKeys 정확히 기억할 최대 키 수, UNBOUNDED 면 제한 없음 - 스트라이프마다 균등하게 나눠서 적용
+     */
+    public DedupStore(int maxExactKeys) {
+        int maxStripeKeys = maxExactKeys == UNBOUNDED ? UNBOUNDED : Math.max(1, (maxExactKeys + STRIPE_COUNT - 1) / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(maxStripeKeys);
+        }
+    }
+
+    /**
+     * 처음 보는 키면 기록하고 true
+     * @param key 이벤트 키
+     * @return 처음 보는 키 여부, 근사 모드에서는 처음 보는 키도 false 일 수 있음
+     */
+    public boolean add(long key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.add(key);
+        }
+    }
+
+    public boolean contains(long key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.contains(key);
+        }
+    }
+
+    /**
+     * @return 기억하고 있는 키 수 - 근사 모드의 키 포함, 동시에 추가중이면 근사값
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.exactKeySet.size() + stripe.bloomKeyCount;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return 키 수 제한을 넘어 근사 모드로 동작중인 스트라이프가 있는지 여부
+     */
+    public boolean isApproximate() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.bloomBits != null)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private Stripe stripeFor(long key) {
+        // EventKey 하위 비트는 해시이므로 그대로 사용, LongHashSet 슬롯 계산과 겹치지 않도록 상위 쪽 해시 비트 사용
+        return stripes[(int) (key >>> 40) & (STRIPE_COUNT - 1)];
+    }
+
+    // 스트라이프 하나, 락은 DedupStore 에서 잡음
+    private static final class Stripe {
+        private final int maxExactKeys;
+        private final LongHashSet exactKeySet;
+
+        // 키 수 제한을 넘은 뒤에 쓰이는 블룸 필터, 필요할때 할당
+        private long[] bloomBits;
+        private int bloomKeyCount;
+
+        Stripe(int maxExactKeys) {
+            this.maxExactKeys = maxExactKeys;
+            this.exactKeySet = maxExactKeys == UNBOUNDED ? new LongHashSet() : new LongHashSet(Math.min(maxExactKeys, 64));
+        }
+
+        boolean add(long key) {
+            if (exactKeySet.contains(key))
+                return false;
+
+            if (maxExactKeys == UNBOUNDED || exactKeySet.size() < maxExactKeys)
+                return exactKeySet.add(key);
+
+            return addToBloom(key);
+        }
+
+        boolean contains(long key) {
+            return exactKeySet.contains(key) || (bloomBits != null && isInBloom(key));
+        }
+
+        void clear() {
+            exactKeySet.clear();
+            bloomBits = null;
+            bloomKeyCount = 0;
+        }
+
+        private boolean addToBloom(long key) {
+            if (bloomBits == null)
+                bloomBits = new long[Math.max(1, (maxExactKeys * BLOOM_BITS_PER_KEY + 63) >>> 6)];
+
+            // 더블 해싱으로 해시 k개 생성
+            long bitCount = (long) bloomBits.length << 6;
+            int hash1 = (int) key;
+            int hash2 = (int) (key >>> 32);
+            boolean isNew = false;
+            for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+                int bitIndex = (int) (((hash1 + i * hash2) & 0x7fffffffL) % bitCount);
+                long bit = 1L << bitIndex;
+                if ((bloomBits[bitIndex >>> 6] & bit) == 0) {
+                    bloomBits[bitIndex >>> 6] |= bit;
+                    isNew = true;
+                }
+            }
+            if (isNew)
+                bloomKeyCount++;
+            return isNew;
+        }
+
+        private boolean isInBloom(long key) {
+            long bitCount = (long) bloomBits.length << 6;
+            int hash1 = (int) key;
+            int hash2 = (int) (key >>> 32);
+            for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+                int bitIndex = (int) (((hash1 + i * hash2) & 0x7fffffffL) % bitCount);
+                if ((bloomBits[bitIndex >>> 6] & (1L << bitIndex)) == 0)
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+/**
+ * 중복 체크용 이벤트 키, 이벤트 스트링 대신 long 하나로 표현
+ *
+ * [플레이스먼트 id 8bit][클릭 1bit][유니크 1bit][이벤트명 해시 54bit]
+ * 이벤트명 해시는 64bit FNV-1a 해시를 섞은 뒤 하위 54bit 만 사용 - 100만개 키 기준 충돌 확률 약 0.003%
+ * 이벤트 스트링과 같은 규칙으로 공백을 '_' 로 보고 해시하므로 스트링 비교와 같은 결과
+ * 플레이스먼트 id 가 255 이상이면 id 자리는 255 로 두고 id 를 이벤트명 해시에 섞음
+ *
+ * 키가 저널에 남으므로 ADType 은 순서를 바꾸지 말고 끝에만 추가해야 함 (내장 플레이스먼트 id = ADType.ordinal())
+ */
+public final class EventKey {
+    private static final int ORDINAL_SHIFT = 56;
+    // id 자리에 그대로 넣을 수 없는 플레이스먼트 id 표시
+    private static final int OVERFLOW_ID = 0xff;
+    private static final long CLICK_BIT = 1L << 55;
+    private static final long UNIQUE_BIT = 1L << 54;
+    private static final long HASH_MASK = UNIQUE_BIT - 1;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EventKey() {
+    }
+
+    /**
+     * @param type ADType
+     * @param isClick 클릭 이벤트 여부
+     * @param isUnique 유니크(세션) 이벤트 여부
+     * @param eventName 이벤트명
+     * @return 이벤트 키
+     */
+    public static long of(ADType type, boolean isClick, boolean isUnique, String eventName) {
+        return of(type.ordinal(), isClick, isUnique, eventName);
+    }
+
+    /**
+     * @param placement 플레이스먼트
+     * @param isClick 클릭 이벤트 여부
+     * @param isUnique 유니크(세션) 이벤트 여부
+     * @param eventName 이벤트명
+     * @return 이벤트 키
+     */
+    public static long of(Placement placement, boolean isClick, boolean isUnique, String eventName) {
+        return of(placement.getId(), isClick, isUnique, eventName);
+    }
+
+    // 내장 플레이스먼트는 ADType 으로 만든 키와 같은 값 - 이전 버전 저널과 호환
+    private static long of(int placementId, boolean isClick, boolean isUnique, String eventName) {
+        long hash = hashEventName(eventName);
+        int idField = placementId;
+        if (placementId >= OVERFLOW_ID) {
+            idField = OVERFLOW_ID;
+            hash = mix(hash ^ placementId);
+        }
+        long key = ((long) idField << ORDINAL_SHIFT) | (hash & HASH_MASK);
+        if (isClick)
+            key |= CLICK_BIT;
+        if (isUnique)
+            key |= UNIQUE_BIT;
+        return key;
+    }
+
+    /**
+     * @return 키의 플레이스먼트 id 자리, 255 이상인 id 는 모두 255
+     */
+    public static int getTypeOrdinal(long key) {
+        return (int) (key >>> ORDINAL_SHIFT);
+    }
+
+    public static boolean isClick(long key) {
+        return (key & CLICK_BIT) != 0;
+    }
+
+    public static boolean isUnique(long key) {
+        return (key & UNIQUE_BIT) != 0;
+    }
+
+    // 64bit FNV-1a, 공백은 '_' 로 치환해서 해시
+    static long hashEventName(String eventName) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < eventName.length(); i++) {
+            char c = eventName.charAt(i);
+            if (c == ' ')
+                c = '_';
+            hash ^= c;
+            hash *= FNV_PRIME;
+        }
+        // 하위 비트만 쓰므로 상위 비트까지 고루 섞음
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,76 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+/**
+ * 화면 단위 광고 이벤트 기록기
+ * 세션 이벤트(SV, SC)는 EventSession 에서, 페이지 이벤트(PV, C)는 화면별 저장소에서 중복 체크 후 디스패처로 전달
+ * 중복 체크는 EventKey 로 하고 이벤트 스트링은 실제 전송할 이벤트만 만듦
+ *
+ * 쓰레드 안전 - record 는 어느 쓰레드에서 호출해도 됨
+ */
+public class EventRecorder {
+
+    private final EventSession eventSession;
+    // Page Event 중복 체크용 저장소, 필요시 초기화 가능
+    private final DedupStore pageEventStore = new DedupStore();
+
+    private volatile EventDispatcher eventDispatcher;
+
+    public EventRecorder(EventSession eventSession) {
+        this.eventSession = eventSession;
+    }
+
+    /**
+     * 이벤트를 전달할 디스패처 설정
+     * @param eventDispatcher 디스패처
+     */
+    public void setEventDispatcher(EventDispatcher eventDispatcher) {
+        this.eventDispatcher = eventDispatcher;
+        eventSession.attach(eventDispatcher);
+    }
+
+    /**
+     * 노출 또는 클릭 이벤트 기록, 세션/페이지 각각 처음인 경우에만 전송
+     * @param type ADType
+     * @param eventName 이벤트명
+     * @param isClick 클릭 이벤트 여부
+     */
+    public void record(ADType type, String eventName, boolean isClick) {
+        record(type.getPlacement(), eventName, isClick);
+    }
+
+    /**
+     * 노출 또는 클릭 이벤트 기록, 세션/페이지 각각 처음인 경우에만 전송
+     * @param placement 플레이스먼트
+     * @param eventName 이벤트명
+     * @param isClick 클릭 이벤트 여부
+     */
+    public void record(Placement placement, String eventName, boolean isClick) {
+        if (eventName == null || eventName.isEmpty())
+            return;
+
+        eventSession.recordSessionEvent(eventDispatcher, placement, eventName, isClick);
+        long pageKey = EventKey.of(placement, isClick, false, eventName);
+        boolean isFirst = pageEventStore.add(pageKey);
+        TrackerMetrics metrics = eventSession.getMetrics();
+        if (metrics != null)
+            metrics.recordEvent(placement.getId(), false, isFirst);
+        if (isFirst)
+            eventSession.enqueue(eventDispatcher, getEventString(placement, eventName, isClick, false));
+    }
+
+    /**
+     * 화면전환 시 페이지 이벤트 클리어
+     */
+    public void clearPage() {
+        pageEventStore.clear();
+    }
+
+    static String getEventString(Placement placement, String eventName, boolean isClick, boolean isUnique) {
+        return isClick ? placement.getClickEventFullString(eventName, isUnique) : placement.getViewEventFullString(eventName, isUnique);
+    }
+}
@@ -0,0 +1,261 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventJournal;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * 세션 이벤트(SV, SC) 중복 체크 상태와 이벤트 저널, 세션 만료까지 화면과 상관없이 유지
+ * 저널을 사용하면 이전 프로세스의 세션 상태(중복 체크 키, 시작 시각)를 복원하며, 복원이 끝나기 전에 들어온 세션 이벤트는 보류했다가 복원된 상태로 중복 체크
+ * 복원 도중 세션이 만료(clear)된 경우, 그리고 RestoreListener 에서 이어받은 세션을 만료시킨 경우 복원된 세션은 버림
+ *
+ * 쓰레드 안전 - 여러 화면, 여러 쓰레드에서 동시에 기록해도 세션 이벤트는 정확히 한번만 전송됨
+ * 중복 체크는 DedupStore 의 스트라이프 락만 잡으므로 기록끼리 서로 막히지 않음
+ */
+public class EventSession {
+
+    // 저널에서 이어받은 세션을 전달받는 리스너, enableJournal 의 callbackScheduler 에서 호출됨
+    // 복원된 키를 합치기 전에 호출되므로 리스너에서 clear 하면 이어받은 세션은 버려지고 새 세션으로 시작
+    public interface RestoreListener {
+        /**
+         * @param sessionStartMillis 이어받은 세션 시작 시각 (System.currentTimeMillis)
+         * @param backgroundSinceMillis 이전 프로세스가 백그라운드로 이동한 시각, 포그라운드에서 종료되었으면 EventJournal.NOT_IN_BACKGROUND
+         */
+        void onSessionRestored(long sessionStartMillis, long backgroundSinceMillis);
+    }
+
+    // 세션 하나의 중복 체크 저장소, 세대, 시작 시각 (System.currentTimeMillis)
+    // 기록할때 한번만 읽으므로 저장소와 세대가 서로 다른 세션 것으로 어긋나지 않음
+    private static final class SessionState {
+        final DedupStore store;
+        final int generation;
+        final long startMillis;
+
+        SessionState(DedupStore store, int generation, long startMillis) {
+            this.store = store;
+            this.generation = generation;
+            this.startMillis = startMillis;
+        }
+    }
+
+    // 세션 만료시 통째로 새 상태로 교체 - 저장소를 비우는 대신 참조만 바꾸므로 키 수와 상관없이 O(1)
+    private volatile SessionState sessionState = new SessionState(new DedupStore(), 0, System.currentTimeMillis());
+    private volatile int eventLimit = DedupStore.UNBOUNDED;
+
+    // 사용하지 않으면 null
+    private volatile EventJournal eventJournal;
+    // 복원 중 여부, 보류 리스트와 함께 deferredSessionEventList 락으로 변경
+    private volatile boolean isJournalRestoring;
+    private final List<DeferredSessionEvent> deferredSessionEventList = new ArrayList<>();
+
+    // 측정 사용시에만 null 이 아님
+    private volatile TrackerMetrics metrics;
+    private volatile RestoreListener restoreListener;
+
+    // 저널 복원 전에 발생한 세션 이벤트
+    private static class DeferredSessionEvent {
+        final EventDispatcher eventDispatcher;
+        final Placement placement;
+        final String eventName;
+        final boolean isClick;
+
+        DeferredSessionEvent(EventDispatcher eventDispatcher, Placement placement, String eventName, boolean isClick) {
+            this.eventDispatcher = eventDispatcher;
+            this.placement = placement;
+            this.eventName = eventName;
+            this.isClick = isClick;
+        }
+    }
+
+    /**
+     * 세션 이벤트 중복 체크에 쓰는 메모리 상한 설정, 이벤트 기록 전에 호출
+     * 상한을 넘으면 근사 모드로 전환되어 일부 세션 이벤트가 전송되지 않을 수 있음 - 중복 전송은 없음 (DedupStore 참고)
+     *
+     * @param maxKeys 정확히 기억할 최대 세션 이벤트 수, DedupStore.UNBOUNDED 면 제한 없음
+     */
+    public synchronized void setEventLimit(int maxKeys) {
+        eventLimit = maxKeys;
+        SessionState state = sessionState;
+        sessionState = new SessionState(new DedupStore(maxKeys), state.generation, state.startMillis);
+    }
+
+    /**
+     * @return 현재 세션 세대, 세션이 만료될때마다 증가
+     */
+    public int getGeneration() {
+        return sessionState.generation;
+    }
+
+    /**
+     * @return 현재 세션 시작 시각 (System.currentTimeMillis), 저널에서 이어받은 세션이면 이전 프로세스에서 시작한 시각
+     */
+    public long getSessionStartMillis() {
+        return sessionState.startMillis;
+    }
+
+    /**
+     * 저널에서 이전 프로세스의 세션을 이어받았을때 알림받을 리스너 설정, enableJournal 전에 호출
+     * 이어받은 세션의 비활성/최대 길이 만료를 판단하는 용도
+     * @param restoreListener 리스너
+     */
+    public void setRestoreListener(RestoreListener restoreListener) {
+        this.restoreListener = restoreListener;
+    }
+
+    /**
+     * 세션/페이지 이벤트 중복 체크 결과와 저널 오류를 기록할 측정값 설정
+     * @param metrics 측정값, null 이면 기록하지 않음
+     */
+    public synchronized void setMetrics(TrackerMetrics metrics) {
+        this.metrics = metrics;
+        if (eventJournal != null)
+            eventJournal.setMetrics(metrics);
+    }
+
+    TrackerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isJournalEnabled() {
+        return eventJournal != null;
+    }
+
+    /**
+     * 이벤트 저널 사용 시작, 최초 1회만 적용됨
+     * 이전 프로세스에서 남긴 세션 이벤트와 미전송 이벤트를 백그라운드에서 복원하며, 미전송 이벤트는 restoreDispatcher 로 재전송
+     *
+     * @param file 저널 파일
+     * @param ioScheduler 디스크 작업용 스케줄러
+     * @param callbackScheduler 복원 결과를 반영할 스케줄러 - 보통 메인 쓰레드
+     * @param restoreDispatcher 미전송 이벤트를 재전송할 디스패처
+     */
+    public synchronized void enableJournal(File file, Scheduler ioScheduler, Scheduler callbackScheduler, EventDispatcher restoreDispatcher) {
+        if (eventJournal != null)
+            return;
+
+        isJournalRestoring = true;
+        SessionState state = sessionState;
+        int restoringGeneration = state.generation;
+        eventJournal = EventJournal.open(file, ioScheduler, state.generation, state.startMillis, (sessionStartMillis, backgroundSinceMillis, sessionKeys, pendingEvents) ->
+                callbackScheduler.scheduleDirect(() -> onJournalRestored(restoreDispatcher, restoringGeneration, sessionStartMillis, backgroundSinceMillis, sessionKeys, pendingEvents)));
+        eventJournal.setMetrics(metrics);
+        attach(restoreDispatcher);
+    }
+
+    /**
+     * 디스패처가 전송 완료한 이벤트를 저널에서 정리하도록 연결
+     * @param eventDispatcher 디스패처
+     */
+    public void attach(EventDispatcher eventDispatcher) {
+        EventJournal journal = eventJournal;
+        if (journal != null)
+            eventDispatcher.setConsumeListener(journal::appendConsumed);
+    }
+
+    /**
+     * 앱의 백그라운드 이동/복귀를 저널에 기록, 다음 실행시 RestoreListener 로 전달됨 - 저널을 사용하지 않으면 무시
+     * @param backgroundSinceMillis 백그라운드로 이동한 시각 (System.currentTimeMillis), 포그라운드로 돌아왔으면 EventJournal.NOT_IN_BACKGROUND
+     */
+    public void setBackgroundSince(long backgroundSinceMillis) {
+        EventJournal journal = eventJournal;
+        if (journal != null)
+            journal.appendBackgroundSince(backgroundSinceMillis);
+    }
+
+    /**
+     * 세션 만료, 새 세션 상태로 교체하고 저널에서도 정리
+     * 기존 저장소는 비우지 않고 참조만 끊으므로 호출 쓰레드에서는 키 수와 상관없이 O(1) - 메모리는 GC 가 회수
+     * 교체 직전에 기존 상태를 읽은 기록은 이전 세션 이벤트로 처리되며, 저널도 세대가 다르므로 새 세션 키로 남기지 않음
+     */
+    public void clear() {
+        synchronized (this) {
+            SessionState state = new SessionState(new DedupStore(eventLimit), sessionState.generation + 1, System.currentTimeMillis());
+            sessionState = state;
+            // 락 안에서 예약해야 연속된 clear 의 세대가 저널에 순서대로 반영됨
+            EventJournal journal = eventJournal;
+            if (journal != null)
+                journal.compactSession(state.generation, state.startMillis);
+        }
+    }
+
+    // 복원된 세션 상태를 합치고 미전송 이벤트 재전송, 보류된 세션 이벤트는 복원된 상태로 중복 체크 후 전송
+    // 복원 도중 또는 리스너에서 세션이 만료되었으면 복원된 세션 키와 시작 시각은 지난 세션 것이므로 버림 - 미전송 이벤트는 세션과 관계없이 재전송
+    private void onJournalRestored(EventDispatcher restoreDispatcher, int restoringGeneration, long sessionStartMillis, long backgroundSinceMillis,
+                                   long[] sessionKeys, List<String> pendingEvents) {
+        // 이어받을 세션이 이미 만료되었는지 리스너가 먼저 판단, 만료시키면 clear 로 세대가 바뀌어 아래에서 버려짐
+        RestoreListener listener = restoreListener;
+        if (listener != null && sessionState.generation == restoringGeneration)
+            listener.onSessionRestored(sessionStartMillis, backgroundSinceMillis);
+
+        SessionState restoredState = null;
+        synchronized (this) {
+            SessionState state = sessionState;
+            if (state.generation == restoringGeneration) {
+                restoredState = new SessionState(state.store, state.generation, sessionStartMillis);
+                sessionState = restoredState;
+            }
+        }
+        if (restoredState != null) {
+            for (long sessionKey : sessionKeys) {
+                restoredState.store.add(sessionKey);
+            }
+        }
+        for (String pendingEvent : pendingEvents) {
+            // 저널에는 이미 기록되어 있으므로 디스패처에만 추가
+            restoreDispatcher.enqueue(pendingEvent);
+        }
+
+        // 복원된 키를 모두 넣은 뒤 보류를 끝내야 이후 기록이 복원된 상태로 중복 체크됨
+        List<DeferredSessionEvent> deferredEventList;
+        synchronized (deferredSessionEventList) {
+            isJournalRestoring = false;
+            deferredEventList = new ArrayList<>(deferredSessionEventList);
+            deferredSessionEventList.clear();
+        }
+        for (DeferredSessionEvent deferredEvent : deferredEventList) {
+            recordSessionEvent(deferredEvent.eventDispatcher, deferredEvent.placement, deferredEvent.eventName, deferredEvent.isClick);
+        }
+    }
+
+    // 세션 중복 체크 후 전송, 저널 복원 중이면 보류 - 이벤트 스트링은 실제 전송할때만 만듦
+    void recordSessionEvent(EventDispatcher eventDispatcher, Placement placement, String eventName, boolean isClick) {
+        if (isJournalRestoring) {
+            synchronized (deferredSessionEventList) {
+                if (isJournalRestoring) {
+                    deferredSessionEventList.add(new DeferredSessionEvent(eventDispatcher, placement, eventName, isClick));
+                    return;
+                }
+            }
+        }
+
+        // add 가 test-and-set 이므로 동시에 같은 이벤트가 들어와도 한 쓰레드만 통과
+        long sessionKey = EventKey.of(placement, isClick, true, eventName);
+        SessionState state = sessionState;
+        boolean isFirst = state.store.add(sessionKey);
+        TrackerMetrics currentMetrics = metrics;
+        if (currentMetrics != null)
+            currentMetrics.recordEvent(placement.getId(), true, isFirst);
+        if (!isFirst)
+            return;
+
+        EventJournal journal = eventJournal;
+        if (journal != null)
+            journal.appendSessionKey(state.generation, sessionKey);
+        enqueue(eventDispatcher, EventRecorder.getEventString(placement, eventName, isClick, true));
+    }
+
+    // 저널에 먼저 기록한 뒤 디스패처로 전달 - 전송 완료 기록이 항상 이벤트 기록 뒤에 오도록 순서 보장
+    void enqueue(EventDispatcher eventDispatcher, String eventString) {
+        EventJournal journal = eventJournal;
+        if (journal != null)
+            journal.appendEvent(eventString);
+        eventDispatcher.enqueue(eventString);
+    }
+}
@@ -0,0 +1,145 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import java.util.Arrays;
+
+/**
+ * long 전용 오픈 어드레싱 해시셋 - 선형 탐사
+ * 키마다 객체를 만들지 않으므로 키 하나당 평균 16byte 이하로 유지됨
+ *
+ * 0 은 빈 슬롯 표시로 쓰이므로 별도 플래그로 관리
+ * 동기화되지 않음
+ */
+public class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final int initialCapacity;
+    private long[] keys;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+    private boolean hasZeroKey;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize 예상 키 개수, 이만큼은 재할당 없이 추가 가능
+     */
+    public LongHashSet(int expectedSize) {
+        this.initialCapacity = tableSizeFor((int) Math.ceil(expectedSize / LOAD_FACTOR));
+        allocate(initialCapacity);
+    }
+
+    /**
+     * 키 추가
+     * @param key 키
+     * @return 새로 추가되었으면 true, 이미 있었으면 false
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZeroKey)
+                return false;
+            hasZeroKey = true;
+            size++;
+            return true;
+        }
+
+        int index = hash(key) & mask;
+        while (true) {
+            long slot = keys[index];
+            if (slot == 0) {
+                keys[index] = key;
+                if (++size > resizeThreshold)
+                    rehash(keys.length << 1);
+                return true;
+            }
+            if (slot == key)
+                return false;
+            index = (index + 1) & mask;
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == 0)
+            return hasZeroKey;
+
+        int index = hash(key) & mask;
+        while (true) {
+            long slot = keys[index];
+            if (slot == 0)
+                return false;
+            if (slot == key)
+                return true;
+            index = (index + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 전체 삭제, 크게 늘어난 테이블은 처음 크기로 되돌림
+     */
+    public void clear() {
+        if (keys.length > initialCapacity)
+            allocate(initialCapacity);
+        else
+            Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * @return 모든 키 복사본, 순서 없음
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int count = 0;
+        if (hasZeroKey)
+            result[count++] = 0;
+        for (long key : keys) {
+            if (key != 0)
+                result[count++] = key;
+        }
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        for (long key : oldKeys) {
+            if (key == 0)
+                continue;
+
+            int index = hash(key) & mask;
+            while (keys[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = MIN_CAPACITY;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,265 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDataSource;
+import com.magewr.advertisetracker.advertisetracker.exposure.ExposureRecord;
+import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.interfaces.ExposureTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * 광고 이벤트를 모아서 애널리틱스 트래커로 일괄 전송하는 디스패처
+ * 이벤트는 고정 크기 큐에 쌓이고 maxBatchSize 만큼 모이거나 첫 이벤트 이후 maxLatency 가 지나면 백그라운드 워커에서 전송
+ * 큐가 가득 차면 가장 오래된 이벤트부터 버림
+ *
+ * enqueue 는 어느 쓰레드에서 호출해도 되며 트래커 호출은 항상 워커 쓰레드에서 순서대로 이루어짐
+ * 트래커가 없거나 트래커에서 오류가 난 묶음은 큐 앞에 되돌려 두고 그 자리에서 전송을 멈췄다가 maxLatency 뒤 또는 다음 flush 때 다시 전송
+ * 오류는 측정값에만 기록, 오류 전에 일부를 받은 트래커는 같은 이벤트를 다시 받을 수 있음
+ */
+public class EventDispatcher {
+
+    // 큐에서 빠져나간 이벤트(전송 완료 또는 버림)를 전달받는 리스너, 워커 쓰레드 또는 enqueue 호출 쓰레드에서 호출됨
+    public interface ConsumeListener {
+        void onEventsConsumed(List<String> advertiseNames);
+    }
+
+    public static final int DEFAULT_CAPACITY = 512;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 20;
+    public static final long DEFAULT_MAX_LATENCY_MILLIS = 1000;
+
+    private final AdvertiseTrackerDataSource advertiseTrackerDataSource;
+    private final Scheduler.Worker worker;
+    private final int maxBatchSize;
+    private final long maxLatencyMillis;
+
+    // 원형 큐
+    private final String[] queue;
+    private int head;
+    private int size;
+    private long droppedCount;
+
+    // 즉시 전송이 예약되어 있는지 여부와 지연 전송 타이머
+    private boolean isFlushScheduled;
+    private Disposable latencyTimer;
+
+    private volatile ConsumeListener consumeListener;
+    // 측정 사용시에만 null 이 아님
+    private volatile TrackerMetrics metrics;
+
+    private final Runnable flushTask = this::drain;
+
+    public EventDispatcher(AdvertiseTrackerDataSource advertiseTrackerDataSource, Scheduler scheduler) {
+        this(advertiseTrackerDataSource, scheduler, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_LATENCY_MILLIS);
+    }
+
+    /**
+     * @param advertiseTrackerDataSource 전송 시점에 애널리틱스 트래커를 제공받을 데이터소스
+     * @param scheduler 전송을 실행할 스케줄러
+     * @param capacity 큐 최대 크기
+     * @param maxBatchSize 한번에 전송할 최대 이벤트 수, 이만큼 쌓이면 바로 전송
+     * @param maxLatencyMillis 큐에 들어온 이벤트가 전송되기까지 기다리는 최대 시간
+     */
+    public EventDispatcher(AdvertiseTrackerDataSource advertiseTrackerDataSource, Scheduler scheduler, int capacity, int maxBatchSize, long maxLatencyMillis) {
+        this.advertiseTrackerDataSource = advertiseTrackerDataSource;
+        this.worker = scheduler.createWorker();
+        this.queue = new String[capacity];
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    /**
+     * 큐에서 빠져나간 이벤트를 전달받을 리스너 설정 - 저널에서 미전송 이벤트를 정리하는 용도
+     * @param consumeListener 리스너
+     */
+    public void setConsumeListener(ConsumeListener consumeListener) {
+        this.consumeListener = consumeListener;
+    }
+
+    /**
+     * 큐 깊이, 버린 이벤트 수, 애널리틱스 트래커 호출 시간을 기록할 측정값 설정
+     * @param metrics 측정값, null 이면 기록하지 않음
+     */
+    public void setMetrics(TrackerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 전송할 이벤트를 큐에 추가
+     * @param advertiseName 이벤트 스트링
+     */
+    public void enqueue(String advertiseName) {
+        TrackerMetrics currentMetrics = metrics;
+        synchronized (this) {
+            if (size == queue.length) {
+                // 큐가 가득 찬 경우 가장 오래된 이벤트를 버림
+                notifyConsumed(Collections.singletonList(queue[head]));
+                queue[head] = null;
+                head = (head + 1) % queue.length;
+                size--;
+                droppedCount++;
+                if (currentMetrics != null)
+                    currentMetrics.recordDroppedEvent();
+            }
+            queue[(head + size) % queue.length] = advertiseName;
+            size++;
+            if (currentMetrics != null)
+                currentMetrics.recordQueueDepth(size);
+
+            if (size >= maxBatchSize)
+                scheduleFlushLocked();
+            else if (latencyTimer == null && !isFlushScheduled)
+                latencyTimer = worker.schedule(flushTask, maxLatencyMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 노출 시간 요약 전송, 워커에서 쌓여있는 이벤트를 먼저 보낸 뒤 트래커가 ExposureTrackerDelegate 인 경우에만 전송
+     * @param records 요약 레코드
+     */
+    public void sendExposureSummary(List<ExposureRecord> records) {
+        if (records.isEmpty())
+            return;
+
+        worker.schedule(() -> {
+            drain();
+            AdvertiseTrackerDelegate delegate = advertiseTrackerDataSource.getAdvertiseTracker();
+            if (!(delegate instanceof ExposureTrackerDelegate))
+                return;
+
+            try {
+                ((ExposureTrackerDelegate) delegate).sendExposureSummary(records);
+            } catch (RuntimeException e) {
+                recordDeliveryError();
+            }
+        });
+    }
+
+    /**
+     * 쌓여있는 이벤트를 바로 전송 - 화면 종료 등
+     */
+    public void flush() {
+        synchronized (this) {
+            if (size > 0)
+                scheduleFlushLocked();
+        }
+    }
+
+    /**
+     * 예약된 전송을 취소하고 디스패처 종료, 큐에 남은 이벤트는 버려짐 - 저널 사용시 다음 실행때 복원됨
+     */
+    public void dispose() {
+        worker.dispose();
+    }
+
+    public synchronized int getQueueSize() {
+        return size;
+    }
+
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private void scheduleFlushLocked() {
+        if (isFlushScheduled)
+            return;
+
+        isFlushScheduled = true;
+        if (latencyTimer != null) {
+            latencyTimer.dispose();
+            latencyTimer = null;
+        }
+        worker.schedule(flushTask);
+    }
+
+    // 워커 쓰레드에서 큐가 빌때까지 maxBatchSize 단위로 전송
+    private void drain() {
+        while (true) {
+            List<String> batch;
+            synchronized (this) {
+                isFlushScheduled = false;
+                if (latencyTimer != null) {
+                    latencyTimer.dispose();
+                    latencyTimer = null;
+                }
+                if (size == 0)
+                    return;
+
+                int batchSize = Math.min(size, maxBatchSize);
+                batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(queue[head]);
+                    queue[head] = null;
+                    head = (head + 1) % queue.length;
+                }
+                size -= batchSize;
+            }
+
+            // 트래커가 없거나 전송에 실패한 묶음은 큐에 되돌리고 멈춤 - 남은 묶음까지 같은 트래커로 보내봐야 실패하므로
+            AdvertiseTrackerDelegate delegate = advertiseTrackerDataSource.getAdvertiseTracker();
+            if (delegate == null) {
+                requeue(batch);
+                return;
+            }
+
+            TrackerMetrics currentMetrics = metrics;
+            long startNanos = currentMetrics != null ? System.nanoTime() : 0;
+            try {
+                SingleEventDelegateAdapter.wrap(delegate).sendAdvertiseEvents(batch);
+            } catch (RuntimeException e) {
+                recordDeliveryError();
+                requeue(batch);
+                return;
+            }
+            if (currentMetrics != null)
+                currentMetrics.recordDelegateNanos(System.nanoTime() - startNanos);
+            notifyConsumed(batch);
+        }
+    }
+
+    // 전송하지 못한 묶음을 큐 앞에 되돌리고 maxLatency 뒤에 다시 전송, 그 사이 큐가 차서 자리가 모자라면 묶음의 오래된 이벤트부터 버림
+    private void requeue(List<String> batch) {
+        List<String> droppedList;
+        TrackerMetrics currentMetrics = metrics;
+        synchronized (this) {
+            int keepCount = Math.min(batch.size(), queue.length - size);
+            for (int i = batch.size() - 1; i >= batch.size() - keepCount; i--) {
+                head = (head - 1 + queue.length) % queue.length;
+                queue[head] = batch.get(i);
+                size++;
+            }
+            int droppedCount = batch.size() - keepCount;
+            droppedList = batch.subList(0, droppedCount);
+            this.droppedCount += droppedCount;
+            if (currentMetrics != null) {
+                for (int i = 0; i < droppedCount; i++) {
+                    currentMetrics.recordDroppedEvent();
+                }
+            }
+
+            if (size > 0 && latencyTimer == null && !isFlushScheduled)
+                latencyTimer = worker.schedule(flushTask, maxLatencyMillis, TimeUnit.MILLISECONDS);
+        }
+        if (!droppedList.isEmpty())
+            notifyConsumed(droppedList);
+    }
+
+    // 애널리틱스 트래커 오류로 워커가 중단되거나 앱이 종료되지 않도록 무시하고 기록만 함
+    private void recordDeliveryError() {
+        TrackerMetrics currentMetrics = metrics;
+        if (currentMetrics != null)
+            currentMetrics.recordSwallowedError(TrackerMetrics.ErrorSource.Delivery);
+    }
+
+    private void notifyConsumed(List<String> advertiseNames) {
+        ConsumeListener listener = consumeListener;
+        if (listener != null)
+            listener.onEventsConsumed(advertiseNames);
+    }
+}
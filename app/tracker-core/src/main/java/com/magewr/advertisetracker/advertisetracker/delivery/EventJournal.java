@@ -0,0 +1,387 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.LongHashSet;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import io.reactivex.rxjava3.core.Scheduler;
+
+/**
+ * 전송 대기중인 이벤트와 세션 중복 체크 키를 파일에 남기는 추가 전용(append-only) 저널
+ * 프로세스가 종료되어도 다음 실행시 복원해서 세션 이벤트가 중복 전송되지 않고 미전송 이벤트도 유실되지 않도록 함
+ *
+ * 레코드 구조 : [타입 1byte][길이 4byte][CRC32 4byte][payload]
+ * payload 는 이벤트 레코드의 경우 UTF-8 이벤트 스트링, 세션 키 레코드의 경우 8byte EventKey,
+ * 세션 시작 레코드의 경우 8byte 시작 시각, 백그라운드 레코드의 경우 8byte 백그라운드로 이동한 시각 (포그라운드면 NOT_IN_BACKGROUND)
+ * 세션 시작 레코드 이전의 세션 키는 지난 세션 것이므로 복원하지 않음
+ * 마지막 레코드가 기록 도중 잘린 경우 복원시 CRC 검사로 걸러내고 그 위치부터 파일을 잘라냄
+ * 파일이 커지면, 그리고 세션이 끝나면 살아있는 레코드만 새 파일에 옮겨 적는 방식으로 압축
+ *
+ * 모든 디스크 작업은 전용 워커 쓰레드에서 순서대로 처리되므로 호출하는 쪽(UI 쓰레드)은 막히지 않음
+ * 세션 키는 세션 세대(EventSession.getGeneration)와 함께 받아서, 세션이 바뀐 뒤에 도착한 지난 세션 키는 기록하지 않음
+ * 기록은 OS 페이지 캐시까지만 보장 - 프로세스 종료는 견디지만 기기 전원 차단까지 보장하지는 않음
+ */
+public class EventJournal {
+
+    // 복원 결과를 전달받는 콜백, 워커 쓰레드에서 호출됨
+    public interface RestoreCallback {
+        void onRestored(long sessionStartMillis, long backgroundSinceMillis, long[] sessionKeys, List<String> pendingEvents);
+    }
+
+    // 마지막 기록이 포그라운드였거나 기록이 없는 경우의 백그라운드 시각
+    public static final long NOT_IN_BACKGROUND = Long.MIN_VALUE;
+
+    private static final byte RECORD_EVENT = 1;
+    private static final byte RECORD_CONSUMED = 2;
+    private static final byte RECORD_SESSION_KEY = 3;
+    private static final byte RECORD_SESSION_START = 4;
+    private static final byte RECORD_BACKGROUND = 5;
+
+    private static final long NO_SESSION_START = Long.MIN_VALUE;
+
+    private static final int HEADER_SIZE = 1 + 4 + 4;
+    private static final long MIN_COMPACT_THRESHOLD_BYTES = 256 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final Scheduler.Worker worker;
+
+    // 아래 상태는 모두 워커 쓰레드에서만 접근
+    private FileChannel channel;
+    private final Map<String, Integer> pendingEventMap = new LinkedHashMap<>();
+    private final LongHashSet sessionKeySet = new LongHashSet();
+    // 현재 세션 세대와 시작 시각 (System.currentTimeMillis)
+    private int sessionGeneration;
+    private long sessionStartMillis = NO_SESSION_START;
+    // 앱이 백그라운드로 이동한 시각 (System.currentTimeMillis), 세션이 바뀌어도 유지
+    private long backgroundSinceMillis = NOT_IN_BACKGROUND;
+    private final CRC32 crc = new CRC32();
+    private final byte[] longBytes = new byte[8];
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(256);
+    private long compactThresholdBytes = MIN_COMPACT_THRESHOLD_BYTES;
+
+    // 측정 사용시에만 null 이 아님
+    private volatile TrackerMetrics metrics;
+
+    private EventJournal(File file, Scheduler scheduler) {
+        this.file = file;
+        this.worker = scheduler.createWorker();
+    }
+
+    /**
+     * 저널을 열고 백그라운드에서 이전 기록을 복원
+     * 이후 호출되는 기록은 모두 복원이 끝난 뒤 순서대로 처리됨
+     * 기록된 세션이 있으면 그 세션을 이어가며, 없으면 전달받은 시작 시각으로 세션을 기록
+     *
+     * @param file 저널 파일
+     * @param scheduler 디스크 작업용 스케줄러 - 워커 하나가 쓰레드 하나에서 순서대로 실행되어야 함
+     * @param sessionGeneration 현재 세션 세대
+     * @param sessionStartMillis 현재 세션 시작 시각 (System.currentTimeMillis)
+     * @param callback 복원 결과 콜백 - 이어가는 세션의 시작 시각과 이전 프로세스가 백그라운드로 이동한 시각 전달
+     * @return 저널
+     */
+    public static EventJournal open(File file, Scheduler scheduler, int sessionGeneration, long sessionStartMillis, RestoreCallback callback) {
+        EventJournal journal = new EventJournal(file, scheduler);
+        journal.worker.schedule(() -> {
+            journal.replay();
+            journal.sessionGeneration = sessionGeneration;
+            if (journal.sessionStartMillis == NO_SESSION_START) {
+                journal.sessionStartMillis = sessionStartMillis;
+                journal.write(RECORD_SESSION_START, journal.toBytes(sessionStartMillis));
+            }
+            callback.onRestored(journal.sessionStartMillis, journal.backgroundSinceMillis, journal.sessionKeySet.toArray(), journal.getPendingEvents());
+        });
+        return journal;
+    }
+
+    /**
+     * 디스크 오류로 저널을 닫은 횟수를 기록할 측정값 설정
+     * @param metrics 측정값, null 이면 기록하지 않음
+     */
+    public void setMetrics(TrackerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 전송 대기 이벤트 기록
+     * @param advertiseName 이벤트 스트링
+     */
+    public void appendEvent(String advertiseName) {
+        worker.schedule(() -> {
+            Integer count = pendingEventMap.get(advertiseName);
+            pendingEventMap.put(advertiseName, count == null ? 1 : count + 1);
+            write(RECORD_EVENT, advertiseName.getBytes(UTF_8));
+        });
+    }
+
+    /**
+     * 전송되었거나 버려져서 더이상 대기중이 아닌 이벤트 기록
+     * @param advertiseNames 이벤트 스트링 리스트
+     */
+    public void appendConsumed(List<String> advertiseNames) {
+        worker.schedule(() -> {
+            for (int i = 0; i < advertiseNames.size(); i++) {
+                String advertiseName = advertiseNames.get(i);
+                if (removePendingEvent(advertiseName))
+                    write(RECORD_CONSUMED, advertiseName.getBytes(UTF_8));
+            }
+        });
+    }
+
+    /**
+     * 세션 중복 체크 키 기록, 이미 다음 세션이 시작되었으면 무시
+     * @param sessionGeneration 키를 기록한 세션 세대
+     * @param sessionKey 세션 이벤트 키 - EventKey
+     */
+    public void appendSessionKey(int sessionGeneration, long sessionKey) {
+        worker.schedule(() -> {
+            if (sessionGeneration == this.sessionGeneration && sessionKeySet.add(sessionKey))
+                write(RECORD_SESSION_KEY, toBytes(sessionKey));
+        });
+    }
+
+    /**
+     * 앱의 백그라운드 이동/복귀 기록, 다음 실행시 이어받을 세션의 비활성 만료 판단에 사용
+     * @param backgroundSinceMillis 백그라운드로 이동한 시각 (System.currentTimeMillis), 포그라운드로 돌아왔으면 NOT_IN_BACKGROUND
+     */
+    public void appendBackgroundSince(long backgroundSinceMillis) {
+        worker.schedule(() -> {
+            if (this.backgroundSinceMillis == backgroundSinceMillis)
+                return;
+
+            this.backgroundSinceMillis = backgroundSinceMillis;
+            write(RECORD_BACKGROUND, toBytes(backgroundSinceMillis));
+        });
+    }
+
+    /**
+     * 새 세션 시작, 지난 세션 키를 버리고 새 세션 시작 시각과 미전송 이벤트만 남기도록 압축
+     * @param sessionGeneration 새 세션 세대
+     * @param sessionStartMillis 새 세션 시작 시각 (System.currentTimeMillis)
+     */
+    public void compactSession(int sessionGeneration, long sessionStartMillis) {
+        worker.schedule(() -> {
+            this.sessionGeneration = sessionGeneration;
+            this.sessionStartMillis = sessionStartMillis;
+            sessionKeySet.clear();
+            compact();
+        });
+    }
+
+    /**
+     * 남은 기록을 마치고 파일을 닫음
+     */
+    public void close() {
+        worker.schedule(() -> {
+            closeChannel();
+            worker.dispose();
+        });
+    }
+
+    ///////////////////////////////////////////////////
+    // 워커 쓰레드 전용
+    ///////////////////////////////////////////////////
+
+    private List<String> getPendingEvents() {
+        List<String> pendingEventList = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : pendingEventMap.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                pendingEventList.add(entry.getKey());
+            }
+        }
+        return pendingEventList;
+    }
+
+    private boolean removePendingEvent(String advertiseName) {
+        Integer count = pendingEventMap.get(advertiseName);
+        if (count == null)
+            return false;
+
+        if (count == 1)
+            pendingEventMap.remove(advertiseName);
+        else
+            pendingEventMap.put(advertiseName, count - 1);
+        return true;
+    }
+
+    // 파일 전체를 읽어서 상태 복원, 잘리거나 깨진 레코드를 만나면 그 위치부터 잘라냄
+    private void replay() {
+        try {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists())
+                parent.mkdirs();
+
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            long fileSize = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 끝까지 읽음
+            }
+            buffer.flip();
+
+            int validEnd = 0;
+            while (buffer.remaining() >= HEADER_SIZE) {
+                byte type = buffer.get();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                // 기록 도중 종료되어 잘린 레코드
+                if (length < 0 || length > buffer.remaining())
+                    break;
+
+                crc.reset();
+                crc.update(buffer.array(), buffer.position(), length);
+                if ((int) crc.getValue() != checksum)
+                    break;
+
+                applyRecord(type, buffer.array(), buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                validEnd = buffer.position();
+            }
+
+            if (validEnd < fileSize)
+                channel.truncate(validEnd);
+            channel.position(validEnd);
+        } catch (IOException e) {
+            // 저널을 쓸 수 없는 경우 메모리 상태만으로 동작
+            recordError();
+            closeChannel();
+        }
+    }
+
+    private void recordError() {
+        TrackerMetrics currentMetrics = metrics;
+        if (currentMetrics != null)
+            currentMetrics.recordSwallowedError(TrackerMetrics.ErrorSource.Journal);
+    }
+
+    private void applyRecord(byte type, byte[] array, int offset, int length) {
+        switch (type) {
+            case RECORD_EVENT:
+                String advertiseName = new String(array, offset, length, UTF_8);
+                Integer count = pendingEventMap.get(advertiseName);
+                pendingEventMap.put(advertiseName, count == null ? 1 : count + 1);
+                break;
+            case RECORD_CONSUMED:
+                removePendingEvent(new String(array, offset, length, UTF_8));
+                break;
+            case RECORD_SESSION_KEY:
+                if (length == 8)
+                    sessionKeySet.add(ByteBuffer.wrap(array, offset, length).getLong());
+                break;
+            case RECORD_SESSION_START:
+                // 새 세션이 시작되었으므로 앞의 세션 키는 버림
+                if (length == 8) {
+                    sessionStartMillis = ByteBuffer.wrap(array, offset, length).getLong();
+                    sessionKeySet.clear();
+                }
+                break;
+            case RECORD_BACKGROUND:
+                if (length == 8)
+                    backgroundSinceMillis = ByteBuffer.wrap(array, offset, length).getLong();
+                break;
+        }
+    }
+
+    private byte[] toBytes(long value) {
+        for (int i = 7; i >= 0; i--) {
+            longBytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return longBytes;
+    }
+
+    private void write(byte type, byte[] payload) {
+        if (channel == null)
+            return;
+
+        try {
+            writeRecord(channel, type, payload);
+            if (channel.position() > compactThresholdBytes)
+                compact();
+        } catch (IOException e) {
+            recordError();
+            closeChannel();
+        }
+    }
+
+    private void writeRecord(FileChannel targetChannel, byte type, byte[] bytes) throws IOException {
+        if (recordBuffer.capacity() < HEADER_SIZE + bytes.length)
+            recordBuffer = ByteBuffer.allocate(HEADER_SIZE + bytes.length);
+
+        crc.reset();
+        crc.update(bytes, 0, bytes.length);
+
+        recordBuffer.clear();
+        recordBuffer.put(type).putInt(bytes.length).putInt((int) crc.getValue()).put(bytes);
+        recordBuffer.flip();
+        while (recordBuffer.hasRemaining()) {
+            targetChannel.write(recordBuffer);
+        }
+    }
+
+    // 현재 세션 시작 시각, 백그라운드 시각, 살아있는 세션 키와 미전송 이벤트만 임시 파일에 옮겨 적고 교체
+    private void compact() {
+        if (channel == null)
+            return;
+
+        File compactFile = new File(file.getPath() + ".compact");
+        try {
+            RandomAccessFile compactAccessFile = new RandomAccessFile(compactFile, "rw");
+            FileChannel compactChannel = compactAccessFile.getChannel();
+            try {
+                compactChannel.truncate(0);
+                if (sessionStartMillis != NO_SESSION_START)
+                    writeRecord(compactChannel, RECORD_SESSION_START, toBytes(sessionStartMillis));
+                if (backgroundSinceMillis != NOT_IN_BACKGROUND)
+                    writeRecord(compactChannel, RECORD_BACKGROUND, toBytes(backgroundSinceMillis));
+                for (long sessionKey : sessionKeySet.toArray()) {
+                    writeRecord(compactChannel, RECORD_SESSION_KEY, toBytes(sessionKey));
+                }
+                for (Map.Entry<String, Integer> entry : pendingEventMap.entrySet()) {
+                    byte[] bytes = entry.getKey().getBytes(UTF_8);
+                    for (int i = 0; i < entry.getValue(); i++) {
+                        writeRecord(compactChannel, RECORD_EVENT, bytes);
+                    }
+                }
+                compactChannel.force(true);
+            } finally {
+                compactChannel.close();
+            }
+
+            closeChannel();
+            if (!compactFile.renameTo(file))
+                throw new IOException("journal compaction rename failed");
+
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            channel.position(channel.size());
+            // 살아있는 레코드가 많으면 압축 주기도 늘림
+            compactThresholdBytes = Math.max(MIN_COMPACT_THRESHOLD_BYTES, channel.size() * 2);
+        } catch (IOException e) {
+            recordError();
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null)
+            return;
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            recordError();
+        }
+        channel = null;
+    }
+}
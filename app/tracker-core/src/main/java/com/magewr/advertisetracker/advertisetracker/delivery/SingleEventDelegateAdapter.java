@@ -0,0 +1,41 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.interfaces.BatchAdvertiseTrackerDelegate;
+
+import java.util.List;
+
+/**
+ * 단건 전송만 지원하는 기존 트래커를 일괄 전송 인터페이스로 감싸는 어댑터
+ * 묶음 안의 이벤트를 순서대로 하나씩 전송
+ */
+public class SingleEventDelegateAdapter implements BatchAdvertiseTrackerDelegate {
+    private final AdvertiseTrackerDelegate delegate;
+
+    public SingleEventDelegateAdapter(AdvertiseTrackerDelegate delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 일괄 전송을 지원하면 그대로, 아니면 어댑터로 감싸서 반환
+     * @param delegate 애널리틱스 트래커
+     * @return 일괄 전송 트래커
+     */
+    public static BatchAdvertiseTrackerDelegate wrap(AdvertiseTrackerDelegate delegate) {
+        if (delegate instanceof BatchAdvertiseTrackerDelegate)
+            return (BatchAdvertiseTrackerDelegate) delegate;
+        return new SingleEventDelegateAdapter(delegate);
+    }
+
+    @Override
+    public void sendAdvertiseEvent(String advertiseName) {
+        delegate.sendAdvertiseEvent(advertiseName);
+    }
+
+    @Override
+    public void sendAdvertiseEvents(List<String> advertiseNames) {
+        for (int i = 0; i < advertiseNames.size(); i++) {
+            delegate.sendAdvertiseEvent(advertiseNames.get(i));
+        }
+    }
+}
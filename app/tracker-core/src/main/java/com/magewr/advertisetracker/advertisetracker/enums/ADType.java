@@ -0,0 +1,54 @@
+package com.magewr.advertisetracker.advertisetracker.enums;
+
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+// 광고 타입 - 앱에 내장된 플레이스먼트, 새 플레이스먼트는 앱 배포 없이 PlacementRegistry 설정 파일로 추가
+// id 가 ordinal 이고 이벤트 키와 저널에 남으므로 순서를 바꾸지 말고 끝에만 추가해야 함
+public enum ADType {
+    HomeBigBanner("홈_메인배너"),
+    HomeSmallBanner("홈_띠배너");
+
+    // id 로 조회할때 values() 복사를 피하기 위한 배열
+    private static final ADType[] TYPES = values();
+
+    private final Placement placement;
+
+    ADType(String typeName) {
+        this.placement = Placement.builtIn(this, typeName);
+    }
+
+    /**
+     * @return 이 타입의 내장 플레이스먼트
+     */
+    public Placement getPlacement() {
+        return placement;
+    }
+
+    /**
+     * @param placementId 플레이스먼트 id
+     * @return 내장 플레이스먼트 id 면 해당 ADType, 아니면 null
+     */
+    public static ADType ofId(int placementId) {
+        return placementId >= 0 && placementId < TYPES.length ? TYPES[placementId] : null;
+    }
+
+    /**
+     * PV, UV 등 FA View Event 전송용 스트링
+     * @param eventName 이벤트명
+     * @param isUnique 유니크 여부
+     * @return 스트링
+     */
+    public String getViewEventFullString(String eventName, boolean isUnique) {
+        return placement.getViewEventFullString(eventName, isUnique);
+    }
+
+    /**
+     * PC, UC 등 FA Click Event 전송용 스트링
+     * @param eventName 이벤트명
+     * @param isUnique 유니크여부
+     * @return 스트링
+     */
+    public String getClickEventFullString(String eventName, boolean isUnique) {
+        return placement.getClickEventFullString(eventName, isUnique);
+    }
+}
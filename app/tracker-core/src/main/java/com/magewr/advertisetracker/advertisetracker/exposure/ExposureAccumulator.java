@@ -0,0 +1,248 @@
+package com.magewr.advertisetracker.advertisetracker.exposure;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.EventKey;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 광고 소재(플레이스먼트, 이벤트명)별 화면 노출 시간 누적기
+ * 보이는 동안의 구간을 열어두었다가 사라지면 닫아서 합계에 더하고, drain 할때 모인 합계를 요약으로 돌려준 뒤 비움
+ * 뷰가 보이고 사라질때마다 이벤트를 보내지 않고 요약 주기마다 소재당 레코드 하나만 만듦
+ *
+ * 플레이스먼트마다 scope 를 하나씩 받아서 가시성 계산(pass)마다 보이는 소재만 알려주면
+ * 그 scope 에서 이번 계산에 빠진 소재의 구간은 자동으로 닫힘
+ *
+ * 소재별 상태는 키 기준 오픈 어드레싱 인덱스와 원시 타입 배열로 관리하므로 계산마다 객체를 만들지 않음
+ * 시각은 단조 증가하는 시계(SystemClock.uptimeMillis 등)를 사용해야 함
+ * 쓰레드 안전 - 계산은 메인 쓰레드, 주기 요약은 백그라운드에서 호출되어도 됨
+ */
+public class ExposureAccumulator {
+    private static final long NOT_OPEN = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // 소재별 상태, 앞쪽 size 개만 사용
+    private int size;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Placement[] placements = new Placement[INITIAL_CAPACITY];
+    private String[] eventNames = new String[INITIAL_CAPACITY];
+    private long[] totalMillis = new long[INITIAL_CAPACITY];
+    private long[] openSinceMillis = new long[INITIAL_CAPACITY];
+    private int[] viewCounts = new int[INITIAL_CAPACITY];
+    private int[] ownerScopes = new int[INITIAL_CAPACITY];
+    private int[] lastSeenPasses = new int[INITIAL_CAPACITY];
+
+    // 키 → 상태 위치 + 1 인덱스, 0 은 빈 슬롯 - 크기는 상태 배열의 2배
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    private int nextScope;
+    private int pass;
+
+    /**
+     * @return 플레이스먼트 하나가 사용할 scope
+     */
+    public synchronized int newScope() {
+        return ++nextScope;
+    }
+
+    /**
+     * 가시성 계산 시작
+     * @return 이번 계산 번호, onInView 와 endPass 에 그대로 전달
+     */
+    public synchronized int beginPass() {
+        return ++pass;
+    }
+
+    /**
+     * 이번 계산에서 보이는 소재 알림, 닫혀있던 소재면 구간을 새로 염
+     * @param scope 플레이스먼트 scope
+     * @param pass beginPass 에서 받은 번호
+     * @param type ADType
+     * @param eventName 이벤트명
+     * @param nowMillis 계산 시점
+     */
+    public void onInView(int scope, int pass, ADType type, String eventName, long nowMillis) {
+        onInView(scope, pass, type.getPlacement(), eventName, nowMillis);
+    }
+
+    /**
+     * 이번 계산에서 보이는 소재 알림, 닫혀있던 소재면 구간을 새로 염
+     * @param scope 플레이스먼트 scope
+     * @param pass beginPass 에서 받은 번호
+     * @param placement 플레이스먼트
+     * @param eventName 이벤트명
+     * @param nowMillis 계산 시점
+     */
+    public synchronized void onInView(int scope, int pass, Placement placement, String eventName, long nowMillis) {
+        if (eventName == null || eventName.isEmpty())
+            return;
+
+        long key = EventKey.of(placement, false, false, eventName);
+        int index = indexOf(key);
+        if (index < 0)
+            index = addEntry(key, placement, eventName);
+
+        if (openSinceMillis[index] == NOT_OPEN) {
+            openSinceMillis[index] = nowMillis;
+            viewCounts[index]++;
+        }
+        ownerScopes[index] = scope;
+        lastSeenPasses[index] = pass;
+    }
+
+    /**
+     * 가시성 계산 끝, 이 scope 에서 이번 계산에 보이지 않은 소재의 구간을 닫음
+     * @param scope 플레이스먼트 scope
+     * @param pass beginPass 에서 받은 번호
+     * @param nowMillis 계산 시점
+     */
+    public synchronized void endPass(int scope, int pass, long nowMillis) {
+        for (int i = 0; i < size; i++) {
+            if (ownerScopes[i] == scope && lastSeenPasses[i] != pass)
+                close(i, nowMillis);
+        }
+    }
+
+    /**
+     * scope 의 열린 구간을 모두 닫음 - 플레이스먼트 해제, 화면 이탈 등
+     * @param scope 플레이스먼트 scope
+     * @param nowMillis 닫는 시점
+     */
+    public synchronized void closeScope(int scope, long nowMillis) {
+        for (int i = 0; i < size; i++) {
+            if (ownerScopes[i] == scope)
+                close(i, nowMillis);
+        }
+    }
+
+    /**
+     * 누적된 노출 시간을 요약으로 돌려주고 비움
+     * 아직 보이고 있는 소재는 nowMillis 까지를 이번 요약에 넣고 구간은 그대로 열어둠
+     *
+     * @param nowMillis 요약 시점
+     * @return 노출 시간이 있는 소재의 요약, 없으면 빈 리스트
+     */
+    public synchronized List<ExposureRecord> drain(long nowMillis) {
+        List<ExposureRecord> records = new ArrayList<>();
+        int writeIndex = 0;
+        for (int i = 0; i < size; i++) {
+            long exposureMillis = totalMillis[i];
+            boolean isOpen = openSinceMillis[i] != NOT_OPEN;
+            if (isOpen) {
+                exposureMillis += Math.max(0, nowMillis - openSinceMillis[i]);
+                openSinceMillis[i] = nowMillis;
+            }
+            if (exposureMillis > 0 || viewCounts[i] > 0)
+                records.add(new ExposureRecord(placements[i], eventNames[i], exposureMillis, viewCounts[i]));
+
+            // 보이고 있는 소재만 다음 요약 구간으로 넘김
+            if (isOpen) {
+                moveEntry(i, writeIndex);
+                totalMillis[writeIndex] = 0;
+                viewCounts[writeIndex] = 0;
+                writeIndex++;
+            }
+        }
+        for (int i = writeIndex; i < size; i++) {
+            placements[i] = null;
+            eventNames[i] = null;
+        }
+        size = writeIndex;
+        rebuildSlots(slots.length);
+        return records;
+    }
+
+    /**
+     * @return 추적중인 소재 수
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void close(int index, long nowMillis) {
+        if (openSinceMillis[index] == NOT_OPEN)
+            return;
+
+        totalMillis[index] += Math.max(0, nowMillis - openSinceMillis[index]);
+        openSinceMillis[index] = NOT_OPEN;
+    }
+
+    private int indexOf(long key) {
+        int mask = slots.length - 1;
+        for (int slot = mix(key) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (keys[index] == key)
+                return index;
+        }
+        return -1;
+    }
+
+    private int addEntry(long key, Placement placement, String eventName) {
+        if (size == keys.length)
+            grow();
+
+        int index = size++;
+        keys[index] = key;
+        placements[index] = placement;
+        eventNames[index] = eventName;
+        totalMillis[index] = 0;
+        openSinceMillis[index] = NOT_OPEN;
+        viewCounts[index] = 0;
+        insertSlot(key, index);
+        return index;
+    }
+
+    private void moveEntry(int from, int to) {
+        if (from == to)
+            return;
+
+        keys[to] = keys[from];
+        placements[to] = placements[from];
+        eventNames[to] = eventNames[from];
+        totalMillis[to] = totalMillis[from];
+        openSinceMillis[to] = openSinceMillis[from];
+        viewCounts[to] = viewCounts[from];
+        ownerScopes[to] = ownerScopes[from];
+        lastSeenPasses[to] = lastSeenPasses[from];
+    }
+
+    private void grow() {
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        placements = Arrays.copyOf(placements, capacity);
+        eventNames = Arrays.copyOf(eventNames, capacity);
+        totalMillis = Arrays.copyOf(totalMillis, capacity);
+        openSinceMillis = Arrays.copyOf(openSinceMillis, capacity);
+        viewCounts = Arrays.copyOf(viewCounts, capacity);
+        ownerScopes = Arrays.copyOf(ownerScopes, capacity);
+        lastSeenPasses = Arrays.copyOf(lastSeenPasses, capacity);
+        rebuildSlots(capacity * 2);
+    }
+
+    private void rebuildSlots(int slotCount) {
+        if (slots.length == slotCount)
+            Arrays.fill(slots, 0);
+        else
+            slots = new int[slotCount];
+        for (int i = 0; i < size; i++) {
+            insertSlot(keys[i], i);
+        }
+    }
+
+    private void insertSlot(long key, int index) {
+        int mask = slots.length - 1;
+        int slot = mix(key) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    // EventKey 하위 비트는 이미 섞인 해시이므로 그대로 사용
+    private static int mix(long key) {
+        return (int) key;
+    }
+}
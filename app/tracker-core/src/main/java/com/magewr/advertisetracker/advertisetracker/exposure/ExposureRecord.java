@@ -0,0 +1,56 @@
+package com.magewr.advertisetracker.advertisetracker.exposure;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+/**
+ * 광고 소재 하나의 노출 시간 집계 - 요약 구간 동안 화면에 보인 시간 합계와 보이기 시작한 횟수
+ */
+public final class ExposureRecord {
+    private final Placement placement;
+    private final String eventName;
+    private final long exposureMillis;
+    private final int viewCount;
+
+    public ExposureRecord(ADType type, String eventName, long exposureMillis, int viewCount) {
+        this(type.getPlacement(), eventName, exposureMillis, viewCount);
+    }
+
+    public ExposureRecord(Placement placement, String eventName, long exposureMillis, int viewCount) {
+        this.placement = placement;
+        this.eventName = eventName;
+        this.exposureMillis = exposureMillis;
+        this.viewCount = viewCount;
+    }
+
+    /**
+     * @return 내장 플레이스먼트면 해당 ADType, 설정 파일에서 읽은 플레이스먼트는 null
+     */
+    public ADType getType() {
+        return placement.getType();
+    }
+
+    public Placement getPlacement() {
+        return placement;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public long getExposureMillis() {
+        return exposureMillis;
+    }
+
+    /**
+     * @return 요약 구간 안에서 화면에 새로 보이기 시작한 횟수, 이전 구간부터 계속 보이던 경우는 0 일 수 있음
+     */
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    @Override
+    public String toString() {
+        return placement.getKey() + "_" + eventName + " " + exposureMillis + "ms/" + viewCount;
+    }
+}
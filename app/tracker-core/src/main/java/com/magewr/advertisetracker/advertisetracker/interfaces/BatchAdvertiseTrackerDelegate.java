@@ -0,0 +1,8 @@
+package com.magewr.advertisetracker.advertisetracker.interfaces;
+
+import java.util.List;
+
+// 여러 이벤트를 한번에 전송할 수 있는 애널리틱스 트래커 인터페이스, 호출 단위로 과금되는 SDK 는 이 인터페이스로 구현
+public interface BatchAdvertiseTrackerDelegate extends AdvertiseTrackerDelegate {
+    void sendAdvertiseEvents(List<String> advertiseNames);
+}
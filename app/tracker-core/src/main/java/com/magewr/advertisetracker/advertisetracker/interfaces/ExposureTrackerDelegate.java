@@ -0,0 +1,10 @@
+package com.magewr.advertisetracker.advertisetracker.interfaces;
+
+import com.magewr.advertisetracker.advertisetracker.exposure.ExposureRecord;
+
+import java.util.List;
+
+// 광고 소재별 노출 시간 요약을 받을 수 있는 애널리틱스 트래커 인터페이스, 구현하지 않은 트래커에는 요약이 전송되지 않음
+public interface ExposureTrackerDelegate extends AdvertiseTrackerDelegate {
+    void sendExposureSummary(List<ExposureRecord> records);
+}
@@ -0,0 +1,128 @@
+package com.magewr.advertisetracker.advertisetracker.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정 버킷 히스토그램, 버킷 i 에는 [2^(i-1), 2^i) 범위의 값이 들어가며 0 이하 값은 버킷 0
+ * 기록은 원자적 증가만 하므로 락과 할당이 없고 여러 쓰레드에서 동시에 기록해도 됨
+ */
+public final class Histogram {
+    public static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        if (value <= 0)
+            return;
+
+        sum.addAndGet(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * @return 기록 횟수, 복사본을 만들지 않고 읽음
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return 현재까지 기록된 값의 복사본 - 기록과 동시에 호출되면 필드 사이에 약간의 차이가 있을 수 있음
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = buckets.get(i);
+        }
+        return new Snapshot(bucketCounts, count.get(), sum.get(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value <= 0)
+            return 0;
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    // 버킷에 들어가는 값의 상한 (포함)
+    static long upperBoundOf(int bucket) {
+        if (bucket == 0)
+            return 0;
+        if (bucket >= BUCKET_COUNT - 1)
+            return Long.MAX_VALUE;
+        return (1L << bucket) - 1;
+    }
+
+    /**
+     * 변하지 않는 히스토그램 값
+     */
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        public long getBucketCount(int bucket) {
+            return buckets[bucket];
+        }
+
+        /**
+         * 백분위 값, 버킷 단위이므로 해당 버킷의 상한으로 돌려줌 - 실제 값보다 최대 2배까지 클 수 있음
+         * @param percentile 0 ~ 100
+         * @return 백분위 값의 상한, 기록이 없으면 0
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucketCount : buckets) {
+                total += bucketCount;
+            }
+            if (total == 0)
+                return 0;
+
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= Math.max(1, rank))
+                    return Math.min(upperBoundOf(i), max);
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "n=" + count + " mean=" + getMean() + " p50=" + getPercentile(50) + " p99=" + getPercentile(99) + " max=" + max;
+        }
+    }
+}
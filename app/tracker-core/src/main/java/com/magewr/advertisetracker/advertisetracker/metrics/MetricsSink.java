@@ -0,0 +1,6 @@
+package com.magewr.advertisetracker.advertisetracker.metrics;
+
+// 트래커 측정값을 주기적으로 전달받는 인터페이스, 디버그 로그 출력이나 테스트 검증 등에 사용
+public interface MetricsSink {
+    void onMetricsReport(MetricsSnapshot snapshot);
+}
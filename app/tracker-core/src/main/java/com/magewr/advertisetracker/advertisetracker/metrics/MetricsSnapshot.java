@@ -0,0 +1,118 @@
+package com.magewr.advertisetracker.advertisetracker.metrics;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+/**
+ * 특정 시점의 TrackerMetrics 값, 만들어진 뒤에는 변하지 않음
+ * 카운터는 트래커 런타임이 만들어진 뒤의 누적값
+ */
+public final class MetricsSnapshot {
+    private final Histogram.Snapshot captureNanos;
+    private final Histogram.Snapshot evaluationNanos;
+    private final Histogram.Snapshot candidatesPerPass;
+    private final Histogram.Snapshot delegateNanos;
+    // [플레이스먼트 id][TrackerMetrics.EVENT_*], 마지막 행은 범위를 넘는 id 합계
+    private final long[][] eventCounts;
+    private final long[] errorCounts;
+    private final long queueHighWaterMark;
+    private final long droppedEventCount;
+
+    MetricsSnapshot(Histogram.Snapshot captureNanos, Histogram.Snapshot evaluationNanos, Histogram.Snapshot candidatesPerPass,
+                    Histogram.Snapshot delegateNanos, long[][] eventCounts, long[] errorCounts, long queueHighWaterMark, long droppedEventCount) {
+        this.captureNanos = captureNanos;
+        this.evaluationNanos = evaluationNanos;
+        this.candidatesPerPass = candidatesPerPass;
+        this.delegateNanos = delegateNanos;
+        this.eventCounts = eventCounts;
+        this.errorCounts = errorCounts;
+        this.queueHighWaterMark = queueHighWaterMark;
+        this.droppedEventCount = droppedEventCount;
+    }
+
+    public Histogram.Snapshot getCaptureNanos() {
+        return captureNanos;
+    }
+
+    public Histogram.Snapshot getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    public Histogram.Snapshot getCandidatesPerPass() {
+        return candidatesPerPass;
+    }
+
+    public Histogram.Snapshot getDelegateNanos() {
+        return delegateNanos;
+    }
+
+    public long getEmittedCount(ADType type, boolean isSessionEvent) {
+        return getEmittedCount(type.ordinal(), isSessionEvent);
+    }
+
+    public long getDeduplicatedCount(ADType type, boolean isSessionEvent) {
+        return getDeduplicatedCount(type.ordinal(), isSessionEvent);
+    }
+
+    /**
+     * @param placementId 플레이스먼트 id, 측정 범위를 넘는 id 는 기타 합계를 반환
+     */
+    public long getEmittedCount(int placementId, boolean isSessionEvent) {
+        return eventCounts[getRow(placementId)][isSessionEvent ? TrackerMetrics.EVENT_SESSION_EMITTED : TrackerMetrics.EVENT_PAGE_EMITTED];
+    }
+
+    /**
+     * @param placementId 플레이스먼트 id, 측정 범위를 넘는 id 는 기타 합계를 반환
+     */
+    public long getDeduplicatedCount(int placementId, boolean isSessionEvent) {
+        return eventCounts[getRow(placementId)][isSessionEvent ? TrackerMetrics.EVENT_SESSION_DEDUPLICATED : TrackerMetrics.EVENT_PAGE_DEDUPLICATED];
+    }
+
+    private int getRow(int placementId) {
+        return placementId >= 0 && placementId < eventCounts.length - 1 ? placementId : eventCounts.length - 1;
+    }
+
+    public long getSwallowedErrorCount(TrackerMetrics.ErrorSource source) {
+        return errorCounts[source.ordinal()];
+    }
+
+    public long getQueueHighWaterMark() {
+        return queueHighWaterMark;
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEventCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("capture(ns) ").append(captureNanos)
+                .append("\nevaluation(ns) ").append(evaluationNanos)
+                .append("\ncandidates/pass ").append(candidatesPerPass)
+                .append("\ndelegate(ns) ").append(delegateNanos)
+                .append("\nqueue high-water ").append(queueHighWaterMark).append(", dropped ").append(droppedEventCount);
+        ADType[] types = ADType.values();
+        for (int id = 0; id < eventCounts.length; id++) {
+            long[] counts = eventCounts[id];
+            if (counts[0] + counts[1] + counts[2] + counts[3] == 0)
+                continue;
+
+            builder.append('\n');
+            if (id < types.length)
+                builder.append(types[id].name());
+            else if (id < eventCounts.length - 1)
+                builder.append('#').append(id);
+            else
+                builder.append("other");
+            builder
+                    .append(" session ").append(counts[TrackerMetrics.EVENT_SESSION_EMITTED]).append('/').append(counts[TrackerMetrics.EVENT_SESSION_DEDUPLICATED])
+                    .append(" page ").append(counts[TrackerMetrics.EVENT_PAGE_EMITTED]).append('/').append(counts[TrackerMetrics.EVENT_PAGE_DEDUPLICATED])
+                    .append(" (emitted/deduplicated)");
+        }
+        for (TrackerMetrics.ErrorSource source : TrackerMetrics.ErrorSource.values()) {
+            if (errorCounts[source.ordinal()] > 0)
+                builder.append("\nswallowed ").append(source.name()).append(' ').append(errorCounts[source.ordinal()]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package com.magewr.advertisetracker.advertisetracker.metrics;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 트래커 내부 동작 측정값
+ * 가시성 계산 시간, 계산당 후보 수, 플레이스먼트별 전송/중복 제거 이벤트 수, 애널리틱스 트래커 호출 시간, 전송 큐 깊이, 무시한 오류 수를 기록
+ * 모든 기록은 원자적 증가만 하므로 락과 할당이 없으며 어느 쓰레드에서 호출해도 됨
+ * 값 객체(MetricsSnapshot)는 snapshot 을 호출할때만 만들어짐
+ */
+public final class TrackerMetrics {
+
+    // 무시하고 넘어간 오류가 발생한 위치
+    public enum ErrorSource {
+        // 가시성 수집 중 핸들러 오류
+        VisibilityPass,
+        // 노출/노출 시간 리스너 오류
+        VisibilityDispatch,
+        // 저널 디스크 오류
+        Journal,
+        // 애널리틱스 트래커 전송 오류
+        Delivery
+    }
+
+    static final int EVENT_SESSION_EMITTED = 0;
+    static final int EVENT_SESSION_DEDUPLICATED = 1;
+    static final int EVENT_PAGE_EMITTED = 2;
+    static final int EVENT_PAGE_DEDUPLICATED = 3;
+    static final int EVENT_KIND_COUNT = 4;
+
+    private final Histogram captureNanos = new Histogram();
+    private final Histogram evaluationNanos = new Histogram();
+    private final Histogram candidatesPerPass = new Histogram();
+    private final Histogram delegateNanos = new Histogram();
+
+    // 플레이스먼트 id * EVENT_KIND_COUNT + 종류, 범위를 넘는 id 는 마지막 슬롯(기타)에 모음
+    private final int placementIdCapacity;
+    private final AtomicLongArray eventCounts;
+    private final AtomicLongArray errorCounts = new AtomicLongArray(ErrorSource.values().length);
+    private final AtomicLong queueHighWaterMark = new AtomicLong();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+
+    /**
+     * 내장 플레이스먼트(ADType)만 구분해서 기록
+     */
+    public TrackerMetrics() {
+        this(ADType.values().length);
+    }
+
+    /**
+     * @param placementIdCapacity 구분해서 기록할 플레이스먼트 id 범위 (PlacementRegistry.getIdCapacity), 나머지는 기타로 기록
+     */
+    public TrackerMetrics(int placementIdCapacity) {
+        this.placementIdCapacity = Math.max(placementIdCapacity, ADType.values().length);
+        this.eventCounts = new AtomicLongArray((this.placementIdCapacity + 1) * EVENT_KIND_COUNT);
+    }
+
+    /**
+     * 메인 쓰레드 가시성 수집 시간
+     */
+    public void recordCaptureNanos(long nanos) {
+        captureNanos.record(nanos);
+    }
+
+    /**
+     * 백그라운드 가시성 평가 시간
+     */
+    public void recordEvaluationNanos(long nanos) {
+        evaluationNanos.record(nanos);
+    }
+
+    /**
+     * 한번의 가시성 계산에서 수집한 후보 광고뷰 수
+     */
+    public void recordCandidates(int candidateCount) {
+        candidatesPerPass.record(candidateCount);
+    }
+
+    /**
+     * 애널리틱스 트래커 일괄 전송 호출 시간
+     */
+    public void recordDelegateNanos(long nanos) {
+        delegateNanos.record(nanos);
+    }
+
+    /**
+     * 세션/페이지 이벤트 중복 체크 결과
+     * @param type ADType
+     * @param isSessionEvent 세션 이벤트(SV, SC) 여부
+     * @param isEmitted 처음이라 전송한 경우 true, 중복이라 버린 경우 false
+     */
+    public void recordEvent(ADType type, boolean isSessionEvent, boolean isEmitted) {
+        recordEvent(type.ordinal(), isSessionEvent, isEmitted);
+    }
+
+    /**
+     * 세션/페이지 이벤트 중복 체크 결과
+     * @param placementId 플레이스먼트 id
+     * @param isSessionEvent 세션 이벤트(SV, SC) 여부
+     * @param isEmitted 처음이라 전송한 경우 true, 중복이라 버린 경우 false
+     */
+    public void recordEvent(int placementId, boolean isSessionEvent, boolean isEmitted) {
+        int kind;
+        if (isSessionEvent)
+            kind = isEmitted ? EVENT_SESSION_EMITTED : EVENT_SESSION_DEDUPLICATED;
+        else
+            kind = isEmitted ? EVENT_PAGE_EMITTED : EVENT_PAGE_DEDUPLICATED;
+        int slot = placementId >= 0 && placementId < placementIdCapacity ? placementId : placementIdCapacity;
+        eventCounts.incrementAndGet(slot * EVENT_KIND_COUNT + kind);
+    }
+
+    /**
+     * 이벤트를 넣은 뒤의 전송 큐 크기, 최대값만 기억
+     */
+    public void recordQueueDepth(int depth) {
+        long currentMax = queueHighWaterMark.get();
+        while (depth > currentMax && !queueHighWaterMark.compareAndSet(currentMax, depth)) {
+            currentMax = queueHighWaterMark.get();
+        }
+    }
+
+    /**
+     * 큐가 가득 차서 버린 이벤트
+     */
+    public void recordDroppedEvent() {
+        droppedEventCount.incrementAndGet();
+    }
+
+    /**
+     * 다른 광고 추적이나 화면 그리기가 중단되지 않도록 무시하고 넘어간 오류
+     */
+    public void recordSwallowedError(ErrorSource source) {
+        errorCounts.incrementAndGet(source.ordinal());
+    }
+
+    /**
+     * @return 메인 쓰레드에서 수집해서 평가로 넘긴 가시성 계산 횟수
+     */
+    public long getCapturedPassCount() {
+        return captureNanos.getCount();
+    }
+
+    /**
+     * @return 평가가 끝나서 결과를 메인 쓰레드로 보낸 가시성 계산 횟수
+     */
+    public long getEvaluatedPassCount() {
+        return evaluationNanos.getCount();
+    }
+
+    /**
+     * @return 현재 측정값의 복사본
+     */
+    public MetricsSnapshot snapshot() {
+        long[][] events = new long[placementIdCapacity + 1][EVENT_KIND_COUNT];
+        for (int t = 0; t < events.length; t++) {
+            for (int k = 0; k < EVENT_KIND_COUNT; k++) {
+                events[t][k] = eventCounts.get(t * EVENT_KIND_COUNT + k);
+            }
+        }
+        long[] errors = new long[errorCounts.length()];
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = errorCounts.get(i);
+        }
+        return new MetricsSnapshot(captureNanos.snapshot(), evaluationNanos.snapshot(), candidatesPerPass.snapshot(), delegateNanos.snapshot(),
+                events, errors, queueHighWaterMark.get(), droppedEventCount.get());
+    }
+}
@@ -0,0 +1,185 @@
+package com.magewr.advertisetracker.advertisetracker.placement;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+
+/**
+ * 광고 플레이스먼트 하나의 설정, 트래커 내부에서는 ADType 대신 이 객체와 int id 로 광고 타입을 구분
+ * 내장 플레이스먼트는 ADType 마다 하나씩 있으며 (id = ADType.ordinal()) 나머지는 PlacementRegistry 설정 파일에서 읽어옴
+ *
+ * 이벤트 스트링 접두어는 생성할때 미리 만들어두므로 전송할때는 이벤트명만 이어붙임
+ * 변하지 않는 객체이며 여러 쓰레드에서 사용해도 됨
+ */
+public final class Placement {
+    // 정규화된 이벤트명 캐시 크기, 2의 제곱수
+    private static final int NAME_CACHE_SIZE = 64;
+
+    private final int id;
+    private final String key;
+    private final String typeName;
+    // 내장 플레이스먼트면 해당 ADType, 설정 파일에서 읽은 플레이스먼트는 null
+    private final ADType type;
+    // 설정된 노출 기준, 없으면 null - 런타임 기본값 사용
+    private final ViewabilityPolicy viewabilityPolicy;
+    // 추적할 비율 (0 ~ 100)
+    private final int samplePercent;
+
+    // "{typeName}_{SV|PV|SC|C}_" 형태로 공백까지 치환해서 미리 만들어둔 접두어
+    private final String sessionViewPrefix;
+    private final String pageViewPrefix;
+    private final String sessionClickPrefix;
+    private final String pageClickPrefix;
+
+    // 공백을 치환한 이벤트명 캐시 - 같은 해시 슬롯은 덮어씀, 엔트리 단위로 교체되므로 쓰레드 경쟁에도 안전
+    private final NormalizedName[] nameCache = new NormalizedName[NAME_CACHE_SIZE];
+
+    private static final class NormalizedName {
+        final String eventName;
+        final String normalizedName;
+
+        NormalizedName(String eventName, String normalizedName) {
+            this.eventName = eventName;
+            this.normalizedName = normalizedName;
+        }
+    }
+
+    /**
+     * @param id 플레이스먼트 id, ADType 개수 이상 - 그 미만은 내장 플레이스먼트(builtIn) 전용
+     * @param key 코드에서 구분하는 이름 (로그, 측정값 표시용)
+     * @param typeName 이벤트 스트링에 들어가는 타입명 예) 홈_메인배너
+     * @param viewabilityPolicy 노출 기준, null 이면 런타임 기본값
+     * @param samplePercent 추적할 비율 (0 ~ 100)
+     */
+    public Placement(int id, String key, String typeName, ViewabilityPolicy viewabilityPolicy, int samplePercent) {
+        this(checkNotReserved(id), key, typeName, null, viewabilityPolicy, samplePercent);
+    }
+
+    private Placement(int id, String key, String typeName, ADType type, ViewabilityPolicy viewabilityPolicy, int samplePercent) {
+        if (id < 0)
+            throw new IllegalArgumentException("placement id must not be negative : " + id);
+        if (samplePercent < 0 || samplePercent > 100)
+            throw new IllegalArgumentException("samplePercent must be in 0..100 : " + samplePercent);
+
+        this.id = id;
+        this.key = key;
+        this.typeName = typeName;
+        this.type = type;
+        this.viewabilityPolicy = viewabilityPolicy;
+        this.samplePercent = samplePercent;
+        this.sessionViewPrefix = normalize(typeName + "_SV_");
+        this.pageViewPrefix = normalize(typeName + "_PV_");
+        this.sessionClickPrefix = normalize(typeName + "_SC_");
+        this.pageClickPrefix = normalize(typeName + "_C_");
+    }
+
+    // 내장 플레이스먼트 id 와 겹치면 EventKey, 측정값, 레지스트리 조회가 ADType 과 섞이므로 거부
+    private static int checkNotReserved(int id) {
+        if (id >= 0 && id < ADType.values().length)
+            throw new IllegalArgumentException("placement id is reserved for ADType : " + id);
+        return id;
+    }
+
+    /**
+     * ADType 의 내장 플레이스먼트, ADType 생성자에서만 호출
+     */
+    public static Placement builtIn(ADType type, String typeName) {
+        return new Placement(type.ordinal(), type.name(), typeName, type, null, 100);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * @return 내장 플레이스먼트면 해당 ADType, 설정 파일에서 읽은 플레이스먼트는 null
+     */
+    public ADType getType() {
+        return type;
+    }
+
+    /**
+     * @return 설정된 노출 기준, 없으면 null
+     */
+    public ViewabilityPolicy getViewabilityPolicy() {
+        return viewabilityPolicy;
+    }
+
+    public int getSamplePercent() {
+        return samplePercent;
+    }
+
+    /**
+     * 추적 대상 여부, 같은 seed 면 항상 같은 결과
+     * @param seed 추첨 기준값 - 런타임마다 한번 정함
+     * @return samplePercent 비율로 true
+     */
+    public boolean isSampled(long seed) {
+        if (samplePercent >= 100)
+            return true;
+        if (samplePercent <= 0)
+            return false;
+
+        long hash = (seed ^ id) * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 32;
+        return (hash & 0x7fffffffL) % 100 < samplePercent;
+    }
+
+    /**
+     * PV, UV 등 FA View Event 전송용 스트링
+     * @param eventName 이벤트명
+     * @param isUnique 유니크 여부
+     * @return 스트링
+     */
+    public String getViewEventFullString(String eventName, boolean isUnique) {
+        return (isUnique ? sessionViewPrefix : pageViewPrefix).concat(getNormalizedName(eventName));
+    }
+
+    /**
+     * PC, UC 등 FA Click Event 전송용 스트링
+     * @param eventName 이벤트명
+     * @param isUnique 유니크여부
+     * @return 스트링
+     */
+    public String getClickEventFullString(String eventName, boolean isUnique) {
+        return (isUnique ? sessionClickPrefix : pageClickPrefix).concat(getNormalizedName(eventName));
+    }
+
+    private String getNormalizedName(String eventName) {
+        int slot = (eventName.hashCode() ^ (eventName.hashCode() >>> 16)) & (NAME_CACHE_SIZE - 1);
+        NormalizedName cached = nameCache[slot];
+        if (cached != null && cached.eventName.equals(eventName))
+            return cached.normalizedName;
+
+        String normalizedName = normalize(eventName);
+        nameCache[slot] = new NormalizedName(eventName, normalizedName);
+        return normalizedName;
+    }
+
+    // 공백을 '_' 로 치환, 공백이 없으면 원본을 그대로 반환
+    private static String normalize(String value) {
+        int firstSpace = value.indexOf(' ');
+        if (firstSpace < 0)
+            return value;
+
+        StringBuilder builder = new StringBuilder(value.length());
+        builder.append(value, 0, firstSpace);
+        for (int i = firstSpace; i < value.length(); i++) {
+            char c = value.charAt(i);
+            builder.append(c == ' ' ? '_' : c);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return key + "#" + id;
+    }
+}
@@ -0,0 +1,288 @@
+package com.magewr.advertisetracker.advertisetracker.placement;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.viewability.ViewabilityPolicy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 앱 시작시 설정 파일에서 읽어오는 플레이스먼트 목록, 앱 배포 없이 플레이스먼트를 추가하는 용도
+ * ADType 의 내장 플레이스먼트(id 0 ~ ADType 개수 - 1)는 항상 포함되며 설정 파일의 id 는 그 이후부터 사용
+ *
+ * 로드할때는 파일을 메모리 매핑(번들 리소스는 한번에 읽음)하고 줄마다 id 와 위치만 기록하며,
+ * 나머지 값은 get 으로 처음 조회할때 그 줄만 파싱 - 플레이스먼트 수가 많아도 앱 시작 비용은 바이트 한번 훑는 정도
+ * 조회는 id 로 바로 배열에서 찾음
+ *
+ * 설정 파일은 UTF-8 텍스트, 한 줄에 플레이스먼트 하나이며 값은 탭으로 구분
+ *   adplacements 1
+ *   <id> <key> <typeName> [<노출 기준>] [<추적 비율>]
+ *     노출 기준 : 면적%/연속시간ms/idle|scroll 예) 50/1000/scroll, 생략하거나 - 면 런타임 기본값
+ *     추적 비율 : 0 ~ 100, 생략하면 100
+ * # 으로 시작하는 줄은 주석, 노출 기준이나 추적 비율 값이 잘못된 경우는 기본값 사용
+ *
+ * 여러 쓰레드에서 조회해도 됨
+ */
+public final class PlacementRegistry {
+    private static final String MAGIC = "adplacements";
+    private static final int VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // 설정 파일에서 쓸 수 있는 id 상한 (포함 안 함), id 로 바로 배열 조회하므로 상한을 둠
+    public static final int MAX_PLACEMENT_ID = 1 << 16;
+    private static final int BUILT_IN_COUNT = ADType.values().length;
+
+    private static final int NO_LINE = -1;
+
+    // 파싱하지 않은 설정 파일 내용
+    private final ByteBuffer config;
+    // id 별 줄 시작 위치, 설정에 없는 id 는 NO_LINE
+    private final int[] lineOffsets;
+    // id 별 플레이스먼트, 처음 조회할때 채움
+    private final Placement[] placements;
+    private final int placementCount;
+
+    private PlacementRegistry(ByteBuffer config, int[] lineOffsets, int placementCount) {
+        this.config = config;
+        this.lineOffsets = lineOffsets;
+        this.placements = new Placement[lineOffsets.length];
+        this.placementCount = placementCount;
+    }
+
+    /**
+     * @return 내장 플레이스먼트만 있는 레지스트리
+     */
+    public static PlacementRegistry builtIn() {
+        int[] lineOffsets = new int[BUILT_IN_COUNT];
+        Arrays.fill(lineOffsets, NO_LINE);
+        return new PlacementRegistry(ByteBuffer.allocate(0), lineOffsets, BUILT_IN_COUNT);
+    }
+
+    /**
+     * 캐시된 설정 파일 로드, 파일은 메모리 매핑하므로 읽는 비용은 처음 접근하는 페이지에만 발생
+     * @param file 설정 파일
+     * @return 레지스트리
+     * @throws IOException 파일을 읽을 수 없거나 형식이 잘못된 경우
+     */
+    public static PlacementRegistry load(File file) throws IOException {
+        ByteBuffer config;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            // 채널을 닫아도 매핑은 유지됨
+            FileChannel channel = randomAccessFile.getChannel();
+            config = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(config);
+    }
+
+    /**
+     * 앱에 번들된 설정 로드 - assets 등 파일로 매핑할 수 없는 경우
+     * @param inputStream 설정 내용, 호출하는 쪽에서 닫음
+     * @return 레지스트리
+     * @throws IOException 읽을 수 없거나 형식이 잘못된 경우
+     */
+    public static PlacementRegistry load(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(inputStream.available(), 1024));
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return parse(ByteBuffer.wrap(outputStream.toByteArray()));
+    }
+
+    /**
+     * @param placementId 플레이스먼트 id
+     * @return 플레이스먼트, 없는 id 면 null
+     */
+    public Placement get(int placementId) {
+        if (placementId < BUILT_IN_COUNT)
+            return placementId >= 0 ? ADType.ofId(placementId).getPlacement() : null;
+        if (placementId >= placements.length)
+            return null;
+
+        // 필드가 모두 final 이므로 다른 쓰레드가 채운 객체를 락 없이 읽어도 됨
+        Placement placement = placements[placementId];
+        return placement != null ? placement : parsePlacement(placementId);
+    }
+
+    /**
+     * @return 내장 플레이스먼트를 포함한 플레이스먼트 수
+     */
+    public int size() {
+        return placementCount;
+    }
+
+    /**
+     * @return 가장 큰 id + 1, id 로 조회하는 배열 크기로 사용
+     */
+    public int getIdCapacity() {
+        return placements.length;
+    }
+
+    private synchronized Placement parsePlacement(int placementId) {
+        Placement placement = placements[placementId];
+        if (placement != null || lineOffsets[placementId] == NO_LINE)
+            return placement;
+
+        placement = parseLine(placementId, readLine(lineOffsets[placementId]));
+        placements[placementId] = placement;
+        return placement;
+    }
+
+    private String readLine(int offset) {
+        int end = offset;
+        int limit = config.limit();
+        while (end < limit && config.get(end) != '\n') {
+            end++;
+        }
+        if (end > offset && config.get(end - 1) == '\r')
+            end--;
+
+        byte[] bytes = new byte[end - offset];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = config.get(offset + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    // 로드할때 필드 수를 확인했으므로 key, typeName 은 항상 있음
+    private static Placement parseLine(int placementId, String line) {
+        String[] fields = line.split("\t", -1);
+        ViewabilityPolicy viewabilityPolicy = fields.length > 3 ? parseViewabilityPolicy(fields[3].trim()) : null;
+        int samplePercent = fields.length > 4 ? parseSamplePercent(fields[4].trim()) : 100;
+        return new Placement(placementId, fields[1].trim(), fields[2].trim(), viewabilityPolicy, samplePercent);
+    }
+
+    private static ViewabilityPolicy parseViewabilityPolicy(String value) {
+        if (value.isEmpty() || value.equals("-"))
+            return null;
+
+        String[] values = value.split("/");
+        if (values.length != 3)
+            return null;
+
+        try {
+            return new ViewabilityPolicy(Integer.parseInt(values[0]), Long.parseLong(values[1]), !values[2].equals("scroll"));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException 포함
+            return null;
+        }
+    }
+
+    private static int parseSamplePercent(String value) {
+        try {
+            int samplePercent = Integer.parseInt(value);
+            return samplePercent >= 0 && samplePercent <= 100 ? samplePercent : 100;
+        } catch (NumberFormatException e) {
+            return 100;
+        }
+    }
+
+    // 헤더를 확인하고 줄마다 id 와 시작 위치만 기록
+    private static PlacementRegistry parse(ByteBuffer config) throws IOException {
+        int limit = config.limit();
+        int[] ids = new int[64];
+        int[] offsets = new int[64];
+        int count = 0;
+        int maxId = BUILT_IN_COUNT - 1;
+        boolean hasHeader = false;
+        int lineNumber = 0;
+
+        int offset = 0;
+        while (offset < limit) {
+            lineNumber++;
+            int lineStart = offset;
+            int id = -1;
+            int tabCount = 0;
+            boolean isDigitsOnly = true;
+            byte first = config.get(offset);
+            while (offset < limit) {
+                byte b = config.get(offset);
+                if (b == '\n')
+                    break;
+
+                if (b == '\t') {
+                    tabCount++;
+                }
+                else if (tabCount == 0 && hasHeader) {
+                    if (b >= '0' && b <= '9' && isDigitsOnly)
+                        id = (id < 0 ? 0 : id * 10) + (b - '0');
+                    else if (b != '\r')
+                        isDigitsOnly = false;
+                    if (id >= MAX_PLACEMENT_ID)
+                        throw new IOException("placement id out of range (line " + lineNumber + ")");
+                }
+                offset++;
+            }
+            int lineEnd = offset;
+            offset++;
+
+            if (first == '#' || isBlank(config, lineStart, lineEnd))
+                continue;
+
+            if (!hasHeader) {
+                if (!isHeader(config, lineStart, lineEnd))
+                    throw new IOException("not a placement config (line " + lineNumber + ")");
+                hasHeader = true;
+                continue;
+            }
+
+            if (id < 0 || !isDigitsOnly || tabCount < 2)
+                throw new IOException("malformed placement line " + lineNumber);
+            if (id < BUILT_IN_COUNT)
+                throw new IOException("placement id " + id + " is reserved for ADType (line " + lineNumber + ")");
+
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            ids[count] = id;
+            offsets[count] = lineStart;
+            count++;
+            maxId = Math.max(maxId, id);
+        }
+        if (!hasHeader)
+            throw new IOException("empty placement config");
+
+        int[] lineOffsets = new int[maxId + 1];
+        Arrays.fill(lineOffsets, NO_LINE);
+        for (int i = 0; i < count; i++) {
+            if (lineOffsets[ids[i]] != NO_LINE)
+                throw new IOException("duplicate placement id " + ids[i]);
+            lineOffsets[ids[i]] = offsets[i];
+        }
+        return new PlacementRegistry(config, lineOffsets, BUILT_IN_COUNT + count);
+    }
+
+    private static boolean isBlank(ByteBuffer config, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = config.get(i);
+            if (b != ' ' && b != '\t' && b != '\r')
+                return false;
+        }
+        return true;
+    }
+
+    // 헤더는 ASCII 이므로 바이트로 비교
+    private static boolean isHeader(ByteBuffer config, int start, int end) {
+        String expected = MAGIC + " " + VERSION;
+        while (end > start && (config.get(end - 1) == '\r' || config.get(end - 1) == ' ')) {
+            end--;
+        }
+        if (end - start != expected.length())
+            return false;
+
+        for (int i = 0; i < expected.length(); i++) {
+            if (config.get(start + i) != expected.charAt(i))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.magewr.advertisetracker.advertisetracker.scroll;
+
+import com.magewr.advertisetracker.advertisetracker.enums.State;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * 스크롤 상태를 직접 알려주지 않는 스크롤 주체(NestedScrollView 등)의 스크롤 멈춤을 판별하는 디텍터
+ * 스크롤 이벤트가 들어오면 마지막 스크롤 시각만 기록하고 스크롤 구간마다 마감 작업을 하나만 예약해둠
+ * 마감 시각에 마지막 스크롤 이후 idleTimeout 이 지났으면 멈춤으로 판단하고, 아니면 남은 시간만큼 다시 예약
+ * 스크롤이 없는 동안에는 예약된 작업이 없으므로 스케줄러를 깨우지 않음
+ *
+ * 스크롤 이벤트와 스케줄러가 같은 쓰레드(메인 쓰레드)에서 동작한다고 가정함
+ */
+public class ScrollIdleDetector {
+
+    // 스크롤 멈춤을 전달받는 리스너
+    public interface Listener {
+        void onScrollIdle();
+    }
+
+    private final long idleTimeoutMillis;
+    private final Scheduler.Worker worker;
+    private final Listener listener;
+
+    private State state = State.Idle;
+    private long lastScrollMillis;
+    // 예약된 마감 작업 - 스크롤 구간당 하나만 유지, 없으면 null
+    private Disposable deadline;
+
+    private final Runnable deadlineTask = this::onDeadline;
+
+    /**
+     * @param idleTimeoutMillis 마지막 스크롤 이후 이 시간동안 스크롤이 없으면 멈춤으로 판단
+     * @param scheduler 마감 작업을 실행할 스케줄러
+     * @param listener 멈춤 리스너
+     */
+    public ScrollIdleDetector(long idleTimeoutMillis, Scheduler scheduler, Listener listener) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.worker = scheduler.createWorker();
+        this.listener = listener;
+    }
+
+    /**
+     * 스크롤이 발생할 때마다 호출
+     */
+    public void onScroll() {
+        if (worker.isDisposed())
+            return;
+
+        state = State.Scroll;
+        lastScrollMillis = worker.now(TimeUnit.MILLISECONDS);
+        if (deadline == null)
+            deadline = worker.schedule(deadlineTask, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 예약된 마감 작업만 취소하고 멈춤 상태로 되돌림, 이후 스크롤 이벤트는 다시 받음 - 화면이 가려진 경우 등
+     */
+    public void reset() {
+        if (deadline != null) {
+            deadline.dispose();
+            deadline = null;
+        }
+        state = State.Idle;
+    }
+
+    /**
+     * 예약된 마감 작업을 취소하고 더이상 스크롤 이벤트를 받지 않음
+     */
+    public void dispose() {
+        worker.dispose();
+        deadline = null;
+        state = State.Idle;
+    }
+
+    // 마감 시각 도달, 그 사이에 스크롤이 있었다면 마지막 스크롤 기준으로 다시 예약
+    private void onDeadline() {
+        long remainMillis = lastScrollMillis + idleTimeoutMillis - worker.now(TimeUnit.MILLISECONDS);
+        if (remainMillis > 0) {
+            deadline = worker.schedule(deadlineTask, remainMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        deadline = null;
+        state = State.Idle;
+        listener.onScrollIdle();
+    }
+}
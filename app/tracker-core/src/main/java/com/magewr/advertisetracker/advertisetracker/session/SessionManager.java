@@ -0,0 +1,126 @@
+package com.magewr.advertisetracker.advertisetracker.session;
+
+/**
+ * 앱 포그라운드/백그라운드 전환 기준 세션 만료 판단
+ * 백그라운드에 inactivityTimeout 이상 있다가 돌아오거나, 세션 시작 후 maxSessionLength 가 지나면 만료로 판단해서 리스너에 알림
+ * 포그라운드에 있는 동안 최대 길이를 넘는 경우는 getNextExpiry 시각에 checkExpiry 를 호출해야 함
+ *
+ * 시각은 기기 슬립 중에도 증가하는 단조 시계(SystemClock.elapsedRealtime 등)를 사용해야 함
+ * 쓰레드 안전
+ */
+public class SessionManager {
+    public static final long NO_LIMIT = 0;
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    // 포그라운드에 있거나 백그라운드 시각을 모르는 경우
+    public static final long NOT_IN_BACKGROUND = Long.MIN_VALUE;
+
+    // 세션 만료를 전달받는 리스너, 만료를 판단한 쓰레드에서 호출됨
+    public interface Listener {
+        void onSessionExpired();
+    }
+
+    private final long inactivityTimeoutMillis;
+    private final long maxSessionLengthMillis;
+    private final Listener listener;
+
+    private long sessionStartMillis;
+    private long backgroundSinceMillis = NOT_IN_BACKGROUND;
+
+    /**
+     * @param inactivityTimeoutMillis 백그라운드에서 이 시간이 지나면 만료, NO_LIMIT 이면 사용하지 않음
+     * @param maxSessionLengthMillis 세션 최대 길이, NO_LIMIT 이면 사용하지 않음
+     * @param nowMillis 세션 시작 시각
+     * @param listener 만료 리스너
+     */
+    public SessionManager(long inactivityTimeoutMillis, long maxSessionLengthMillis, long nowMillis, Listener listener) {
+        if (inactivityTimeoutMillis < 0 || maxSessionLengthMillis < 0)
+            throw new IllegalArgumentException("timeout must not be negative");
+
+        this.inactivityTimeoutMillis = inactivityTimeoutMillis;
+        this.maxSessionLengthMillis = maxSessionLengthMillis;
+        this.listener = listener;
+        this.sessionStartMillis = nowMillis;
+    }
+
+    /**
+     * 앱이 포그라운드로 돌아옴, 백그라운드에 있던 시간 또는 세션 길이로 만료 판단
+     * @param nowMillis 현재 시각
+     * @return 만료되어 새 세션이 시작되었는지 여부
+     */
+    public boolean onForeground(long nowMillis) {
+        boolean isExpired;
+        synchronized (this) {
+            long backgroundSince = backgroundSinceMillis;
+            backgroundSinceMillis = NOT_IN_BACKGROUND;
+            isExpired = isInactiveLocked(backgroundSince, nowMillis) || isOverMaxLengthLocked(nowMillis);
+            if (isExpired)
+                sessionStartMillis = nowMillis;
+        }
+        if (isExpired)
+            listener.onSessionExpired();
+        return isExpired;
+    }
+
+    /**
+     * 앱이 백그라운드로 이동
+     * @param nowMillis 현재 시각
+     */
+    public synchronized void onBackground(long nowMillis) {
+        backgroundSinceMillis = nowMillis;
+    }
+
+    /**
+     * 세션 최대 길이 확인, 포그라운드에 있는 동안 getNextExpiry 시각에 호출
+     * @param nowMillis 현재 시각
+     * @return 만료되어 새 세션이 시작되었는지 여부
+     */
+    public boolean checkExpiry(long nowMillis) {
+        boolean isExpired;
+        synchronized (this) {
+            isExpired = isOverMaxLengthLocked(nowMillis);
+            if (isExpired)
+                sessionStartMillis = nowMillis;
+        }
+        if (isExpired)
+            listener.onSessionExpired();
+        return isExpired;
+    }
+
+    /**
+     * 이전 프로세스에서 이어받은 세션 반영, 시작 시각은 지금 세션 시작보다 이른 경우에만 적용
+     * 이전 프로세스가 백그라운드에 inactivityTimeout 이상 있었거나 최대 길이를 넘었으면 바로 만료
+     * @param sessionStartMillis 이어받은 세션 시작 시각
+     * @param backgroundSinceMillis 이전 프로세스가 백그라운드로 이동한 시각, 포그라운드에서 종료되었으면 NOT_IN_BACKGROUND
+     * @param nowMillis 현재 시각
+     * @return 만료되어 새 세션이 시작되었는지 여부
+     */
+    public boolean restoreSession(long sessionStartMillis, long backgroundSinceMillis, long nowMillis) {
+        boolean isExpired;
+        synchronized (this) {
+            if (sessionStartMillis < this.sessionStartMillis)
+                this.sessionStartMillis = sessionStartMillis;
+            isExpired = isInactiveLocked(backgroundSinceMillis, nowMillis) || isOverMaxLengthLocked(nowMillis);
+            if (isExpired)
+                this.sessionStartMillis = nowMillis;
+        }
+        if (isExpired)
+            listener.onSessionExpired();
+        return isExpired;
+    }
+
+    /**
+     * @return 세션 최대 길이에 도달하는 시각, 제한이 없으면 NO_EXPIRY
+     */
+    public synchronized long getNextExpiry() {
+        return maxSessionLengthMillis == NO_LIMIT ? NO_EXPIRY : sessionStartMillis + maxSessionLengthMillis;
+    }
+
+    private boolean isInactiveLocked(long backgroundSince, long nowMillis) {
+        return inactivityTimeoutMillis != NO_LIMIT && backgroundSince != NOT_IN_BACKGROUND && nowMillis - backgroundSince >= inactivityTimeoutMillis;
+    }
+
+    private boolean isOverMaxLengthLocked(long nowMillis) {
+        return maxSessionLengthMillis != NO_LIMIT && nowMillis - sessionStartMillis >= maxSessionLengthMillis;
+    }
+}
@@ -0,0 +1,69 @@
+package com.magewr.advertisetracker.advertisetracker.viewability;
+
+/**
+ * 광고 노출 인정 기준
+ * 광고뷰 면적 중 minVisiblePercent 이상이 minDwellMillis 이상 연속으로 보이면 노출로 인정
+ * requireScrollIdle 이면 스크롤이 멈춰있는 동안만 보이는 것으로 판단하며, 아니면 천천히 스크롤하는 중에도 노출 시간이 쌓임
+ *
+ * 예) 50% 이상 1초 연속 - new ViewabilityPolicy(50, 1000, false)
+ */
+public final class ViewabilityPolicy {
+
+    // 기존 기준 - 스크롤이 멈춘 순간 광고뷰가 전부 보이면 노출
+    public static final ViewabilityPolicy FULLY_VISIBLE_ON_IDLE = new ViewabilityPolicy(100, 0, true);
+
+    private final int minVisiblePercent;
+    private final long minDwellMillis;
+    private final boolean requireScrollIdle;
+
+    /**
+     * @param minVisiblePercent 보여야 하는 최소 면적 비율 (1 ~ 100)
+     * @param minDwellMillis 연속으로 보여야 하는 최소 시간, 0 이면 보이는 즉시 노출
+     * @param requireScrollIdle 스크롤이 멈춰있을때만 보이는 것으로 판단할지 여부
+     */
+    public ViewabilityPolicy(int minVisiblePercent, long minDwellMillis, boolean requireScrollIdle) {
+        if (minVisiblePercent < 1 || minVisiblePercent > 100)
+            throw new IllegalArgumentException("minVisiblePercent must be in 1..100 : " + minVisiblePercent);
+        if (minDwellMillis < 0)
+            throw new IllegalArgumentException("minDwellMillis must not be negative : " + minDwellMillis);
+
+        this.minVisiblePercent = minVisiblePercent;
+        this.minDwellMillis = minDwellMillis;
+        this.requireScrollIdle = requireScrollIdle;
+    }
+
+    public int getMinVisiblePercent() {
+        return minVisiblePercent;
+    }
+
+    public long getMinDwellMillis() {
+        return minDwellMillis;
+    }
+
+    public boolean isRequireScrollIdle() {
+        return requireScrollIdle;
+    }
+
+    /**
+     * 프레임 사이에 후보별 상태(ViewabilityTracker)를 유지해야 하는 기준인지 여부
+     * 기존 기준처럼 멈춘 순간만 보면 되는 경우는 상태 없이 판단
+     */
+    public boolean isTracked() {
+        return minDwellMillis > 0 || !requireScrollIdle;
+    }
+
+    /**
+     * 보이는 면적이 기준 이상인지 여부
+     * @param visibleWidth 화면에 보이는 너비, 보이지 않으면 음수
+     * @param visibleHeight 화면에 보이는 높이, 보이지 않으면 음수
+     * @param viewWidth 광고뷰 너비
+     * @param viewHeight 광고뷰 높이
+     */
+    public boolean isInView(int visibleWidth, int visibleHeight, int viewWidth, int viewHeight) {
+        if (visibleWidth < 0 || visibleHeight < 0)
+            return false;
+
+        // 정수 연산으로 비교, 100% 기준이면 전부 보이는 경우만 통과
+        return (long) visibleWidth * visibleHeight * 100 >= (long) minVisiblePercent * viewWidth * viewHeight;
+    }
+}
@@ -0,0 +1,130 @@
+package com.magewr.advertisetracker.advertisetracker.viewability;
+
+/**
+ * 플레이스먼트 하나의 후보별 연속 노출 시간 추적
+ * 가시성 계산(pass)마다 기준 이상 보이는 후보만 onInView 로 알려주면 처음 보인 시각을 기억했다가
+ * 기준 시간을 채우는 순간 한번만 노출로 알려줌, 이번 계산에서 빠진 후보는 endPass 에서 바로 잊어버림
+ *
+ * 화면에 보이는 후보 수만큼만 상태를 가지므로 후보가 수십개여도 배열 몇개로 충분하며
+ * 프레임마다 타이머를 두지 않고 다음에 기준 시간을 채우는 시각(getNextDeadline)만 알려줌
+ *
+ * 시각은 단조 증가하는 시계(SystemClock.uptimeMillis 등)를 사용해야 함
+ * 쓰레드 안전하지 않음 - 한 쓰레드에서만 호출
+ */
+public final class ViewabilityTracker {
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // 노출로 알려준 뒤 계속 보이고 있는 후보 표시
+    private static final long REPORTED = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final long minDwellMillis;
+
+    // 후보별 상태, 앞쪽 size 개만 사용
+    private int size;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] firstSeenMillis = new long[INITIAL_CAPACITY];
+    private int[] lastSeenPass = new int[INITIAL_CAPACITY];
+
+    private int pass;
+    private long nextDeadline = NO_DEADLINE;
+
+    public ViewabilityTracker(ViewabilityPolicy policy) {
+        this.minDwellMillis = policy.getMinDwellMillis();
+    }
+
+    /**
+     * 가시성 계산 시작
+     */
+    public void beginPass() {
+        pass++;
+        nextDeadline = NO_DEADLINE;
+    }
+
+    /**
+     * 기준 이상 보이는 후보 알림
+     * @param key 후보 키 - 플레이스먼트 안에서 후보를 구분하는 값, 위치만 쓰면 같은 위치의 다른 광고(뷰페이저 등)와 겹치므로 후보를 담은 뷰까지 포함해야 함
+     * @param nowMillis 계산 시점
+     * @return 이번에 기준 시간을 채워서 노출로 인정된 경우 true, 이미 인정된 후보는 계속 보여도 다시 true 가 되지 않음
+     */
+    public boolean onInView(long key, long nowMillis) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = size;
+            if (size == keys.length)
+                grow();
+            keys[index] = key;
+            firstSeenMillis[index] = nowMillis;
+            size++;
+        }
+        lastSeenPass[index] = pass;
+
+        long firstSeen = firstSeenMillis[index];
+        if (firstSeen == REPORTED)
+            return false;
+
+        long deadline = firstSeen + minDwellMillis;
+        if (nowMillis >= deadline) {
+            firstSeenMillis[index] = REPORTED;
+            return true;
+        }
+
+        if (deadline < nextDeadline)
+            nextDeadline = deadline;
+        return false;
+    }
+
+    /**
+     * 가시성 계산 끝, 이번 계산에서 보이지 않은 후보는 연속 노출이 끊긴 것으로 보고 제거
+     */
+    public void endPass() {
+        int writeIndex = 0;
+        for (int i = 0; i < size; i++) {
+            if (lastSeenPass[i] != pass)
+                continue;
+
+            keys[writeIndex] = keys[i];
+            firstSeenMillis[writeIndex] = firstSeenMillis[i];
+            lastSeenPass[writeIndex] = lastSeenPass[i];
+            writeIndex++;
+        }
+        size = writeIndex;
+    }
+
+    /**
+     * @return 마지막 계산 기준으로 다음에 기준 시간을 채우는 후보의 시각, 없으면 NO_DEADLINE
+     * 그 시각까지 계속 보이는지 확인하려면 그때 다시 계산해야 함
+     */
+    public long getNextDeadline() {
+        return nextDeadline;
+    }
+
+    /**
+     * @return 추적중인 후보 수
+     */
+    public int size() {
+        return size;
+    }
+
+    // 화면에 보이는 후보는 많아야 수십개이므로 순차 검색
+    private int indexOf(long key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key)
+                return i;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int capacity = keys.length << 1;
+        long[] newKeys = new long[capacity];
+        long[] newFirstSeenMillis = new long[capacity];
+        int[] newLastSeenPass = new int[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(firstSeenMillis, 0, newFirstSeenMillis, 0, size);
+        System.arraycopy(lastSeenPass, 0, newLastSeenPass, 0, size);
+        keys = newKeys;
+        firstSeenMillis = newFirstSeenMillis;
+        lastSeenPass = newLastSeenPass;
+    }
+}
@@ -0,0 +1,134 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentDedupTest {
+    private static final int THREAD_COUNT = 8;
+    private static final int KEY_COUNT = 20_000;
+
+    // 모든 쓰레드를 동시에 출발시키고 끝날때까지 대기
+    private static void runConcurrently(int threadCount, ThreadBody body) throws InterruptedException {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threadList = new ArrayList<>();
+        List<Throwable> errorList = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < threadCount; i++) {
+            int threadIndex = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    body.run(threadIndex);
+                } catch (Throwable e) {
+                    errorList.add(e);
+                }
+            });
+            thread.start();
+            threadList.add(thread);
+        }
+        startLatch.countDown();
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), errorList);
+    }
+
+    private interface ThreadBody {
+        void run(int threadIndex) throws Exception;
+    }
+
+    private static int[] shuffledIndexes(int count, long seed) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = temp;
+        }
+        return indexes;
+    }
+
+    @Test
+    public void concurrentAdd_returnsTrueExactlyOncePerKey() throws InterruptedException {
+        for (int maxKeys : new int[]{DedupStore.UNBOUNDED, KEY_COUNT / 4}) {
+            DedupStore store = new DedupStore(maxKeys);
+            AtomicIntegerArray acceptedCounts = new AtomicIntegerArray(KEY_COUNT);
+
+            runConcurrently(THREAD_COUNT, threadIndex -> {
+                for (int index : shuffledIndexes(KEY_COUNT, threadIndex)) {
+                    if (store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner" + index)))
+                        acceptedCounts.incrementAndGet(index);
+                }
+            });
+
+            for (int i = 0; i < KEY_COUNT; i++) {
+                // 근사 모드에서는 0 (오판으로 버려짐) 일 수 있지만 2 이상은 절대 안됨
+                if (maxKeys == DedupStore.UNBOUNDED)
+                    assertEquals(1, acceptedCounts.get(i));
+                else
+                    assertTrue(acceptedCounts.get(i) <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void concurrentRecorders_emitEachSessionViewExactlyOnce() throws InterruptedException {
+        int bannerCount = 2_000;
+        TestScheduler scheduler = new TestScheduler();
+        List<String> sentEvents = Collections.synchronizedList(new ArrayList<>());
+        // 모든 이벤트가 큐에 남도록 전송은 테스트 마지막에 한번만
+        EventDispatcher eventDispatcher = new EventDispatcher(() -> sentEvents::add, scheduler, 1_000_000, Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        // 여러 화면이 하나의 세션을 공유하며 같은 배너들을 동시에 기록
+        EventSession eventSession = new EventSession();
+        runConcurrently(THREAD_COUNT, threadIndex -> {
+            EventRecorder eventRecorder = new EventRecorder(eventSession);
+            eventRecorder.setEventDispatcher(eventDispatcher);
+            for (int round = 0; round < 3; round++) {
+                for (int index : shuffledIndexes(bannerCount, threadIndex * 31 + round)) {
+                    eventRecorder.record(ADType.HomeBigBanner, "banner " + index, false);
+                }
+            }
+        });
+
+        eventDispatcher.flush();
+        scheduler.triggerActions();
+
+        Map<String, Integer> sessionViewCounts = new HashMap<>();
+        int pageViewCount = 0;
+        for (String event : sentEvents) {
+            if (event.startsWith("홈_메인배너_SV_")) {
+                Integer count = sessionViewCounts.get(event);
+                sessionViewCounts.put(event, count == null ? 1 : count + 1);
+            } else {
+                pageViewCount++;
+            }
+        }
+
+        assertEquals(bannerCount, sessionViewCounts.size());
+        for (Integer count : sessionViewCounts.values()) {
+            assertEquals(1, (int) count);
+        }
+        // 페이지 이벤트는 화면(레코더)마다 한번씩
+        assertEquals(bannerCount * THREAD_COUNT, pageViewCount);
+    }
+}
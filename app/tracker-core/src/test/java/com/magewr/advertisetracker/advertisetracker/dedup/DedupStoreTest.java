@@ -0,0 +1,88 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.placement.Placement;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DedupStoreTest {
+
+    @Test
+    public void eventKey_separatesTypeKindAndUniqueness() {
+        long sessionView = EventKey.of(ADType.HomeBigBanner, false, true, "banner 1");
+        long pageView = EventKey.of(ADType.HomeBigBanner, false, false, "banner 1");
+        long sessionClick = EventKey.of(ADType.HomeBigBanner, true, true, "banner 1");
+        long otherType = EventKey.of(ADType.HomeSmallBanner, false, true, "banner 1");
+
+        assertNotEquals(sessionView, pageView);
+        assertNotEquals(sessionView, sessionClick);
+        assertNotEquals(sessionView, otherType);
+        assertEquals(ADType.HomeSmallBanner.ordinal(), EventKey.getTypeOrdinal(otherType));
+        assertTrue(EventKey.isClick(sessionClick));
+        assertTrue(EventKey.isUnique(sessionView));
+        assertFalse(EventKey.isUnique(pageView));
+    }
+
+    @Test
+    public void eventKey_treatsSpaceLikeUnderscoreAsEventStringDoes() {
+        // 이벤트 스트링은 공백을 '_' 로 바꾸므로 두 이름은 같은 이벤트
+        assertEquals(EventKey.of(ADType.HomeBigBanner, false, true, "banner 1"),
+                EventKey.of(ADType.HomeBigBanner, false, true, "banner_1"));
+    }
+
+    @Test
+    public void eventKey_keepsBuiltInKeysAndSeparatesLargePlacementIds() {
+        // 내장 플레이스먼트 키는 ADType 으로 만든 키와 같아야 이전 저널과 호환
+        assertEquals(EventKey.of(ADType.HomeBigBanner, false, true, "banner 1"),
+                EventKey.of(ADType.HomeBigBanner.getPlacement(), false, true, "banner 1"));
+
+        // id 자리를 넘는 플레이스먼트도 서로 다른 키
+        long first = EventKey.of(new Placement(300, "A", "배너", null, 100), false, true, "banner 1");
+        long second = EventKey.of(new Placement(301, "B", "배너", null, 100), false, true, "banner 1");
+        assertNotEquals(first, second);
+        assertEquals(255, EventKey.getTypeOrdinal(first));
+        assertTrue(EventKey.isUnique(first));
+    }
+
+    @Test
+    public void unboundedStore_isExact() {
+        DedupStore store = new DedupStore();
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner" + i)));
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertFalse(store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner" + i)));
+        }
+        assertFalse(store.isApproximate());
+        assertEquals(50_000, store.size());
+    }
+
+    @Test
+    public void cappedStore_neverReportsSeenKeyAsNew() {
+        int maxKeys = 1000;
+        DedupStore store = new DedupStore(maxKeys);
+
+        int acceptedCount = 0;
+        for (int i = 0; i < 2 * maxKeys; i++) {
+            if (store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner" + i)))
+                acceptedCount++;
+        }
+        assertTrue(store.isApproximate());
+        // 상한의 2배까지 넣어도 오판으로 버려지는 키는 소수
+        assertTrue(acceptedCount > 2 * maxKeys * 0.95);
+
+        // 근사 모드에서도 이미 본 키는 다시 새 키로 판단하지 않음 - 중복 전송 없음
+        for (int i = 0; i < 2 * maxKeys; i++) {
+            assertFalse(store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner" + i)));
+        }
+
+        store.clear();
+        assertFalse(store.isApproximate());
+        assertTrue(store.add(EventKey.of(ADType.HomeBigBanner, false, true, "banner0")));
+    }
+}
@@ -0,0 +1,191 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventJournal;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.session.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventRecorderTest {
+
+    private TestScheduler scheduler;
+    private List<String> sentEvents;
+    private EventDispatcher eventDispatcher;
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        scheduler = new TestScheduler();
+        sentEvents = new ArrayList<>();
+        eventDispatcher = new EventDispatcher(() -> sentEvents::add, scheduler);
+        directory = Files.createTempDirectory("event_recorder").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private EventRecorder newRecorder(EventSession eventSession) {
+        EventRecorder eventRecorder = new EventRecorder(eventSession);
+        eventRecorder.setEventDispatcher(eventDispatcher);
+        return eventRecorder;
+    }
+
+    private List<String> deliver() {
+        eventDispatcher.flush();
+        scheduler.triggerActions();
+        List<String> delivered = new ArrayList<>(sentEvents);
+        sentEvents.clear();
+        return delivered;
+    }
+
+    @Test
+    public void repeatedImpression_isSentOncePerSessionAndPage() {
+        EventSession eventSession = new EventSession();
+        EventRecorder eventRecorder = newRecorder(eventSession);
+
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        assertEquals(Arrays.asList("홈_메인배너_SV_banner_1", "홈_메인배너_PV_banner_1"), deliver());
+
+        // 페이지가 바뀌면 PV 만 다시 전송
+        eventRecorder.clearPage();
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        assertEquals(Arrays.asList("홈_메인배너_PV_banner_1"), deliver());
+
+        // 다른 화면도 같은 세션을 공유
+        newRecorder(eventSession).record(ADType.HomeBigBanner, "banner 1", true);
+        assertEquals(Arrays.asList("홈_메인배너_SC_banner_1", "홈_메인배너_C_banner_1"), deliver());
+    }
+
+    @Test
+    public void clearedSession_resendsSessionEventsWithNewGeneration() {
+        EventSession eventSession = new EventSession();
+        eventSession.setEventLimit(4);
+        EventRecorder eventRecorder = newRecorder(eventSession);
+
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        deliver();
+
+        eventSession.clear();
+        eventRecorder.clearPage();
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        assertEquals(Arrays.asList("홈_메인배너_SV_banner_1", "홈_메인배너_PV_banner_1"), deliver());
+        assertEquals(1, eventSession.getGeneration());
+    }
+
+    @Test
+    public void emptyEventName_isIgnored() {
+        EventRecorder eventRecorder = newRecorder(new EventSession());
+
+        eventRecorder.record(ADType.HomeBigBanner, null, false);
+        eventRecorder.record(ADType.HomeBigBanner, "", false);
+        assertEquals(0, deliver().size());
+    }
+
+    @Test
+    public void sessionEventsDuringRestore_areCheckedAgainstRestoredSession() {
+        File journalFile = new File(directory, "journal");
+
+        // 이전 프로세스
+        EventSession previousSession = new EventSession();
+        previousSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        scheduler.triggerActions();
+        newRecorder(previousSession).record(ADType.HomeBigBanner, "banner 1", false);
+        assertEquals(2, deliver().size());
+
+        // 다시 시작된 프로세스 - 복원 전에 같은 배너가 보임
+        EventSession eventSession = new EventSession();
+        eventSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        EventRecorder eventRecorder = newRecorder(eventSession);
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        eventRecorder.record(ADType.HomeBigBanner, "banner 2", false);
+        scheduler.triggerActions();
+
+        // 복원된 세션 기준으로 이미 본 SV 는 버려지고 처음 보는 배너만 SV 전송
+        assertEquals(Arrays.asList("홈_메인배너_PV_banner_1", "홈_메인배너_PV_banner_2", "홈_메인배너_SV_banner_2"), deliver());
+    }
+
+    @Test
+    public void restoredSession_keepsStartTimeUnlessClearedDuringRestore() {
+        File journalFile = new File(directory, "journal");
+        EventSession previousSession = new EventSession();
+        previousSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        scheduler.triggerActions();
+        newRecorder(previousSession).record(ADType.HomeBigBanner, "banner 1", false);
+        deliver();
+
+        // 이어받은 세션은 이전 프로세스의 시작 시각을 유지
+        long[] restoredStartMillis = new long[1];
+        EventSession restoredSession = new EventSession();
+        restoredSession.setRestoreListener((sessionStartMillis, backgroundSinceMillis) -> restoredStartMillis[0] = sessionStartMillis);
+        restoredSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        scheduler.triggerActions();
+        assertEquals(previousSession.getSessionStartMillis(), restoredSession.getSessionStartMillis());
+        assertEquals(previousSession.getSessionStartMillis(), restoredStartMillis[0]);
+
+        // 복원 도중 세션이 만료되면 복원된 세션 키는 버리고 새 세션으로 중복 체크 - SV 는 복원이 끝날때까지 보류되므로 PV 다음
+        EventSession clearedSession = new EventSession();
+        clearedSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        clearedSession.clear();
+        EventRecorder eventRecorder = newRecorder(clearedSession);
+        eventRecorder.record(ADType.HomeBigBanner, "banner 1", false);
+        scheduler.triggerActions();
+        assertEquals(Arrays.asList("홈_메인배너_PV_banner_1", "홈_메인배너_SV_banner_1"), deliver());
+        assertEquals(1, clearedSession.getGeneration());
+    }
+
+    @Test
+    public void sessionKilledInBackgroundAfterTimeout_isExpiredOnRestore() {
+        File journalFile = new File(directory, "journal");
+        EventSession previousSession = new EventSession();
+        previousSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        scheduler.triggerActions();
+        newRecorder(previousSession).record(ADType.HomeBigBanner, "banner 1", false);
+        deliver();
+        // 백그라운드로 이동한 뒤 프로세스 종료
+        previousSession.setBackgroundSince(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        scheduler.triggerActions();
+
+        // 다음 실행 - SessionManager 처럼 비활성 시간을 넘긴 세션은 복원시 만료
+        long[] restoredBackgroundSinceMillis = new long[1];
+        EventSession restoredSession = new EventSession();
+        SessionManager sessionManager = new SessionManager(TimeUnit.MINUTES.toMillis(30), TimeUnit.HOURS.toMillis(24),
+                System.currentTimeMillis(), restoredSession::clear);
+        restoredSession.setRestoreListener((sessionStartMillis, backgroundSinceMillis) -> {
+            restoredBackgroundSinceMillis[0] = backgroundSinceMillis;
+            sessionManager.restoreSession(sessionStartMillis, backgroundSinceMillis, System.currentTimeMillis());
+        });
+        restoredSession.enableJournal(journalFile, scheduler, scheduler, eventDispatcher);
+        newRecorder(restoredSession).record(ADType.HomeBigBanner, "banner 1", false);
+        scheduler.triggerActions();
+
+        // 지난 세션 키는 버려지고 새 세션의 SV 전송
+        assertTrue(restoredBackgroundSinceMillis[0] != EventJournal.NOT_IN_BACKGROUND);
+        assertEquals(1, restoredSession.getGeneration());
+        assertEquals(Arrays.asList("홈_메인배너_PV_banner_1", "홈_메인배너_SV_banner_1"), deliver());
+    }
+}
@@ -0,0 +1,63 @@
+package com.magewr.advertisetracker.advertisetracker.dedup;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashSetTest {
+
+    @Test
+    public void add_returnsTrueOnlyForNewKeys() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        // 0 은 빈 슬롯 표시와 겹치지만 일반 키처럼 동작해야 함
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void growth_keepsAllKeysLikeHashSet() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong() >>> random.nextInt(64);
+            assertEquals(expected.add(key), set.add(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (Long key : expected) {
+            assertTrue(set.contains(key));
+        }
+    }
+
+    @Test
+    public void clear_removesKeysAndTableIsReusable() {
+        LongHashSet set = new LongHashSet();
+        for (long key = 0; key < 1000; key++) {
+            set.add(key);
+        }
+
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(500L));
+
+        set.add(3L);
+        set.add(0L);
+        long[] keys = set.toArray();
+        Arrays.sort(keys);
+        assertArrayEquals(new long[]{0L, 3L}, keys);
+    }
+}
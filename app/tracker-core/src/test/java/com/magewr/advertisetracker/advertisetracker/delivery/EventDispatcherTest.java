@@ -0,0 +1,219 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+import com.magewr.advertisetracker.advertisetracker.exposure.ExposureRecord;
+import com.magewr.advertisetracker.advertisetracker.interfaces.AdvertiseTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.interfaces.BatchAdvertiseTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.interfaces.ExposureTrackerDelegate;
+import com.magewr.advertisetracker.advertisetracker.metrics.TrackerMetrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventDispatcherTest {
+
+    private TestScheduler scheduler;
+    private RecordingBatchDelegate batchDelegate;
+
+    @Before
+    public void setUp() {
+        scheduler = new TestScheduler();
+        batchDelegate = new RecordingBatchDelegate();
+    }
+
+    @Test
+    public void fullBatch_isSentImmediatelyInOneCall() {
+        EventDispatcher dispatcher = new EventDispatcher(() -> batchDelegate, scheduler, 100, 5, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.enqueue("event" + i);
+        }
+        scheduler.triggerActions();
+
+        assertEquals(1, batchDelegate.batches.size());
+        assertEquals(Arrays.asList("event0", "event1", "event2", "event3", "event4"), batchDelegate.batches.get(0));
+        assertEquals(0, dispatcher.getQueueSize());
+    }
+
+    @Test
+    public void partialBatch_waitsForMaxLatency() {
+        EventDispatcher dispatcher = new EventDispatcher(() -> batchDelegate, scheduler, 100, 5, 1000);
+
+        dispatcher.enqueue("event0");
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        dispatcher.enqueue("event1");
+        scheduler.advanceTimeBy(499, TimeUnit.MILLISECONDS);
+        assertEquals(0, batchDelegate.batches.size());
+
+        // 첫 이벤트 기준으로 maxLatency 가 지나면 전송
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, batchDelegate.batches.size());
+        assertEquals(Arrays.asList("event0", "event1"), batchDelegate.batches.get(0));
+    }
+
+    @Test
+    public void flush_drainsQueueInBatchSizedCalls() {
+        EventDispatcher dispatcher = new EventDispatcher(() -> batchDelegate, scheduler, 100, 5, 1000);
+
+        for (int i = 0; i < 12; i++) {
+            dispatcher.enqueue("event" + i);
+        }
+        dispatcher.flush();
+        scheduler.triggerActions();
+
+        assertEquals(3, batchDelegate.batches.size());
+        assertEquals(5, batchDelegate.batches.get(0).size());
+        assertEquals(5, batchDelegate.batches.get(1).size());
+        assertEquals(2, batchDelegate.batches.get(2).size());
+    }
+
+    @Test
+    public void fullQueue_dropsOldestEvents() {
+        EventDispatcher dispatcher = new EventDispatcher(() -> batchDelegate, scheduler, 3, 10, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.enqueue("event" + i);
+        }
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(2, dispatcher.getDroppedCount());
+        assertEquals(Arrays.asList("event2", "event3", "event4"), batchDelegate.batches.get(0));
+    }
+
+    @Test
+    public void singleEventDelegate_receivesEventsInOrder() {
+        List<String> sent = new ArrayList<>();
+        AdvertiseTrackerDelegate singleDelegate = sent::add;
+        EventDispatcher dispatcher = new EventDispatcher(() -> singleDelegate, scheduler, 100, 5, 1000);
+
+        dispatcher.enqueue("event0");
+        dispatcher.enqueue("event1");
+        dispatcher.flush();
+        scheduler.triggerActions();
+
+        assertEquals(Arrays.asList("event0", "event1"), sent);
+    }
+
+    @Test
+    public void exposureSummary_isSentAfterQueuedEventsOnlyToExposureDelegate() {
+        List<String> calls = new ArrayList<>();
+        ExposureTrackerDelegate exposureDelegate = new ExposureTrackerDelegate() {
+            @Override
+            public void sendExposureSummary(List<ExposureRecord> records) {
+                calls.add("summary" + records.size());
+            }
+
+            @Override
+            public void sendAdvertiseEvent(String advertiseName) {
+                calls.add(advertiseName);
+            }
+        };
+        EventDispatcher dispatcher = new EventDispatcher(() -> exposureDelegate, scheduler, 100, 5, 1000);
+        List<ExposureRecord> records = Arrays.asList(new ExposureRecord(ADType.HomeBigBanner, "banner", 1500, 1));
+
+        dispatcher.enqueue("event0");
+        dispatcher.sendExposureSummary(records);
+        scheduler.triggerActions();
+        assertEquals(Arrays.asList("event0", "summary1"), calls);
+
+        // 요약을 받을 수 없는 트래커에는 전송하지 않음
+        EventDispatcher batchDispatcher = new EventDispatcher(() -> batchDelegate, scheduler, 100, 5, 1000);
+        batchDispatcher.sendExposureSummary(records);
+        scheduler.triggerActions();
+        assertEquals(0, batchDelegate.batches.size());
+    }
+
+    @Test
+    public void failedOrMissingDelegate_keepsBatchUnconsumed() {
+        List<String> consumed = new ArrayList<>();
+        TrackerMetrics metrics = new TrackerMetrics();
+        AdvertiseTrackerDelegate[] delegate = new AdvertiseTrackerDelegate[1];
+        EventDispatcher dispatcher = new EventDispatcher(() -> delegate[0], scheduler, 100, 5, 1000);
+        dispatcher.setConsumeListener(consumed::addAll);
+        dispatcher.setMetrics(metrics);
+
+        // 트래커가 아직 없음
+        dispatcher.enqueue("event0");
+        dispatcher.flush();
+        scheduler.triggerActions();
+        assertEquals(0, consumed.size());
+
+        // 트래커 오류는 워커 밖으로 던지지 않고 기록만 함
+        delegate[0] = advertiseName -> {
+            throw new IllegalStateException("tracker failed");
+        };
+        dispatcher.enqueue("event1");
+        dispatcher.flush();
+        scheduler.triggerActions();
+        assertEquals(0, consumed.size());
+        assertEquals(1, metrics.snapshot().getSwallowedErrorCount(TrackerMetrics.ErrorSource.Delivery));
+
+        // 트래커가 복구되면 되돌려둔 묶음부터 순서대로 전송
+        delegate[0] = batchDelegate;
+        dispatcher.enqueue("event2");
+        dispatcher.flush();
+        scheduler.triggerActions();
+        assertEquals(Arrays.asList("event0", "event1", "event2"), consumed);
+    }
+
+    @Test
+    public void failedBatches_areRetriedUntilDelegateRecovers() {
+        AdvertiseTrackerDelegate[] delegate = new AdvertiseTrackerDelegate[1];
+        int[] failedCallCount = new int[1];
+        EventDispatcher dispatcher = new EventDispatcher(() -> delegate[0], scheduler, 100, 5, 1000);
+
+        // 저널 없이 트래커가 없는 동안 여러 묶음이 쌓임
+        for (int i = 0; i < 12; i++) {
+            dispatcher.enqueue("event" + i);
+        }
+        scheduler.triggerActions();
+        assertEquals(12, dispatcher.getQueueSize());
+
+        // 오류가 나는 트래커는 첫 묶음에서 멈추므로 남은 묶음을 꺼내서 버리지 않음
+        delegate[0] = advertiseName -> {
+            failedCallCount[0]++;
+            throw new IllegalStateException("tracker failed");
+        };
+        dispatcher.flush();
+        scheduler.triggerActions();
+        assertEquals(1, failedCallCount[0]);
+        assertEquals(12, dispatcher.getQueueSize());
+
+        // 복구되면 maxLatency 뒤 재시도에서 모든 이벤트를 순서대로 받음
+        delegate[0] = batchDelegate;
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        List<String> received = new ArrayList<>();
+        for (List<String> batch : batchDelegate.batches) {
+            received.addAll(batch);
+        }
+        assertEquals(12, received.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals("event" + i, received.get(i));
+        }
+        assertEquals(0, dispatcher.getQueueSize());
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    private static class RecordingBatchDelegate implements BatchAdvertiseTrackerDelegate {
+        final List<List<String>> batches = new ArrayList<>();
+
+        @Override
+        public void sendAdvertiseEvent(String advertiseName) {
+            batches.add(Arrays.asList(advertiseName));
+        }
+
+        @Override
+        public void sendAdvertiseEvents(List<String> advertiseNames) {
+            batches.add(advertiseNames);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.magewr.advertisetracker.advertisetracker.delivery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventJournalTest {
+
+    private File directory;
+    private File journalFile;
+    private TestScheduler scheduler;
+
+    private long restoredSessionStartMillis;
+    private long restoredBackgroundSinceMillis;
+    private long[] restoredSessionKeys;
+    private List<String> restoredPendingEvents;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("event_journal").toFile();
+        journalFile = new File(directory, "journal");
+        scheduler = new TestScheduler();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private EventJournal open() {
+        return open(0, 1_000);
+    }
+
+    private EventJournal open(int sessionGeneration, long sessionStartMillis) {
+        EventJournal journal = EventJournal.open(journalFile, scheduler, sessionGeneration, sessionStartMillis, (restoredStartMillis, backgroundSinceMillis, sessionKeys, pendingEvents) -> {
+            restoredSessionStartMillis = restoredStartMillis;
+            restoredBackgroundSinceMillis = backgroundSinceMillis;
+            restoredSessionKeys = sessionKeys;
+            restoredPendingEvents = pendingEvents;
+        });
+        scheduler.triggerActions();
+        return journal;
+    }
+
+    private void close(EventJournal journal) {
+        journal.close();
+        scheduler.triggerActions();
+    }
+
+    @Test
+    public void reopen_restoresSessionKeysAndUndeliveredEvents() {
+        EventJournal journal = open();
+        assertEquals(0, restoredSessionKeys.length);
+        assertEquals(0, restoredPendingEvents.size());
+
+        journal.appendSessionKey(0, 1L);
+        journal.appendEvent("SV_Main_a");
+        journal.appendEvent("PV_Main_a");
+        journal.appendEvent("PV_Main_b");
+        journal.appendConsumed(Collections.singletonList("SV_Main_a"));
+        close(journal);
+
+        open();
+        assertArrayEquals(new long[]{1L}, restoredSessionKeys);
+        assertEquals(Arrays.asList("PV_Main_a", "PV_Main_b"), restoredPendingEvents);
+    }
+
+    @Test
+    public void tornFinalRecord_isDiscardedAndFileStaysAppendable() throws IOException {
+        EventJournal journal = open();
+        journal.appendSessionKey(0, 1L);
+        journal.appendSessionKey(0, 2L);
+        close(journal);
+
+        // 마지막 레코드 기록 도중 프로세스가 종료된 상황
+        long fullLength = journalFile.length();
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.setLength(fullLength - 3);
+        }
+
+        journal = open();
+        assertArrayEquals(new long[]{1L}, restoredSessionKeys);
+
+        // 잘린 레코드 이후에 기록한 내용도 다음 실행에서 읽혀야 함
+        journal.appendSessionKey(0, 3L);
+        close(journal);
+
+        open();
+        Arrays.sort(restoredSessionKeys);
+        assertArrayEquals(new long[]{1L, 3L}, restoredSessionKeys);
+    }
+
+    @Test
+    public void corruptedRecord_stopsReplayAtLastValidRecord() throws IOException {
+        EventJournal journal = open();
+        journal.appendEvent("PV_Main_a");
+        journal.appendEvent("PV_Main_b");
+        close(journal);
+
+        // 두번째 레코드 payload 마지막 바이트 손상
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.seek(file.length() - 1);
+            file.write('x');
+        }
+
+        open();
+        assertEquals(Collections.singletonList("PV_Main_a"), restoredPendingEvents);
+    }
+
+    @Test
+    public void compactSession_dropsSessionKeysAndKeepsUndeliveredEvents() {
+        EventJournal journal = open();
+        List<String> delivered = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            journal.appendSessionKey(0, i + 1);
+            journal.appendEvent("SV_Main_" + i);
+            delivered.add("SV_Main_" + i);
+        }
+        journal.appendEvent("PV_Main_pending");
+        journal.appendConsumed(delivered);
+        scheduler.triggerActions();
+        long lengthBeforeCompaction = journalFile.length();
+
+        journal.compactSession(1, 2_000);
+        close(journal);
+        assertTrue(journalFile.length() < lengthBeforeCompaction);
+
+        open();
+        assertEquals(0, restoredSessionKeys.length);
+        assertEquals(Collections.singletonList("PV_Main_pending"), restoredPendingEvents);
+    }
+
+    @Test
+    public void sessionStart_isRestoredAndKeysFromPreviousGenerationAreDropped() {
+        EventJournal journal = open(0, 1_000);
+        assertEquals(1_000, restoredSessionStartMillis);
+
+        journal.appendSessionKey(0, 1L);
+        journal.compactSession(1, 2_000);
+        // 세션이 바뀌기 전에 중복 체크를 통과한 지난 세션 키가 늦게 도착
+        journal.appendSessionKey(0, 2L);
+        journal.appendSessionKey(1, 3L);
+        close(journal);
+
+        // 다음 프로세스는 기록된 세션을 이어감
+        journal = open(0, 5_000);
+        assertEquals(2_000, restoredSessionStartMillis);
+        assertArrayEquals(new long[]{3L}, restoredSessionKeys);
+
+        // 압축 없이 파일 끝에 이어서 기록한 새 세션도 복원
+        journal.compactSession(1, 6_000);
+        journal.appendSessionKey(1, 4L);
+        close(journal);
+        open(0, 7_000);
+        assertEquals(6_000, restoredSessionStartMillis);
+        assertArrayEquals(new long[]{4L}, restoredSessionKeys);
+    }
+
+    @Test
+    public void backgroundSince_isRestoredAndKeptAcrossCompaction() {
+        EventJournal journal = open();
+        assertEquals(EventJournal.NOT_IN_BACKGROUND, restoredBackgroundSinceMillis);
+
+        journal.appendBackgroundSince(2_000);
+        journal.appendBackgroundSince(EventJournal.NOT_IN_BACKGROUND);
+        journal.appendBackgroundSince(3_000);
+        close(journal);
+        journal = open();
+        assertEquals(3_000, restoredBackgroundSinceMillis);
+
+        // 세션이 바뀌어 압축되어도 마지막 백그라운드 시각은 남김
+        journal.compactSession(1, 4_000);
+        close(journal);
+        journal = open(1, 5_000);
+        assertEquals(4_000, restoredSessionStartMillis);
+        assertEquals(3_000, restoredBackgroundSinceMillis);
+
+        // 포그라운드로 돌아온 뒤 종료되면 백그라운드 시각 없음
+        journal.appendBackgroundSince(EventJournal.NOT_IN_BACKGROUND);
+        close(journal);
+        open(1, 6_000);
+        assertEquals(EventJournal.NOT_IN_BACKGROUND, restoredBackgroundSinceMillis);
+    }
+}
@@ -0,0 +1,51 @@
+package com.magewr.advertisetracker.advertisetracker.enums;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ADTypeTest {
+
+    private static final String[] EVENT_NAMES = {
+            "banner",
+            "banner 1",
+            " leading and trailing ",
+            "double  space",
+            "이벤트 배너_01",
+            "a",
+    };
+
+    // 템플릿 도입 전 구현
+    private static String legacyViewEventFullString(String typeName, String eventName, boolean isUnique) {
+        return String.format("%s_%s_%s", typeName, isUnique ? "SV" : "PV", eventName).replace(" ", "_");
+    }
+
+    private static String legacyClickEventFullString(String typeName, String eventName, boolean isUnique) {
+        return String.format("%s_%s_%s", typeName, isUnique ? "SC" : "C", eventName).replace(" ", "_");
+    }
+
+    @Test
+    public void eventStrings_matchLegacyFormat() {
+        String[] typeNames = {"홈_메인배너", "홈_띠배너"};
+        for (ADType type : ADType.values()) {
+            String typeName = typeNames[type.ordinal()];
+            for (String eventName : EVENT_NAMES) {
+                for (boolean isUnique : new boolean[]{true, false}) {
+                    assertEquals(legacyViewEventFullString(typeName, eventName, isUnique), type.getViewEventFullString(eventName, isUnique));
+                    assertEquals(legacyClickEventFullString(typeName, eventName, isUnique), type.getClickEventFullString(eventName, isUnique));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void eventStrings_stayCorrectWhenCacheSlotsCollide() {
+        // 캐시 크기보다 많은 이름을 번갈아 요청해도 항상 같은 결과
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 500; i++) {
+                String eventName = "banner " + i;
+                assertEquals("홈_메인배너_PV_banner_" + i, ADType.HomeBigBanner.getViewEventFullString(eventName, false));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.magewr.advertisetracker.advertisetracker.exposure;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExposureAccumulatorTest {
+
+    @Test
+    public void intervals_areClosedWhenCandidateLeavesPass() {
+        ExposureAccumulator accumulator = new ExposureAccumulator();
+        int scope = accumulator.newScope();
+
+        pass(accumulator, scope, 1_000, "banner_a", "banner_b");
+        pass(accumulator, scope, 1_400, "banner_a");
+        // banner_b 가 다시 보임 - 새 구간
+        pass(accumulator, scope, 2_000, "banner_a", "banner_b");
+        pass(accumulator, scope, 2_500);
+
+        Map<String, ExposureRecord> records = byName(accumulator.drain(3_000));
+        assertEquals(1_500, records.get("banner_a").getExposureMillis());
+        assertEquals(1, records.get("banner_a").getViewCount());
+        assertEquals(400 + 500, records.get("banner_b").getExposureMillis());
+        assertEquals(2, records.get("banner_b").getViewCount());
+        assertEquals(0, accumulator.size());
+    }
+
+    @Test
+    public void drain_splitsOpenIntervalsAcrossSummaries() {
+        ExposureAccumulator accumulator = new ExposureAccumulator();
+        int scope = accumulator.newScope();
+
+        pass(accumulator, scope, 1_000, "banner_a");
+        assertEquals(500, byName(accumulator.drain(1_500)).get("banner_a").getExposureMillis());
+
+        pass(accumulator, scope, 1_800, "banner_a");
+        ExposureRecord record = byName(accumulator.drain(2_000)).get("banner_a");
+        assertEquals(500, record.getExposureMillis());
+        // 이전 요약부터 계속 보이던 소재
+        assertEquals(0, record.getViewCount());
+    }
+
+    @Test
+    public void scopes_closeOnlyTheirOwnIntervals() {
+        ExposureAccumulator accumulator = new ExposureAccumulator();
+        int listScope = accumulator.newScope();
+        int pagerScope = accumulator.newScope();
+
+        pass(accumulator, listScope, 1_000, "banner_a");
+        pass(accumulator, pagerScope, 1_000, "page_0");
+        // 뷰페이저 페이지 전환 - 리스트 구간은 그대로
+        pass(accumulator, pagerScope, 1_300, "page_1");
+        accumulator.closeScope(listScope, 2_000);
+
+        Map<String, ExposureRecord> records = byName(accumulator.drain(2_000));
+        assertEquals(1_000, records.get("banner_a").getExposureMillis());
+        assertEquals(300, records.get("page_0").getExposureMillis());
+        assertEquals(700, records.get("page_1").getExposureMillis());
+        assertEquals(1, accumulator.size());
+    }
+
+    @Test
+    public void manyCreatives_areAggregatedIntoOneRecordEach() {
+        ExposureAccumulator accumulator = new ExposureAccumulator();
+        int scope = accumulator.newScope();
+
+        for (int frame = 0; frame < 100; frame++) {
+            int pass = accumulator.beginPass();
+            for (int i = frame; i < frame + 10; i++) {
+                accumulator.onInView(scope, pass, ADType.HomeSmallBanner, "creative_" + i, frame * 16L);
+            }
+            accumulator.endPass(scope, pass, frame * 16L);
+        }
+        accumulator.closeScope(scope, 100 * 16L);
+
+        List<ExposureRecord> records = accumulator.drain(100 * 16L);
+        assertEquals(109, records.size());
+        for (ExposureRecord record : records) {
+            assertTrue(record.getExposureMillis() > 0 && record.getExposureMillis() <= 10 * 16L);
+        }
+    }
+
+    private static void pass(ExposureAccumulator accumulator, int scope, long nowMillis, String... eventNames) {
+        int pass = accumulator.beginPass();
+        for (String eventName : eventNames) {
+            accumulator.onInView(scope, pass, ADType.HomeBigBanner, eventName, nowMillis);
+        }
+        accumulator.endPass(scope, pass, nowMillis);
+    }
+
+    private static Map<String, ExposureRecord> byName(List<ExposureRecord> records) {
+        Map<String, ExposureRecord> map = new HashMap<>();
+        for (ExposureRecord record : records) {
+            map.put(record.getEventName(), record);
+        }
+        return map;
+    }
+}
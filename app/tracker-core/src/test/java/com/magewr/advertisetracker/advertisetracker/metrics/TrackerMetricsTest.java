@@ -0,0 +1,147 @@
+package com.magewr.advertisetracker.advertisetracker.metrics;
+
+import com.magewr.advertisetracker.advertisetracker.dedup.EventRecorder;
+import com.magewr.advertisetracker.advertisetracker.dedup.EventSession;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventDispatcher;
+import com.magewr.advertisetracker.advertisetracker.delivery.EventJournal;
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TrackerMetricsTest {
+
+    @Test
+    public void histogram_bucketsByPowerOfTwo() {
+        Histogram histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(3);
+        histogram.record(1_000);
+        histogram.record(1_000_000);
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(5, snapshot.getCount());
+        assertEquals(1_001_004, snapshot.getSum());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(1, snapshot.getBucketCount(0));
+        assertEquals(1, snapshot.getBucketCount(1));
+        assertEquals(1, snapshot.getBucketCount(2));
+        // 1000 은 [512, 1024) 버킷
+        assertEquals(1, snapshot.getBucketCount(10));
+        // 백분위는 버킷 상한이지만 최대값을 넘지 않음
+        assertEquals(1_023, snapshot.getPercentile(80));
+        assertEquals(1_000_000, snapshot.getPercentile(100));
+        assertEquals(Long.MAX_VALUE, Histogram.upperBoundOf(Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void concurrentRecords_areNotLost() throws InterruptedException {
+        TrackerMetrics metrics = new TrackerMetrics();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.recordCaptureNanos(i);
+                    metrics.recordEvent(ADType.HomeBigBanner, false, true);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(400_000, snapshot.getCaptureNanos().getCount());
+        assertEquals(99_999, snapshot.getCaptureNanos().getMax());
+        assertEquals(400_000, snapshot.getEmittedCount(ADType.HomeBigBanner, false));
+    }
+
+    @Test
+    public void recorder_countsEmittedAndDeduplicatedPerType() {
+        TestScheduler scheduler = new TestScheduler();
+        TrackerMetrics metrics = new TrackerMetrics();
+        EventSession eventSession = new EventSession();
+        eventSession.setMetrics(metrics);
+        EventDispatcher eventDispatcher = new EventDispatcher(() -> advertiseName -> { }, scheduler);
+        EventRecorder eventRecorder = new EventRecorder(eventSession);
+        eventRecorder.setEventDispatcher(eventDispatcher);
+
+        eventRecorder.record(ADType.HomeBigBanner, "banner_1", false);
+        eventRecorder.record(ADType.HomeBigBanner, "banner_1", false);
+        eventRecorder.record(ADType.HomeSmallBanner, "banner_2", true);
+        eventRecorder.clearPage();
+        eventRecorder.record(ADType.HomeBigBanner, "banner_1", false);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getEmittedCount(ADType.HomeBigBanner, true));
+        assertEquals(2, snapshot.getDeduplicatedCount(ADType.HomeBigBanner, true));
+        assertEquals(2, snapshot.getEmittedCount(ADType.HomeBigBanner, false));
+        assertEquals(1, snapshot.getDeduplicatedCount(ADType.HomeBigBanner, false));
+        assertEquals(1, snapshot.getEmittedCount(ADType.HomeSmallBanner, true));
+        assertEquals(1, snapshot.getEmittedCount(ADType.HomeSmallBanner, false));
+        assertEquals(0, snapshot.getDeduplicatedCount(ADType.HomeSmallBanner, false));
+    }
+
+    @Test
+    public void dispatcher_recordsQueueDepthDropsAndDelegateLatency() {
+        TestScheduler scheduler = new TestScheduler();
+        TrackerMetrics metrics = new TrackerMetrics();
+        List<String> sentEvents = new ArrayList<>();
+        EventDispatcher eventDispatcher = new EventDispatcher(() -> sentEvents::add, scheduler, 4, 10, 1_000);
+        eventDispatcher.setMetrics(metrics);
+
+        for (int i = 0; i < 6; i++) {
+            eventDispatcher.enqueue("event_" + i);
+        }
+        eventDispatcher.flush();
+        scheduler.triggerActions();
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(4, sentEvents.size());
+        assertEquals(4, snapshot.getQueueHighWaterMark());
+        assertEquals(2, snapshot.getDroppedEventCount());
+        assertEquals(1, snapshot.getDelegateNanos().getCount());
+    }
+
+    @Test
+    public void journalFailure_isCountedAsSwallowedError() throws IOException {
+        TestScheduler scheduler = new TestScheduler();
+        TrackerMetrics metrics = new TrackerMetrics();
+        // 디렉토리 자리에 파일이 있어서 저널을 열 수 없음
+        File blocker = Files.createTempFile("journal_blocker", null).toFile();
+        try {
+            EventJournal journal = EventJournal.open(new File(blocker, "event_journal"), scheduler, 0, 0, (sessionStartMillis, backgroundSinceMillis, sessionKeys, pendingEvents) -> { });
+            journal.setMetrics(metrics);
+            scheduler.triggerActions();
+
+            assertEquals(1, metrics.snapshot().getSwallowedErrorCount(TrackerMetrics.ErrorSource.Journal));
+            assertEquals(0, metrics.snapshot().getSwallowedErrorCount(TrackerMetrics.ErrorSource.VisibilityPass));
+        } finally {
+            blocker.delete();
+        }
+    }
+
+    @Test
+    public void snapshot_isDetachedFromLaterRecords() {
+        TrackerMetrics metrics = new TrackerMetrics();
+        metrics.recordCandidates(12);
+        MetricsSnapshot snapshot = metrics.snapshot();
+        metrics.recordCandidates(30);
+
+        assertEquals(1, snapshot.getCandidatesPerPass().getCount());
+        assertEquals(12, snapshot.getCandidatesPerPass().getMax());
+        assertTrue(snapshot.toString().contains("candidates/pass"));
+    }
+}
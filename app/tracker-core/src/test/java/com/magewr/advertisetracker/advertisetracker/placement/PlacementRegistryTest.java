@@ -0,0 +1,153 @@
+package com.magewr.advertisetracker.advertisetracker.placement;
+
+import com.magewr.advertisetracker.advertisetracker.enums.ADType;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PlacementRegistryTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void load_parsesPlacementsOnFirstLookup() throws IOException {
+        PlacementRegistry registry = load("adplacements 1\n"
+                + "# 검색 결과 배너\n"
+                + "10\tSearchBanner\t검색_배너\t50/1000/scroll\t30\n"
+                + "\n"
+                + "12\tEventPopup\t이벤트 팝업\r\n");
+
+        assertEquals(ADType.values().length + 2, registry.size());
+        assertEquals(13, registry.getIdCapacity());
+
+        Placement searchBanner = registry.get(10);
+        assertEquals("SearchBanner", searchBanner.getKey());
+        assertNull(searchBanner.getType());
+        assertEquals(50, searchBanner.getViewabilityPolicy().getMinVisiblePercent());
+        assertEquals(1000, searchBanner.getViewabilityPolicy().getMinDwellMillis());
+        assertFalse(searchBanner.getViewabilityPolicy().isRequireScrollIdle());
+        assertEquals(30, searchBanner.getSamplePercent());
+        // 한번 파싱한 플레이스먼트는 그대로 재사용
+        assertSame(searchBanner, registry.get(10));
+
+        // 생략한 값은 기본값, 타입명의 공백은 이벤트 스트링에서 '_' 로 치환
+        Placement eventPopup = registry.get(12);
+        assertNull(eventPopup.getViewabilityPolicy());
+        assertEquals(100, eventPopup.getSamplePercent());
+        assertEquals("이벤트_팝업_SV_banner_1", eventPopup.getViewEventFullString("banner 1", true));
+
+        // 내장 플레이스먼트는 ADType 과 같은 객체
+        assertSame(ADType.HomeSmallBanner.getPlacement(), registry.get(ADType.HomeSmallBanner.ordinal()));
+        assertNull(registry.get(11));
+        assertNull(registry.get(13));
+        assertNull(registry.get(-1));
+    }
+
+    @Test
+    public void invalidOptionalValues_fallBackToDefaults() throws IOException {
+        PlacementRegistry registry = load("adplacements 1\n"
+                + "10\tBadPolicy\t배너\t150/0/idle\t200\n"
+                + "11\tBadFormat\t배너\tfull\tall\n");
+
+        assertNull(registry.get(10).getViewabilityPolicy());
+        assertEquals(100, registry.get(10).getSamplePercent());
+        assertNull(registry.get(11).getViewabilityPolicy());
+        assertEquals(100, registry.get(11).getSamplePercent());
+    }
+
+    @Test
+    public void load_rejectsMalformedConfigs() {
+        assertMalformed("");
+        assertMalformed("adtrace 1\n10\tA\t배너\n");
+        assertMalformed("adplacements 2\n10\tA\t배너\n");
+        // ADType 이 사용하는 id
+        assertMalformed("adplacements 1\n0\tA\t배너\n");
+        assertMalformed("adplacements 1\n10\tA\t배너\n10\tB\t배너\n");
+        assertMalformed("adplacements 1\n10\tA\n");
+        assertMalformed("adplacements 1\n1 0\tA\t배너\n");
+        assertMalformed("adplacements 1\n" + PlacementRegistry.MAX_PLACEMENT_ID + "\tA\t배너\n");
+    }
+
+    @Test
+    public void sampling_isStablePerSeedAndFollowsPercent() {
+        int sampledCount = 0;
+        for (int id = 100; id < 10_100; id++) {
+            Placement placement = new Placement(id, "P" + id, "배너", null, 30);
+            boolean isSampled = placement.isSampled(42);
+            assertEquals(isSampled, placement.isSampled(42));
+            if (isSampled)
+                sampledCount++;
+        }
+        assertTrue(String.valueOf(sampledCount), sampledCount > 2_500 && sampledCount < 3_500);
+        assertTrue(new Placement(100, "P", "배너", null, 100).isSampled(42));
+        assertFalse(new Placement(100, "P", "배너", null, 0).isSampled(42));
+    }
+
+    @Test
+    public void constructor_rejectsReservedIds() {
+        try {
+            new Placement(ADType.HomeBigBanner.ordinal(), "P", "배너", null, 100);
+            fail("accepted built-in placement id");
+        } catch (IllegalArgumentException expected) {
+            // 예상된 오류
+        }
+        assertEquals(ADType.values().length, new Placement(ADType.values().length, "P", "배너", null, 100).getId());
+    }
+
+    // 로드 시간은 PlacementRegistryBenchmark 에서 측정
+    @Test
+    public void load_500PlacementsFromFile_parsesLazily() throws IOException {
+        File file = writeConfig(500);
+        try {
+            PlacementRegistry registry = PlacementRegistry.load(file);
+            assertEquals(ADType.values().length + 500, registry.size());
+
+            // 파싱은 조회할때 플레이스먼트마다 한번
+            int lastId = ADType.values().length + 499;
+            Placement last = registry.get(lastId);
+            assertEquals("Placement" + lastId, last.getKey());
+            assertEquals(1000, last.getViewabilityPolicy().getMinDwellMillis());
+            assertSame(last, registry.get(lastId));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static File writeConfig(int placementCount) throws IOException {
+        StringBuilder config = new StringBuilder("adplacements 1\n");
+        for (int i = 0; i < placementCount; i++) {
+            int id = ADType.values().length + i;
+            config.append(id).append("\tPlacement").append(id).append("\t홈_배너_").append(i).append("\t50/1000/idle\t100\n");
+        }
+        File file = File.createTempFile("placements", null);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(config.toString().getBytes(UTF_8));
+        }
+        return file;
+    }
+
+    private static PlacementRegistry load(String text) throws IOException {
+        return PlacementRegistry.load(new ByteArrayInputStream(text.getBytes(UTF_8)));
+    }
+
+    private static void assertMalformed(String text) {
+        try {
+            load(text);
+            fail("accepted " + text);
+        } catch (IOException expected) {
+            // 예상된 오류
+        }
+    }
+}
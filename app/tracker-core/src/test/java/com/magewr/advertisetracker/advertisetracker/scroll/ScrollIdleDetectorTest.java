@@ -0,0 +1,131 @@
+package com.magewr.advertisetracker.advertisetracker.scroll;
+
+import com.magewr.advertisetracker.advertisetracker.enums.State;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScrollIdleDetectorTest {
+
+    private CountingScheduler scheduler;
+    private ScrollIdleDetector detector;
+    private int idleCount;
+
+    @Before
+    public void setUp() {
+        scheduler = new CountingScheduler();
+        idleCount = 0;
+        detector = new ScrollIdleDetector(300, scheduler, () -> idleCount++);
+    }
+
+    @Test
+    public void idleScreen_neverWakesScheduler() {
+        scheduler.testScheduler.advanceTimeBy(10, TimeUnit.MINUTES);
+
+        assertEquals(0, scheduler.wakeups);
+        assertEquals(0, idleCount);
+    }
+
+    @Test
+    public void scrollBurst_emitsSingleIdleAfterTimeout() {
+        // 1초동안 16ms 간격으로 스크롤
+        for (int i = 0; i < 60; i++) {
+            detector.onScroll();
+            scheduler.testScheduler.advanceTimeBy(16, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, idleCount);
+        assertEquals(State.Scroll, detector.getState());
+
+        scheduler.testScheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, idleCount);
+        assertEquals(State.Idle, detector.getState());
+        // 스크롤 구간 동안 마감 작업은 타임아웃 주기당 1회만 깨어남
+        assertTrue("wakeups " + scheduler.wakeups, scheduler.wakeups <= 5);
+    }
+
+    @Test
+    public void idleAfterScroll_stopsWakingScheduler() {
+        detector.onScroll();
+        scheduler.testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        int wakeupsAfterIdle = scheduler.wakeups;
+
+        scheduler.testScheduler.advanceTimeBy(10, TimeUnit.MINUTES);
+
+        assertEquals(1, idleCount);
+        assertEquals(wakeupsAfterIdle, scheduler.wakeups);
+    }
+
+    @Test
+    public void dispose_cancelsPendingDeadline() {
+        detector.onScroll();
+        detector.dispose();
+        scheduler.testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(0, idleCount);
+        assertEquals(0, scheduler.wakeups);
+    }
+
+    @Test
+    public void reset_cancelsPendingDeadlineAndKeepsListening() {
+        detector.onScroll();
+        detector.reset();
+        scheduler.testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        assertEquals(0, idleCount);
+        assertEquals(State.Idle, detector.getState());
+
+        detector.onScroll();
+        scheduler.testScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertEquals(1, idleCount);
+    }
+
+    // 실제로 실행된 예약 작업 수를 세는 스케줄러
+    private static class CountingScheduler extends Scheduler {
+        final TestScheduler testScheduler = new TestScheduler();
+        int wakeups;
+
+        @Override
+        public long now(TimeUnit unit) {
+            return testScheduler.now(unit);
+        }
+
+        @Override
+        public Worker createWorker() {
+            Worker worker = testScheduler.createWorker();
+            return new Worker() {
+                @Override
+                public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+                    return worker.schedule(() -> {
+                        wakeups++;
+                        run.run();
+                    }, delay, unit);
+                }
+
+                @Override
+                public long now(TimeUnit unit) {
+                    return testScheduler.now(unit);
+                }
+
+                @Override
+                public void dispose() {
+                    worker.dispose();
+                }
+
+                @Override
+                public boolean isDisposed() {
+                    return worker.isDisposed();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.magewr.advertisetracker.advertisetracker.session;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SessionManagerTest {
+
+    private static final long MINUTE = 60_000;
+
+    private int expiredCount;
+
+    @Test
+    public void shortBackground_keepsSession() {
+        SessionManager sessionManager = new SessionManager(30 * MINUTE, SessionManager.NO_LIMIT, 0, () -> expiredCount++);
+
+        sessionManager.onBackground(10 * MINUTE);
+        assertFalse(sessionManager.onForeground(39 * MINUTE));
+        assertEquals(0, expiredCount);
+    }
+
+    @Test
+    public void longBackground_expiresSessionOnForeground() {
+        SessionManager sessionManager = new SessionManager(30 * MINUTE, SessionManager.NO_LIMIT, 0, () -> expiredCount++);
+
+        sessionManager.onBackground(10 * MINUTE);
+        assertTrue(sessionManager.onForeground(40 * MINUTE));
+        assertEquals(1, expiredCount);
+
+        // 이미 새 세션이므로 다시 포그라운드 이벤트가 와도 만료되지 않음
+        assertFalse(sessionManager.onForeground(41 * MINUTE));
+        assertEquals(1, expiredCount);
+    }
+
+    @Test
+    public void maxLength_expiresWhileInForeground() {
+        SessionManager sessionManager = new SessionManager(30 * MINUTE, 240 * MINUTE, 0, () -> expiredCount++);
+        assertEquals(240 * MINUTE, sessionManager.getNextExpiry());
+
+        assertFalse(sessionManager.checkExpiry(239 * MINUTE));
+        assertTrue(sessionManager.checkExpiry(240 * MINUTE));
+        assertEquals(1, expiredCount);
+        assertEquals(480 * MINUTE, sessionManager.getNextExpiry());
+    }
+
+    @Test
+    public void noLimits_neverExpire() {
+        SessionManager sessionManager = new SessionManager(SessionManager.NO_LIMIT, SessionManager.NO_LIMIT, 0, () -> expiredCount++);
+
+        sessionManager.onBackground(0);
+        assertFalse(sessionManager.onForeground(Long.MAX_VALUE / 2));
+        assertEquals(SessionManager.NO_EXPIRY, sessionManager.getNextExpiry());
+        assertEquals(0, expiredCount);
+    }
+
+    @Test
+    public void restoredSessionStart_expiresByPreviousProcessStart() {
+        SessionManager sessionManager = new SessionManager(30 * MINUTE, 240 * MINUTE, 200 * MINUTE, () -> expiredCount++);
+
+        // 이전 프로세스에서 시작한 세션을 이어받음, 늦은 시각은 무시
+        assertFalse(sessionManager.restoreSession(0, SessionManager.NOT_IN_BACKGROUND, 200 * MINUTE));
+        assertFalse(sessionManager.restoreSession(100 * MINUTE, SessionManager.NOT_IN_BACKGROUND, 200 * MINUTE));
+        assertEquals(240 * MINUTE, sessionManager.getNextExpiry());
+        assertTrue(sessionManager.checkExpiry(240 * MINUTE));
+        assertEquals(1, expiredCount);
+    }
+
+    @Test
+    public void restoredSession_killedInBackgroundAfterTimeout_expires() {
+        SessionManager sessionManager = new SessionManager(30 * MINUTE, 24 * 60 * MINUTE, 200 * MINUTE, () -> expiredCount++);
+
+        // 이전 프로세스가 백그라운드에서 10분 있다가 종료 - 이어감
+        assertFalse(sessionManager.restoreSession(0, 190 * MINUTE, 200 * MINUTE));
+        assertEquals(0, expiredCount);
+
+        // 백그라운드에서 2시간 있다가 종료 - 최대 길이와 상관없이 바로 새 세션
+        SessionManager killedSessionManager = new SessionManager(30 * MINUTE, 24 * 60 * MINUTE, 200 * MINUTE, () -> expiredCount++);
+        assertTrue(killedSessionManager.restoreSession(0, 80 * MINUTE, 200 * MINUTE));
+        assertEquals(1, expiredCount);
+        assertEquals(200 * MINUTE + 24 * 60 * MINUTE, killedSessionManager.getNextExpiry());
+    }
+}
@@ -0,0 +1,85 @@
+package com.magewr.advertisetracker.advertisetracker.viewability;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ViewabilityTrackerTest {
+
+    private static final ViewabilityPolicy HALF_FOR_ONE_SECOND = new ViewabilityPolicy(50, 1000, false);
+
+    @Test
+    public void policy_comparesVisibleArea() {
+        ViewabilityPolicy full = ViewabilityPolicy.FULLY_VISIBLE_ON_IDLE;
+        assertTrue(full.isInView(300, 200, 300, 200));
+        assertFalse(full.isInView(300, 199, 300, 200));
+        assertFalse(full.isInView(-1, -1, 300, 200));
+        assertFalse(full.isTracked());
+
+        assertTrue(HALF_FOR_ONE_SECOND.isInView(300, 100, 300, 200));
+        assertFalse(HALF_FOR_ONE_SECOND.isInView(299, 100, 300, 200));
+        assertTrue(HALF_FOR_ONE_SECOND.isTracked());
+    }
+
+    @Test
+    public void candidate_isReportedOnceAfterContinuousDwell() {
+        ViewabilityTracker tracker = new ViewabilityTracker(HALF_FOR_ONE_SECOND);
+
+        assertFalse(pass(tracker, 3, 10_000));
+        assertEquals(11_000, tracker.getNextDeadline());
+        assertFalse(pass(tracker, 3, 10_500));
+        assertTrue(pass(tracker, 3, 11_000));
+        assertEquals(ViewabilityTracker.NO_DEADLINE, tracker.getNextDeadline());
+
+        // 계속 보이는 동안은 다시 노출되지 않음
+        assertFalse(pass(tracker, 3, 20_000));
+        assertEquals(1, tracker.size());
+    }
+
+    @Test
+    public void leavingView_resetsDwell() {
+        ViewabilityTracker tracker = new ViewabilityTracker(HALF_FOR_ONE_SECOND);
+
+        assertFalse(pass(tracker, 3, 10_000));
+        // 3번 후보가 빠진 계산 - 연속 노출이 끊김
+        tracker.beginPass();
+        tracker.endPass();
+        assertEquals(0, tracker.size());
+
+        assertFalse(pass(tracker, 3, 10_900));
+        assertFalse(pass(tracker, 3, 11_500));
+        assertTrue(pass(tracker, 3, 11_900));
+    }
+
+    @Test
+    public void manyCandidates_trackEarliestDeadline() {
+        ViewabilityTracker tracker = new ViewabilityTracker(HALF_FOR_ONE_SECOND);
+
+        tracker.beginPass();
+        for (int key = 0; key < 40; key++) {
+            assertFalse(tracker.onInView(key, 1_000 + key));
+        }
+        tracker.endPass();
+        assertEquals(40, tracker.size());
+        assertEquals(2_000, tracker.getNextDeadline());
+
+        tracker.beginPass();
+        int reportedCount = 0;
+        for (int key = 0; key < 40; key++) {
+            if (tracker.onInView(key, 2_020))
+                reportedCount++;
+        }
+        tracker.endPass();
+        assertEquals(21, reportedCount);
+        assertEquals(2_021, tracker.getNextDeadline());
+    }
+
+    private static boolean pass(ViewabilityTracker tracker, long key, long nowMillis) {
+        tracker.beginPass();
+        boolean isReported = tracker.onInView(key, nowMillis);
+        tracker.endPass();
+        return isReported;
+    }
+}